@@ -0,0 +1,103 @@
+package io.singularitynet.sdk.benchmarks;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+import io.singularitynet.daemon.escrow.PaymentChannelStateServiceGrpc;
+import io.singularitynet.daemon.escrow.StateService;
+import io.singularitynet.sdk.common.Utils;
+import io.singularitynet.sdk.daemon.ChannelPool;
+import io.singularitynet.sdk.daemon.GrpcSettings;
+
+/**
+ * Benchmarks of the throughput of the concurrent calls depending on the
+ * number of the channels opened to the endpoint. Calls are made to the
+ * gRPC server on the loopback interface which limits number of the
+ * concurrent streams per connection and replies after a fixed delay, so
+ * throughput of the single channel is limited by the streams limit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class ChannelsPerEndpointBenchmark {
+
+    private static final int MAX_CONCURRENT_CALLS_PER_CONNECTION = 16;
+    private static final long REPLY_DELAY_MILLIS = 1;
+
+    private static final StateService.ChannelStateRequest REQUEST =
+        StateService.ChannelStateRequest.getDefaultInstance();
+
+    @Param({"1", "2", "4", "8"})
+    public int channelsPerEndpoint;
+
+    private ScheduledExecutorService scheduler;
+    private Server server;
+    private ChannelPool channelPool;
+    private ManagedChannel channel;
+    private PaymentChannelStateServiceGrpc.PaymentChannelStateServiceBlockingStub stub;
+
+    @Setup
+    public void setUp() throws Exception {
+        scheduler = Executors.newScheduledThreadPool(4);
+        server = NettyServerBuilder.forAddress(new InetSocketAddress("localhost", 0))
+            .maxConcurrentCallsPerConnection(MAX_CONCURRENT_CALLS_PER_CONNECTION)
+            .addService(new DelayedStateService(scheduler))
+            .build()
+            .start();
+        channelPool = new ChannelPool();
+        GrpcSettings grpcSettings = GrpcSettings.DEFAULT.toBuilder()
+            .setChannelsPerEndpoint(channelsPerEndpoint)
+            .build();
+        channel = channelPool.acquire(
+                Utils.strToUrl("http://localhost:" + server.getPort()), grpcSettings);
+        stub = PaymentChannelStateServiceGrpc.newBlockingStub(channel);
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.shutdownNow();
+        channelPool.shutdownNow();
+        server.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public StateService.ChannelStateReply concurrentCalls() {
+        return stub.getChannelState(REQUEST);
+    }
+
+    /**
+     * Service which replies by empty channel state after a fixed delay.
+     */
+    private static class DelayedStateService
+        extends PaymentChannelStateServiceGrpc.PaymentChannelStateServiceImplBase {
+
+        private final ScheduledExecutorService scheduler;
+
+        public DelayedStateService(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void getChannelState(StateService.ChannelStateRequest request,
+                StreamObserver<StateService.ChannelStateReply> callback) {
+            scheduler.schedule(() -> {
+                callback.onNext(StateService.ChannelStateReply.getDefaultInstance());
+                callback.onCompleted();
+            }, REPLY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+    }
+
+}
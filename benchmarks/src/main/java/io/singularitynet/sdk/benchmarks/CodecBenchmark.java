@@ -0,0 +1,71 @@
+package io.singularitynet.sdk.benchmarks;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+import io.singularitynet.sdk.common.Base64;
+import io.singularitynet.sdk.common.Utils;
+
+/**
+ * Benchmarks of the encoding and decoding helpers used on each call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    private BigInteger value;
+    private byte[] bytes32;
+    private String hex;
+    private String base64;
+    private String str;
+
+    @Setup
+    public void setUp() {
+        value = new BigInteger("1234567890123456789012345678901234567890");
+        bytes32 = Utils.bigIntToBytes32(value);
+        hex = Utils.bytesToHex(bytes32);
+        base64 = Base64.encode(bytes32);
+        str = "example-organization-id";
+    }
+
+    @Benchmark
+    public byte[] bigIntToBytes32() {
+        return Utils.bigIntToBytes32(value);
+    }
+
+    @Benchmark
+    public BigInteger bytes32ToBigInt() {
+        return Utils.bytes32ToBigInt(bytes32);
+    }
+
+    @Benchmark
+    public String bytesToHex() {
+        return Utils.bytesToHex(bytes32);
+    }
+
+    @Benchmark
+    public byte[] hexToBytes() {
+        return Utils.hexToBytes(hex);
+    }
+
+    @Benchmark
+    public byte[] strToBytes32() {
+        return Utils.strToBytes32(str);
+    }
+
+    @Benchmark
+    public String base64Encode() {
+        return Base64.encode(bytes32);
+    }
+
+    @Benchmark
+    public byte[] base64Decode() {
+        return Base64.decode(base64);
+    }
+
+}
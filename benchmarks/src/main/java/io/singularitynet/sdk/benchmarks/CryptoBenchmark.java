@@ -0,0 +1,81 @@
+package io.singularitynet.sdk.benchmarks;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+import io.singularitynet.sdk.common.Utils;
+import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.ethereum.CryptoUtils;
+import io.singularitynet.sdk.ethereum.PrivateKeyIdentity;
+import io.singularitynet.sdk.ethereum.Signature;
+import io.singularitynet.sdk.mpe.EscrowPayment;
+import io.singularitynet.sdk.mpe.PaymentChannel;
+
+/**
+ * Benchmarks of the payment signing and signature verification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CryptoBenchmark {
+
+    private PaymentChannel channel;
+    private BigInteger amount;
+    private PrivateKeyIdentity identity;
+    private byte[] message;
+    private Signature signature;
+    private byte[] signatureBytes;
+
+    @Setup
+    public void setUp() {
+        channel = PaymentChannel.newBuilder()
+            .setMpeContractAddress(new Address("0xf25186B5081Ff5cE73482AD761DB0eB0d25abfBF"))
+            .setChannelId(BigInteger.valueOf(42))
+            .setNonce(BigInteger.valueOf(3))
+            .build();
+        amount = BigInteger.valueOf(12345);
+        identity = new PrivateKeyIdentity(Utils.base64ToBytes("Bvk3Bf8PnVj6kwE1IrG/gHXUpYO+chDKf4mu1FTilkI="));
+        message = EscrowPayment.getMessage(channel, amount);
+        signature = identity.sign(message);
+        signatureBytes = signature.getBytes();
+    }
+
+    @Benchmark
+    public byte[] escrowPaymentGetMessage() {
+        return EscrowPayment.getMessage(channel, amount);
+    }
+
+    @Benchmark
+    public Signature privateKeyIdentitySign() {
+        return identity.sign(message);
+    }
+
+    @Benchmark
+    public EscrowPayment escrowPaymentBuild() {
+        return EscrowPayment.newBuilder()
+            .setPaymentChannel(channel)
+            .setAmount(amount)
+            .setSigner(identity)
+            .build();
+    }
+
+    @Benchmark
+    public byte[] signatureToBytes() {
+        return signature.getBytes();
+    }
+
+    @Benchmark
+    public Signature signatureFromBytes() {
+        return new Signature(signatureBytes);
+    }
+
+    @Benchmark
+    public Address cryptoUtilsGetSignerAddress() {
+        return CryptoUtils.getSignerAddress(message, signature);
+    }
+
+}
@@ -0,0 +1,147 @@
+package io.singularitynet.sdk.benchmarks;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+import io.singularitynet.sdk.common.Utils;
+import io.singularitynet.sdk.registry.MetadataStorage;
+import io.singularitynet.sdk.registry.OrganizationMetadata;
+import io.singularitynet.sdk.registry.OrganizationRegistration;
+import io.singularitynet.sdk.registry.RegistryContract;
+import io.singularitynet.sdk.registry.RegistryMetadataProvider;
+import io.singularitynet.sdk.registry.ServiceMetadata;
+import io.singularitynet.sdk.registry.ServiceRegistration;
+
+/**
+ * Benchmarks of the organization and service metadata parsing. Registry and
+ * metadata storage return prepared data, so only JSON parsing is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetadataParsingBenchmark {
+
+    private static final URI ORGANIZATION_METADATA_URI = Utils.strToUri("ipfs://organization");
+    private static final URI SERVICE_METADATA_URI = Utils.strToUri("ipfs://service");
+
+    private static final String SERVICE_METADATA_JSON =
+        "{\n" +
+        "    \"version\": 1,\n" +
+        "    \"display_name\": \"Example Service\",\n" +
+        "    \"encoding\": \"proto\",\n" +
+        "    \"service_type\": \"grpc\",\n" +
+        "    \"model_ipfs_hash\": \"QmRmYMW3DLLpdux2CrE86dWobpCGYCDtYXqr9cbjMwLL2g\",\n" +
+        "    \"mpe_address\": \"0x5C7a4290F6F8FF64c69eEffDFAFc8644A4Ec3a4E\",\n" +
+        "    \"groups\": [\n" +
+        "        {\n" +
+        "            \"group_name\": \"default_group\",\n" +
+        "            \"endpoints\": [\n" +
+        "                \"http://localhost:7000\"\n" +
+        "            ],\n" +
+        "            \"pricing\": [\n" +
+        "                {\n" +
+        "                    \"price_model\": \"fixed_price\",\n" +
+        "                    \"price_in_cogs\": 1,\n" +
+        "                    \"default\": true\n" +
+        "                }\n" +
+        "            ],\n" +
+        "            \"free_calls\": 2,\n" +
+        "            \"free_call_signer_address\": \"0x592E3C0f3B038A0D673F19a18a773F993d4b2610\",\n" +
+        "            \"group_id\": \"7G8/7SPnr5qLDdHOdqsRolu8wx1eQaAmzGwsnYUUI8c=\"\n" +
+        "        }\n" +
+        "    ],\n" +
+        "    \"assets\": {},\n" +
+        "    \"service_description\": {\n" +
+        "        \"description\": \"Example service description\",\n" +
+        "        \"url\": \"https://example.service.users.guide\"\n" +
+        "    }\n" +
+        "}";
+
+    private static final String ORGANIZATION_METADATA_JSON =
+        "{" +
+        "    \"org_name\": \"snet\"," +
+        "    \"org_id\": \"snet\"," +
+        "    \"org_type\": \"\"," +
+        "    \"description\": {}," +
+        "    \"assets\": {}," +
+        "    \"contacts\": []," +
+        "    \"groups\": [" +
+        "        {" +
+        "            \"group_name\": \"default_group\"," +
+        "            \"group_id\": \"EoFmN3nvaXpf6ew8jJbIPVghE5NXfYupFF7PkRmVyGQ=\"," +
+        "            \"payment\": {" +
+        "                \"payment_address\": \"0xd1C9246f6A15A86bae293a3E72F28C57Da6e1dCD\"," +
+        "                \"payment_expiration_threshold\": 100," +
+        "                \"payment_channel_storage_type\": \"etcd\"," +
+        "                \"payment_channel_storage_client\": {" +
+        "                    \"connection_timeout\": \"100s\"," +
+        "                    \"request_timeout\": \"5s\"," +
+        "                    \"endpoints\": [" +
+        "                        \"https://snet-etcd.singularitynet.io:2379\"" +
+        "                    ]" +
+        "                }" +
+        "            }" +
+        "        }" +
+        "    ]" +
+        "}";
+
+    private RegistryMetadataProvider provider;
+
+    @Setup
+    public void setUp() {
+        byte[] organizationMetadata = Utils.strToBytes(ORGANIZATION_METADATA_JSON);
+        byte[] serviceMetadata = Utils.strToBytes(SERVICE_METADATA_JSON);
+        MetadataStorage storage = uri -> ORGANIZATION_METADATA_URI.equals(uri)
+            ? organizationMetadata : serviceMetadata;
+        provider = new RegistryMetadataProvider("snet", "example-service",
+                new StaticRegistryContract(), storage);
+    }
+
+    @Benchmark
+    public OrganizationMetadata getOrganizationMetadata() {
+        return provider.getOrganizationMetadata();
+    }
+
+    @Benchmark
+    public ServiceMetadata getServiceMetadata() {
+        return provider.getServiceMetadata();
+    }
+
+    /**
+     * Registry which returns the same registrations without calling
+     * Ethereum.
+     */
+    private static class StaticRegistryContract extends RegistryContract {
+
+        private final OrganizationRegistration organization = OrganizationRegistration.newBuilder()
+            .setOrgId("snet")
+            .setMetadataUri(ORGANIZATION_METADATA_URI)
+            .addServiceId("example-service")
+            .build();
+        private final ServiceRegistration service = ServiceRegistration.newBuilder()
+            .setServiceId("example-service")
+            .setMetadataUri(SERVICE_METADATA_URI)
+            .build();
+
+        public StaticRegistryContract() {
+            super(null);
+        }
+
+        @Override
+        public Optional<OrganizationRegistration> getOrganizationById(String orgId) {
+            return Optional.of(organization);
+        }
+
+        @Override
+        public Optional<ServiceRegistration> getServiceRegistrationById(String orgId, String serviceId) {
+            return Optional.of(service);
+        }
+
+    }
+
+}
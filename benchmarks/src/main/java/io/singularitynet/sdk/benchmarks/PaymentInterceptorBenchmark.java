@@ -0,0 +1,209 @@
+package io.singularitynet.sdk.benchmarks;
+
+import io.grpc.Channel;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.*;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.http.HttpService;
+
+import io.singularitynet.daemon.escrow.PaymentChannelStateServiceGrpc;
+import io.singularitynet.daemon.escrow.StateService;
+import io.singularitynet.sdk.client.BaseServiceClient;
+import io.singularitynet.sdk.client.GrpcCallParameters;
+import io.singularitynet.sdk.client.PaymentStrategy;
+import io.singularitynet.sdk.client.Sdk;
+import io.singularitynet.sdk.client.ServiceClient;
+import io.singularitynet.sdk.common.Utils;
+import io.singularitynet.sdk.daemon.DaemonConnection;
+import io.singularitynet.sdk.daemon.Endpoint;
+import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.ethereum.PrivateKeyIdentity;
+import io.singularitynet.sdk.mpe.EscrowPayment;
+import io.singularitynet.sdk.mpe.PaymentChannel;
+import io.singularitynet.sdk.payment.Payment;
+
+/**
+ * Benchmarks of the payment interceptor overhead. Calls are made to the
+ * in-process gRPC server, so the difference between the plain call and the
+ * paid call is the cost of the interceptor, payment strategy and payment
+ * serialization.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentInterceptorBenchmark {
+
+    private static final StateService.ChannelStateRequest REQUEST =
+        StateService.ChannelStateRequest.getDefaultInstance();
+
+    private Server server;
+    private ManagedChannel channel;
+    private Sdk sdk;
+    private PaymentChannelStateServiceGrpc.PaymentChannelStateServiceBlockingStub plainStub;
+    private PaymentChannelStateServiceGrpc.PaymentChannelStateServiceBlockingStub presignedStub;
+    private PaymentChannelStateServiceGrpc.PaymentChannelStateServiceBlockingStub signingStub;
+
+    @Setup
+    public void setUp() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+            .directExecutor()
+            .addService(new EmptyStateService())
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(serverName)
+            .directExecutor()
+            .build();
+
+        PrivateKeyIdentity identity = new PrivateKeyIdentity(
+                Utils.base64ToBytes("Bvk3Bf8PnVj6kwE1IrG/gHXUpYO+chDKf4mu1FTilkI="));
+        sdk = new Sdk(Web3j.build(new HttpService()), null, identity, null, null);
+        PaymentChannel paymentChannel = PaymentChannel.newBuilder()
+            .setMpeContractAddress(new Address("0xf25186B5081Ff5cE73482AD761DB0eB0d25abfBF"))
+            .setChannelId(BigInteger.valueOf(42))
+            .setNonce(BigInteger.valueOf(3))
+            .build();
+        EscrowPayment payment = EscrowPayment.newBuilder()
+            .setPaymentChannel(paymentChannel)
+            .setAmount(BigInteger.ONE)
+            .setSigner(identity)
+            .build();
+
+        plainStub = PaymentChannelStateServiceGrpc.newBlockingStub(channel);
+        presignedStub = newStub(new FixedPaymentStrategy(payment));
+        signingStub = newStub(new SigningPaymentStrategy(paymentChannel));
+    }
+
+    private PaymentChannelStateServiceGrpc.PaymentChannelStateServiceBlockingStub newStub(
+            PaymentStrategy paymentStrategy) {
+        ServiceClient serviceClient = new BaseServiceClient(sdk, "example-service",
+                new InProcessDaemonConnection(channel), null, null, null,
+                paymentStrategy);
+        return serviceClient.getGrpcStub(PaymentChannelStateServiceGrpc::newBlockingStub);
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        sdk.close();
+    }
+
+    @Benchmark
+    public StateService.ChannelStateReply plainCall() {
+        return plainStub.getChannelState(REQUEST);
+    }
+
+    @Benchmark
+    public StateService.ChannelStateReply callWithPresignedPayment() {
+        return presignedStub.getChannelState(REQUEST);
+    }
+
+    @Benchmark
+    public StateService.ChannelStateReply callWithSigningPayment() {
+        return signingStub.getChannelState(REQUEST);
+    }
+
+    /**
+     * Service which replies by empty channel state.
+     */
+    private static class EmptyStateService
+        extends PaymentChannelStateServiceGrpc.PaymentChannelStateServiceImplBase {
+
+        @Override
+        public void getChannelState(StateService.ChannelStateRequest request,
+                StreamObserver<StateService.ChannelStateReply> callback) {
+            callback.onNext(StateService.ChannelStateReply.getDefaultInstance());
+            callback.onCompleted();
+        }
+
+    }
+
+    /**
+     * Daemon connection which uses the in-process gRPC channel.
+     */
+    private static class InProcessDaemonConnection implements DaemonConnection {
+
+        private final ManagedChannel channel;
+        private ClientInterceptor interceptor;
+
+        public InProcessDaemonConnection(ManagedChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public <T> T getGrpcStub(Function<Channel, T> constructor) {
+            return constructor.apply(ClientInterceptors.intercept(channel, interceptor));
+        }
+
+        @Override
+        public void setClientCallsInterceptor(ClientInterceptor interceptor) {
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public Endpoint getEndpoint() {
+            return null;
+        }
+
+        @Override
+        public void shutdownNow() {
+        }
+
+    }
+
+    /**
+     * Strategy which returns the same presigned payment for each call.
+     */
+    private static class FixedPaymentStrategy implements PaymentStrategy {
+
+        private final Payment payment;
+
+        public FixedPaymentStrategy(Payment payment) {
+            this.payment = payment;
+        }
+
+        @Override
+        public <ReqT, RespT> Payment getPayment(GrpcCallParameters<ReqT, RespT> parameters,
+                ServiceClient serviceClient) {
+            return payment;
+        }
+
+    }
+
+    /**
+     * Strategy which signs new payment for each call.
+     */
+    private static class SigningPaymentStrategy implements PaymentStrategy {
+
+        private final PaymentChannel channel;
+
+        public SigningPaymentStrategy(PaymentChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public <ReqT, RespT> Payment getPayment(GrpcCallParameters<ReqT, RespT> parameters,
+                ServiceClient serviceClient) {
+            return EscrowPayment.newBuilder()
+                .setPaymentChannel(channel)
+                .setAmount(BigInteger.ONE)
+                .setSigner(serviceClient.getSdk().getIdentity())
+                .build();
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package io.singularitynet.sdk.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Record about service API unpacked into the output directory. It keeps
+ * model IPFS hash, Java package and list of the files unpacked, and allows
+ * checking whether API should be downloaded again.
+ */
+class ApiStamp {
+
+    private final static Logger log = LoggerFactory.getLogger(ApiStamp.class);
+
+    private static final String MODEL_IPFS_HASH = "modelIpfsHash";
+    private static final String JAVA_PACKAGE = "javaPackage";
+    private static final String FILES = "files";
+    private static final String FILES_SEPARATOR = ",";
+
+    private final String modelIpfsHash;
+    private final String javaPackage;
+    private final List<String> files = new ArrayList<>();
+
+    ApiStamp(String modelIpfsHash, String javaPackage) {
+        this.modelIpfsHash = modelIpfsHash;
+        this.javaPackage = javaPackage;
+    }
+
+    void addFile(String name) {
+        files.add(name);
+    }
+
+    /**
+     * Check that stamp file has the same model IPFS hash and Java package
+     * and all of the files listed exist in the output directory.
+     * @param stampFile file of the previously written stamp.
+     * @param outputDir output directory.
+     * @return true if API doesn't need to be downloaded.
+     */
+    boolean isUpToDate(File stampFile, File outputDir) {
+        Properties props = read(stampFile);
+        if (props == null) {
+            return false;
+        }
+        if (!modelIpfsHash.equals(props.getProperty(MODEL_IPFS_HASH))
+                || !javaPackage.equals(props.getProperty(JAVA_PACKAGE))) {
+            log.debug("API is changed, stamp: {}", props);
+            return false;
+        }
+        for (String name : props.getProperty(FILES, "").split(FILES_SEPARATOR)) {
+            if (!name.isEmpty() && !new File(outputDir, name).exists()) {
+                log.debug("API file is missing: {}", name);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read model IPFS hash of the API unpacked before.
+     * @param stampFile file of the previously written stamp.
+     * @return model IPFS hash or null if stamp cannot be read.
+     */
+    static String readModelIpfsHash(File stampFile) {
+        Properties props = read(stampFile);
+        return props == null ? null : props.getProperty(MODEL_IPFS_HASH);
+    }
+
+    private static Properties read(File stampFile) {
+        if (!stampFile.isFile()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(stampFile.toPath())) {
+            props.load(in);
+        } catch (IOException e) {
+            log.warn("Could not read API stamp file: {}", stampFile, e);
+            return null;
+        }
+        return props;
+    }
+
+    /**
+     * Write stamp into the file.
+     * @param stampFile file to write.
+     */
+    void write(File stampFile) throws PluginException {
+        Properties props = new Properties();
+        props.setProperty(MODEL_IPFS_HASH, modelIpfsHash);
+        props.setProperty(JAVA_PACKAGE, javaPackage);
+        props.setProperty(FILES, String.join(FILES_SEPARATOR, files));
+        try {
+            Files.createDirectories(stampFile.toPath().getParent());
+        } catch (IOException e) {
+            throw new PluginException("Could not create output directory: " + stampFile.getParent(), e);
+        }
+        try (OutputStream out = Files.newOutputStream(stampFile.toPath())) {
+            props.store(out, "SingularityNET service API");
+        } catch (IOException e) {
+            throw new PluginException("Could not write API stamp file: " + stampFile, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ApiStamp(" + modelIpfsHash + ", " + javaPackage + ", " + files + ")";
+    }
+
+}
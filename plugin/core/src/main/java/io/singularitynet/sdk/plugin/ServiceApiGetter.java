@@ -6,9 +6,25 @@ import java.net.URL;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.MalformedURLException;
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
@@ -26,7 +42,9 @@ import io.singularitynet.sdk.common.Utils;
 import io.singularitynet.sdk.contracts.Registry;
 import io.singularitynet.sdk.ethereum.Address;
 import io.singularitynet.sdk.ethereum.ContractUtils;
+import io.singularitynet.sdk.registry.DiskCacheMetadataStorage;
 import io.singularitynet.sdk.registry.IpfsMetadataStorage;
+import io.singularitynet.sdk.registry.MetadataStorage;
 import io.singularitynet.sdk.registry.RegistryMetadataProvider;
 import io.singularitynet.sdk.registry.ServiceMetadata;
 import io.singularitynet.sdk.registry.RegistryContract;
@@ -34,16 +52,41 @@ import io.singularitynet.sdk.client.Configuration;
 
 public class ServiceApiGetter {
 
-    public static interface Parameters {
+    /**
+     * Service to get API of.
+     */
+    public static interface Service {
 
         String getOrgId();
         String getServiceId();
-        File getOutputDir();
         String getJavaPackage();
+        /**
+         * @return output directory, when null output directory of the
+         * parameters is used.
+         */
+        File getOutputDir();
+
+    }
+
+    /**
+     * Getter parameters. Service described by parameters is optional when
+     * list of the services is not empty.
+     */
+    public static interface Parameters extends Service {
+
         URL getIpfsRpcEndpoint();
         URL getEthereumJsonRpcEndpoint();
         String getGetterEthereumAddress();
         String getRegistryAddress();
+        File getCacheDir();
+
+        /**
+         * @return additional services which API is downloaded in parallel
+         * using the same Ethereum and IPFS connections.
+         */
+        default List<? extends Service> getServices() {
+            return Collections.emptyList();
+        }
 
     }
 
@@ -61,11 +104,18 @@ public class ServiceApiGetter {
             return DEFAULT_REGISTRY_ADDRESS;
         }
 
+        public File getCacheDir() {
+            return new File(System.getProperty("user.home"), DEFAULT_CACHE_DIR);
+        }
+
     }
 
     public static final String DEFAULT_IPFS_ENDPOINT = "http://ipfs.singularitynet.io:80";
     public static final String DEFAULT_GETTER_ETHEREUM_ADDRESS = "0xdcE9c76cCB881AF94F7FB4FaC94E4ACC584fa9a5";
     public static final String DEFAULT_REGISTRY_ADDRESS = "";
+    public static final String DEFAULT_CACHE_DIR = ".snet/sdk-java/ipfs-cache";
+
+    private static final int MAX_THREADS = 8;
 
     private final static Logger log = LoggerFactory.getLogger(ServiceApiGetter.class);
 
@@ -73,6 +123,8 @@ public class ServiceApiGetter {
 
     private Registry registry;
     private IPFS ipfs;
+    private MetadataStorage metadataStorage;
+    private final Map<String, String> modelIpfsHashes = new ConcurrentHashMap<>();
 
     public ServiceApiGetter(Parameters parameters) {
         this(null, null, parameters);
@@ -84,43 +136,211 @@ public class ServiceApiGetter {
         this.parameters = parameters;
     }
 
+    /**
+     * Download and unpack API of the services. Services are processed in
+     * parallel. Download is skipped when API with the same model IPFS hash
+     * and Java package was unpacked into the output directory before and
+     * all of its files are still in place.
+     */
     public void run() throws PluginException {
-        log.info("Downloading API of orgId: {}, serviceId: {}, javaPackage: {}, into: {}, ethereumJsonRpcEndpoint: {}",
-                parameters.getOrgId(), parameters.getServiceId(),
-                parameters.getJavaPackage(), parameters.getOutputDir(),
-                parameters.getEthereumJsonRpcEndpoint());
-        log.debug("ipfsRpcEndpoint: {}, getterEthereumAddress: {}, registryAddress: {}",
+        List<Service> services = getServices();
+        log.info("Downloading API of {} services, ethereumJsonRpcEndpoint: {}",
+                services.size(), parameters.getEthereumJsonRpcEndpoint());
+        log.debug("ipfsRpcEndpoint: {}, getterEthereumAddress: {}, registryAddress: {}, cacheDir: {}",
                 parameters.getIpfsRpcEndpoint(), parameters.getGetterEthereumAddress(),
-                (parameters.getRegistryAddress() == null ? "<network default>" : parameters.getRegistryAddress()));
-
-        if (ipfs == null) {
-            Web3j web3j = Web3j.build(new HttpService(parameters.getEthereumJsonRpcEndpoint().toExternalForm()));
-            try {
-                web3j.ethBlockNumber().send();
-                registry = getRegistryContract(web3j);
-                ipfs = new IPFS(parameters.getIpfsRpcEndpoint().getHost(),
-                        parameters.getIpfsRpcEndpoint().getPort());
-                runInternal();
-            } catch (IOException | ClientConnectionException e) {
-                throw new PluginException("Could not perform operation on Ethereum RPC endpoint provided: "
-                        + parameters.getEthereumJsonRpcEndpoint(), e);
-            } finally {
-                web3j.shutdown();
+                (parameters.getRegistryAddress() == null ? "<network default>" : parameters.getRegistryAddress()),
+                (parameters.getCacheDir() == null ? "<disabled>" : parameters.getCacheDir()));
+
+        List<Service> outdated = new ArrayList<>();
+        for (Service service : services) {
+            String ipfsHash = modelIpfsHashes.get(getName(service));
+            if (ipfsHash == null || !isUpToDate(service, ipfsHash)) {
+                outdated.add(service);
+            }
+        }
+        if (outdated.isEmpty()) {
+            return;
+        }
+        connect(() -> forEachService(outdated, service -> {
+            String ipfsHash = resolveModelIpfsHash(service);
+            if (!isUpToDate(service, ipfsHash)) {
+                log.info("Downloading API of orgId: {}, serviceId: {}, javaPackage: {}, into: {}",
+                        service.getOrgId(), service.getServiceId(),
+                        service.getJavaPackage(), getOutputDir(service));
+                ApiStamp stamp = new ApiStamp(ipfsHash, service.getJavaPackage());
+                loadAndUnpackApi(getMetadataStorage(), ipfsHash, service, stamp);
+                stamp.write(getStampFile(service));
+            }
+            return ipfsHash;
+        }));
+    }
+
+    /**
+     * Resolve IPFS hashes of the services API archives using Registry
+     * contract and services metadata.
+     * @return map of the "orgId/serviceId" strings to model IPFS hashes.
+     */
+    public Map<String, String> getModelIpfsHashes() throws PluginException {
+        return connect(() -> forEachService(getServices(), this::resolveModelIpfsHash));
+    }
+
+    /**
+     * Check whether API of all services was unpacked into the output
+     * directories before. Model IPFS hashes are taken from the stamp files,
+     * so the method doesn't access Ethereum and IPFS.
+     * @return true if API of all services is in place.
+     */
+    public boolean isApiUnpacked() throws PluginException {
+        for (Service service : getServices()) {
+            String ipfsHash = ApiStamp.readModelIpfsHash(getStampFile(service));
+            if (ipfsHash == null || !isUpToDate(service, ipfsHash)) {
+                return false;
             }
-        } else {
-            runInternal();
         }
+        return true;
     }
 
-    private void runInternal() throws PluginException {
-        RegistryContract registryContract = new RegistryContract(registry);
-        IpfsMetadataStorage metadataStorage = new IpfsMetadataStorage(ipfs);
-        RegistryMetadataProvider metadataProvider = new RegistryMetadataProvider(
-                parameters.getOrgId(), parameters.getServiceId(),
-                registryContract, metadataStorage);
-        ServiceMetadata metadata = metadataProvider.getServiceMetadata();
-        log.debug("service metadata: {}", metadata);
-        loadAndUnpackApi(metadataStorage, metadata.getModelIpfsHash());
+    private List<Service> getServices() throws PluginException {
+        List<Service> services = new ArrayList<>();
+        if (parameters.getOrgId() != null || parameters.getServiceId() != null) {
+            services.add(parameters);
+        }
+        if (parameters.getServices() != null) {
+            services.addAll(parameters.getServices());
+        }
+        if (services.isEmpty()) {
+            throw new PluginException("No services to get API of");
+        }
+        for (Service service : services) {
+            if (service.getOrgId() == null || service.getServiceId() == null
+                    || service.getJavaPackage() == null) {
+                throw new PluginException("orgId, serviceId and javaPackage are required for service: "
+                        + getName(service));
+            }
+        }
+        return services;
+    }
+
+    private <T> Map<String, T> forEachService(List<Service> services,
+            ServiceAction<T> action) throws PluginException {
+        Map<String, T> results = new LinkedHashMap<>();
+        if (services.size() == 1) {
+            Service service = services.get(0);
+            results.put(getName(service), action.run(service));
+            return results;
+        }
+        ExecutorService executor = newExecutor(Math.min(services.size(), MAX_THREADS));
+        try {
+            Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+            for (Service service : services) {
+                futures.put(getName(service), CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return action.run(service);
+                    } catch (PluginException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+            PluginException error = null;
+            for (Map.Entry<String, CompletableFuture<T>> future : futures.entrySet()) {
+                try {
+                    results.put(future.getKey(), future.getValue().join());
+                } catch (CompletionException e) {
+                    log.error("Could not get API of service: {}", future.getKey(), e.getCause());
+                    if (error == null) {
+                        error = e.getCause() instanceof PluginException
+                            ? (PluginException) e.getCause()
+                            : new PluginException("Could not get API of service: " + future.getKey(), e.getCause());
+                    }
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "snet-api-getter-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private <T> T connect(Action<T> action) throws PluginException {
+        if (ipfs != null) {
+            return action.run();
+        }
+        Web3j web3j = Web3j.build(new HttpService(parameters.getEthereumJsonRpcEndpoint().toExternalForm()));
+        try {
+            web3j.ethBlockNumber().send();
+            registry = getRegistryContract(web3j);
+            ipfs = new IPFS(parameters.getIpfsRpcEndpoint().getHost(),
+                    parameters.getIpfsRpcEndpoint().getPort());
+            return action.run();
+        } catch (IOException | ClientConnectionException e) {
+            throw new PluginException("Could not perform operation on Ethereum RPC endpoint provided: "
+                    + parameters.getEthereumJsonRpcEndpoint(), e);
+        } finally {
+            ipfs = null;
+            registry = null;
+            metadataStorage = null;
+            web3j.shutdown();
+        }
+    }
+
+    private String resolveModelIpfsHash(Service service) {
+        String ipfsHash = modelIpfsHashes.get(getName(service));
+        if (ipfsHash == null) {
+            RegistryContract registryContract = new RegistryContract(registry);
+            RegistryMetadataProvider metadataProvider = new RegistryMetadataProvider(
+                    service.getOrgId(), service.getServiceId(),
+                    registryContract, getMetadataStorage());
+            ServiceMetadata metadata = metadataProvider.getServiceMetadata();
+            log.debug("service metadata: {}", metadata);
+            ipfsHash = metadata.getModelIpfsHash();
+            modelIpfsHashes.put(getName(service), ipfsHash);
+        }
+        return ipfsHash;
+    }
+
+    private synchronized MetadataStorage getMetadataStorage() {
+        if (metadataStorage == null) {
+            metadataStorage = new IpfsMetadataStorage(ipfs);
+            if (parameters.getCacheDir() != null) {
+                metadataStorage = new DiskCacheMetadataStorage(metadataStorage,
+                        parameters.getCacheDir().toPath());
+            }
+        }
+        return metadataStorage;
+    }
+
+    private boolean isUpToDate(Service service, String ipfsHash) {
+        ApiStamp stamp = new ApiStamp(ipfsHash, service.getJavaPackage());
+        if (stamp.isUpToDate(getStampFile(service), getOutputDir(service))) {
+            log.info("API is up to date, orgId: {}, serviceId: {}, modelIpfsHash: {}",
+                    service.getOrgId(), service.getServiceId(), ipfsHash);
+            return true;
+        }
+        return false;
+    }
+
+    private File getOutputDir(Service service) {
+        return service.getOutputDir() != null ? service.getOutputDir() : parameters.getOutputDir();
+    }
+
+    private File getStampFile(Service service) {
+        return new File(getOutputDir(service), ".snet-" + service.getOrgId()
+                + "-" + service.getServiceId() + ".properties");
+    }
+
+    private static String getName(Service service) {
+        return service.getOrgId() + "/" + service.getServiceId();
     }
 
     private Registry getRegistryContract(Web3j web3j) throws PluginException {
@@ -142,7 +362,8 @@ public class ServiceApiGetter {
         return registry;
     }
 
-    private void loadAndUnpackApi(IpfsMetadataStorage metadataStorage, String ipfsHash) throws PluginException {
+    private void loadAndUnpackApi(MetadataStorage metadataStorage, String ipfsHash,
+            Service service, ApiStamp stamp) throws PluginException {
         URI uri;
         try {
             uri = new URI("ipfs://" + ipfsHash);
@@ -150,22 +371,32 @@ public class ServiceApiGetter {
         } catch (URISyntaxException e) {
             throw new PluginException("Incorrect IPFS hash in metadata: " + ipfsHash, e);
         }
-        byte[] apiTar = metadataStorage.get(uri);
-        log.info("API size {} bytes", apiTar.length);
-        unpackApi(apiTar);
+        unpackApi(metadataStorage.getStream(uri), getOutputDir(service),
+                service.getJavaPackage(), stamp);
     }
 
-    private void unpackApi(byte[] apiTar) throws PluginException {
-        ArchiveInputStream is = new TarArchiveInputStream(
-                new ByteArrayInputStream(apiTar));
+    /**
+     * Unpack API archive into the temporary directory and move files into
+     * the output directory only after archive is read till the end and
+     * content hash is verified.
+     */
+    private void unpackApi(InputStream apiTar, File outputDir, String javaPackage,
+            ApiStamp stamp) throws PluginException {
+        Path tempDir;
         try {
+            Files.createDirectories(outputDir.toPath());
+            tempDir = Files.createTempDirectory(outputDir.toPath(), ".snet-api-");
+        } catch (IOException e) {
+            throw new PluginException("Could not create temporary directory in " + outputDir, e);
+        }
+        try (ArchiveInputStream is = new TarArchiveInputStream(apiTar)) {
             ArchiveEntry entry = null;
             while ((entry = is.getNextEntry()) != null) {
                 if (!is.canReadEntryData(entry)) {
                     throw new PluginException("Cannot read entry in API archive: " + entry);
                 }
                 log.info("Unpacking {}", entry.getName());
-                String name = new File(parameters.getOutputDir(), entry.getName()).getAbsolutePath();
+                String name = new File(tempDir.toFile(), entry.getName()).getAbsolutePath();
                 File f = new File(name);
                 if (entry.isDirectory()) {
                     if (!f.isDirectory() && !f.mkdirs()) {
@@ -176,24 +407,56 @@ public class ServiceApiGetter {
                     if (!parent.isDirectory() && !parent.mkdirs()) {
                         throw new IOException("failed to create directory " + parent);
                     }
+                    stamp.addFile(entry.getName());
                     try (OutputStream o = Files.newOutputStream(f.toPath())) {
                         IOUtils.copy(is, o);
                         if (name.endsWith(".proto")) {
                             log.debug("Adding package to protobuf file: {}", name);
-                            o.write(("\noption java_package = \"" + parameters.getJavaPackage() + "\";\n").getBytes());
+                            o.write(("\noption java_package = \"" + javaPackage + "\";\n").getBytes());
                         }
                     }
                 }
             }
+            // read the rest of the stream to finish content hash verification
+            long skipped = IOUtils.skip(apiTar, Long.MAX_VALUE);
+            log.debug("{} bytes skipped after the end of the archive", skipped);
+            moveFiles(tempDir, outputDir.toPath());
         } catch (IOException e) {
             throw new PluginException("Could not download and unpack API", e);
         } finally {
-            try {
-                is.close();
-            } catch (IOException e) {
-                throw new PluginException("Could not close archive unpacked", e);
+            deleteDirectory(tempDir);
+        }
+    }
+
+    private static void moveFiles(Path from, Path to) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(from)) {
+            paths = walk.collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Path target = to.resolve(from.relativize(path));
+            if (Files.isDirectory(path)) {
+                Files.createDirectories(target);
+            } else {
+                Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
             }
         }
     }
 
+    private static void deleteDirectory(Path dir) {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Could not delete temporary directory: {}", dir, e);
+        }
+    }
+
+    private static interface Action<T> {
+        T run() throws PluginException;
+    }
+
+    private static interface ServiceAction<T> {
+        T run(Service service) throws PluginException;
+    }
+
 }
@@ -7,6 +7,7 @@ import org.junit.rules.ExpectedException;
 
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
@@ -14,8 +15,12 @@ import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import io.ipfs.api.IPFS;
 import io.ipfs.multihash.Multihash;
 import org.web3j.protocol.core.RemoteCall;
@@ -28,7 +33,7 @@ public class ServiceApiGetterTest {
 
     private final static String ORG_ID = "example-org";
     private final static String SERVICE_ID = "example-service";
-    private final static String METADATA_HASH = "QmV4HtrgRwUVHCyDBvkeXFPPCsgweWA86uCj328wZq5Y2q";
+    private final static String METADATA_HASH = "QmcMWU79B3P3CBMCcWChX1FqEy3UG87tqNZxBYPMFpZ2y3";
     private final static String MODEL_IPFS_HASH = "QmPKvg2rMmACYJsVQfAa4uLB5rVV7fXF3xuet95Zinxct9";
 
     private Registry registry;
@@ -53,8 +58,14 @@ public class ServiceApiGetterTest {
         ipfs = mock(IPFS.class);
         when(ipfs.cat(eq(Multihash.fromBase58(METADATA_HASH))))
             .thenReturn(readResource("/example-service-metadata.json"));
+        when(ipfs.catStream(eq(Multihash.fromBase58(METADATA_HASH))))
+            .thenAnswer(invocation -> new ByteArrayInputStream(
+                        readResource("/example-service-metadata.json")));
         when(ipfs.cat(eq(Multihash.fromBase58(MODEL_IPFS_HASH))))
             .thenReturn(readResource("/example-service-model.tar"));
+        when(ipfs.catStream(eq(Multihash.fromBase58(MODEL_IPFS_HASH))))
+            .thenAnswer(invocation -> new ByteArrayInputStream(
+                        readResource("/example-service-model.tar")));
     }
 
     private static byte[] readResource(String name) {
@@ -77,16 +88,21 @@ public class ServiceApiGetterTest {
         return Paths.get(ServiceApiGetterTest.class.getResource(name).getFile());
     }
 
-    @Test
-    public void getServiceApi() throws IOException, PluginException {
-        File outputDir = testFolder.newFolder("output");
-        ServiceApiGetter.Parameters params = new ServiceApiGetter.DefaultParameters() {
+    private ServiceApiGetter.Parameters newParameters(File outputDir, File cacheDir) {
+        return new ServiceApiGetter.DefaultParameters() {
             public String getOrgId() { return ORG_ID; }
             public String getServiceId() { return SERVICE_ID; }
             public File getOutputDir() { return outputDir; }
             public String getJavaPackage() { return "org.example.exampleservice"; }
             public URL getEthereumJsonRpcEndpoint() { return Utils.wrapExceptions(() -> new URL("http://localhost:8545")); }
+            public File getCacheDir() { return cacheDir; }
         };
+    }
+
+    @Test
+    public void getServiceApi() throws IOException, PluginException {
+        File outputDir = testFolder.newFolder("output");
+        ServiceApiGetter.Parameters params = newParameters(outputDir, null);
         ServiceApiGetter getter = new ServiceApiGetter(registry, ipfs, params);
 
         getter.run();
@@ -96,6 +112,148 @@ public class ServiceApiGetterTest {
                 readFileAsString(outputDir.toPath().resolve("example_service.proto")));
     }
 
+    @Test
+    public void getServiceApiFromCacheDir() throws IOException, PluginException {
+        File cacheDir = testFolder.newFolder("cache");
+        new ServiceApiGetter(registry, ipfs, newParameters(testFolder.newFolder("first"), cacheDir)).run();
+        File outputDir = testFolder.newFolder("second");
+
+        new ServiceApiGetter(registry, ipfs, newParameters(outputDir, cacheDir)).run();
+
+        assertEquals("API Protobuf file",
+                readFileAsString(getResourcePath("/example_service.proto")),
+                readFileAsString(outputDir.toPath().resolve("example_service.proto")));
+        verify(ipfs, times(1)).catStream(Multihash.fromBase58(METADATA_HASH));
+        verify(ipfs, times(1)).catStream(Multihash.fromBase58(MODEL_IPFS_HASH));
+    }
+
+    @Test
+    public void doNotDownloadApiWhenItIsUpToDate() throws IOException, PluginException {
+        File outputDir = testFolder.newFolder("output");
+        new ServiceApiGetter(registry, ipfs, newParameters(outputDir, null)).run();
+
+        new ServiceApiGetter(registry, ipfs, newParameters(outputDir, null)).run();
+
+        verify(ipfs, times(1)).catStream(Multihash.fromBase58(MODEL_IPFS_HASH));
+        assertTrue("API Protobuf file exists",
+                outputDir.toPath().resolve("example_service.proto").toFile().exists());
+    }
+
+    @Test
+    public void downloadApiAgainWhenFileIsRemoved() throws IOException, PluginException {
+        File outputDir = testFolder.newFolder("output");
+        new ServiceApiGetter(registry, ipfs, newParameters(outputDir, null)).run();
+        Files.delete(outputDir.toPath().resolve("example_service.proto"));
+
+        new ServiceApiGetter(registry, ipfs, newParameters(outputDir, null)).run();
+
+        verify(ipfs, times(2)).catStream(Multihash.fromBase58(MODEL_IPFS_HASH));
+        assertEquals("API Protobuf file",
+                readFileAsString(getResourcePath("/example_service.proto")),
+                readFileAsString(outputDir.toPath().resolve("example_service.proto")));
+    }
+
+    @Test
+    public void apiIsUnpackedAfterDownload() throws IOException, PluginException {
+        File outputDir = testFolder.newFolder("output");
+        assertFalse("API is unpacked before download", new ServiceApiGetter(
+                    registry, ipfs, newParameters(outputDir, null)).isApiUnpacked());
+        new ServiceApiGetter(registry, ipfs, newParameters(outputDir, null)).run();
+
+        // getter without Registry and IPFS fails if it tries to connect
+        ServiceApiGetter getter = new ServiceApiGetter(null, null, newParameters(outputDir, null));
+
+        assertTrue("API is unpacked after download", getter.isApiUnpacked());
+    }
+
+    @Test
+    public void getModelIpfsHashes() throws IOException, PluginException {
+        ServiceApiGetter getter = new ServiceApiGetter(registry, ipfs,
+                newParameters(testFolder.getRoot(), null));
+
+        Map<String, String> hashes = getter.getModelIpfsHashes();
+
+        assertEquals("Model IPFS hashes",
+                Collections.singletonMap(ORG_ID + "/" + SERVICE_ID, MODEL_IPFS_HASH), hashes);
+        verify(ipfs, never()).catStream(any());
+    }
+
+    @Test
+    public void getApiOfMultipleServicesInParallel() throws Exception {
+        String otherServiceId = "other-service";
+        when(registry.getServiceRegistrationById(
+                    eq(Utils.strToBytes32(ORG_ID)),
+                    eq(Utils.strToBytes32(otherServiceId))))
+            .thenReturn(new RemoteCall<>(
+                        () -> {
+                            return new Tuple3<>(true,
+                                    Utils.strToBytes32(otherServiceId),
+                                    Utils.strToBytes("ipfs://" + METADATA_HASH));
+                        }));
+        CountDownLatch downloads = new CountDownLatch(2);
+        when(ipfs.catStream(eq(Multihash.fromBase58(MODEL_IPFS_HASH))))
+            .thenAnswer(invocation -> {
+                downloads.countDown();
+                assertTrue("Downloads are not parallel", downloads.await(5, TimeUnit.SECONDS));
+                return new ByteArrayInputStream(readResource("/example-service-model.tar"));
+            });
+        File firstDir = testFolder.newFolder("first");
+        File secondDir = testFolder.newFolder("second");
+        ServiceApiGetter.Parameters params = new ServiceApiGetter.DefaultParameters() {
+            public String getOrgId() { return null; }
+            public String getServiceId() { return null; }
+            public File getOutputDir() { return firstDir; }
+            public String getJavaPackage() { return null; }
+            public URL getEthereumJsonRpcEndpoint() { return null; }
+            public File getCacheDir() { return null; }
+            public List<ServiceApiGetter.Service> getServices() {
+                return Arrays.asList(newService(SERVICE_ID, null),
+                        newService(otherServiceId, secondDir));
+            }
+        };
+
+        new ServiceApiGetter(registry, ipfs, params).run();
+
+        assertEquals("First API Protobuf file",
+                readFileAsString(getResourcePath("/example_service.proto")),
+                readFileAsString(firstDir.toPath().resolve("example_service.proto")));
+        assertEquals("Second API Protobuf file",
+                readFileAsString(getResourcePath("/example_service.proto")),
+                readFileAsString(secondDir.toPath().resolve("example_service.proto")));
+    }
+
+    private static ServiceApiGetter.Service newService(String serviceId, File outputDir) {
+        return new ServiceApiGetter.Service() {
+            public String getOrgId() { return ORG_ID; }
+            public String getServiceId() { return serviceId; }
+            public String getJavaPackage() { return "org.example.exampleservice"; }
+            public File getOutputDir() { return outputDir; }
+        };
+    }
+
+    @Test
+    public void throwExceptionOnApiHashMismatch() throws IOException, PluginException {
+        byte[] apiTar = readResource("/example-service-model.tar");
+        apiTar[apiTar.length - 1] = 1;
+        when(ipfs.catStream(eq(Multihash.fromBase58(MODEL_IPFS_HASH))))
+            .thenReturn(new ByteArrayInputStream(apiTar));
+        File cacheDir = testFolder.newFolder("cache");
+        File outputDir = testFolder.newFolder("output");
+        ServiceApiGetter getter = new ServiceApiGetter(registry, ipfs,
+                newParameters(outputDir, cacheDir));
+
+        try {
+            getter.run();
+            fail("Exception expected");
+        } catch (PluginException e) {
+            assertTrue("Hash mismatch error", e.getCause().getMessage()
+                    .startsWith("IPFS content hash mismatch"));
+        }
+        assertFalse("API is cached",
+                cacheDir.toPath().resolve(MODEL_IPFS_HASH).toFile().exists());
+        assertArrayEquals("Output directory content", new String[0], outputDir.list());
+    }
+
     @Rule
     public ExpectedException exceptionRule = ExpectedException.none();
 
@@ -108,6 +266,7 @@ public class ServiceApiGetterTest {
             public String getServiceId() { return SERVICE_ID; }
             public File getOutputDir() { return null; }
             public String getJavaPackage() { return "org.example.exampleservice"; }
+            public File getCacheDir() { return null; }
             public URL getEthereumJsonRpcEndpoint() { 
                 try {
                     return new URL("http://localhost:1");
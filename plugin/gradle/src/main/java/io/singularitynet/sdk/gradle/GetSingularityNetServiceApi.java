@@ -3,17 +3,30 @@ package io.singularitynet.sdk.gradle;
 import org.gradle.api.Task;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.TaskAction;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Setter;
 
 import io.singularitynet.sdk.common.Utils;
 import io.singularitynet.sdk.plugin.ServiceApiGetter;
 import io.singularitynet.sdk.plugin.PluginException;
 
+/**
+ * Task to download services API. Task output depends on model IPFS hashes
+ * which are published in the Registry, so task is always executed. Hashes
+ * are resolved by the task action and API is downloaded only when hash
+ * differs from the one recorded in the stamp file of the output directory.
+ * When hashes cannot be resolved (for instance build is offline) the API
+ * unpacked before is used. Additional services are added using
+ * {@link #service} and downloaded in parallel.
+ */
 public class GetSingularityNetServiceApi extends DefaultTask implements ServiceApiGetter.Parameters {
 
     @Setter
@@ -32,23 +45,34 @@ public class GetSingularityNetServiceApi extends DefaultTask implements ServiceA
     private String getterEthereumAddress;
     @Setter
     private String registryAddress;
+    @Setter
+    private File cacheDir;
+
+    private final List<Service> services = new ArrayList<>();
+
+    private ServiceApiGetter getter;
 
     public GetSingularityNetServiceApi() {
         ipfsRpcEndpoint = Utils.strToUrl(ServiceApiGetter.DEFAULT_IPFS_ENDPOINT);
         getterEthereumAddress = ServiceApiGetter.DEFAULT_GETTER_ETHEREUM_ADDRESS;
         registryAddress = ServiceApiGetter.DEFAULT_REGISTRY_ADDRESS;
+        cacheDir = new File(System.getProperty("user.home"), ServiceApiGetter.DEFAULT_CACHE_DIR);
 
         for (Task task : getProject().getTasksByName("preBuild", false)) {
             task.dependsOn(this);
         }
+        // up to date check is done by the action using the stamp file
+        getOutputs().upToDateWhen(task -> false);
     }
 
     @Input
+    @Optional
     public String getOrgId() {
         return orgId;
     }
 
     @Input
+    @Optional
     public String getServiceId() {
         return serviceId;
     }
@@ -59,37 +83,80 @@ public class GetSingularityNetServiceApi extends DefaultTask implements ServiceA
     }
 
     @Input
+    @Optional
     public String getJavaPackage() {
         return javaPackage;
     }
 
-    @Input
+    @Internal
     public URL getIpfsRpcEndpoint() {
         return ipfsRpcEndpoint;
     }
 
-    @Input
+    @Internal
     public URL getEthereumJsonRpcEndpoint() {
         return ethereumJsonRpcEndpoint;
     }
 
-    @Input
+    @Internal
     public String getGetterEthereumAddress() {
         return getterEthereumAddress;
     }
 
-    @Input
+    @Internal
     public String getRegistryAddress() {
         return registryAddress;
     }
 
+    @Internal
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * Add service to get API of.
+     * @param orgId organization id.
+     * @param serviceId service id.
+     * @param javaPackage Java package to be added to the API.
+     */
+    public void service(String orgId, String serviceId, String javaPackage) {
+        services.add(new Service(orgId, serviceId, javaPackage));
+    }
+
+    @Input
+    public List<Service> getServices() {
+        return services;
+    }
+
+    private ServiceApiGetter getGetter() {
+        if (getter == null) {
+            getter = new ServiceApiGetter(this);
+        }
+        return getter;
+    }
+
     @TaskAction
     void getSingularityNetServiceApi() {
         try {
-            new ServiceApiGetter(this).run();
+            if (resolveModelIpfsHashes()) {
+                getGetter().run();
+            }
         } catch (PluginException e) {
             throw new RuntimeException("Could not get API", e);
         }
     }
 
+    private boolean resolveModelIpfsHashes() throws PluginException {
+        try {
+            getGetter().getModelIpfsHashes();
+            return true;
+        } catch (PluginException | RuntimeException e) {
+            if (!getGetter().isApiUnpacked()) {
+                throw e;
+            }
+            getLogger().warn("Could not get API model IPFS hashes, API unpacked before is used", e);
+            return false;
+        }
+    }
+
 }
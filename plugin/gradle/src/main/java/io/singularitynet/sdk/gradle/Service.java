@@ -0,0 +1,38 @@
+package io.singularitynet.sdk.gradle;
+
+import java.io.File;
+import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import io.singularitynet.sdk.plugin.ServiceApiGetter;
+
+/**
+ * Service added to the task using
+ * {@link GetSingularityNetServiceApi#service}. API is unpacked into the
+ * output directory of the task.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class Service implements ServiceApiGetter.Service, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String orgId;
+    private final String serviceId;
+    private final String javaPackage;
+
+    public Service(String orgId, String serviceId, String javaPackage) {
+        this.orgId = orgId;
+        this.serviceId = serviceId;
+        this.javaPackage = javaPackage;
+    }
+
+    @Override
+    public File getOutputDir() {
+        return null;
+    }
+
+}
@@ -0,0 +1,24 @@
+package io.singularitynet.sdk.maven;
+
+import java.io.File;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import io.singularitynet.sdk.plugin.ServiceApiGetter;
+
+/**
+ * Element of the {@code services} list of the plugin configuration. Output
+ * directory of the plugin is used when {@code outputDir} is not set.
+ */
+@Getter
+@Setter
+@ToString
+public class Service implements ServiceApiGetter.Service {
+
+    private String orgId;
+    private String serviceId;
+    private String javaPackage;
+    private File outputDir;
+
+}
@@ -9,6 +9,7 @@ import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
 import java.net.URL;
+import java.util.List;
 import lombok.Getter;
 
 import io.singularitynet.sdk.plugin.ServiceApiGetter;
@@ -18,11 +19,11 @@ import io.singularitynet.sdk.plugin.PluginException;
 public class SnetServiceApiMojo extends AbstractMojo implements ServiceApiGetter.Parameters {
 
     @Getter
-    @Parameter(property = "orgId", required = true)
+    @Parameter(property = "orgId", required = false)
     private String orgId;
 
     @Getter
-    @Parameter(property = "serviceId", required = true)
+    @Parameter(property = "serviceId", required = false)
     private String serviceId;
 
     @Getter
@@ -30,7 +31,7 @@ public class SnetServiceApiMojo extends AbstractMojo implements ServiceApiGetter
     private File outputDir;
 
     @Getter
-    @Parameter(property = "javaPackage", required = true)
+    @Parameter(property = "javaPackage", required = false)
     private String javaPackage;
 
     @Getter
@@ -49,6 +50,14 @@ public class SnetServiceApiMojo extends AbstractMojo implements ServiceApiGetter
     @Parameter(defaultValue = ServiceApiGetter.DEFAULT_REGISTRY_ADDRESS, property = "registryAddress", required = false)
     private String registryAddress;
 
+    @Getter
+    @Parameter(defaultValue = "${user.home}/" + ServiceApiGetter.DEFAULT_CACHE_DIR, property = "cacheDir", required = false)
+    private File cacheDir;
+
+    @Getter
+    @Parameter(required = false)
+    private List<Service> services;
+
     public void execute() throws MojoExecutionException {
         try {
             new ServiceApiGetter(this).run();
@@ -1,7 +1,15 @@
 package io.singularitynet.sdk.client;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import io.grpc.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,8 +17,11 @@ import org.slf4j.LoggerFactory;
 import io.singularitynet.sdk.daemon.DaemonConnection;
 import io.singularitynet.sdk.payment.Payment;
 import io.singularitynet.sdk.registry.MetadataProvider;
+import io.singularitynet.sdk.mpe.EscrowPayment;
 import io.singularitynet.sdk.mpe.PaymentChannelStateProvider;
 import io.singularitynet.sdk.freecall.FreeCallStateService;
+import io.singularitynet.sdk.metrics.Metrics;
+import io.singularitynet.sdk.metrics.MetricNames;
 
 /**
  * The class is responsible for providing all necessary facilities to call
@@ -46,10 +57,38 @@ public class BaseServiceClient implements ServiceClient {
             PaymentChannelStateProvider channelStateProvider,
             FreeCallStateService freeCallStateService,
             PaymentStrategy paymentStrategy) {
+        this(sdk, serviceId, daemonConnection, metadataProvider,
+                channelStateProvider, freeCallStateService, paymentStrategy,
+                Optional.empty());
+    }
+
+    /**
+     * Constructor.
+     * @param sdk SDK instance.
+     * @param serviceId id of the service within organization.
+     * @param daemonConnection provides live gRPC connection.
+     * @param metadataProvider provides the service related metadata.
+     * @param channelStateProvider actual payment channel state provider.
+     * @param freeCallStateService free call state service instance.
+     * @param paymentStrategy provides payment for the client call.
+     * @param paymentExecutor executor to calculate payments asynchronously;
+     * when empty payment is calculated synchronously by the thread which
+     * starts the call.
+     */
+    public BaseServiceClient(
+            Sdk sdk,
+            String serviceId,
+            DaemonConnection daemonConnection,
+            MetadataProvider metadataProvider,
+            PaymentChannelStateProvider channelStateProvider,
+            FreeCallStateService freeCallStateService,
+            PaymentStrategy paymentStrategy,
+            Optional<Executor> paymentExecutor) {
         this.sdk = sdk;
         this.serviceId = serviceId;
         this.daemonConnection = daemonConnection;
-        this.daemonConnection.setClientCallsInterceptor(new PaymentClientInterceptor(this, paymentStrategy));
+        this.daemonConnection.setClientCallsInterceptor(new PaymentClientInterceptor(
+                    this, paymentStrategy, paymentExecutor));
         this.metadataProvider = metadataProvider;
         this.channelStateProvider = channelStateProvider;
         this.freeCallStateService = freeCallStateService;
@@ -106,7 +145,12 @@ public class BaseServiceClient implements ServiceClient {
      * Class responsibility is injecting payment information into gRPC metadata
      * before making remote gRPC call. It uses PaymentStrategy instance to
      * calculate payment and ClientCallWrapper instance to inject payment into
-     * gRPC metadata.
+     * gRPC metadata. Payment is calculated when the call is started, so the
+     * call which is never started doesn't take a payment. When payment
+     * executor is set payment is calculated asynchronously and the call is
+     * started by DelayedClientCall when payment is ready. When call paid by
+     * an escrow payment fails interceptor notifies PaymentChannelStateProvider
+     * that channel state is unknown.
      */
     private static class PaymentClientInterceptor implements ClientInterceptor {
 
@@ -114,10 +158,14 @@ public class BaseServiceClient implements ServiceClient {
 
         private final ServiceClient serviceClient;
         private final PaymentStrategy paymentStrategy;
+        private final Optional<Executor> paymentExecutor;
 
-        public PaymentClientInterceptor(ServiceClient serviceClient, PaymentStrategy paymentStrategy) {
+        public PaymentClientInterceptor(ServiceClient serviceClient,
+                PaymentStrategy paymentStrategy,
+                Optional<Executor> paymentExecutor) {
             this.serviceClient = serviceClient;
             this.paymentStrategy = paymentStrategy;
+            this.paymentExecutor = paymentExecutor;
         }
 
         @Override
@@ -125,10 +173,44 @@ public class BaseServiceClient implements ServiceClient {
                 MethodDescriptor<ReqT,RespT> method,
                 CallOptions callOptions,
                 Channel next) {
-            log.debug("Calculating payment");
-            final Payment payment = paymentStrategy.getPayment(
-                    new GrpcCallParameters<>(method, callOptions, next),
-                    serviceClient);
+            GrpcCallParameters<ReqT, RespT> parameters =
+                new GrpcCallParameters<>(method, callOptions, next);
+            Function<Payment, ClientCall<ReqT, RespT>> newCall = payment -> {
+                try {
+                    return new ClientCallWrapper<>(next.newCall(method, callOptions),
+                            headers -> payment.toMetadata(headers),
+                            status -> onClose(payment, status));
+                } catch (RuntimeException e) {
+                    onClose(payment, Status.fromThrowable(e));
+                    throw e;
+                }
+            };
+            Consumer<Payment> releasePayment = payment -> onClose(payment, Status.CANCELLED);
+
+            if (!paymentExecutor.isPresent()) {
+                return new DelayedClientCall<>(() -> {
+                    log.debug("Calculating payment");
+                    Payment payment = checkPayment(serviceClient.getSdk().getMetrics().time(
+                                MetricNames.PAYMENT_STRATEGY_GET_PAYMENT,
+                                () -> paymentStrategy.getPayment(parameters, serviceClient)));
+                    return CompletableFuture.completedFuture(payment);
+                }, newCall, releasePayment, callOptions);
+            }
+
+            return new DelayedClientCall<>(() -> {
+                log.debug("Calculating payment asynchronously");
+                Metrics metrics = serviceClient.getSdk().getMetrics();
+                long start = System.nanoTime();
+                return paymentStrategy
+                    .getPaymentAsync(parameters, serviceClient, paymentExecutor.get())
+                    .whenComplete((result, error) -> metrics.record(
+                                MetricNames.PAYMENT_STRATEGY_GET_PAYMENT,
+                                System.nanoTime() - start, error == null))
+                    .thenApply(PaymentClientInterceptor::checkPayment);
+            }, newCall, releasePayment, callOptions);
+        }
+
+        private static Payment checkPayment(Payment payment) {
             log.debug("Payment calculated: {}", payment);
             if (payment == Payment.INVALID_PAYMENT) {
                 // TODO: throw exception which explains the reason of invalid
@@ -136,8 +218,211 @@ public class BaseServiceClient implements ServiceClient {
                 // zero user should know it.
                 throw new IllegalStateException("No payment returned by PaymentStrategy");
             }
-            return new ClientCallWrapper<>(next.newCall(method, callOptions),
-                    headers -> payment.toMetadata(headers));
+            return payment;
+        }
+
+        private void onClose(Payment payment, Status status) {
+            paymentStrategy.callCompleted(payment, status);
+            if (status.isOk() || !(payment instanceof EscrowPayment)) {
+                return;
+            }
+            BigInteger channelId = ((EscrowPayment) payment).getChannelId();
+            log.debug("Call failed, channelId: {}, status: {}", channelId, status);
+            serviceClient.getPaymentChannelStateProvider().paymentFailed(channelId);
+        }
+
+    }
+
+    /**
+     * io.grpc.ClientCall implementation which requests the payment on start
+     * and waits for it before starting the real call. Method calls made
+     * before the real call is started are buffered and replayed in the same
+     * order after start. If payment cannot be calculated asynchronously the
+     * call is closed with INTERNAL status, synchronous payment errors are
+     * thrown by start(). If call is cancelled before payment is ready the
+     * listener is closed with CANCELLED status, the real call is not started
+     * and the payment is released.
+     */
+    private static class DelayedClientCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        private final static Logger log = LoggerFactory.getLogger(DelayedClientCall.class);
+
+        private final Supplier<CompletableFuture<Payment>> payment;
+        private final Function<Payment, ClientCall<ReqT, RespT>> newCall;
+        private final Consumer<Payment> releasePayment;
+        private final CallOptions callOptions;
+
+        private final Object lock = new Object();
+        private List<Consumer<ClientCall<ReqT, RespT>>> pending = new ArrayList<>();
+        private volatile ClientCall<ReqT, RespT> delegate;
+        private ClientCall.Listener<RespT> listener;
+        private Status cancelStatus;
+        private boolean callStarted;
+        private boolean failed;
+
+        public DelayedClientCall(Supplier<CompletableFuture<Payment>> payment,
+                Function<Payment, ClientCall<ReqT, RespT>> newCall,
+                Consumer<Payment> releasePayment,
+                CallOptions callOptions) {
+            this.payment = payment;
+            this.newCall = newCall;
+            this.releasePayment = releasePayment;
+            this.callOptions = callOptions;
+        }
+
+        @Override
+        public void start(ClientCall.Listener<RespT> responseListener, Metadata headers) {
+            Status cancelled;
+            synchronized (lock) {
+                listener = responseListener;
+                cancelled = cancelStatus;
+            }
+            if (cancelled != null) {
+                close(responseListener, cancelled);
+                return;
+            }
+            payment.get().whenComplete((ready, error) -> {
+                boolean cancelledBeforeStart;
+                synchronized (lock) {
+                    cancelledBeforeStart = failed;
+                    callStarted = !failed;
+                }
+                if (cancelledBeforeStart) {
+                    if (ready != null) {
+                        log.debug("Call is cancelled, releasing payment: {}", ready);
+                        releasePayment.accept(ready);
+                    }
+                    return;
+                }
+                ClientCall<ReqT, RespT> call;
+                try {
+                    if (error != null) {
+                        throw error;
+                    }
+                    call = newCall.apply(ready);
+                    call.start(responseListener, headers);
+                } catch (Throwable e) {
+                    fail(responseListener, e);
+                    return;
+                }
+                drainPending(call);
+            });
+        }
+
+        private void fail(ClientCall.Listener<RespT> responseListener, Throwable error) {
+            Throwable cause = error instanceof CompletionException
+                && error.getCause() != null ? error.getCause() : error;
+            log.debug("Could not start the call", cause);
+            synchronized (lock) {
+                failed = true;
+                pending = null;
+            }
+            close(responseListener, Status.INTERNAL
+                    .withDescription(cause.getMessage())
+                    .withCause(cause));
+        }
+
+        private void close(ClientCall.Listener<RespT> responseListener, Status status) {
+            // listener should be called using call executor, for instance
+            // blocking stub waits for the events from its own executor
+            Executor executor = callOptions.getExecutor();
+            if (executor != null) {
+                executor.execute(() -> responseListener.onClose(status, new Metadata()));
+            } else {
+                responseListener.onClose(status, new Metadata());
+            }
+        }
+
+        private void drainPending(ClientCall<ReqT, RespT> call) {
+            List<Consumer<ClientCall<ReqT, RespT>>> toRun = new ArrayList<>();
+            while (true) {
+                synchronized (lock) {
+                    if (pending.isEmpty()) {
+                        pending = null;
+                        delegate = call;
+                        return;
+                    }
+                    List<Consumer<ClientCall<ReqT, RespT>>> tmp = toRun;
+                    toRun = pending;
+                    pending = tmp;
+                }
+                toRun.forEach(op -> op.accept(call));
+                toRun.clear();
+            }
+        }
+
+        private void delayOrExecute(Consumer<ClientCall<ReqT, RespT>> op) {
+            ClientCall<ReqT, RespT> call;
+            synchronized (lock) {
+                if (failed) {
+                    return;
+                }
+                if (delegate == null) {
+                    pending.add(op);
+                    return;
+                }
+                call = delegate;
+            }
+            op.accept(call);
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            Status status = Status.CANCELLED.withDescription(message).withCause(cause);
+            boolean beforeStart;
+            ClientCall.Listener<RespT> responseListener;
+            synchronized (lock) {
+                if (failed) {
+                    return;
+                }
+                beforeStart = !callStarted;
+                responseListener = listener;
+                if (beforeStart) {
+                    failed = true;
+                    pending = null;
+                    cancelStatus = status;
+                }
+            }
+            if (!beforeStart) {
+                delayOrExecute(call -> call.cancel(message, cause));
+                return;
+            }
+            log.debug("Call is cancelled before payment is ready");
+            if (responseListener != null) {
+                close(responseListener, status);
+            }
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            ClientCall<ReqT, RespT> call = delegate;
+            return call != null ? call.getAttributes() : Attributes.EMPTY;
+        }
+
+        @Override
+        public void halfClose() {
+            delayOrExecute(call -> call.halfClose());
+        }
+
+        @Override
+        public boolean isReady() {
+            ClientCall<ReqT, RespT> call = delegate;
+            return call != null && call.isReady();
+        }
+
+        @Override
+        public void request(int numMessages) {
+            delayOrExecute(call -> call.request(numMessages));
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            delayOrExecute(call -> call.sendMessage(message));
+        }
+
+        @Override
+        public void setMessageCompression(boolean enabled) {
+            delayOrExecute(call -> call.setMessageCompression(enabled));
         }
 
     }
@@ -146,17 +431,21 @@ public class BaseServiceClient implements ServiceClient {
      * This class is io.grpc.ClientCall wrapper injecting custom gRPC metadata
      * before client call. Class overrides start() method and updates metadata
      * before passing it to wrapped io.grpc.ClientCall instance. This is the
-     * only way of metadata injection in gRPC client call interceptor. 
+     * only way of metadata injection in gRPC client call interceptor. Status
+     * of the finished call is passed to the close handler.
      */
     private static class ClientCallWrapper<ReqT, RespT> extends ClientCall<ReqT, RespT> {
 
         private final ClientCall<ReqT, RespT> delegate;
         private Consumer<Metadata> metadataUpdater;
+        private Consumer<Status> closeHandler;
 
         public ClientCallWrapper(ClientCall<ReqT, RespT> delegate,
-                Consumer<Metadata> metadataUpdater) {
+                Consumer<Metadata> metadataUpdater,
+                Consumer<Status> closeHandler) {
             this.delegate = delegate;
             this.metadataUpdater = metadataUpdater;
+            this.closeHandler = closeHandler;
         }
 
         @Override
@@ -197,7 +486,19 @@ public class BaseServiceClient implements ServiceClient {
         @Override
         public void start(ClientCall.Listener<RespT> responseListener, Metadata headers) {
             metadataUpdater.accept(headers);
-            delegate.start(responseListener, headers);
+            try {
+                delegate.start(new ForwardingClientCallListener
+                        .SimpleForwardingClientCallListener<RespT>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        closeHandler.accept(status);
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            } catch (RuntimeException e) {
+                closeHandler.accept(Status.fromThrowable(e));
+                throw e;
+            }
         }
 
     }
@@ -3,6 +3,8 @@ package io.singularitynet.sdk.client;
 import java.math.BigInteger;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Optional;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -65,6 +67,76 @@ public class Configuration {
         PRIVATE_KEY
     }
 
+    /**
+     * Type of the payment channel state provider.
+     */
+    public static enum PaymentChannelStateProviderType {
+        /**
+         * Ask the daemon and the blockchain for the channel state before
+         * each call.
+         */
+        ASK_DAEMON_FIRST,
+        /**
+         * Keep the channel state locally and ask the daemon and the
+         * blockchain only when local state is absent or call failed.
+         */
+        LOCAL_FIRST
+    }
+
+    /**
+     * Type of the metrics implementation.
+     */
+    public static enum MetricsType {
+        /**
+         * Don't record metrics.
+         */
+        NONE,
+        /**
+         * Keep latency histograms in memory.
+         * @see io.singularitynet.sdk.metrics.InMemoryMetrics
+         */
+        IN_MEMORY
+    }
+
+    /**
+     * Default payment channel state provider type.
+     */
+    public static final PaymentChannelStateProviderType DEFAULT_PAYMENT_CHANNEL_STATE_PROVIDER_TYPE = PaymentChannelStateProviderType.ASK_DAEMON_FIRST;
+
+    /**
+     * Default max age of the cached Ethereum block number in milliseconds,
+     * zero means block number is not cached.
+     */
+    public static final long DEFAULT_BLOCK_NUMBER_CACHE_MAX_AGE_MILLIS = 0;
+
+    /**
+     * Default period of the background Ethereum block number polling in
+     * milliseconds, zero means polling is disabled.
+     */
+    public static final long DEFAULT_BLOCK_NUMBER_POLLING_PERIOD_MILLIS = 0;
+
+    /**
+     * Default number of escrow payments presigned in background per payment
+     * channel, zero means presigning is disabled.
+     */
+    public static final int DEFAULT_PAYMENT_PRESIGNING_BUFFER_SIZE = 0;
+
+    /**
+     * Default metrics type.
+     */
+    public static final MetricsType DEFAULT_METRICS_TYPE = MetricsType.NONE;
+
+    /**
+     * Default time to live of the cached organization and service metadata
+     * in milliseconds, zero means metadata is cached forever.
+     */
+    public static final long DEFAULT_METADATA_CACHE_TTL_MILLIS = 0;
+
+    /**
+     * Default maximum total size of the metadata disk cache in bytes.
+     */
+    public static final long DEFAULT_METADATA_DISK_CACHE_MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
     private final URL ethereumJsonRpcEndpoint;
     private final URL ipfsEndpoint;
     private final IdentityType identityType;
@@ -74,6 +146,17 @@ public class Configuration {
     private final Optional<Address> multiPartyEscrowAddress;
     private final BigInteger gasPrice;
     private final BigInteger gasLimit;
+    private final PaymentChannelStateProviderType paymentChannelStateProviderType;
+    private final long blockNumberCacheMaxAgeMillis;
+    private final long blockNumberPollingPeriodMillis;
+    private final Optional<Path> paymentChannelIndexDirectory;
+    private final boolean asyncPayment;
+    private final int paymentPresigningBufferSize;
+    private final MetricsType metricsType;
+    private final long metadataCacheTtlMillis;
+    private final Optional<Path> metadataDiskCacheDirectory;
+    private final long metadataDiskCacheMaxSizeBytes;
+    private final boolean asyncBootstrap;
 
     public static Builder newBuilder() {
         return new Builder();
@@ -93,6 +176,17 @@ public class Configuration {
         this.multiPartyEscrowAddress = builder.multiPartyEscrowAddress;
         this.gasPrice = builder.gasPrice;
         this.gasLimit = builder.gasLimit;
+        this.paymentChannelStateProviderType = builder.paymentChannelStateProviderType;
+        this.blockNumberCacheMaxAgeMillis = builder.blockNumberCacheMaxAgeMillis;
+        this.blockNumberPollingPeriodMillis = builder.blockNumberPollingPeriodMillis;
+        this.paymentChannelIndexDirectory = builder.paymentChannelIndexDirectory;
+        this.asyncPayment = builder.asyncPayment;
+        this.paymentPresigningBufferSize = builder.paymentPresigningBufferSize;
+        this.metricsType = builder.metricsType;
+        this.metadataCacheTtlMillis = builder.metadataCacheTtlMillis;
+        this.metadataDiskCacheDirectory = builder.metadataDiskCacheDirectory;
+        this.metadataDiskCacheMaxSizeBytes = builder.metadataDiskCacheMaxSizeBytes;
+        this.asyncBootstrap = builder.asyncBootstrap;
     }
 
     /**
@@ -158,6 +252,86 @@ public class Configuration {
         return gasLimit;
     }
 
+    /**
+     * @return type of the payment channel state provider.
+     */
+    public PaymentChannelStateProviderType getPaymentChannelStateProviderType() {
+        return paymentChannelStateProviderType;
+    }
+
+    /**
+     * @return max age of the cached Ethereum block number in milliseconds.
+     */
+    public long getBlockNumberCacheMaxAgeMillis() {
+        return blockNumberCacheMaxAgeMillis;
+    }
+
+    /**
+     * @return period of the background Ethereum block number polling in
+     * milliseconds.
+     */
+    public long getBlockNumberPollingPeriodMillis() {
+        return blockNumberPollingPeriodMillis;
+    }
+
+    /**
+     * @return directory to keep payment channel index files.
+     */
+    public Optional<Path> getPaymentChannelIndexDirectory() {
+        return paymentChannelIndexDirectory;
+    }
+
+    /**
+     * @return true if payments are calculated asynchronously.
+     */
+    public boolean isAsyncPayment() {
+        return asyncPayment;
+    }
+
+    /**
+     * @return number of escrow payments presigned in background per payment
+     * channel.
+     */
+    public int getPaymentPresigningBufferSize() {
+        return paymentPresigningBufferSize;
+    }
+
+    /**
+     * @return type of the metrics implementation.
+     */
+    public MetricsType getMetricsType() {
+        return metricsType;
+    }
+
+    /**
+     * @return time to live of the cached metadata in milliseconds.
+     */
+    public long getMetadataCacheTtlMillis() {
+        return metadataCacheTtlMillis;
+    }
+
+    /**
+     * @return directory to keep IPFS content downloaded.
+     */
+    public Optional<Path> getMetadataDiskCacheDirectory() {
+        return metadataDiskCacheDirectory;
+    }
+
+    /**
+     * @return maximum total size of the metadata disk cache in bytes.
+     */
+    public long getMetadataDiskCacheMaxSizeBytes() {
+        return metadataDiskCacheMaxSizeBytes;
+    }
+
+    /**
+     * @return true if SDK dependencies are constructed in parallel and
+     * identity is derived on first use.
+     */
+    public boolean isAsyncBootstrap() {
+        return asyncBootstrap;
+    }
+
     public static class Builder {
 
         private URL ethereumJsonRpcEndpoint;
@@ -169,6 +343,17 @@ public class Configuration {
         private Optional<Address> multiPartyEscrowAddress;
         private BigInteger gasPrice;
         private BigInteger gasLimit;
+        private PaymentChannelStateProviderType paymentChannelStateProviderType;
+        private long blockNumberCacheMaxAgeMillis;
+        private long blockNumberPollingPeriodMillis;
+        private Optional<Path> paymentChannelIndexDirectory;
+        private boolean asyncPayment;
+        private int paymentPresigningBufferSize;
+        private MetricsType metricsType;
+        private long metadataCacheTtlMillis;
+        private Optional<Path> metadataDiskCacheDirectory;
+        private long metadataDiskCacheMaxSizeBytes;
+        private boolean asyncBootstrap;
 
         private Builder() {
             this.ipfsEndpoint = DEFAULT_IPFS_ENDPOINT;
@@ -178,6 +363,15 @@ public class Configuration {
             this.multiPartyEscrowAddress = Optional.<Address>empty();
             this.gasPrice = DEFAULT_GAS_PRICE; 
             this.gasLimit = DEFAULT_GAS_LIMIT;
+            this.paymentChannelStateProviderType = DEFAULT_PAYMENT_CHANNEL_STATE_PROVIDER_TYPE;
+            this.blockNumberCacheMaxAgeMillis = DEFAULT_BLOCK_NUMBER_CACHE_MAX_AGE_MILLIS;
+            this.blockNumberPollingPeriodMillis = DEFAULT_BLOCK_NUMBER_POLLING_PERIOD_MILLIS;
+            this.paymentChannelIndexDirectory = Optional.<Path>empty();
+            this.paymentPresigningBufferSize = DEFAULT_PAYMENT_PRESIGNING_BUFFER_SIZE;
+            this.metricsType = DEFAULT_METRICS_TYPE;
+            this.metadataCacheTtlMillis = DEFAULT_METADATA_CACHE_TTL_MILLIS;
+            this.metadataDiskCacheDirectory = Optional.<Path>empty();
+            this.metadataDiskCacheMaxSizeBytes = DEFAULT_METADATA_DISK_CACHE_MAX_SIZE_BYTES;
         }
 
         private Builder(Configuration object) {
@@ -190,6 +384,17 @@ public class Configuration {
             this.multiPartyEscrowAddress = object.multiPartyEscrowAddress;
             this.gasPrice = object.gasPrice;
             this.gasLimit = object.gasLimit;
+            this.paymentChannelStateProviderType = object.paymentChannelStateProviderType;
+            this.blockNumberCacheMaxAgeMillis = object.blockNumberCacheMaxAgeMillis;
+            this.blockNumberPollingPeriodMillis = object.blockNumberPollingPeriodMillis;
+            this.paymentChannelIndexDirectory = object.paymentChannelIndexDirectory;
+            this.asyncPayment = object.asyncPayment;
+            this.paymentPresigningBufferSize = object.paymentPresigningBufferSize;
+            this.metricsType = object.metricsType;
+            this.metadataCacheTtlMillis = object.metadataCacheTtlMillis;
+            this.metadataDiskCacheDirectory = object.metadataDiskCacheDirectory;
+            this.metadataDiskCacheMaxSizeBytes = object.metadataDiskCacheMaxSizeBytes;
+            this.asyncBootstrap = object.asyncBootstrap;
         }
 
         /**
@@ -377,6 +582,219 @@ public class Configuration {
             return gasLimit;
         }
 
+        /**
+         * Optional. Set type of the payment channel state provider. Default
+         * type is a value of
+         * Configuration.DEFAULT_PAYMENT_CHANNEL_STATE_PROVIDER_TYPE.
+         * @param paymentChannelStateProviderType provider type.
+         * @return builder.
+         */
+        public Builder setPaymentChannelStateProviderType(
+                PaymentChannelStateProviderType paymentChannelStateProviderType) {
+            this.paymentChannelStateProviderType = paymentChannelStateProviderType;
+            return this;
+        }
+
+        public PaymentChannelStateProviderType getPaymentChannelStateProviderType() {
+            return paymentChannelStateProviderType;
+        }
+
+        /**
+         * Optional. Set max age of the cached Ethereum block number. Cached
+         * block number is shared by all service clients of the SDK. Value
+         * should be less than the block interval of the network. Default
+         * value is Configuration.DEFAULT_BLOCK_NUMBER_CACHE_MAX_AGE_MILLIS.
+         * @param blockNumberCacheMaxAgeMillis max age in milliseconds, zero
+         * disables caching.
+         * @return builder.
+         */
+        public Builder setBlockNumberCacheMaxAgeMillis(long blockNumberCacheMaxAgeMillis) {
+            this.blockNumberCacheMaxAgeMillis = blockNumberCacheMaxAgeMillis;
+            return this;
+        }
+
+        public long getBlockNumberCacheMaxAgeMillis() {
+            return blockNumberCacheMaxAgeMillis;
+        }
+
+        /**
+         * Optional. Set period of the background Ethereum block number
+         * polling. Polling is applicable only when block number cache is
+         * enabled. Default value is
+         * Configuration.DEFAULT_BLOCK_NUMBER_POLLING_PERIOD_MILLIS.
+         * @param blockNumberPollingPeriodMillis polling period in
+         * milliseconds, zero disables polling.
+         * @return builder.
+         */
+        public Builder setBlockNumberPollingPeriodMillis(long blockNumberPollingPeriodMillis) {
+            this.blockNumberPollingPeriodMillis = blockNumberPollingPeriodMillis;
+            return this;
+        }
+
+        public long getBlockNumberPollingPeriodMillis() {
+            return blockNumberPollingPeriodMillis;
+        }
+
+        /**
+         * Optional. Set directory to keep payment channel index files. Index
+         * keeps payment channels found in blockchain, so channel discovery
+         * is continued from the last block scanned after restart. Channels
+         * found are kept in memory only when not set.
+         * @param paymentChannelIndexDirectory index directory.
+         * @return builder.
+         */
+        public Builder setPaymentChannelIndexDirectory(Path paymentChannelIndexDirectory) {
+            this.paymentChannelIndexDirectory = Optional.of(paymentChannelIndexDirectory);
+            return this;
+        }
+
+        /**
+         * Optional. Set directory to keep payment channel index files as a
+         * String.
+         * @param paymentChannelIndexDirectory index directory.
+         * @return builder.
+         */
+        public Builder setPaymentChannelIndexDirectory(String paymentChannelIndexDirectory) {
+            return setPaymentChannelIndexDirectory(Paths.get(paymentChannelIndexDirectory));
+        }
+
+        public Optional<Path> getPaymentChannelIndexDirectory() {
+            return paymentChannelIndexDirectory;
+        }
+
+        /**
+         * Optional. Calculate payments asynchronously using the SDK thread
+         * pool. Call is started when payment is ready, so the thread which
+         * starts the call is not blocked. Payment errors are reported as
+         * call status INTERNAL instead of exception thrown. Disabled by
+         * default.
+         * @param asyncPayment true to calculate payments asynchronously.
+         * @return builder.
+         */
+        public Builder setAsyncPayment(boolean asyncPayment) {
+            this.asyncPayment = asyncPayment;
+            return this;
+        }
+
+        public boolean isAsyncPayment() {
+            return asyncPayment;
+        }
+
+        /**
+         * Optional. Set number of escrow payments signed in background in
+         * advance for each payment channel. Next payment amounts of the
+         * channel are predictable, so calls take ready payments instead of
+         * signing them. Zero disables presigning, default is {@link
+         * #DEFAULT_PAYMENT_PRESIGNING_BUFFER_SIZE}.
+         * @param paymentPresigningBufferSize number of presigned payments.
+         * @return builder.
+         */
+        public Builder setPaymentPresigningBufferSize(int paymentPresigningBufferSize) {
+            this.paymentPresigningBufferSize = paymentPresigningBufferSize;
+            return this;
+        }
+
+        public int getPaymentPresigningBufferSize() {
+            return paymentPresigningBufferSize;
+        }
+
+        /**
+         * Optional. Set type of the metrics implementation which records
+         * latency of the payment, daemon, Ethereum and IPFS requests. Custom
+         * implementation can be passed to the Sdk constructor directly.
+         * Default type is a value of Configuration.DEFAULT_METRICS_TYPE.
+         * @param metricsType metrics type.
+         * @return builder.
+         */
+        public Builder setMetricsType(MetricsType metricsType) {
+            this.metricsType = metricsType;
+            return this;
+        }
+
+        public MetricsType getMetricsType() {
+            return metricsType;
+        }
+
+        /**
+         * Optional. Set time to live of the organization and service metadata
+         * cached by SDK in milliseconds. Cached metadata is shared by all
+         * service clients of the SDK. Metadata older than TTL is reloaded in
+         * background while previous copy is still returned. Zero means metadata
+         * is loaded once and cached forever. Default value is
+         * Configuration.DEFAULT_METADATA_CACHE_TTL_MILLIS.
+         * @param metadataCacheTtlMillis TTL in milliseconds.
+         * @return builder.
+         */
+        public Builder setMetadataCacheTtlMillis(long metadataCacheTtlMillis) {
+            this.metadataCacheTtlMillis = metadataCacheTtlMillis;
+            return this;
+        }
+
+        public long getMetadataCacheTtlMillis() {
+            return metadataCacheTtlMillis;
+        }
+
+        /**
+         * Optional. Set directory to keep IPFS content downloaded. IPFS
+         * content is immutable, so it is read from the local file after
+         * the first download without requesting IPFS. Content is not kept
+         * on disk when not set.
+         * @param metadataDiskCacheDirectory cache directory.
+         * @return builder.
+         */
+        public Builder setMetadataDiskCacheDirectory(Path metadataDiskCacheDirectory) {
+            this.metadataDiskCacheDirectory = Optional.of(metadataDiskCacheDirectory);
+            return this;
+        }
+
+        /**
+         * Optional. Set directory to keep IPFS content downloaded as a
+         * String.
+         * @param metadataDiskCacheDirectory cache directory.
+         * @return builder.
+         */
+        public Builder setMetadataDiskCacheDirectory(String metadataDiskCacheDirectory) {
+            return setMetadataDiskCacheDirectory(Paths.get(metadataDiskCacheDirectory));
+        }
+
+        public Optional<Path> getMetadataDiskCacheDirectory() {
+            return metadataDiskCacheDirectory;
+        }
+
+        /**
+         * Optional. Set maximum total size of the metadata disk cache in bytes.
+         * Least recently used files are removed when size is exceeded. Default
+         * value is Configuration.DEFAULT_METADATA_DISK_CACHE_MAX_SIZE_BYTES.
+         * @param metadataDiskCacheMaxSizeBytes cache size in bytes.
+         * @return builder.
+         */
+        public Builder setMetadataDiskCacheMaxSizeBytes(long metadataDiskCacheMaxSizeBytes) {
+            this.metadataDiskCacheMaxSizeBytes = metadataDiskCacheMaxSizeBytes;
+            return this;
+        }
+
+        public long getMetadataDiskCacheMaxSizeBytes() {
+            return metadataDiskCacheMaxSizeBytes;
+        }
+
+        /**
+         * Optional. Construct SDK dependencies in parallel using temporary
+         * thread pool. Ethereum endpoint check, network id request, contract
+         * addresses reading and identity derivation are started at once and
+         * identity is waited for on first use only. Errors are reported when
+         * dependency is requested. Disabled by default.
+         * @param asyncBootstrap true to construct dependencies in parallel.
+         * @return builder.
+         */
+        public Builder setAsyncBootstrap(boolean asyncBootstrap) {
+            this.asyncBootstrap = asyncBootstrap;
+            return this;
+        }
+
+        public boolean isAsyncBootstrap() {
+            return asyncBootstrap;
+        }
+
         public Configuration build() {
             return new Configuration(this);
         }
@@ -1,8 +1,21 @@
 package io.singularitynet.sdk.client;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.protocol.exceptions.ClientConnectionException;
 import org.web3j.tx.gas.StaticGasProvider;
@@ -22,21 +35,30 @@ import io.singularitynet.sdk.ethereum.ContractUtils;
 import io.singularitynet.sdk.ethereum.Identity;
 import io.singularitynet.sdk.ethereum.MnemonicIdentity;
 import io.singularitynet.sdk.ethereum.PrivateKeyIdentity;
-import io.singularitynet.sdk.contracts.Registry;
-import io.singularitynet.sdk.contracts.MultiPartyEscrow;
+import io.singularitynet.sdk.ethereum.Signature;
 
 /**
- * Bootstraps SDK dependencies from configuration.
+ * Bootstraps SDK dependencies from configuration. By default dependencies
+ * are constructed one by one in constructor. When async bootstrap is
+ * enabled in configuration independent steps are started in parallel and
+ * each getter waits only for the steps it depends on; identity is waited
+ * for on first use. Duration of each step is logged and can be retrieved
+ * using {@link #getBootstrapTimings}.
  */
 public class ConfigurationDependencyFactory implements DependencyFactory {
 
     private final static Logger log = LoggerFactory.getLogger(ConfigurationDependencyFactory.class);
 
+    private static final int BOOTSTRAP_THREADS = 4;
+
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
     private final Web3j web3j;
-    private final IPFS ipfs;
-    private final Identity identity;
-    private final Registry registry;
-    private final MultiPartyEscrow mpe;
+    private final CompletableFuture<Void> ethereumCheck;
+    private final CompletableFuture<IPFS> ipfs;
+    private final CompletableFuture<PrivateKeyIdentity> identity;
+    private final CompletableFuture<Registry> registry;
+    private final CompletableFuture<MultiPartyEscrow> mpe;
 
     /**
      * Constructor.
@@ -48,98 +70,224 @@ public class ConfigurationDependencyFactory implements DependencyFactory {
         Preconditions.checkArgument(config.getIdentityType() != null,
                 "Identity type is required");
 
-        log.info("Construct SDK dependencies");
+        log.info("Construct SDK dependencies, asyncBootstrap: {}", config.isAsyncBootstrap());
+        long start = System.nanoTime();
+        Optional<ExecutorService> pool = config.isAsyncBootstrap()
+            ? Optional.of(newBootstrapExecutor())
+            : Optional.empty();
+        Executor executor = pool.<Executor>map(p -> p).orElse(Runnable::run);
 
         log.info("Open connection to Ethereum RPC endpoint, ethereumJsonRpcEndpoint: {}", config.getEthereumJsonRpcEndpoint());
         this.web3j = Web3j.build(new HttpService(config.getEthereumJsonRpcEndpoint().toString()));
+        this.ethereumCheck = timed("ethereum check", () -> checkEthereum(config), executor);
+        if (!config.isAsyncBootstrap()) {
+            join(ethereumCheck);
+        }
+
+        this.ipfs = timed("ipfs", () -> newIpfs(config), executor);
+        this.identity = timed("identity", () -> newIdentity(config), executor);
+
+        StaticGasProvider gasProvider = new StaticGasProvider(
+                config.getGasPrice(), config.getGasLimit());
+        TransactionManager transactionManager = config.isAsyncBootstrap()
+            ? new DeferredTransactionManager(web3j, identity)
+            : new RawTransactionManager(web3j, join(identity).getCredentials());
+
+        CompletableFuture<String> networkId = timed("network id",
+                () -> readNetworkId(), executor);
+
+        this.registry = networkId.thenApplyAsync(id -> time("registry address",
+                    () -> getContractAddress(config.getRegistryAddress(), id, "Registry")),
+                executor)
+            .thenApply(address -> Registry.load(address.toString(), web3j,
+                        transactionManager, gasProvider));
+        this.mpe = networkId.thenApplyAsync(id -> time("mpe address",
+                    () -> getContractAddress(config.getMultiPartyEscrowAddress(), id, "MultiPartyEscrow")),
+                executor)
+            .thenApply(address -> MultiPartyEscrow.load(address.toString(), web3j,
+                        transactionManager, gasProvider));
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(ethereumCheck, ipfs, identity, registry, mpe)
+            .whenComplete((nothing, error) -> {
+                timings.put("total", (System.nanoTime() - start) / 1_000_000);
+                pool.ifPresent(ExecutorService::shutdown);
+                log.info("SDK dependencies are constructed, timings in milliseconds: {}", getBootstrapTimings());
+            });
+        if (!config.isAsyncBootstrap()) {
+            join(all);
+        }
+    }
+
+    private static ExecutorService newBootstrapExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(BOOTSTRAP_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "snet-bootstrap-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private <T> CompletableFuture<T> timed(String step, Supplier<T> supplier,
+            Executor executor) {
+        return CompletableFuture.supplyAsync(() -> time(step, supplier), executor);
+    }
+
+    private <T> T time(String step, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            timings.put(step, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private Void checkEthereum(Configuration config) {
         try {
             web3j.ethBlockNumber().send();
+            return null;
         } catch (IOException | ClientConnectionException e) {
             throw new IllegalArgumentException("Could not perform operation on Ethereum RPC endpoint provided: "
                     + config.getEthereumJsonRpcEndpoint(), e);
         }
+    }
 
+    private static IPFS newIpfs(Configuration config) {
         URL ipfsEndpoint = config.getIpfsEndpoint();
         log.info("Open connection to IPFS RPC endpoint, ipfsEndpoint: {}", ipfsEndpoint);
-        this.ipfs = new IPFS(ipfsEndpoint.getHost(), ipfsEndpoint.getPort());
-
-        StaticGasProvider gasProvider = new StaticGasProvider(
-                config.getGasPrice(), config.getGasLimit());
-        TransactionManager transactionManager;
+        return new IPFS(ipfsEndpoint.getHost(), ipfsEndpoint.getPort());
+    }
 
+    private static PrivateKeyIdentity newIdentity(Configuration config) {
         log.info("New identity, type: {}", config.getIdentityType());
         switch (config.getIdentityType()) {
             case MNEMONIC:
-                {
-                    Preconditions.checkArgument(config.getIdentityMnemonic().isPresent(), "No identity mnemonic specified");
-                    PrivateKeyIdentity identity = new MnemonicIdentity(config.getIdentityMnemonic().get(), 0);
-                    transactionManager = new RawTransactionManager(web3j, identity.getCredentials());
-                    this.identity = identity;
-                }
-                break;
+                Preconditions.checkArgument(config.getIdentityMnemonic().isPresent(), "No identity mnemonic specified");
+                return new MnemonicIdentity(config.getIdentityMnemonic().get(), 0);
             case PRIVATE_KEY:
-                {
-                    Preconditions.checkArgument(config.getIdentityPrivateKey().isPresent(), "No identity private key specified");
-                    PrivateKeyIdentity identity = new PrivateKeyIdentity(config.getIdentityPrivateKey().get());
-                    transactionManager = new RawTransactionManager(web3j, identity.getCredentials());
-                    this.identity = identity;
-                }
-                break;
+                Preconditions.checkArgument(config.getIdentityPrivateKey().isPresent(), "No identity private key specified");
+                return new PrivateKeyIdentity(config.getIdentityPrivateKey().get());
             default:
                 throw new IllegalArgumentException("Unexpected identity type: " + config.getIdentityType());
         }
+    }
 
+    private String readNetworkId() {
         String networkId = Utils.wrapExceptions(() -> {
             return web3j.netVersion().send().getNetVersion();
         });
         log.info("Ethereum network id, networkId: {}", networkId);
+        return networkId;
+    }
 
-        Address registryAddress;
-        if (config.getRegistryAddress().isPresent()) {
-            registryAddress = config.getRegistryAddress().get();
+    private static Address getContractAddress(Optional<Address> configured,
+            String networkId, String contractName) {
+        Address address;
+        if (configured.isPresent()) {
+            address = configured.get();
         } else {
-            log.info("No Registry address in config, using default Registry address");
-            registryAddress = ContractUtils.readContractAddress(networkId, "Registry");
+            log.info("No {} address in config, using default {} address", contractName, contractName);
+            address = ContractUtils.readContractAddress(networkId, contractName);
         }
-        log.info("Registry address, registryAddress: {}", registryAddress);
-        this.registry = Registry.load(registryAddress.toString(), web3j,
-                transactionManager, gasProvider);
+        log.info("{} address, address: {}", contractName, address);
+        return address;
+    }
 
-        Address mpeAddress;
-        if (config.getMultiPartyEscrowAddress().isPresent()) {
-            mpeAddress = config.getMultiPartyEscrowAddress().get();
-        } else {
-            log.info("No MultiPartyEscrow address in config, using default MultiPartyEscrow address");
-            mpeAddress = ContractUtils.readContractAddress(networkId, "MultiPartyEscrow");
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Return duration of the bootstrap steps finished so far. Step "total"
+     * is added when all steps are finished.
+     * @return map of the step names to durations in milliseconds.
+     */
+    public Map<String, Long> getBootstrapTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
         }
-        log.info("MultiPartyEscrow address, mpeAddress: {}", mpeAddress);
-        this.mpe = MultiPartyEscrow.load(mpeAddress.toString(), web3j,
-                transactionManager, gasProvider);
     }
 
     @Override
     public Web3j getWeb3j() {
+        join(ethereumCheck);
         return web3j;
     }
 
     @Override
     public IPFS getIpfs() {
-        return ipfs;
+        return join(ipfs);
     }
 
     @Override
     public Identity getIdentity() {
-        return identity;
+        return identity.isDone() ? join(identity) : new DeferredIdentity(identity);
     }
 
     @Override
     public Registry getRegistry() {
-        return registry;
+        return join(registry);
     }
 
     @Override
     public MultiPartyEscrow getMultiPartyEscrow() {
-        return mpe;
+        return join(mpe);
+    }
+
+    private static class DeferredIdentity implements Identity {
+
+        private final CompletableFuture<? extends Identity> delegate;
+
+        public DeferredIdentity(CompletableFuture<? extends Identity> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Address getAddress() {
+            return join(delegate).getAddress();
+        }
+
+        @Override
+        public Signature sign(byte[] message) {
+            return join(delegate).sign(message);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.isDone() ? join(delegate).toString() : "DeferredIdentity()";
+        }
+
+    }
+
+    private static class DeferredTransactionManager extends TransactionManager {
+
+        private final CompletableFuture<TransactionManager> delegate;
+
+        public DeferredTransactionManager(Web3j web3j,
+                CompletableFuture<PrivateKeyIdentity> identity) {
+            super(web3j, null);
+            this.delegate = identity.thenApply(id ->
+                    new RawTransactionManager(web3j, id.getCredentials()));
+        }
+
+        @Override
+        public EthSendTransaction sendTransaction(BigInteger gasPrice,
+                BigInteger gasLimit, String to, String data, BigInteger value)
+                throws IOException {
+            return join(delegate).sendTransaction(gasPrice, gasLimit, to, data, value);
+        }
+
+        @Override
+        public String getFromAddress() {
+            return join(delegate).getFromAddress();
+        }
+
     }
 
 }
@@ -36,6 +36,17 @@ public class ConfigurationUtils {
         Optional.ofNullable(props.getProperty("multi.party.escrow.address")).map(Address::new).ifPresent(builder::setMultiPartyEscrowAddress);
         Optional.ofNullable(props.getProperty("gas.price")).map(BigInteger::new).ifPresent(builder::setGasPrice);
         Optional.ofNullable(props.getProperty("gas.limit")).map(BigInteger::new).ifPresent(builder::setGasLimit);
+        Optional.ofNullable(props.getProperty("payment.channel.state.provider.type")).map(ConfigurationUtils::toPaymentChannelStateProviderType).ifPresent(builder::setPaymentChannelStateProviderType);
+        Optional.ofNullable(props.getProperty("block.number.cache.max.age.millis")).map(Long::valueOf).ifPresent(builder::setBlockNumberCacheMaxAgeMillis);
+        Optional.ofNullable(props.getProperty("block.number.polling.period.millis")).map(Long::valueOf).ifPresent(builder::setBlockNumberPollingPeriodMillis);
+        Optional.ofNullable(props.getProperty("payment.channel.index.directory")).ifPresent(builder::setPaymentChannelIndexDirectory);
+        Optional.ofNullable(props.getProperty("async.payment")).map(Boolean::valueOf).ifPresent(builder::setAsyncPayment);
+        Optional.ofNullable(props.getProperty("payment.presigning.buffer.size")).map(Integer::valueOf).ifPresent(builder::setPaymentPresigningBufferSize);
+        Optional.ofNullable(props.getProperty("metrics.type")).map(ConfigurationUtils::toMetricsType).ifPresent(builder::setMetricsType);
+        Optional.ofNullable(props.getProperty("metadata.cache.ttl.millis")).map(Long::valueOf).ifPresent(builder::setMetadataCacheTtlMillis);
+        Optional.ofNullable(props.getProperty("metadata.disk.cache.directory")).ifPresent(builder::setMetadataDiskCacheDirectory);
+        Optional.ofNullable(props.getProperty("metadata.disk.cache.max.size.bytes")).map(Long::valueOf).ifPresent(builder::setMetadataDiskCacheMaxSizeBytes);
+        Optional.ofNullable(props.getProperty("async.bootstrap")).map(Boolean::valueOf).ifPresent(builder::setAsyncBootstrap);
 
         return builder.build();
     }
@@ -50,6 +61,17 @@ public class ConfigurationUtils {
         String multiPartyEscrowAddress;
         String gasLimit;
         String gasPrice;
+        String paymentChannelStateProviderType;
+        String blockNumberCacheMaxAgeMillis;
+        String blockNumberPollingPeriodMillis;
+        String paymentChannelIndexDirectory;
+        String asyncPayment;
+        String paymentPresigningBufferSize;
+        String metricsType;
+        String metadataCacheTtlMillis;
+        String metadataDiskCacheDirectory;
+        String metadataDiskCacheMaxSizeBytes;
+        String asyncBootstrap;
     }
 
     /**
@@ -72,8 +94,27 @@ public class ConfigurationUtils {
         Optional.ofNullable(config.multiPartyEscrowAddress).map(Address::new).ifPresent(builder::setMultiPartyEscrowAddress);
         Optional.ofNullable(config.gasPrice).map(BigInteger::new).ifPresent(builder::setGasPrice);
         Optional.ofNullable(config.gasLimit).map(BigInteger::new).ifPresent(builder::setGasLimit);
+        Optional.ofNullable(config.paymentChannelStateProviderType).map(ConfigurationUtils::toPaymentChannelStateProviderType).ifPresent(builder::setPaymentChannelStateProviderType);
+        Optional.ofNullable(config.blockNumberCacheMaxAgeMillis).map(Long::valueOf).ifPresent(builder::setBlockNumberCacheMaxAgeMillis);
+        Optional.ofNullable(config.blockNumberPollingPeriodMillis).map(Long::valueOf).ifPresent(builder::setBlockNumberPollingPeriodMillis);
+        Optional.ofNullable(config.paymentChannelIndexDirectory).ifPresent(builder::setPaymentChannelIndexDirectory);
+        Optional.ofNullable(config.asyncPayment).map(Boolean::valueOf).ifPresent(builder::setAsyncPayment);
+        Optional.ofNullable(config.paymentPresigningBufferSize).map(Integer::valueOf).ifPresent(builder::setPaymentPresigningBufferSize);
+        Optional.ofNullable(config.metricsType).map(ConfigurationUtils::toMetricsType).ifPresent(builder::setMetricsType);
+        Optional.ofNullable(config.metadataCacheTtlMillis).map(Long::valueOf).ifPresent(builder::setMetadataCacheTtlMillis);
+        Optional.ofNullable(config.metadataDiskCacheDirectory).ifPresent(builder::setMetadataDiskCacheDirectory);
+        Optional.ofNullable(config.metadataDiskCacheMaxSizeBytes).map(Long::valueOf).ifPresent(builder::setMetadataDiskCacheMaxSizeBytes);
+        Optional.ofNullable(config.asyncBootstrap).map(Boolean::valueOf).ifPresent(builder::setAsyncBootstrap);
 
         return builder.build();
     }
 
+    private static Configuration.PaymentChannelStateProviderType toPaymentChannelStateProviderType(String value) {
+        return Enum.valueOf(Configuration.PaymentChannelStateProviderType.class, value.toUpperCase());
+    }
+
+    private static Configuration.MetricsType toMetricsType(String value) {
+        return Enum.valueOf(Configuration.MetricsType.class, value.toUpperCase());
+    }
+
 }
@@ -1,5 +1,9 @@
 package io.singularitynet.sdk.client;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import io.grpc.Status;
+
 import io.singularitynet.sdk.payment.Payment;
 
 /**
@@ -19,4 +23,33 @@ public interface PaymentStrategy {
      */
     <ReqT, RespT> Payment getPayment(GrpcCallParameters<ReqT, RespT> parameters, ServiceClient serviceClient);
 
+    /**
+     * Return the payment for the client call asynchronously. Default
+     * implementation calls getPayment() using the executor passed.
+     * Strategy can override it to avoid blocking executor threads.
+     * @param <ReqT> type of the gRPC request of the call.
+     * @param <RespT> type of the gRPC response of the call.
+     * @param parameters provides the information about the gRPC call context.
+     * @param serviceClient provides the information about the platform service
+     * context.
+     * @param executor executor to run blocking operations.
+     * @return future which is completed by instance of the Payment class or
+     * Payment.INVALID_PAYMENT if constructing payment is not possible.
+     */
+    default <ReqT, RespT> CompletableFuture<Payment> getPaymentAsync(
+            GrpcCallParameters<ReqT, RespT> parameters,
+            ServiceClient serviceClient, Executor executor) {
+        return CompletableFuture.supplyAsync(
+                () -> getPayment(parameters, serviceClient), executor);
+    }
+
+    /**
+     * Notify strategy that the call paid by the payment is closed. Default
+     * implementation does nothing.
+     * @param payment payment returned by the strategy for the call.
+     * @param status status of the call.
+     */
+    default void callCompleted(Payment payment, Status status) {
+    }
+
 }
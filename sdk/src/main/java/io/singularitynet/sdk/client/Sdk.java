@@ -2,6 +2,11 @@ package io.singularitynet.sdk.client;
 
 import io.ipfs.api.IPFS;
 import java.math.BigInteger;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.web3j.protocol.Web3j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,21 +16,29 @@ import io.singularitynet.sdk.contracts.MultiPartyEscrow;
 import io.singularitynet.sdk.registry.RegistryContract;
 import io.singularitynet.sdk.registry.MetadataStorage;
 import io.singularitynet.sdk.registry.IpfsMetadataStorage;
+import io.singularitynet.sdk.registry.DiskCacheMetadataStorage;
 import io.singularitynet.sdk.registry.MetadataProvider;
-import io.singularitynet.sdk.registry.CachingMetadataProvider;
-import io.singularitynet.sdk.registry.RegistryMetadataProvider;
+import io.singularitynet.sdk.registry.MetadataCache;
 import io.singularitynet.sdk.daemon.DaemonConnection;
 import io.singularitynet.sdk.daemon.BaseDaemonConnection;
+import io.singularitynet.sdk.daemon.ChannelPool;
 import io.singularitynet.sdk.daemon.EndpointSelector;
 import io.singularitynet.sdk.daemon.FixedGroupEndpointSelector;
 import io.singularitynet.sdk.daemon.GrpcSettings;
 import io.singularitynet.sdk.mpe.AskDaemonFirstPaymentChannelProvider;
+import io.singularitynet.sdk.mpe.LocalFirstPaymentChannelProvider;
 import io.singularitynet.sdk.mpe.BlockchainPaymentChannelManager;
+import io.singularitynet.sdk.mpe.EscrowPaymentPresigner;
+import io.singularitynet.sdk.mpe.FilePaymentChannelIndex;
 import io.singularitynet.sdk.mpe.MpePaymentChannelManager;
 import io.singularitynet.sdk.mpe.MultiPartyEscrowContract;
+import io.singularitynet.sdk.mpe.PaymentChannelIndex;
 import io.singularitynet.sdk.mpe.PaymentChannelStateProvider;
 import io.singularitynet.sdk.mpe.PaymentChannelStateService;
 import io.singularitynet.sdk.freecall.FreeCallStateService;
+import io.singularitynet.sdk.metrics.Metrics;
+import io.singularitynet.sdk.metrics.InMemoryMetrics;
+import io.singularitynet.sdk.metrics.MeteredIdentity;
 import io.singularitynet.sdk.client.PaymentStrategy;
 import io.singularitynet.sdk.client.ServiceClient;
 import io.singularitynet.sdk.client.BaseServiceClient;
@@ -49,19 +62,27 @@ public class Sdk implements AutoCloseable {
     private final Identity identity;
     private final Registry registry;
     private final MultiPartyEscrow mpe;
+    private final Configuration config;
+    private final Metrics metrics;
 
     private final Ethereum ethereum;
     private final MultiPartyEscrowContract mpeContract;
     private final MetadataStorage metadataStorage;
     private final RegistryContract registryContract;
     private final MpePaymentChannelManager paymentChannelManager;
+    private final Optional<ExecutorService> paymentExecutor;
+    private final Optional<ExecutorService> presigningExecutor;
+    private final Optional<EscrowPaymentPresigner> paymentPresigner;
+    private final ExecutorService metadataExecutor;
+    private final MetadataCache metadataCache;
+    private final ChannelPool channelPool = new ChannelPool();
 
     /**
      * New SDK instance for the configuration given.
      * @param config configuration instance.
      */
     public Sdk(Configuration config) {
-        this(new ConfigurationDependencyFactory(config));
+        this(new ConfigurationDependencyFactory(config), config);
     }
 
     /**
@@ -69,8 +90,12 @@ public class Sdk implements AutoCloseable {
      * @param factory dependency factory instance.
      */
     public Sdk(DependencyFactory factory) {
+        this(factory, Configuration.newBuilder().build());
+    }
+
+    private Sdk(DependencyFactory factory, Configuration config) {
         this(factory.getWeb3j(), factory.getIpfs(), factory.getIdentity(),
-                factory.getRegistry(), factory.getMultiPartyEscrow());
+                factory.getRegistry(), factory.getMultiPartyEscrow(), config);
     }
 
     /**
@@ -83,17 +108,99 @@ public class Sdk implements AutoCloseable {
      */
     public Sdk(Web3j web3j, IPFS ipfs, Identity identity, Registry registry,
             MultiPartyEscrow mpe) {
+        this(web3j, ipfs, identity, registry, mpe, Configuration.newBuilder().build());
+    }
+
+    /**
+     * New SDK instance with all dependencies provided manually and SDK
+     * options read from the configuration. Ethereum, IPFS and identity
+     * settings of the configuration are not used.
+     * @param web3j web3j instance.
+     * @param ipfs IPFS instance.
+     * @param identity identity instance.
+     * @param registry Registry contract instance.
+     * @param mpe MultiPartyEscrow contract instance.
+     * @param config configuration instance.
+     */
+    public Sdk(Web3j web3j, IPFS ipfs, Identity identity, Registry registry,
+            MultiPartyEscrow mpe, Configuration config) {
+        this(web3j, ipfs, identity, registry, mpe, config, newMetrics(config));
+    }
+
+    /**
+     * New SDK instance with all dependencies provided manually, custom
+     * metrics implementation and SDK options read from the configuration.
+     * Ethereum, IPFS, identity and metrics type settings of the
+     * configuration are not used.
+     * @param web3j web3j instance.
+     * @param ipfs IPFS instance.
+     * @param identity identity instance.
+     * @param registry Registry contract instance.
+     * @param mpe MultiPartyEscrow contract instance.
+     * @param config configuration instance.
+     * @param metrics metrics to record SDK operations.
+     */
+    public Sdk(Web3j web3j, IPFS ipfs, Identity identity, Registry registry,
+            MultiPartyEscrow mpe, Configuration config, Metrics metrics) {
         this.web3j = web3j;
         this.ipfs = ipfs;
-        this.identity = identity;
+        this.identity = metrics == Metrics.NONE
+            ? identity
+            : new MeteredIdentity(identity, metrics);
         this.registry = registry;
         this.mpe = mpe;
+        this.config = config;
+        this.metrics = metrics;
 
-        this.ethereum = new Ethereum(web3j);
-        this.mpeContract = new MultiPartyEscrowContract(web3j, mpe);
-        this.metadataStorage = new IpfsMetadataStorage(ipfs);
-        this.registryContract = new RegistryContract(registry);
-        this.paymentChannelManager = new MpePaymentChannelManager(mpeContract);
+        this.ethereum = new Ethereum(web3j,
+                config.getBlockNumberCacheMaxAgeMillis(),
+                config.getBlockNumberPollingPeriodMillis());
+        this.mpeContract = new MultiPartyEscrowContract(web3j, mpe, ethereum,
+                MultiPartyEscrowContract.DEFAULT_LOGS_BLOCK_RANGE,
+                MultiPartyEscrowContract.DEFAULT_LOGS_PARALLELISM, metrics);
+        MetadataStorage ipfsStorage = new IpfsMetadataStorage(ipfs, metrics);
+        this.metadataStorage = config.getMetadataDiskCacheDirectory()
+            .<MetadataStorage>map(directory -> new DiskCacheMetadataStorage(
+                        ipfsStorage, directory, config.getMetadataDiskCacheMaxSizeBytes()))
+            .orElse(ipfsStorage);
+        this.registryContract = new RegistryContract(registry, metrics);
+        this.paymentChannelManager = new MpePaymentChannelManager(mpeContract, ethereum,
+                config.getPaymentChannelIndexDirectory()
+                .<PaymentChannelIndex>map(FilePaymentChannelIndex::new)
+                .orElse(PaymentChannelIndex.NONE));
+        this.paymentExecutor = config.isAsyncPayment()
+            ? Optional.of(newDaemonExecutor("snet-payment-"))
+            : Optional.empty();
+        this.presigningExecutor = config.getPaymentPresigningBufferSize() > 0
+            ? Optional.of(newDaemonExecutor("snet-payment-presigner-"))
+            : Optional.empty();
+        this.paymentPresigner = presigningExecutor.map(executor ->
+                new EscrowPaymentPresigner(executor,
+                    config.getPaymentPresigningBufferSize()));
+        this.metadataExecutor = newDaemonExecutor("snet-metadata-");
+        this.metadataCache = new MetadataCache(registryContract, metadataStorage,
+                config.getMetadataCacheTtlMillis(), metadataExecutor);
+    }
+
+    private static Metrics newMetrics(Configuration config) {
+        switch (config.getMetricsType()) {
+            case IN_MEMORY:
+                return new InMemoryMetrics();
+            case NONE:
+                return Metrics.NONE;
+            default:
+                throw new IllegalArgumentException("Unexpected metrics type: "
+                        + config.getMetricsType());
+        }
+    }
+
+    private static ExecutorService newDaemonExecutor(String threadNamePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
@@ -131,16 +238,32 @@ public class Sdk implements AutoCloseable {
         MetadataProvider metadataProvider = getMetadataProvider(orgId, serviceId);
 
         DaemonConnection connection = new BaseDaemonConnection(
-                endpointSelector, grpcSettings, metadataProvider);
+                endpointSelector, grpcSettings, metadataProvider, channelPool);
 
         PaymentChannelStateProvider paymentChannelStateProvider =
-            new AskDaemonFirstPaymentChannelProvider(mpeContract, connection,
-                    ethereum);
+            newPaymentChannelStateProvider(connection);
         FreeCallStateService freeCallStateService = new FreeCallStateService(
-                orgId, serviceId, connection, ethereum);
+                orgId, serviceId, connection, ethereum, metrics);
 
         return new BaseServiceClient(this, serviceId, connection, metadataProvider,
-                paymentChannelStateProvider, freeCallStateService, paymentStrategy); 
+                paymentChannelStateProvider, freeCallStateService, paymentStrategy,
+                paymentExecutor.map(executor -> (Executor) executor));
+    }
+
+    private PaymentChannelStateProvider newPaymentChannelStateProvider(
+            DaemonConnection connection) {
+        switch (config.getPaymentChannelStateProviderType()) {
+            case LOCAL_FIRST:
+                return new LocalFirstPaymentChannelProvider(
+                        new AskDaemonFirstPaymentChannelProvider(mpeContract,
+                            connection, ethereum, metrics));
+            case ASK_DAEMON_FIRST:
+                return new AskDaemonFirstPaymentChannelProvider(mpeContract,
+                        connection, ethereum, metrics);
+            default:
+                throw new IllegalArgumentException("Unexpected payment channel state provider type: "
+                        + config.getPaymentChannelStateProviderType());
+        }
     }
 
     /**
@@ -169,14 +292,14 @@ public class Sdk implements AutoCloseable {
 
     /**
      * Return metadata provider for the given organiation and service id.
+     * Metadata is cached by the SDK instance and shared by all providers
+     * of the same organization and service.
      * @param orgId organization id.
      * @param serviceId service id.
      * @return metadata provider instance.
      */
     public MetadataProvider getMetadataProvider(String orgId, String serviceId) {
-        return new CachingMetadataProvider(
-                new RegistryMetadataProvider(orgId, serviceId, registryContract,
-                    metadataStorage));
+        return metadataCache.getMetadataProvider(orgId, serviceId);
     }
 
     /**
@@ -186,11 +309,30 @@ public class Sdk implements AutoCloseable {
         return paymentChannelManager;
     }
 
+    /**
+     * @return metrics which record SDK operations.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return escrow payment presigner if presigning is enabled.
+     */
+    public Optional<EscrowPaymentPresigner> getPaymentPresigner() {
+        return paymentPresigner;
+    }
+
     /**
      * Close SDK and release all resources aquired.
      */
     @Override
     public void close() {
+        paymentExecutor.ifPresent(ExecutorService::shutdown);
+        presigningExecutor.ifPresent(ExecutorService::shutdown);
+        metadataExecutor.shutdown();
+        channelPool.shutdownNow();
+        ethereum.close();
         web3j.shutdown();
         log.info("SDK is closed");
     }
@@ -3,6 +3,10 @@ package io.singularitynet.sdk.daemon;
 import io.grpc.*;
 import java.math.BigInteger;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import org.slf4j.Logger;
@@ -10,31 +14,69 @@ import org.slf4j.LoggerFactory;
 
 import io.singularitynet.sdk.registry.MetadataProvider;
 
+/**
+ * Daemon connection which opens gRPC channel to the endpoint returned by
+ * endpoint selector. Stubs are constructed using the channel which sends
+ * calls to the current underlying channel. When {@link #FAILOVER_THRESHOLD}
+ * calls in a row fail with UNAVAILABLE or DEADLINE_EXCEEDED status, or
+ * channel to the single endpoint goes into TRANSIENT_FAILURE state, next
+ * endpoint is selected and underlying channel is replaced. Calls in flight
+ * are finished using the previous channel which is shut down gracefully.
+ * Channel is not replaced when the same endpoints are selected again,
+ * because the channel pool returns the same failed channel for them.
+ */
 // @ThreadSafe
 public class BaseDaemonConnection implements DaemonConnection {
 
     private final static Logger log = LoggerFactory.getLogger(BaseDaemonConnection.class);
 
+    /**
+     * Number of the failed calls in a row which leads to the endpoint
+     * failover.
+     */
+    public static final int FAILOVER_THRESHOLD = 3;
+
+    private static final int MAX_SELECT_ATTEMPTS = 3;
+
     private final EndpointSelector endpointSelector;
     private final GrpcSettings grpcSettings;
     private final ClientInterceptorProxy interceptorProxy;
     private final MetadataProvider metadataProvider;
+    private final ChannelPool channelPool;
+    private final Channel failoverChannel = new FailoverChannel();
+    private final Object failoverLock = new Object();
 
-    private AtomicReference<ManagedChannel> channel = new AtomicReference<>();
-    private volatile Endpoint endpoint;
+    private final AtomicReference<Connection> connection = new AtomicReference<>();
+    private volatile boolean shutdown;
 
     public BaseDaemonConnection(EndpointSelector endpointSelector,
             GrpcSettings grpcSettings, MetadataProvider metadataProvider) {
+        this(endpointSelector, grpcSettings, metadataProvider, new ChannelPool());
+    }
+
+    /**
+     * Constructor.
+     * @param endpointSelector endpoint selection strategy.
+     * @param grpcSettings gRPC channel settings.
+     * @param metadataProvider service metadata provider.
+     * @param channelPool pool of the channels shared with other
+     * connections.
+     */
+    public BaseDaemonConnection(EndpointSelector endpointSelector,
+            GrpcSettings grpcSettings, MetadataProvider metadataProvider,
+            ChannelPool channelPool) {
         log.info("New daemon connection, endpointSelector: {}", endpointSelector);
         this.endpointSelector = endpointSelector;
         this.grpcSettings = grpcSettings;
         this.interceptorProxy = new ClientInterceptorProxy();
         this.metadataProvider = metadataProvider;
+        this.channelPool = channelPool;
     }
 
     @Override
     public <T> T getGrpcStub(Function<Channel, T> constructor) {
-        return constructor.apply(getChannelLazy());
+        getConnectionLazy();
+        return constructor.apply(failoverChannel);
     }
 
     @Override
@@ -44,48 +86,240 @@ public class BaseDaemonConnection implements DaemonConnection {
 
     @Override
     public Endpoint getEndpoint() {
-        return endpoint;
+        Connection value = connection.get();
+        return value == null ? null : value.endpoint;
     }
 
     @Override
     public void shutdownNow() {
-        channel.get().shutdownNow();
+        shutdown = true;
+        Connection value = connection.get();
+        if (value != null) {
+            value.channel.shutdownNow();
+        }
         log.info("gRPC channel to daemon closed");
     }
 
-    private ManagedChannel getChannelLazy() {
-        ManagedChannel value = channel.get();
+    /**
+     * @return current underlying channel.
+     */
+    ManagedChannel getManagedChannel() {
+        return getConnectionLazy().channel;
+    }
+
+    private Connection getConnectionLazy() {
+        Connection value = connection.get();
         if (value != null) {
             return value;
         }
 
-        value = getChannel();
-        if (channel.compareAndSet(null, value)) {
+        value = newConnection(null);
+        if (connection.compareAndSet(null, value)) {
+            watchState(value);
             return value;
         }
-        value.shutdownNow();
-        return channel.get();
-    }
-    
-    // TODO: make this part of the configuration
-    private static int MAX_GRPC_INBOUND_MESSAGE_SIZE = 1 << 24;
-
-    private ManagedChannel getChannel() {
-        endpoint = endpointSelector.nextEndpoint(metadataProvider);
-        URL url = endpoint.getUrl();
-        ManagedChannelBuilder builder = ManagedChannelBuilder
-            .forAddress(url.getHost(), url.getPort())
-            .maxInboundMessageSize(this.grpcSettings.getMaxInboundMessageSize())
-            .intercept(interceptorProxy);
-        // TODO: test HTTPS connections
-        if ("http".equals(url.getProtocol())) {
-            builder.usePlaintext();
-        }
-        ManagedChannel channel = builder.build();
-        log.info("gRPC channel created, channel: {}", channel);
+        value.channel.shutdownNow();
+        return connection.get();
+    }
+
+    private void onCallClosed(Connection current, Status status) {
+        Status.Code code = status.getCode();
+        if (code != Status.Code.UNAVAILABLE && code != Status.Code.DEADLINE_EXCEEDED) {
+            current.failures.set(0);
+            return;
+        }
+        int failures = current.failures.incrementAndGet();
+        log.debug("Call to daemon failed, endpoint: {}, status: {}, failures: {}",
+                current.endpoint.getUrl(), status, failures);
+        if (failures >= FAILOVER_THRESHOLD) {
+            failover(current, "calls failed: " + failures + ", last status: " + status);
+        }
+    }
+
+    private void failover(Connection failed, String reason) {
+        // failover triggered by failed calls and by channel state at the
+        // same time should select next endpoint once, so the second one
+        // waits and returns when connection is already replaced
+        synchronized (failoverLock) {
+            replaceConnection(failed, reason);
+        }
+    }
+
+    private void replaceConnection(Connection failed, String reason) {
+        if (shutdown || connection.get() != failed) {
+            return;
+        }
+        Connection next;
+        try {
+            next = newConnection(failed);
+        } catch (RuntimeException e) {
+            log.error("Could not select next endpoint to failover, endpoint: {}",
+                    failed.endpoint.getUrl(), e);
+            return;
+        }
+        if (next == null) {
+            log.warn("No other endpoint to failover, endpoint: {}, reason: {}",
+                    failed.endpoint.getUrl(), reason);
+            failed.failures.set(0);
+            return;
+        }
+        if (!shutdown && connection.compareAndSet(failed, next)) {
+            log.warn("Daemon endpoint failover, from: {}, to: {}, reason: {}",
+                    failed.endpoint.getUrl(), next.endpoint.getUrl(), reason);
+            watchState(next);
+            failed.channel.shutdown();
+        } else {
+            next.channel.shutdownNow();
+        }
+    }
+
+    private void watchState(Connection current) {
+        // channel taken from the pool can be in TRANSIENT_FAILURE already
+        // because of other connection, so state is checked only after it
+        // is changed, otherwise failover repeats without waiting for the
+        // reconnect attempt
+        waitForStateChange(current, current.channel.getState(false));
+    }
+
+    private void onStateChanged(Connection current) {
+        ConnectivityState state = current.channel.getState(false);
+        if (state == ConnectivityState.TRANSIENT_FAILURE) {
+            failover(current, "channel state: " + state);
+        }
+        waitForStateChange(current, state);
+    }
+
+    private void waitForStateChange(Connection current, ConnectivityState state) {
+        if (shutdown || state == ConnectivityState.SHUTDOWN || connection.get() != current) {
+            return;
+        }
+        current.channel.notifyWhenStateChanged(state, () -> onStateChanged(current));
+    }
+
+    /**
+     * @param failed connection to replace, null if there is no connection.
+     * @return new connection, null if the same endpoints as the failed
+     * connection ones are selected.
+     */
+    private Connection newConnection(Connection failed) {
+        List<Endpoint> endpoints = endpointSelector.getEndpoints(metadataProvider);
+        for (int i = 1; i < MAX_SELECT_ATTEMPTS && failed != null
+                && failed.hasSameEndpoints(endpoints); ++i) {
+            endpoints = endpointSelector.getEndpoints(metadataProvider);
+        }
+        if (failed != null && failed.hasSameEndpoints(endpoints)) {
+            return null;
+        }
+        return new Connection(endpoints, getChannel(endpoints));
+    }
+
+    private ManagedChannel getChannel(List<Endpoint> endpoints) {
+        if (endpoints.size() == 1) {
+            return newChannel(endpoints.get(0).getUrl());
+        }
+        List<ManagedChannel> channels = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            channels.add(newChannel(endpoint.getUrl()));
+        }
+        ManagedChannel channel = new LoadBalancingChannel(endpoints, channels);
+        log.info("Load balancing gRPC channel created, channel: {}", channel);
         return channel;
     }
 
+    private ManagedChannel newChannel(URL url) {
+        return channelPool.acquire(url, grpcSettings, interceptorProxy,
+                new CallOptionsInterceptor(grpcSettings));
+    }
+
+    private static class Connection {
+
+        private final Endpoint endpoint;
+        private final List<String> urls;
+        private final ManagedChannel channel;
+        private final AtomicInteger failures = new AtomicInteger();
+
+        public Connection(List<Endpoint> endpoints, ManagedChannel channel) {
+            this.endpoint = endpoints.get(0);
+            this.urls = getUrls(endpoints);
+            this.channel = channel;
+        }
+
+        private boolean hasSameEndpoints(List<Endpoint> endpoints) {
+            return urls.equals(getUrls(endpoints));
+        }
+
+        private static List<String> getUrls(List<Endpoint> endpoints) {
+            List<String> urls = new ArrayList<>();
+            for (Endpoint endpoint : endpoints) {
+                urls.add(endpoint.getUrl().toString());
+            }
+            return urls;
+        }
+
+    }
+
+    /**
+     * Channel which sends calls to the current underlying channel and
+     * tracks their status.
+     */
+    // @ThreadSafe
+    private class FailoverChannel extends Channel {
+
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+                MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+            Connection current = getConnectionLazy();
+            return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
+                    current.channel.newCall(method, callOptions)) {
+                @Override
+                public void start(ClientCall.Listener<RespT> responseListener, Metadata headers) {
+                    super.start(new ForwardingClientCallListener
+                            .SimpleForwardingClientCallListener<RespT>(responseListener) {
+                        @Override
+                        public void onClose(Status status, Metadata trailers) {
+                            onCallClosed(current, status);
+                            super.onClose(status, trailers);
+                        }
+                    }, headers);
+                }
+            };
+        }
+
+        @Override
+        public String authority() {
+            return getConnectionLazy().channel.authority();
+        }
+
+    }
+
+    /**
+     * Interceptor which sets compression and default deadline of the call.
+     */
+    private static class CallOptionsInterceptor implements ClientInterceptor {
+
+        private final GrpcSettings grpcSettings;
+
+        public CallOptionsInterceptor(GrpcSettings grpcSettings) {
+            this.grpcSettings = grpcSettings;
+        }
+
+        @Override
+        public <ReqT,RespT> ClientCall<ReqT,RespT> interceptCall(
+                MethodDescriptor<ReqT,RespT> method,
+                CallOptions callOptions,
+                Channel next) {
+            if (grpcSettings.getCompression().isPresent() && callOptions.getCompressor() == null) {
+                callOptions = callOptions.withCompression(grpcSettings.getCompression().get());
+            }
+            if (grpcSettings.getDefaultDeadlineMillis() > 0 && callOptions.getDeadline() == null) {
+                callOptions = callOptions.withDeadlineAfter(
+                        grpcSettings.getDefaultDeadlineMillis(), TimeUnit.MILLISECONDS);
+            }
+            return next.newCall(method, callOptions);
+        }
+
+    }
+
     // @ThreadSafe
     private static class ClientInterceptorProxy implements ClientInterceptor {
 
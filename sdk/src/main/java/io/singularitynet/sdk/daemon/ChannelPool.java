@@ -0,0 +1,268 @@
+package io.singularitynet.sdk.daemon;
+
+import io.grpc.*;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of the gRPC channels shared between daemon connections. Channels are
+ * keyed by endpoint URL and gRPC settings, so connections to the same daemon
+ * with the same settings use the same channel and the same TCP connection.
+ * Each connection gets its own lease of the channel with its own
+ * interceptors applied. Underlying channel is shut down when the last lease
+ * is shut down.
+ */
+// @ThreadSafe
+public class ChannelPool {
+
+    private final static Logger log = LoggerFactory.getLogger(ChannelPool.class);
+
+    private final Map<Key, Entry> channels = new HashMap<>();
+
+    /**
+     * Return lease of the channel to the endpoint. Calling shutdown() or
+     * shutdownNow() on the lease releases it; calls of other leases are not
+     * affected.
+     * @param url endpoint URL.
+     * @param grpcSettings gRPC settings of the channel.
+     * @param interceptors interceptors to apply to the calls of the lease.
+     * @return channel lease.
+     */
+    public ManagedChannel acquire(URL url, GrpcSettings grpcSettings,
+            ClientInterceptor... interceptors) {
+        Key key = new Key(url.toString(), grpcSettings);
+        Entry entry;
+        synchronized (this) {
+            entry = channels.get(key);
+            if (entry == null || entry.channel.isShutdown()) {
+                entry = new Entry(key, newChannel(url, grpcSettings));
+                channels.put(key, entry);
+            }
+            ++entry.references;
+        }
+        log.debug("Channel is acquired, url: {}, references: {}", url, entry.references);
+        return new Lease(entry, interceptors);
+    }
+
+    private void release(Entry entry, boolean now) {
+        synchronized (this) {
+            if (--entry.references > 0) {
+                log.debug("Channel is released, url: {}, references: {}",
+                        entry.key.url, entry.references);
+                return;
+            }
+            channels.remove(entry.key, entry);
+        }
+        if (now) {
+            entry.channel.shutdownNow();
+        } else {
+            entry.channel.shutdown();
+        }
+        log.info("Shared gRPC channel closed, url: {}", entry.key.url);
+    }
+
+    /**
+     * @return number of the channels opened.
+     */
+    public synchronized int size() {
+        return channels.size();
+    }
+
+    /**
+     * Shutdown all channels of the pool immediately.
+     */
+    public void shutdownNow() {
+        Entry[] entries;
+        synchronized (this) {
+            entries = channels.values().toArray(new Entry[0]);
+            channels.clear();
+        }
+        for (Entry entry : entries) {
+            entry.channel.shutdownNow();
+        }
+        log.info("gRPC channel pool closed, channels: {}", entries.length);
+    }
+
+    static ManagedChannel newChannel(URL url, GrpcSettings grpcSettings) {
+        int count = grpcSettings.getChannelsPerEndpoint();
+        if (count <= 1) {
+            return newNettyChannel(url, grpcSettings);
+        }
+        List<ManagedChannel> channels = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            channels.add(newNettyChannel(url, grpcSettings));
+        }
+        ManagedChannel channel = new RoundRobinChannel(channels);
+        log.info("Round-robin gRPC channel created, url: {}, channels: {}", url, count);
+        return channel;
+    }
+
+    private static ManagedChannel newNettyChannel(URL url, GrpcSettings grpcSettings) {
+        NettyChannelBuilder builder = NettyChannelBuilder
+            .forAddress(url.getHost(), url.getPort())
+            .maxInboundMessageSize(grpcSettings.getMaxInboundMessageSize());
+        if (grpcSettings.getKeepAliveTimeMillis() > 0) {
+            builder.keepAliveTime(grpcSettings.getKeepAliveTimeMillis(), TimeUnit.MILLISECONDS)
+                .keepAliveWithoutCalls(grpcSettings.isKeepAliveWithoutCalls());
+        }
+        if (grpcSettings.getKeepAliveTimeoutMillis() > 0) {
+            builder.keepAliveTimeout(grpcSettings.getKeepAliveTimeoutMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (grpcSettings.getFlowControlWindow() > 0) {
+            builder.flowControlWindow(grpcSettings.getFlowControlWindow());
+        }
+        if (grpcSettings.getIdleTimeoutMillis() > 0) {
+            builder.idleTimeout(grpcSettings.getIdleTimeoutMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (grpcSettings.isDirectExecutor()) {
+            builder.directExecutor();
+        }
+        grpcSettings.getExecutor().ifPresent(builder::executor);
+        grpcSettings.getEventLoopGroup().ifPresent(group -> {
+            builder.eventLoopGroup(group);
+            builder.channelType(group instanceof EpollEventLoopGroup
+                    ? EpollSocketChannel.class : NioSocketChannel.class);
+        });
+        // TODO: test HTTPS connections
+        if ("http".equals(url.getProtocol())) {
+            builder.usePlaintext();
+        }
+        ManagedChannel channel = builder.build();
+        log.info("gRPC channel created, channel: {}", channel);
+        return channel;
+    }
+
+    @EqualsAndHashCode
+    @ToString
+    private static class Key {
+
+        private final String url;
+        private final GrpcSettings grpcSettings;
+
+        public Key(String url, GrpcSettings grpcSettings) {
+            this.url = url;
+            this.grpcSettings = grpcSettings;
+        }
+
+    }
+
+    private static class Entry {
+
+        private final Key key;
+        private final ManagedChannel channel;
+        private int references;
+
+        public Entry(Key key, ManagedChannel channel) {
+            this.key = key;
+            this.channel = channel;
+        }
+
+    }
+
+    // @ThreadSafe
+    class Lease extends ManagedChannel {
+
+        private final Entry entry;
+        private final Channel channel;
+        private volatile boolean released;
+
+        public Lease(Entry entry, ClientInterceptor... interceptors) {
+            this.entry = entry;
+            this.channel = ClientInterceptors.intercept(entry.channel, interceptors);
+        }
+
+        ManagedChannel getDelegate() {
+            return entry.channel;
+        }
+
+        private ManagedChannel release(boolean now) {
+            boolean first;
+            synchronized (this) {
+                first = !released;
+                released = true;
+            }
+            if (first) {
+                ChannelPool.this.release(entry, now);
+            }
+            return this;
+        }
+
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+                MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+            return channel.newCall(method, callOptions);
+        }
+
+        @Override
+        public String authority() {
+            return channel.authority();
+        }
+
+        @Override
+        public ManagedChannel shutdown() {
+            return release(false);
+        }
+
+        @Override
+        public ManagedChannel shutdownNow() {
+            return release(true);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return released || entry.channel.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return isShutdown() && (entry.references > 0 || entry.channel.isTerminated());
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            if (isTerminated()) {
+                return true;
+            }
+            return entry.channel.awaitTermination(timeout, unit);
+        }
+
+        @Override
+        public ConnectivityState getState(boolean requestConnection) {
+            return entry.channel.getState(requestConnection);
+        }
+
+        @Override
+        public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+            entry.channel.notifyWhenStateChanged(source, callback);
+        }
+
+        @Override
+        public void resetConnectBackoff() {
+            entry.channel.resetConnectBackoff();
+        }
+
+        @Override
+        public void enterIdle() {
+            entry.channel.enterIdle();
+        }
+
+        @Override
+        public String toString() {
+            return "ChannelPool.Lease(" + entry.key.url + ", " + entry.channel + ")";
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package io.singularitynet.sdk.daemon;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connectivity state of the channel which consists of few channels. State is
+ * the best state of the channels. State changes are tracked by a single
+ * callback per channel which is registered again after each change and
+ * notifies all callbacks waiting for the state change.
+ */
+// @ThreadSafe
+class CombinedChannelState {
+
+    private final List<ManagedChannel> channels;
+    private final Set<StateListener> listeners = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean watching = new AtomicBoolean();
+
+    /**
+     * @param channels channels to combine state of.
+     */
+    CombinedChannelState(List<ManagedChannel> channels) {
+        this.channels = channels;
+    }
+
+    /**
+     * @param requestConnection request connection if channel is idle.
+     * @return the best state of the channels.
+     * @see io.grpc.ManagedChannel#getState
+     */
+    ConnectivityState get(boolean requestConnection) {
+        ConnectivityState best = ConnectivityState.SHUTDOWN;
+        for (ManagedChannel channel : channels) {
+            ConnectivityState state = channel.getState(requestConnection);
+            if (rank(state) < rank(best)) {
+                best = state;
+            }
+        }
+        return best;
+    }
+
+    private static int rank(ConnectivityState state) {
+        switch (state) {
+            case READY:
+                return 0;
+            case CONNECTING:
+                return 1;
+            case IDLE:
+                return 2;
+            case TRANSIENT_FAILURE:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    /**
+     * @param source state to wait the change of.
+     * @param callback callback which is called once state is changed.
+     * @see io.grpc.ManagedChannel#notifyWhenStateChanged
+     */
+    void notifyWhenChanged(ConnectivityState source, Runnable callback) {
+        if (get(false) != source) {
+            callback.run();
+            return;
+        }
+        if (watching.compareAndSet(false, true)) {
+            channels.forEach(this::watchState);
+        }
+        StateListener listener = new StateListener(source, callback);
+        listeners.add(listener);
+        // state can be changed before listener is added
+        notifyListeners();
+    }
+
+    private void watchState(ManagedChannel channel) {
+        ConnectivityState state = channel.getState(false);
+        if (state == ConnectivityState.SHUTDOWN) {
+            return;
+        }
+        channel.notifyWhenStateChanged(state, () -> {
+            notifyListeners();
+            watchState(channel);
+        });
+    }
+
+    private void notifyListeners() {
+        ConnectivityState state = get(false);
+        for (StateListener listener : listeners) {
+            if (listener.source != state && listeners.remove(listener)) {
+                listener.callback.run();
+            }
+        }
+    }
+
+    private static class StateListener {
+
+        private final ConnectivityState source;
+        private final Runnable callback;
+
+        public StateListener(ConnectivityState source, Runnable callback) {
+            this.source = source;
+            this.callback = callback;
+        }
+
+    }
+
+}
@@ -1,5 +1,8 @@
 package io.singularitynet.sdk.daemon;
 
+import java.util.Collections;
+import java.util.List;
+
 import io.singularitynet.sdk.registry.MetadataProvider;
 
 /**
@@ -15,4 +18,16 @@ public interface EndpointSelector {
      */
     Endpoint nextEndpoint(MetadataProvider metadataProvider);
 
+    /**
+     * Method returns endpoints to distribute calls between. Daemon
+     * connection keeps channel opened to each of them. All endpoints should
+     * belong to the same endpoint group. Default implementation returns
+     * single endpoint returned by {@link #nextEndpoint}.
+     * @param metadataProvider service metadata provider.
+     * @return list of endpoints.
+     */
+    default List<Endpoint> getEndpoints(MetadataProvider metadataProvider) {
+        return Collections.singletonList(nextEndpoint(metadataProvider));
+    }
+
 }
@@ -1,8 +1,17 @@
 package io.singularitynet.sdk.daemon;
 
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
+import io.singularitynet.sdk.common.Preconditions;
+
+/**
+ * gRPC client channel settings. Numeric settings equal to zero mean that
+ * gRPC default value is used.
+ */
 @EqualsAndHashCode
 @ToString
 public class GrpcSettings {
@@ -12,6 +21,17 @@ public class GrpcSettings {
         .build();
 
     private final int maxInboundMessageSize;
+    private final long keepAliveTimeMillis;
+    private final long keepAliveTimeoutMillis;
+    private final boolean keepAliveWithoutCalls;
+    private final int flowControlWindow;
+    private final long idleTimeoutMillis;
+    private final Optional<Executor> executor;
+    private final boolean directExecutor;
+    private final Optional<EventLoopGroup> eventLoopGroup;
+    private final Optional<String> compression;
+    private final long defaultDeadlineMillis;
+    private final int channelsPerEndpoint;
 
     public static Builder newBuilder() {
         return new Builder();
@@ -23,21 +43,143 @@ public class GrpcSettings {
 
     private GrpcSettings(Builder builder) {
         this.maxInboundMessageSize = builder.maxInboundMessageSize;
+        this.keepAliveTimeMillis = builder.keepAliveTimeMillis;
+        this.keepAliveTimeoutMillis = builder.keepAliveTimeoutMillis;
+        this.keepAliveWithoutCalls = builder.keepAliveWithoutCalls;
+        this.flowControlWindow = builder.flowControlWindow;
+        this.idleTimeoutMillis = builder.idleTimeoutMillis;
+        this.executor = builder.executor;
+        this.directExecutor = builder.directExecutor;
+        this.eventLoopGroup = builder.eventLoopGroup;
+        this.compression = builder.compression;
+        this.defaultDeadlineMillis = builder.defaultDeadlineMillis;
+        this.channelsPerEndpoint = builder.channelsPerEndpoint;
     }
 
     public int getMaxInboundMessageSize() {
         return maxInboundMessageSize;
     }
 
+    /**
+     * @return period of the keepalive pings, zero means keepalive is
+     * disabled.
+     */
+    public long getKeepAliveTimeMillis() {
+        return keepAliveTimeMillis;
+    }
+
+    /**
+     * @return time to wait for the keepalive ping response before closing
+     * connection.
+     */
+    public long getKeepAliveTimeoutMillis() {
+        return keepAliveTimeoutMillis;
+    }
+
+    /**
+     * @return true if keepalive pings are sent when there are no calls in
+     * progress.
+     */
+    public boolean isKeepAliveWithoutCalls() {
+        return keepAliveWithoutCalls;
+    }
+
+    /**
+     * @return initial HTTP/2 flow control window in bytes.
+     */
+    public int getFlowControlWindow() {
+        return flowControlWindow;
+    }
+
+    /**
+     * @return time without calls after which the channel goes into idle
+     * mode and closes connections.
+     */
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * @return executor to run gRPC callbacks, gRPC own thread pool is used
+     * when empty.
+     */
+    public Optional<Executor> getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return true if gRPC callbacks are executed directly in the transport
+     * thread.
+     */
+    public boolean isDirectExecutor() {
+        return directExecutor;
+    }
+
+    /**
+     * @return Netty event loop group to share between channels, new event
+     * loop group is used by each channel when empty.
+     */
+    public Optional<EventLoopGroup> getEventLoopGroup() {
+        return eventLoopGroup;
+    }
+
+    /**
+     * @return name of the compressor to compress requests, for example
+     * "gzip".
+     */
+    public Optional<String> getCompression() {
+        return compression;
+    }
+
+    /**
+     * @return deadline which is set for the calls without deadline, zero
+     * means no deadline.
+     */
+    public long getDefaultDeadlineMillis() {
+        return defaultDeadlineMillis;
+    }
+
+    /**
+     * @return number of the channels opened to each endpoint, calls are
+     * distributed between them in round-robin manner. Each channel uses its
+     * own HTTP/2 connection, so few channels allow exceeding the limit of
+     * concurrent streams per connection. Zero or one means single channel.
+     */
+    public int getChannelsPerEndpoint() {
+        return channelsPerEndpoint;
+    }
+
     public static class Builder {
 
         private int maxInboundMessageSize;
+        private long keepAliveTimeMillis;
+        private long keepAliveTimeoutMillis;
+        private boolean keepAliveWithoutCalls;
+        private int flowControlWindow;
+        private long idleTimeoutMillis;
+        private Optional<Executor> executor = Optional.empty();
+        private boolean directExecutor;
+        private Optional<EventLoopGroup> eventLoopGroup = Optional.empty();
+        private Optional<String> compression = Optional.empty();
+        private long defaultDeadlineMillis;
+        private int channelsPerEndpoint;
 
         private Builder() {
         }
 
         private Builder(GrpcSettings object) {
             this.maxInboundMessageSize = object.maxInboundMessageSize;
+            this.keepAliveTimeMillis = object.keepAliveTimeMillis;
+            this.keepAliveTimeoutMillis = object.keepAliveTimeoutMillis;
+            this.keepAliveWithoutCalls = object.keepAliveWithoutCalls;
+            this.flowControlWindow = object.flowControlWindow;
+            this.idleTimeoutMillis = object.idleTimeoutMillis;
+            this.executor = object.executor;
+            this.directExecutor = object.directExecutor;
+            this.eventLoopGroup = object.eventLoopGroup;
+            this.compression = object.compression;
+            this.defaultDeadlineMillis = object.defaultDeadlineMillis;
+            this.channelsPerEndpoint = object.channelsPerEndpoint;
         }
 
         public Builder setMaxInboundMessageSize(int maxInboundMessageSize) {
@@ -49,7 +191,110 @@ public class GrpcSettings {
             return maxInboundMessageSize;
         }
 
+        public Builder setKeepAliveTimeMillis(long keepAliveTimeMillis) {
+            this.keepAliveTimeMillis = keepAliveTimeMillis;
+            return this;
+        }
+
+        public long getKeepAliveTimeMillis() {
+            return keepAliveTimeMillis;
+        }
+
+        public Builder setKeepAliveTimeoutMillis(long keepAliveTimeoutMillis) {
+            this.keepAliveTimeoutMillis = keepAliveTimeoutMillis;
+            return this;
+        }
+
+        public long getKeepAliveTimeoutMillis() {
+            return keepAliveTimeoutMillis;
+        }
+
+        public Builder setKeepAliveWithoutCalls(boolean keepAliveWithoutCalls) {
+            this.keepAliveWithoutCalls = keepAliveWithoutCalls;
+            return this;
+        }
+
+        public boolean isKeepAliveWithoutCalls() {
+            return keepAliveWithoutCalls;
+        }
+
+        public Builder setFlowControlWindow(int flowControlWindow) {
+            this.flowControlWindow = flowControlWindow;
+            return this;
+        }
+
+        public int getFlowControlWindow() {
+            return flowControlWindow;
+        }
+
+        public Builder setIdleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            return this;
+        }
+
+        public long getIdleTimeoutMillis() {
+            return idleTimeoutMillis;
+        }
+
+        public Builder setExecutor(Executor executor) {
+            this.executor = Optional.ofNullable(executor);
+            return this;
+        }
+
+        public Optional<Executor> getExecutor() {
+            return executor;
+        }
+
+        public Builder setDirectExecutor(boolean directExecutor) {
+            this.directExecutor = directExecutor;
+            return this;
+        }
+
+        public boolean isDirectExecutor() {
+            return directExecutor;
+        }
+
+        public Builder setEventLoopGroup(EventLoopGroup eventLoopGroup) {
+            this.eventLoopGroup = Optional.ofNullable(eventLoopGroup);
+            return this;
+        }
+
+        public Optional<EventLoopGroup> getEventLoopGroup() {
+            return eventLoopGroup;
+        }
+
+        public Builder setCompression(String compression) {
+            this.compression = Optional.ofNullable(compression);
+            return this;
+        }
+
+        public Optional<String> getCompression() {
+            return compression;
+        }
+
+        public Builder setDefaultDeadlineMillis(long defaultDeadlineMillis) {
+            this.defaultDeadlineMillis = defaultDeadlineMillis;
+            return this;
+        }
+
+        public long getDefaultDeadlineMillis() {
+            return defaultDeadlineMillis;
+        }
+
+        public Builder setChannelsPerEndpoint(int channelsPerEndpoint) {
+            this.channelsPerEndpoint = channelsPerEndpoint;
+            return this;
+        }
+
+        public int getChannelsPerEndpoint() {
+            return channelsPerEndpoint;
+        }
+
         public GrpcSettings build() {
+            Preconditions.checkArgument(!directExecutor || !executor.isPresent(),
+                    "Direct executor and custom executor cannot be set both");
+            Preconditions.checkArgument(channelsPerEndpoint >= 0,
+                    "Number of channels per endpoint cannot be negative");
             return new GrpcSettings(this);
         }
     }
@@ -0,0 +1,242 @@
+package io.singularitynet.sdk.daemon;
+
+import io.grpc.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Channel which distributes calls between channels opened to the different
+ * endpoints. Each call is sent to the endpoint with the least load. Load is
+ * a peak EWMA of the call latency multiplied by number of the outstanding
+ * calls plus one. EWMA follows latency increase immediately and decreases
+ * smoothly. When endpoint doesn't receive calls its EWMA decays to zero, so
+ * slow endpoint starts receiving calls again after some time and its latency
+ * is measured again. Endpoint without latency measured gets calls first.
+ * State of the channel is the best state of the endpoint channels.
+ * @see io.singularitynet.sdk.daemon.CombinedChannelState
+ */
+// @ThreadSafe
+class LoadBalancingChannel extends ManagedChannel {
+
+    private final static Logger log = LoggerFactory.getLogger(LoadBalancingChannel.class);
+
+    /**
+     * Time constant of the EWMA decay.
+     */
+    static final long DECAY_TIME_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * Latency which is recorded for the call failed because endpoint is
+     * unavailable.
+     */
+    static final long UNAVAILABLE_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final double PENALTY = Long.MAX_VALUE >> 16;
+
+    private final List<SubChannel> channels;
+    private final LongSupplier clock;
+    private final CombinedChannelState state;
+
+    /**
+     * @param endpoints endpoints to distribute calls between.
+     * @param channels channels opened to the endpoints in the same order.
+     */
+    LoadBalancingChannel(List<Endpoint> endpoints, List<ManagedChannel> channels) {
+        this(endpoints, channels, System::nanoTime);
+    }
+
+    LoadBalancingChannel(List<Endpoint> endpoints, List<ManagedChannel> channels,
+            LongSupplier clock) {
+        List<SubChannel> subChannels = new ArrayList<>();
+        for (int i = 0; i < endpoints.size(); ++i) {
+            subChannels.add(new SubChannel(endpoints.get(i), channels.get(i), clock.getAsLong()));
+        }
+        this.channels = Collections.unmodifiableList(subChannels);
+        this.clock = clock;
+        this.state = new CombinedChannelState(new ArrayList<>(channels));
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+            MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+        SubChannel channel = select();
+        log.debug("Endpoint selected for call, endpoint: {}, method: {}",
+                channel.endpoint.getUrl(), method.getFullMethodName());
+        return new ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT>(
+                channel.channel.newCall(method, callOptions)) {
+            @Override
+            public void start(ClientCall.Listener<RespT> responseListener, Metadata headers) {
+                long start = clock.getAsLong();
+                channel.start();
+                try {
+                    super.start(new ForwardingClientCallListener
+                            .SimpleForwardingClientCallListener<RespT>(responseListener) {
+                        @Override
+                        public void onClose(Status status, Metadata trailers) {
+                            channel.finish(clock.getAsLong(), start, status);
+                            super.onClose(status, trailers);
+                        }
+                    }, headers);
+                } catch (RuntimeException e) {
+                    channel.finish(clock.getAsLong(), start, Status.fromThrowable(e));
+                    throw e;
+                }
+            }
+        };
+    }
+
+    private SubChannel select() {
+        long now = clock.getAsLong();
+        int size = channels.size();
+        int first = ThreadLocalRandom.current().nextInt(size);
+        SubChannel selected = null;
+        double minLoad = Double.MAX_VALUE;
+        for (int i = 0; i < size; ++i) {
+            SubChannel channel = channels.get((first + i) % size);
+            double load = channel.getLoad(now);
+            if (selected == null || load < minLoad) {
+                selected = channel;
+                minLoad = load;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return endpoints in order passed to the constructor.
+     */
+    List<Endpoint> getEndpoints() {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (SubChannel channel : channels) {
+            endpoints.add(channel.endpoint);
+        }
+        return endpoints;
+    }
+
+    @Override
+    public String authority() {
+        return channels.get(0).channel.authority();
+    }
+
+    @Override
+    public ConnectivityState getState(boolean requestConnection) {
+        return state.get(requestConnection);
+    }
+
+    @Override
+    public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+        state.notifyWhenChanged(source, callback);
+    }
+
+    @Override
+    public void resetConnectBackoff() {
+        channels.forEach(channel -> channel.channel.resetConnectBackoff());
+    }
+
+    @Override
+    public void enterIdle() {
+        channels.forEach(channel -> channel.channel.enterIdle());
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+        channels.forEach(channel -> channel.channel.shutdown());
+        return this;
+    }
+
+    @Override
+    public ManagedChannel shutdownNow() {
+        channels.forEach(channel -> channel.channel.shutdownNow());
+        return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return channels.stream().allMatch(channel -> channel.channel.isShutdown());
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return channels.stream().allMatch(channel -> channel.channel.isTerminated());
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (SubChannel channel : channels) {
+            long left = deadline - System.nanoTime();
+            if (!channel.channel.awaitTermination(left, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancingChannel(" + channels + ")";
+    }
+
+    // @ThreadSafe
+    private static class SubChannel {
+
+        private final Endpoint endpoint;
+        private final ManagedChannel channel;
+
+        private int outstanding;
+        private double latencyNanos;
+        private long timestampNanos;
+
+        public SubChannel(Endpoint endpoint, ManagedChannel channel, long now) {
+            this.endpoint = endpoint;
+            this.channel = channel;
+            this.timestampNanos = now;
+        }
+
+        public synchronized double getLoad(long now) {
+            observe(now, 0);
+            if (latencyNanos == 0 && outstanding > 0) {
+                return PENALTY + outstanding;
+            }
+            return latencyNanos * (outstanding + 1);
+        }
+
+        public synchronized void start() {
+            ++outstanding;
+        }
+
+        public synchronized void finish(long now, long start, Status status) {
+            --outstanding;
+            long latency = now - start;
+            if (status.getCode() == Status.Code.UNAVAILABLE) {
+                latency = Math.max(latency, UNAVAILABLE_LATENCY_NANOS);
+            }
+            observe(now, latency);
+        }
+
+        private void observe(long now, double latency) {
+            long elapsed = Math.max(now - timestampNanos, 0);
+            timestampNanos = now;
+            if (latency > latencyNanos) {
+                latencyNanos = latency;
+            } else {
+                double weight = Math.exp(-(double) elapsed / DECAY_TIME_NANOS);
+                latencyNanos = latencyNanos * weight + latency * (1 - weight);
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "SubChannel(" + endpoint.getUrl() + ", outstanding: " + outstanding
+                + ", latencyNanos: " + (long) latencyNanos + ")";
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package io.singularitynet.sdk.daemon;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.common.Utils;
+import io.singularitynet.sdk.registry.MetadataProvider;
+import io.singularitynet.sdk.registry.ServiceMetadata;
+import io.singularitynet.sdk.registry.EndpointGroup;
+
+/**
+ * Endpoint selection strategy which returns all endpoints of the specified
+ * endpoint group. Daemon connection keeps channel opened to each endpoint
+ * and sends each call to the endpoint with the least latency and number of
+ * outstanding calls.
+ */
+@ToString
+public class LoadBalancingEndpointSelector implements EndpointSelector {
+
+    private final static Logger log = LoggerFactory.getLogger(LoadBalancingEndpointSelector.class);
+
+    private final String endpointGroupName;
+
+    /**
+     * @param endpointGroupName name of the endpoint group to connect.
+     */
+    public LoadBalancingEndpointSelector(String endpointGroupName) {
+        this.endpointGroupName = endpointGroupName;
+    }
+
+    @Override
+    public Endpoint nextEndpoint(MetadataProvider metadataProvider) {
+        EndpointGroup group = getGroup(metadataProvider);
+        URL url = Utils.getRandomItem(group.getEndpoints());
+        log.info("Next endpoint selected: {}", url);
+        return newEndpoint(group, url);
+    }
+
+    @Override
+    public List<Endpoint> getEndpoints(MetadataProvider metadataProvider) {
+        EndpointGroup group = getGroup(metadataProvider);
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (URL url : group.getEndpoints()) {
+            endpoints.add(newEndpoint(group, url));
+        }
+        log.info("Endpoints selected: {}", group.getEndpoints());
+        return endpoints;
+    }
+
+    private EndpointGroup getGroup(MetadataProvider metadataProvider) {
+        ServiceMetadata serviceMetadata = metadataProvider.getServiceMetadata();
+        return serviceMetadata.getEndpointGroupByName(endpointGroupName).get();
+    }
+
+    private static Endpoint newEndpoint(EndpointGroup group, URL url) {
+        return new Endpoint() {
+
+            public EndpointGroup getGroup() {
+                return group;
+            }
+
+            public URL getUrl() {
+                return url;
+            }
+
+            public String toString() {
+                return url.toString();
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,105 @@
+package io.singularitynet.sdk.daemon;
+
+import io.grpc.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Channel which distributes calls between few channels opened to the same
+ * endpoint in round-robin manner. Each channel has its own HTTP/2
+ * connection, so the number of concurrent calls is not limited by the
+ * maximum number of concurrent streams of a single connection and calls
+ * don't share a single TCP window. State of the channel is the best state
+ * of its channels.
+ * @see io.singularitynet.sdk.daemon.CombinedChannelState
+ */
+// @ThreadSafe
+class RoundRobinChannel extends ManagedChannel {
+
+    private final List<ManagedChannel> channels;
+    private final AtomicInteger next = new AtomicInteger();
+    private final CombinedChannelState state;
+
+    /**
+     * @param channels channels opened to the same endpoint.
+     */
+    RoundRobinChannel(List<ManagedChannel> channels) {
+        this.channels = Collections.unmodifiableList(new ArrayList<>(channels));
+        this.state = new CombinedChannelState(this.channels);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+            MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+        int index = Math.floorMod(next.getAndIncrement(), channels.size());
+        return channels.get(index).newCall(method, callOptions);
+    }
+
+    @Override
+    public String authority() {
+        return channels.get(0).authority();
+    }
+
+    @Override
+    public ConnectivityState getState(boolean requestConnection) {
+        return state.get(requestConnection);
+    }
+
+    @Override
+    public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+        state.notifyWhenChanged(source, callback);
+    }
+
+    @Override
+    public void resetConnectBackoff() {
+        channels.forEach(ManagedChannel::resetConnectBackoff);
+    }
+
+    @Override
+    public void enterIdle() {
+        channels.forEach(ManagedChannel::enterIdle);
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+        channels.forEach(ManagedChannel::shutdown);
+        return this;
+    }
+
+    @Override
+    public ManagedChannel shutdownNow() {
+        channels.forEach(ManagedChannel::shutdownNow);
+        return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return channels.stream().allMatch(ManagedChannel::isShutdown);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return channels.stream().allMatch(ManagedChannel::isTerminated);
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ManagedChannel channel : channels) {
+            long left = deadline - System.nanoTime();
+            if (!channel.awaitTermination(left, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "RoundRobinChannel(" + channels + ")";
+    }
+
+}
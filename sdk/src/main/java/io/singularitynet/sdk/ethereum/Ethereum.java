@@ -1,32 +1,173 @@
 package io.singularitynet.sdk.ethereum;
 
 import java.math.BigInteger;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 import org.web3j.protocol.Web3j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import io.singularitynet.sdk.common.Preconditions;
 import io.singularitynet.sdk.common.Utils;
 
 /**
  * Web3j wrapper to provide single point of access to the Ethereum JSON RPC.
+ * Latest block number can be cached to serve all callers by one JSON RPC
+ * call per cache interval. Cache can be refreshed by the background poller
+ * so callers don't wait for the JSON RPC at all.
  */
-public class Ethereum {
+public class Ethereum implements AutoCloseable {
+
+    private final static Logger log = LoggerFactory.getLogger(Ethereum.class);
 
     private final Web3j web3j;
+    private final long blockNumberMaxAgeMillis;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService poller;
+
+    private final Object blockNumberLock = new Object();
+    private volatile CachedBlockNumber blockNumber;
+    private final AtomicLong blockNumberCacheHits = new AtomicLong();
+    private final AtomicLong blockNumberCacheMisses = new AtomicLong();
 
     /**
-     * Constructor.
+     * Constructor. Block number is not cached.
      * @param web3j web3j instance.
      */
     public Ethereum(Web3j web3j) {
+        this(web3j, 0, 0);
+    }
+
+    /**
+     * Constructor.
+     * @param web3j web3j instance.
+     * @param blockNumberMaxAgeMillis maximum age of the cached block number
+     * in milliseconds, zero disables caching.
+     * @param blockNumberPollingPeriodMillis period of the background block
+     * number updates in milliseconds, zero disables polling. Polling is
+     * applicable only when caching is enabled.
+     */
+    public Ethereum(Web3j web3j, long blockNumberMaxAgeMillis,
+            long blockNumberPollingPeriodMillis) {
+        this(web3j, blockNumberMaxAgeMillis, blockNumberPollingPeriodMillis,
+                System::currentTimeMillis);
+    }
+
+    Ethereum(Web3j web3j, long blockNumberMaxAgeMillis,
+            long blockNumberPollingPeriodMillis, LongSupplier clock) {
+        Preconditions.checkArgument(blockNumberMaxAgeMillis >= 0,
+                "Block number max age is negative: %s", blockNumberMaxAgeMillis);
+        Preconditions.checkArgument(blockNumberPollingPeriodMillis >= 0,
+                "Block number polling period is negative: %s", blockNumberPollingPeriodMillis);
         this.web3j = web3j;
+        this.blockNumberMaxAgeMillis = blockNumberMaxAgeMillis;
+        this.clock = clock;
+        if (blockNumberMaxAgeMillis > 0 && blockNumberPollingPeriodMillis > 0) {
+            this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ethereum-block-number-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.poller.scheduleWithFixedDelay(this::pollBlockNumber, 0,
+                    blockNumberPollingPeriodMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.poller = null;
+        }
     }
 
     /**
-     * Return latest Ethereum block number.
+     * Return latest Ethereum block number. When caching is enabled returned
+     * value can be older than the latest block by the cache max age.
      * @return ethereum block number.
      */
     public BigInteger getEthBlockNumber() {
+        if (blockNumberMaxAgeMillis == 0) {
+            blockNumberCacheMisses.incrementAndGet();
+            return requestEthBlockNumber();
+        }
+
+        CachedBlockNumber cached = blockNumber;
+        if (isFresh(cached)) {
+            blockNumberCacheHits.incrementAndGet();
+            return cached.value;
+        }
+
+        synchronized (blockNumberLock) {
+            cached = blockNumber;
+            if (isFresh(cached)) {
+                blockNumberCacheHits.incrementAndGet();
+                return cached.value;
+            }
+            blockNumberCacheMisses.incrementAndGet();
+            return updateBlockNumber().value;
+        }
+    }
+
+    /**
+     * @return number of block number requests served from the cache.
+     */
+    public long getBlockNumberCacheHits() {
+        return blockNumberCacheHits.get();
+    }
+
+    /**
+     * @return number of block number requests which required JSON RPC call.
+     */
+    public long getBlockNumberCacheMisses() {
+        return blockNumberCacheMisses.get();
+    }
+
+    /**
+     * Stop background block number polling.
+     */
+    @Override
+    public void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    private boolean isFresh(CachedBlockNumber cached) {
+        return cached != null
+            && clock.getAsLong() - cached.timestamp < blockNumberMaxAgeMillis;
+    }
+
+    private CachedBlockNumber updateBlockNumber() {
+        long timestamp = clock.getAsLong();
+        CachedBlockNumber updated = new CachedBlockNumber(
+                requestEthBlockNumber(), timestamp);
+        blockNumber = updated;
+        return updated;
+    }
+
+    private void pollBlockNumber() {
+        try {
+            synchronized (blockNumberLock) {
+                updateBlockNumber();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not update block number", e);
+        }
+    }
+
+    private BigInteger requestEthBlockNumber() {
         return Utils.wrapExceptions(() -> web3j.ethBlockNumber().send()
                 .getBlockNumber());
     }
 
+    private static class CachedBlockNumber {
+
+        private final BigInteger value;
+        private final long timestamp;
+
+        public CachedBlockNumber(BigInteger value, long timestamp) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+
+    }
+
 }
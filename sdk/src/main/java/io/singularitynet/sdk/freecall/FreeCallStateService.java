@@ -14,6 +14,8 @@ import io.singularitynet.sdk.ethereum.Ethereum;
 import io.singularitynet.sdk.registry.EndpointGroup;
 import io.singularitynet.sdk.registry.PaymentGroupId;
 import io.singularitynet.sdk.daemon.DaemonConnection;
+import io.singularitynet.sdk.metrics.Metrics;
+import io.singularitynet.sdk.metrics.MetricNames;
 
 public class FreeCallStateService {
 
@@ -25,14 +27,22 @@ public class FreeCallStateService {
     private final DaemonConnection daemonConnection;
     private final Ethereum ethereum;
     private final FreeCallStateServiceBlockingStub stub;
+    private final Metrics metrics;
 
     public FreeCallStateService(String orgId, String serviceId,
             DaemonConnection daemonConnection, Ethereum ethereum) {
+        this(orgId, serviceId, daemonConnection, ethereum, Metrics.NONE);
+    }
+
+    public FreeCallStateService(String orgId, String serviceId,
+            DaemonConnection daemonConnection, Ethereum ethereum,
+            Metrics metrics) {
         this.orgId = orgId;
         this.serviceId = serviceId;
         this.daemonConnection = daemonConnection;
         this.ethereum = ethereum;
         this.stub = this.daemonConnection.getGrpcStub(FreeCallStateServiceGrpc::newBlockingStub);
+        this.metrics = metrics;
     }
 
     public long getFreeCallsAvailable(FreeCallAuthToken token, Identity signer) {
@@ -60,7 +70,9 @@ public class FreeCallStateService {
             .setCurrentBlock(currentBlock.longValue())
             .build();
 
-        FreeCallStateReply reply = stub.getFreeCallsAvailable(request);
+        FreeCallStateReply reply = metrics.time(
+                MetricNames.DAEMON_GET_FREE_CALLS_AVAILABLE,
+                () -> stub.getFreeCallsAvailable(request));
         
         long freeCallsAvailable = reply.getFreeCallsAvailable();
         log.info("Free calls available: {}", freeCallsAvailable);
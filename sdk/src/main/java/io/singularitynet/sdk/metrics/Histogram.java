@@ -0,0 +1,112 @@
+package io.singularitynet.sdk.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.singularitynet.sdk.common.Preconditions;
+
+/**
+ * Lock-free latency histogram. Durations are counted in the buckets which
+ * have power of two bounds in nanoseconds, so percentile returned is the
+ * upper bound of the bucket and its relative error is not more than two
+ * times.
+ */
+public class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Add measurement.
+     * @param durationNanos operation duration in nanoseconds.
+     * @param success false if operation has failed.
+     */
+    public void record(long durationNanos, boolean success) {
+        long duration = Math.max(durationNanos, 0);
+        buckets.incrementAndGet(bucketOf(duration));
+        count.increment();
+        if (!success) {
+            errors.increment();
+        }
+        sum.add(duration);
+        max.accumulate(duration);
+    }
+
+    /**
+     * @return number of operations recorded.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return number of failed operations recorded.
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * @return mean duration in nanoseconds.
+     */
+    public long getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : sum.sum() / count;
+    }
+
+    /**
+     * @return max duration in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Return upper bound of the duration percentile.
+     * @param quantile quantile from 0 to 1, for instance 0.99.
+     * @return duration in nanoseconds which is not less than the given
+     * quantile of the recorded durations.
+     */
+    public long getPercentileNanos(double quantile) {
+        Preconditions.checkArgument(quantile >= 0 && quantile <= 1,
+                "Quantile should be in [0, 1] range: %s", quantile);
+        long total = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            total += buckets.get(i);
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += buckets.get(i);
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperBoundOf(i), getMaxNanos());
+            }
+        }
+        return 0;
+    }
+
+    private static int bucketOf(long duration) {
+        return BUCKETS - Long.numberOfLeadingZeros(duration);
+    }
+
+    private static long upperBoundOf(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram(count=" + getCount()
+            + ", errors=" + getErrorCount()
+            + ", meanNanos=" + getMeanNanos()
+            + ", p50Nanos=" + getPercentileNanos(0.5)
+            + ", p99Nanos=" + getPercentileNanos(0.99)
+            + ", maxNanos=" + getMaxNanos() + ")";
+    }
+
+}
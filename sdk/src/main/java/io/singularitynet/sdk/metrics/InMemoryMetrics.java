@@ -0,0 +1,44 @@
+package io.singularitynet.sdk.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics implementation which keeps latency histogram for each operation
+ * in memory.
+ */
+public class InMemoryMetrics implements Metrics {
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String name, long durationNanos, boolean success) {
+        histograms.computeIfAbsent(name, n -> new Histogram())
+            .record(durationNanos, success);
+    }
+
+    /**
+     * Return histogram of the operation.
+     * @param name operation name.
+     * @return histogram or empty if operation was not recorded.
+     */
+    public Optional<Histogram> getHistogram(String name) {
+        return Optional.ofNullable(histograms.get(name));
+    }
+
+    /**
+     * @return histograms of all operations recorded sorted by name.
+     */
+    public Map<String, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryMetrics(" + getHistograms() + ")";
+    }
+
+}
@@ -0,0 +1,40 @@
+package io.singularitynet.sdk.metrics;
+
+import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.ethereum.Identity;
+import io.singularitynet.sdk.ethereum.Signature;
+
+/**
+ * Identity decorator which records duration of the message signing.
+ */
+public class MeteredIdentity implements Identity {
+
+    private final Identity delegate;
+    private final Metrics metrics;
+
+    /**
+     * New decorator.
+     * @param delegate identity to sign messages.
+     * @param metrics metrics to record signing.
+     */
+    public MeteredIdentity(Identity delegate, Metrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Address getAddress() {
+        return delegate.getAddress();
+    }
+
+    @Override
+    public Signature sign(byte[] message) {
+        return metrics.time(MetricNames.IDENTITY_SIGN, () -> delegate.sign(message));
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
@@ -0,0 +1,26 @@
+package io.singularitynet.sdk.metrics;
+
+/**
+ * Names of the operations recorded by SDK.
+ */
+public class MetricNames {
+
+    private MetricNames() {
+    }
+
+    public static final String PAYMENT_STRATEGY_GET_PAYMENT = "payment.strategy.get.payment";
+    public static final String IDENTITY_SIGN = "identity.sign";
+    public static final String DAEMON_GET_CHANNEL_STATE = "daemon.get.channel.state";
+    public static final String DAEMON_GET_FREE_CALLS_AVAILABLE = "daemon.get.free.calls.available";
+    public static final String MPE_GET_CHANNEL_BY_ID = "mpe.get.channel.by.id";
+    public static final String MPE_GET_CHANNEL_OPEN_EVENTS = "mpe.get.channel.open.events";
+    public static final String MPE_OPEN_CHANNEL = "mpe.open.channel";
+    public static final String MPE_TRANSFER = "mpe.transfer";
+    public static final String MPE_CHANNEL_ADD_FUNDS = "mpe.channel.add.funds";
+    public static final String MPE_CHANNEL_EXTEND = "mpe.channel.extend";
+    public static final String MPE_CHANNEL_EXTEND_AND_ADD_FUNDS = "mpe.channel.extend.and.add.funds";
+    public static final String REGISTRY_GET_ORGANIZATION = "registry.get.organization";
+    public static final String REGISTRY_GET_SERVICE = "registry.get.service";
+    public static final String IPFS_GET = "ipfs.get";
+
+}
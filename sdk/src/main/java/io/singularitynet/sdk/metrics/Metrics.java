@@ -0,0 +1,61 @@
+package io.singularitynet.sdk.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Interface to collect latency and count of the SDK operations. SDK
+ * reports each operation using name and duration. Implementation can keep
+ * measurements in memory or export them into external monitoring system.
+ * Implementation should be thread-safe.
+ * @see io.singularitynet.sdk.metrics.MetricNames
+ */
+public interface Metrics {
+
+    /**
+     * Metrics implementation which doesn't record anything.
+     */
+    Metrics NONE = new Metrics() {
+        @Override
+        public void record(String name, long durationNanos, boolean success) {
+        }
+
+        @Override
+        public <T> T time(String name, Supplier<T> operation) {
+            return operation.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics.NONE";
+        }
+    };
+
+    /**
+     * Record single operation measurement.
+     * @param name operation name.
+     * @param durationNanos operation duration in nanoseconds.
+     * @param success false if operation has failed.
+     */
+    void record(String name, long durationNanos, boolean success);
+
+    /**
+     * Execute operation and record its duration. Operation is recorded as
+     * failed if it throws exception.
+     * @param <T> type of the operation result.
+     * @param name operation name.
+     * @param operation operation to execute.
+     * @return operation result.
+     */
+    default <T> T time(String name, Supplier<T> operation) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = operation.get();
+            success = true;
+            return result;
+        } finally {
+            record(name, System.nanoTime() - start, success);
+        }
+    }
+
+}
@@ -14,6 +14,7 @@ import io.singularitynet.sdk.ethereum.Identity;
 import io.singularitynet.sdk.ethereum.Signature;
 import io.singularitynet.sdk.registry.PaymentGroupId;
 import io.singularitynet.sdk.daemon.DaemonConnection;
+import io.singularitynet.sdk.metrics.Metrics;
 
 /**
  * This class uses straightforward strategy to implement
@@ -41,9 +42,25 @@ public class AskDaemonFirstPaymentChannelProvider implements PaymentChannelState
             MultiPartyEscrowContract mpe,
             DaemonConnection connection,
             Ethereum ethereum) {
+        this(mpe, connection, ethereum, Metrics.NONE);
+    }
+
+    /**
+     * Constructor.
+     * @param mpe MultiPartyEscrowContract instance which is used to get
+     * channel state from the blockchain.
+     * @param connection daemon connection.
+     * @param ethereum ethereum API.
+     * @param metrics metrics to record daemon requests.
+     */
+    public AskDaemonFirstPaymentChannelProvider(
+            MultiPartyEscrowContract mpe,
+            DaemonConnection connection,
+            Ethereum ethereum,
+            Metrics metrics) {
         this.mpe = mpe;
         this.stateService = new PaymentChannelStateService(connection,
-                mpe.getContractAddress(), ethereum);
+                mpe.getContractAddress(), ethereum, metrics);
     }
 
     @Override
@@ -63,6 +80,16 @@ public class AskDaemonFirstPaymentChannelProvider implements PaymentChannelState
         return channel;
     }
 
+    @Override
+    public void paymentSigned(PaymentChannel channel) {
+        // channel state is requested from the daemon each time
+    }
+
+    @Override
+    public void paymentFailed(BigInteger channelId) {
+        // channel state is requested from the daemon each time
+    }
+
     private static final BigInteger ONE = BigInteger.valueOf(1);
 
     private static PaymentChannel mergeChannelState(PaymentChannel blockchainState,
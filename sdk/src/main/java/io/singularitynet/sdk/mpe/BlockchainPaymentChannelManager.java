@@ -1,6 +1,7 @@
 package io.singularitynet.sdk.mpe;
 
 import java.math.BigInteger;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import io.singularitynet.sdk.ethereum.Address;
@@ -26,6 +27,19 @@ public interface BlockchainPaymentChannelManager {
     Stream<PaymentChannel> getChannelsAccessibleBy(PaymentGroupId paymentGroupId,
             WithAddress identity);
 
+    /**
+     * Get latest blockchain state of the channel. Blockchain doesn't know
+     * amount spent by the payments which are not claimed yet, so spent
+     * amount of the state returned is zero. Default implementation returns
+     * empty result which means the state is unknown.
+     * @param channelId id of the channel.
+     * @return blockchain payment channel state or empty if channel is not
+     * found.
+     */
+    default Optional<PaymentChannel> getChannelById(BigInteger channelId) {
+        return Optional.empty();
+    }
+
     /**
      * Open channel for the given payment group of the organization.
      * @param paymentGroup payment group to open channel.
@@ -0,0 +1,265 @@
+package io.singularitynet.sdk.mpe;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.common.Preconditions;
+import io.singularitynet.sdk.ethereum.Identity;
+
+/**
+ * Signs escrow payments for the next amounts of the payment channel in
+ * background. Amounts of the consequent calls are predictable: spent amount
+ * plus price multiplied by the call number. Presigner keeps a small buffer
+ * of signed payments per channel and refills it using the executor given,
+ * so the calling thread takes a ready payment instead of signing it. Buffer
+ * is invalidated when channel nonce, call price or signer is changed, or
+ * when requested amount doesn't match the next payment in the buffer.
+ * Buffers of the channels which are not used for EVICTION_TIME_MILLIS are
+ * removed, so channels claimed or closed don't occupy memory forever.
+ */
+@ToString
+public class EscrowPaymentPresigner {
+
+    private final static Logger log = LoggerFactory.getLogger(EscrowPaymentPresigner.class);
+
+    /**
+     * Time after which the buffer of the channel not used is removed.
+     */
+    static final long EVICTION_TIME_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @ToString.Exclude
+    private final Executor executor;
+    private final int bufferSize;
+
+    @ToString.Exclude
+    private final Map<BigInteger, Buffer> buffers = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    @ToString.Exclude
+    private final LongSupplier clock;
+    @ToString.Exclude
+    private final AtomicLong lastEvictionMillis;
+
+    /**
+     * New presigner instance.
+     * @param executor executor to sign payments in background.
+     * @param bufferSize max number of presigned payments per channel.
+     */
+    public EscrowPaymentPresigner(Executor executor, int bufferSize) {
+        this(executor, bufferSize, System::currentTimeMillis);
+    }
+
+    EscrowPaymentPresigner(Executor executor, int bufferSize, LongSupplier clock) {
+        Preconditions.checkArgument(bufferSize > 0,
+                "Buffer size should be positive: %s", bufferSize);
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.clock = clock;
+        this.lastEvictionMillis = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Return signed payment for the amount given. Payment is taken from the
+     * buffer when it was presigned, otherwise it is signed in the calling
+     * thread. In both cases buffer is refilled with the payments for the
+     * next amounts.
+     * @param channel payment channel state.
+     * @param amount amount to be signed.
+     * @param price price of the call in cogs.
+     * @param signer identity to sign the payment.
+     * @return signed payment.
+     */
+    public EscrowPayment getPayment(PaymentChannel channel, BigInteger amount,
+            BigInteger price, Identity signer) {
+        if (price.signum() <= 0) {
+            return sign(channel, amount, signer);
+        }
+        long now = clock.getAsLong();
+        evictUnused(now);
+        Buffer buffer = buffers.computeIfAbsent(channel.getChannelId(), id -> new Buffer(now));
+        Optional<EscrowPayment> payment = buffer.take(channel, amount, price, signer, now);
+        buffer.refillIfNeeded();
+        if (payment.isPresent()) {
+            hits.incrementAndGet();
+            return payment.get();
+        }
+        misses.incrementAndGet();
+        return sign(channel, amount, signer);
+    }
+
+    /**
+     * @return number of payments taken from the buffer.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of payments signed in the calling thread.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of the channels which have buffers.
+     */
+    int size() {
+        return buffers.size();
+    }
+
+    private void evictUnused(long now) {
+        long last = lastEvictionMillis.get();
+        if (now - last < EVICTION_TIME_MILLIS
+                || !lastEvictionMillis.compareAndSet(last, now)) {
+            return;
+        }
+        // buffer removed concurrently with taking a payment from it still
+        // returns payment signed for the amount requested
+        buffers.forEach((channelId, buffer) -> {
+            if (buffer.isUnused(now)) {
+                buffers.remove(channelId, buffer);
+            }
+        });
+    }
+
+    private static EscrowPayment sign(PaymentChannel channel, BigInteger amount,
+            Identity signer) {
+        return EscrowPayment.newBuilder()
+            .setPaymentChannel(channel)
+            .setAmount(amount)
+            .setSigner(signer)
+            .build();
+    }
+
+    /**
+     * Presigned payments of the single channel. Generation is incremented
+     * each time buffer is invalidated, so payments signed for the previous
+     * generation are dropped.
+     */
+    private class Buffer {
+
+        private final Deque<EscrowPayment> payments = new ArrayDeque<>();
+        private PaymentChannel channel;
+        private BigInteger price;
+        private Identity signer;
+        private BigInteger nextAmount;
+        private long generation;
+        private boolean refilling;
+        private long lastUsedMillis;
+
+        public Buffer(long now) {
+            this.lastUsedMillis = now;
+        }
+
+        public synchronized boolean isUnused(long now) {
+            return !refilling && now - lastUsedMillis >= EVICTION_TIME_MILLIS;
+        }
+
+        public synchronized Optional<EscrowPayment> take(PaymentChannel channel,
+                BigInteger amount, BigInteger price, Identity signer, long now) {
+            lastUsedMillis = now;
+            if (this.channel == null
+                    || !this.channel.getNonce().equals(channel.getNonce())
+                    || !this.price.equals(price)
+                    || this.signer != signer) {
+                invalidate(channel, price, signer, amount);
+                return Optional.empty();
+            }
+            while (!payments.isEmpty()
+                    && payments.peekFirst().getAmount().compareTo(amount) < 0) {
+                payments.pollFirst();
+            }
+            if (payments.isEmpty() && nextAmount.compareTo(amount) <= 0) {
+                nextAmount = amount.add(price);
+                return Optional.empty();
+            }
+            if (payments.isEmpty() || !payments.peekFirst().getAmount().equals(amount)) {
+                invalidate(channel, price, signer, amount);
+                return Optional.empty();
+            }
+            return Optional.of(payments.pollFirst());
+        }
+
+        private void invalidate(PaymentChannel channel, BigInteger price,
+                Identity signer, BigInteger amount) {
+            log.debug("Invalidate presigned payments, channelId: {}, nonce: {}, amount: {}",
+                    channel.getChannelId(), channel.getNonce(), amount);
+            this.payments.clear();
+            this.channel = channel;
+            this.price = price;
+            this.signer = signer;
+            this.nextAmount = amount.add(price);
+            ++this.generation;
+        }
+
+        public void refillIfNeeded() {
+            synchronized (this) {
+                if (refilling || payments.size() >= bufferSize) {
+                    return;
+                }
+                refilling = true;
+            }
+            try {
+                executor.execute(this::refill);
+            } catch (RejectedExecutionException e) {
+                log.debug("Presigning task rejected", e);
+                synchronized (this) {
+                    refilling = false;
+                }
+            }
+        }
+
+        private void refill() {
+            while (true) {
+                PaymentChannel channel;
+                Identity signer;
+                BigInteger amount;
+                long generation;
+                synchronized (this) {
+                    if (payments.size() >= bufferSize) {
+                        refilling = false;
+                        return;
+                    }
+                    channel = this.channel;
+                    signer = this.signer;
+                    amount = this.nextAmount;
+                    generation = this.generation;
+                }
+
+                EscrowPayment payment;
+                try {
+                    payment = sign(channel, amount, signer);
+                } catch (RuntimeException e) {
+                    log.warn("Could not presign payment, channelId: {}, amount: {}",
+                            channel.getChannelId(), amount, e);
+                    synchronized (this) {
+                        refilling = false;
+                    }
+                    return;
+                }
+
+                synchronized (this) {
+                    if (generation == this.generation && amount.equals(nextAmount)) {
+                        payments.addLast(payment);
+                        nextAmount = amount.add(price);
+                    }
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,128 @@
+package io.singularitynet.sdk.mpe;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.common.Utils;
+
+/**
+ * Payment channel index which keeps data in the append-only files. Each key
+ * is stored in a separate file inside the directory given. File contains
+ * lines of two kinds: "channel &lt;id&gt;" and "block &lt;number&gt;". The
+ * last block line is a checkpoint of the channel discovery. Incomplete last
+ * line which can be left after crash is ignored. File is compacted when it
+ * is read.
+ */
+public class FilePaymentChannelIndex implements PaymentChannelIndex {
+
+    private final static Logger log = LoggerFactory.getLogger(FilePaymentChannelIndex.class);
+
+    private static final String CHANNEL = "channel ";
+    private static final String BLOCK = "block ";
+
+    private final Path directory;
+
+    /**
+     * Constructor.
+     * @param directory directory to keep index files, created if absent.
+     */
+    public FilePaymentChannelIndex(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public synchronized Entry read(Key key) {
+        Path file = getFile(key);
+        if (!Files.exists(file)) {
+            return Entry.EMPTY;
+        }
+        return Utils.wrapExceptions(() -> {
+            String content = new String(Files.readAllBytes(file), UTF_8);
+            List<String> lines = new ArrayList<>(Arrays.asList(content.split("\n")));
+            if (!content.endsWith("\n")) {
+                log.warn("Skip incomplete last line in channel index, file: {}, line: {}",
+                        file, lines.remove(lines.size() - 1));
+            }
+            Set<BigInteger> channelIds = new LinkedHashSet<>();
+            BigInteger lastBlock = Entry.EMPTY.getLastBlock();
+            for (String rawLine : lines) {
+                String line = rawLine.trim();
+                try {
+                    if (line.startsWith(CHANNEL)) {
+                        channelIds.add(new BigInteger(line.substring(CHANNEL.length())));
+                    } else if (line.startsWith(BLOCK)) {
+                        lastBlock = new BigInteger(line.substring(BLOCK.length()));
+                    } else {
+                        log.warn("Skip unexpected line in channel index, file: {}, line: {}", file, line);
+                    }
+                } catch (NumberFormatException e) {
+                    log.warn("Skip incorrect line in channel index, file: {}, line: {}", file, line);
+                }
+            }
+            Entry entry = new Entry(new ArrayList<>(channelIds), lastBlock);
+            if (lines.size() > channelIds.size() + 1) {
+                compact(file, entry);
+            }
+            log.debug("Channel index read, key: {}, entry: {}", key, entry);
+            return entry;
+        });
+    }
+
+    @Override
+    public synchronized void append(Key key, Collection<BigInteger> channelIds,
+            BigInteger lastBlock) {
+        Utils.wrapExceptions(() -> {
+            Files.createDirectories(directory);
+            Files.write(getFile(key), toLines(channelIds, lastBlock), UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+                    StandardOpenOption.WRITE);
+            return null;
+        });
+    }
+
+    private void compact(Path file, Entry entry) throws IOException {
+        Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, toLines(entry.getChannelIds(), entry.getLastBlock()), UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static List<String> toLines(Collection<BigInteger> channelIds,
+            BigInteger lastBlock) {
+        List<String> lines = new ArrayList<>();
+        channelIds.forEach(id -> lines.add(CHANNEL + id));
+        lines.add(BLOCK + lastBlock);
+        return lines;
+    }
+
+    private Path getFile(Key key) {
+        String name = String.join("-",
+                key.getMpeAddress().toString().toLowerCase(),
+                Utils.bytesToHex(key.getPaymentGroupId().getBytes()).toLowerCase(),
+                key.getSigner().toString().toLowerCase());
+        return directory.resolve(name + ".idx");
+    }
+
+    @Override
+    public String toString() {
+        return "FilePaymentChannelIndex(" + directory + ")";
+    }
+
+}
@@ -0,0 +1,101 @@
+package io.singularitynet.sdk.mpe;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.ethereum.Ethereum;
+import io.singularitynet.sdk.ethereum.Identity;
+import io.singularitynet.sdk.daemon.DaemonConnection;
+
+/**
+ * This class keeps the payment channel state locally and updates it after
+ * each payment signed by the client. The daemon and the blockchain are asked
+ * for the channel state only when the channel is requested the first time
+ * or after the call paid by the channel failed. Failure usually means that
+ * the channel was claimed by the service provider and channel nonce is
+ * changed, or the state was changed by another client. Provider is
+ * effective when the channel is used by the single client only.
+ */
+public class LocalFirstPaymentChannelProvider implements PaymentChannelStateProvider {
+
+    private final static Logger log = LoggerFactory.getLogger(LocalFirstPaymentChannelProvider.class);
+
+    private final PaymentChannelStateProvider fallback;
+    private final Map<BigInteger, PaymentChannel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     * @param fallback provider which is used to get the channel state when
+     * local state is absent or cannot be trusted.
+     */
+    public LocalFirstPaymentChannelProvider(PaymentChannelStateProvider fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Constructor which uses AskDaemonFirstPaymentChannelProvider as a
+     * fallback.
+     * @param mpe MultiPartyEscrowContract instance which is used to get
+     * channel state from the blockchain.
+     * @param connection daemon connection.
+     * @param ethereum ethereum API.
+     */
+    public LocalFirstPaymentChannelProvider(
+            MultiPartyEscrowContract mpe,
+            DaemonConnection connection,
+            Ethereum ethereum) {
+        this(new AskDaemonFirstPaymentChannelProvider(mpe, connection, ethereum));
+    }
+
+    @Override
+    public PaymentChannel getChannelStateById(BigInteger channelId, Identity requestor) {
+        PaymentChannel channel = channels.get(channelId);
+        if (channel != null) {
+            log.debug("Local channel state, channel: {}", channel);
+            return channel;
+        }
+        log.debug("No local channel state, asking fallback provider, channelId: {}", channelId);
+        return channels.merge(channelId,
+                fallback.getChannelStateById(channelId, requestor),
+                LocalFirstPaymentChannelProvider::latestState);
+    }
+
+    @Override
+    public void paymentSigned(PaymentChannel channel) {
+        log.debug("Payment signed, channel: {}", channel);
+        channels.merge(channel.getChannelId(), channel,
+                LocalFirstPaymentChannelProvider::latestState);
+        fallback.paymentSigned(channel);
+    }
+
+    @Override
+    public void paymentFailed(BigInteger channelId) {
+        log.debug("Payment failed, forget local channel state, channelId: {}", channelId);
+        channels.remove(channelId);
+        fallback.paymentFailed(channelId);
+    }
+
+    @Override
+    public void channelUpdated(PaymentChannel channel) {
+        log.debug("Channel updated, channel: {}", channel);
+        channels.computeIfPresent(channel.getChannelId(),
+                (id, local) -> latestState(local, channel));
+        fallback.channelUpdated(channel);
+    }
+
+    private static PaymentChannel latestState(PaymentChannel a, PaymentChannel b) {
+        int byNonce = a.getNonce().compareTo(b.getNonce());
+        if (byNonce != 0) {
+            return byNonce > 0 ? a : b;
+        }
+        return a.toBuilder()
+            .setValue(a.getValue().max(b.getValue()))
+            .setExpiration(a.getExpiration().max(b.getExpiration()))
+            .setSpentAmount(a.getSpentAmount().max(b.getSpentAmount()))
+            .build();
+    }
+
+}
@@ -1,39 +1,91 @@
 package io.singularitynet.sdk.mpe;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.ethereum.Ethereum;
 import io.singularitynet.sdk.ethereum.WithAddress;
 import io.singularitynet.sdk.registry.PaymentGroup;
 import io.singularitynet.sdk.registry.PaymentGroupId;
 
 /**
- * Blockchain payment channel manager implementation.
+ * Blockchain payment channel manager implementation. Manager keeps ids of the
+ * channels found for each payment group and signer it was asked about, and
+ * scans only blocks added since the previous request to find new channels.
+ * Channel ids and the last block scanned are saved into the
+ * PaymentChannelIndex, so the scan can be continued after restart.
  */
 public class MpePaymentChannelManager implements BlockchainPaymentChannelManager {
 
+    private final static Logger log = LoggerFactory.getLogger(MpePaymentChannelManager.class);
+
     private final MultiPartyEscrowContract mpe;
+    private final Ethereum ethereum;
+    private final PaymentChannelIndex index;
+    private final Map<PaymentChannelIndex.Key, SignerChannels> channelsByKey = new ConcurrentHashMap<>();
     
     /**
-     * Constructor.
+     * Constructor. Latest block number is requested using Ethereum API of
+     * the contract adapter. Channels found are not saved.
      * @param mpe MultiPartyEscrow contract adapter.
      */
     public MpePaymentChannelManager(MultiPartyEscrowContract mpe) {
+        this(mpe, mpe.getEthereum());
+    }
+
+    /**
+     * Constructor. Channels found are not saved.
+     * @param mpe MultiPartyEscrow contract adapter.
+     * @param ethereum Ethereum API which is used to get latest block number.
+     */
+    public MpePaymentChannelManager(MultiPartyEscrowContract mpe, Ethereum ethereum) {
+        this(mpe, ethereum, PaymentChannelIndex.NONE);
+    }
+
+    /**
+     * Constructor.
+     * @param mpe MultiPartyEscrow contract adapter.
+     * @param ethereum Ethereum API which is used to get latest block number.
+     * @param index index to save channels found.
+     */
+    public MpePaymentChannelManager(MultiPartyEscrowContract mpe, Ethereum ethereum,
+            PaymentChannelIndex index) {
         this.mpe = mpe;
+        this.ethereum = ethereum;
+        this.index = index;
     }
 
     @Override
     public Stream<PaymentChannel> getChannelsAccessibleBy(
             PaymentGroupId paymentGroupId, WithAddress identity) {
-        return mpe.getChannelOpenEvents()
-            // TODO: move paymentGroupId checking into Ethereum filter
-            .filter(ch -> ch.getPaymentGroupId().equals(paymentGroupId))
-            .filter(ch -> ch.isAccessibleBy(identity))
-            .map(ch -> ch.getChannelId())
-            .map(id -> mpe.getChannelById(id).get());
+        return getSignerChannels(paymentGroupId, identity.getAddress())
+            .update(identity).stream()
+            .map(id -> mpe.getChannelById(id).get())
+            .filter(ch -> ch.isAccessibleBy(identity));
+    }
+
+    private SignerChannels getSignerChannels(PaymentGroupId paymentGroupId,
+            Address signer) {
+        PaymentChannelIndex.Key key = new PaymentChannelIndex.Key(
+                mpe.getContractAddress(), paymentGroupId, signer);
+        return channelsByKey.computeIfAbsent(key, SignerChannels::new);
+    }
+
+    @Override
+    public Optional<PaymentChannel> getChannelById(BigInteger channelId) {
+        return mpe.getChannelById(channelId);
     }
 
     @Override
@@ -43,6 +95,9 @@ public class MpePaymentChannelManager implements BlockchainPaymentChannelManager
         PaymentChannel channel = mpe.openChannel(signer.getAddress(),
                 paymentGroup.getPaymentDetails().getPaymentAddress(),
                 paymentGroup.getPaymentGroupId(), value, expiration);
+        // channel can be opened in the block which is not scanned yet
+        getSignerChannels(channel.getPaymentGroupId(), signer.getAddress())
+            .add(channel.getChannelId());
 
         return channel;
     }
@@ -74,4 +129,49 @@ public class MpePaymentChannelManager implements BlockchainPaymentChannelManager
             .build();
     }
 
+    /**
+     * Ids of the channels accessible by the signer in the payment group and
+     * number of the last block scanned.
+     */
+    private class SignerChannels {
+
+        private final PaymentChannelIndex.Key key;
+        private final Set<BigInteger> channelIds = new LinkedHashSet<>();
+        private BigInteger lastBlock;
+
+        public SignerChannels(PaymentChannelIndex.Key key) {
+            this.key = key;
+            PaymentChannelIndex.Entry entry = index.read(key);
+            this.channelIds.addAll(entry.getChannelIds());
+            this.lastBlock = entry.getLastBlock();
+        }
+
+        public synchronized List<BigInteger> update(WithAddress identity) {
+            BigInteger latestBlock = ethereum.getEthBlockNumber();
+            if (latestBlock.compareTo(lastBlock) > 0) {
+                BigInteger fromBlock = lastBlock.add(BigInteger.ONE);
+                log.debug("Scan channels, key: {}, fromBlock: {}, toBlock: {}",
+                        key, fromBlock, latestBlock);
+                List<BigInteger> newChannelIds = mpe.getChannelOpenEvents(
+                        Optional.empty(), Optional.empty(),
+                        Optional.of(key.getPaymentGroupId()), fromBlock, latestBlock)
+                    .filter(ch -> ch.isAccessibleBy(identity))
+                    .map(ch -> ch.getChannelId())
+                    .filter(id -> !channelIds.contains(id))
+                    .collect(Collectors.toList());
+                channelIds.addAll(newChannelIds);
+                lastBlock = latestBlock;
+                index.append(key, newChannelIds, lastBlock);
+            }
+            return new ArrayList<>(channelIds);
+        }
+
+        public synchronized void add(BigInteger channelId) {
+            if (channelIds.add(channelId)) {
+                index.append(key, Collections.singletonList(channelId), lastBlock);
+            }
+        }
+
+    }
+
 }
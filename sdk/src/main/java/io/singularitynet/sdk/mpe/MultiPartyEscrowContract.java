@@ -1,7 +1,10 @@
 package io.singularitynet.sdk.mpe;
 
 import io.reactivex.Flowable;
+import java8.util.concurrent.CompletableFuture;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Spliterators;
 import java.util.Spliterator;
@@ -10,17 +13,27 @@ import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.web3j.abi.EventEncoder;
+import org.web3j.abi.EventValues;
+import org.web3j.abi.TypeEncoder;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.generated.Bytes32;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.methods.request.EthFilter;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.Log;
-import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.tuples.generated.Tuple7;
 import org.web3j.tx.Contract;
+import org.web3j.utils.Numeric;
 
 import io.singularitynet.sdk.contracts.MultiPartyEscrow;
+import io.singularitynet.sdk.common.Preconditions;
 import io.singularitynet.sdk.common.Utils;
 import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.ethereum.Ethereum;
+import io.singularitynet.sdk.metrics.Metrics;
+import io.singularitynet.sdk.metrics.MetricNames;
 import io.singularitynet.sdk.registry.PaymentGroupId;
 
 /**
@@ -31,8 +44,22 @@ public class MultiPartyEscrowContract {
 
     private final static Logger log = LoggerFactory.getLogger(MultiPartyEscrowContract.class);
 
+    /**
+     * Default number of blocks requested by one eth_getLogs call.
+     */
+    public static final long DEFAULT_LOGS_BLOCK_RANGE = 100000;
+
+    /**
+     * Default number of eth_getLogs calls executed in parallel.
+     */
+    public static final int DEFAULT_LOGS_PARALLELISM = 4;
+
     private final Web3j web3j;
     private final MultiPartyEscrow mpe;
+    private final Ethereum ethereum;
+    private final BigInteger logsBlockRange;
+    private final int logsParallelism;
+    private final Metrics metrics;
 
     /**
      * New adapter from web3j generated contract.
@@ -40,8 +67,64 @@ public class MultiPartyEscrowContract {
      * @param mpe MultiPartyEscrow generated contract.
      */
     public MultiPartyEscrowContract(Web3j web3j, MultiPartyEscrow mpe) {
+        this(web3j, mpe, new Ethereum(web3j));
+    }
+
+    /**
+     * New adapter from web3j generated contract.
+     * @param web3j web3j instance.
+     * @param mpe MultiPartyEscrow generated contract.
+     * @param ethereum Ethereum API which is used to get current block
+     * number.
+     */
+    public MultiPartyEscrowContract(Web3j web3j, MultiPartyEscrow mpe,
+            Ethereum ethereum) {
+        this(web3j, mpe, ethereum, DEFAULT_LOGS_BLOCK_RANGE,
+                DEFAULT_LOGS_PARALLELISM);
+    }
+
+    /**
+     * New adapter from web3j generated contract.
+     * @param web3j web3j instance.
+     * @param mpe MultiPartyEscrow generated contract.
+     * @param ethereum Ethereum API which is used to get current block
+     * number.
+     * @param logsBlockRange max number of blocks requested by one
+     * eth_getLogs call.
+     * @param logsParallelism max number of eth_getLogs calls executed in
+     * parallel.
+     */
+    public MultiPartyEscrowContract(Web3j web3j, MultiPartyEscrow mpe,
+            Ethereum ethereum, long logsBlockRange, int logsParallelism) {
+        this(web3j, mpe, ethereum, logsBlockRange, logsParallelism, Metrics.NONE);
+    }
+
+    /**
+     * New adapter from web3j generated contract which records contract
+     * reads and transactions.
+     * @param web3j web3j instance.
+     * @param mpe MultiPartyEscrow generated contract.
+     * @param ethereum Ethereum API which is used to get current block
+     * number.
+     * @param logsBlockRange max number of blocks requested by one
+     * eth_getLogs call.
+     * @param logsParallelism max number of eth_getLogs calls executed in
+     * parallel.
+     * @param metrics metrics to record contract reads and transactions.
+     */
+    public MultiPartyEscrowContract(Web3j web3j, MultiPartyEscrow mpe,
+            Ethereum ethereum, long logsBlockRange, int logsParallelism,
+            Metrics metrics) {
+        Preconditions.checkArgument(logsBlockRange > 0,
+                "Logs block range should be positive: %s", logsBlockRange);
+        Preconditions.checkArgument(logsParallelism > 0,
+                "Logs parallelism should be positive: %s", logsParallelism);
         this.web3j = web3j;
         this.mpe = mpe;
+        this.ethereum = ethereum;
+        this.logsBlockRange = BigInteger.valueOf(logsBlockRange);
+        this.logsParallelism = logsParallelism;
+        this.metrics = metrics;
     }
 
     /**
@@ -50,7 +133,7 @@ public class MultiPartyEscrowContract {
      * return blockchain payment channel state.
      */
     public Optional<PaymentChannel> getChannelById(BigInteger channelId) {
-        return Utils.wrapExceptions(() -> {
+        return metrics.time(MetricNames.MPE_GET_CHANNEL_BY_ID, () -> Utils.wrapExceptions(() -> {
             log.info("Get channel state from MultiPartyEscrow, channelId: {}", channelId);
             // TODO: test what contract returns on non-existing channel id
             Tuple7<BigInteger, String, String, String, byte[], BigInteger, BigInteger> result =
@@ -69,7 +152,7 @@ public class MultiPartyEscrowContract {
                 .build();
             log.info("Channel state received: {}", channel);
             return Optional.of(channel);
-        });
+        }));
     }
 
     /**
@@ -80,6 +163,13 @@ public class MultiPartyEscrowContract {
         return new Address(mpe.getContractAddress());
     }
 
+    /**
+     * @return Ethereum API which is used to get current block number.
+     */
+    Ethereum getEthereum() {
+        return ethereum;
+    }
+
     /**
      * Open MultiPartyEscrow channel.
      * @param signer address of the identity which will be able to sign checks
@@ -96,7 +186,7 @@ public class MultiPartyEscrowContract {
      */
     public PaymentChannel openChannel(Address signer, Address recipient,
             PaymentGroupId groupId, BigInteger value, BigInteger expiration) {
-        return Utils.wrapExceptions(() -> {
+        return metrics.time(MetricNames.MPE_OPEN_CHANNEL, () -> Utils.wrapExceptions(() -> {
             TransactionReceipt transaction = mpe.openChannel(signer.toString(),
                     recipient.toString(), groupId.getBytes(), value,
                     shiftToNextBlock(expiration))
@@ -104,14 +194,12 @@ public class MultiPartyEscrowContract {
             MultiPartyEscrow.ChannelOpenEventResponse event =
                 mpe.getChannelOpenEvents(transaction).get(0);
             return channelOpenEventAsPaymentChannel(event);
-        });
+        }));
     }
 
     private BigInteger shiftToNextBlock(BigInteger expiration) {
-        return Utils.wrapExceptions(() -> {
-            BigInteger blockBeforeCall = Utils.wrapExceptions(() -> web3j.ethBlockNumber().send().getBlockNumber());
-            return blockBeforeCall.add(expiration).add(BigInteger.valueOf(1));
-        });
+        BigInteger blockBeforeCall = ethereum.getEthBlockNumber();
+        return blockBeforeCall.add(expiration).add(BigInteger.valueOf(1));
     }
 
     private PaymentChannel channelOpenEventAsPaymentChannel(MultiPartyEscrow.ChannelOpenEventResponse event) {
@@ -135,13 +223,12 @@ public class MultiPartyEscrowContract {
      * @param value number of cogs to transfer.
      */
     public void transfer(Address receiver, BigInteger value) {
-        Utils.wrapExceptions(() -> {
+        metrics.time(MetricNames.MPE_TRANSFER, () -> Utils.wrapExceptions(() -> {
             mpe.transfer(receiver.toString(), value).send();
             return null;
-        });
+        }));
     }
 
-    // TODO: use server side filtering to restrict number of channels
     /**
      * Return stream of the channel open events up to the latest block.
      * @return payment channel stream. Elements of the stream contains channel
@@ -150,29 +237,104 @@ public class MultiPartyEscrowContract {
      * @see io.singularitynet.sdk.mpe.MultiPartyEscrowContract#getChannelById
      */
     public Stream<PaymentChannel> getChannelOpenEvents() {
-        return Utils.wrapExceptions(() -> {
-            EthFilter filter = new EthFilter(DefaultBlockParameterName.EARLIEST,
-                    DefaultBlockParameterName.LATEST, getContractAddress().toString());
-            filter.addSingleTopic(EventEncoder.encode(MultiPartyEscrow.CHANNELOPEN_EVENT));
-
-            return web3j.ethGetLogs(filter).send().getLogs().stream()
-                .map(res -> (Log)res)
-                .map(log -> Contract.staticExtractEventParameters(MultiPartyEscrow.CHANNELOPEN_EVENT, log))
-                .map(eventValues -> {
-                    return PaymentChannel.newBuilder()
-                        .setChannelId((BigInteger) eventValues.getNonIndexedValues().get(0).getValue())
-                        .setMpeContractAddress(getContractAddress())
-                        .setNonce((BigInteger) eventValues.getNonIndexedValues().get(1).getValue())
-                        .setSender(new Address((String) eventValues.getIndexedValues().get(0).getValue()))
-                        .setSigner(new Address((String) eventValues.getNonIndexedValues().get(2).getValue()))
-                        .setRecipient(new Address((String) eventValues.getIndexedValues().get(1).getValue()))
-                        .setPaymentGroupId(new PaymentGroupId((byte[]) eventValues.getIndexedValues().get(2).getValue()))
-                        .setValue((BigInteger) eventValues.getNonIndexedValues().get(3).getValue())
-                        .setExpiration((BigInteger) eventValues.getNonIndexedValues().get(4).getValue())
-                        .setSpentAmount(BigInteger.ZERO)
-                        .build();
-                });
-        });
+        return getChannelOpenEvents(Optional.empty(), Optional.empty(),
+                Optional.empty(), BigInteger.ZERO, ethereum.getEthBlockNumber());
+    }
+
+    /**
+     * Return stream of the channel open events filtered by the indexed event
+     * fields. Filtering is made by the Ethereum node. Block range is split on
+     * chunks which are requested in parallel.
+     * @param sender channel sender address, any sender if empty.
+     * @param recipient channel recipient address, any recipient if empty.
+     * @param paymentGroupId channel payment group id, any group if empty.
+     * @param fromBlock first block of the range, inclusive.
+     * @param toBlock last block of the range, inclusive.
+     * @return payment channel stream ordered by block number. Elements of the
+     * stream contains channel state on the moment of the channel opening.
+     * @see io.singularitynet.sdk.mpe.MultiPartyEscrowContract#getChannelById
+     */
+    public Stream<PaymentChannel> getChannelOpenEvents(Optional<Address> sender,
+            Optional<Address> recipient, Optional<PaymentGroupId> paymentGroupId,
+            BigInteger fromBlock, BigInteger toBlock) {
+        log.debug("Get channel open events, sender: {}, recipient: {}, paymentGroupId: {}, fromBlock: {}, toBlock: {}",
+                sender, recipient, paymentGroupId, fromBlock, toBlock);
+        return metrics.time(MetricNames.MPE_GET_CHANNEL_OPEN_EVENTS,
+                () -> getChannelOpenEventsList(sender, recipient,
+                    paymentGroupId, fromBlock, toBlock))
+            .stream();
+    }
+
+    private List<PaymentChannel> getChannelOpenEventsList(Optional<Address> sender,
+            Optional<Address> recipient, Optional<PaymentGroupId> paymentGroupId,
+            BigInteger fromBlock, BigInteger toBlock) {
+        List<PaymentChannel> channels = new ArrayList<>();
+        List<CompletableFuture<EthLog>> chunks = new ArrayList<>();
+        BigInteger start = fromBlock;
+        while (start.compareTo(toBlock) <= 0) {
+            BigInteger end = start.add(logsBlockRange).subtract(BigInteger.ONE).min(toBlock);
+            EthFilter filter = newChannelOpenFilter(sender, recipient,
+                    paymentGroupId, start, end);
+            chunks.add(web3j.ethGetLogs(filter).sendAsync());
+            if (chunks.size() == logsParallelism) {
+                collectChannelOpenEvents(chunks, channels);
+            }
+            start = end.add(BigInteger.ONE);
+        }
+        collectChannelOpenEvents(chunks, channels);
+        return channels;
+    }
+
+    private EthFilter newChannelOpenFilter(Optional<Address> sender,
+            Optional<Address> recipient, Optional<PaymentGroupId> paymentGroupId,
+            BigInteger fromBlock, BigInteger toBlock) {
+        EthFilter filter = new EthFilter(DefaultBlockParameter.valueOf(fromBlock),
+                DefaultBlockParameter.valueOf(toBlock), getContractAddress().toString());
+        filter.addSingleTopic(EventEncoder.encode(MultiPartyEscrow.CHANNELOPEN_EVENT));
+        addTopic(filter, sender.map(address -> new org.web3j.abi.datatypes.Address(address.toString())));
+        addTopic(filter, recipient.map(address -> new org.web3j.abi.datatypes.Address(address.toString())));
+        addTopic(filter, paymentGroupId.map(groupId -> new Bytes32(groupId.getBytes())));
+        return filter;
+    }
+
+    private static void addTopic(EthFilter filter, Optional<? extends Type> value) {
+        if (value.isPresent()) {
+            filter.addSingleTopic(Numeric.prependHexPrefix(TypeEncoder.encode(value.get())));
+        } else {
+            filter.addNullTopic();
+        }
+    }
+
+    private void collectChannelOpenEvents(List<CompletableFuture<EthLog>> chunks,
+            List<PaymentChannel> channels) {
+        for (CompletableFuture<EthLog> chunk : chunks) {
+            EthLog response = chunk.join();
+            Preconditions.checkState(!response.hasError(),
+                    "Could not get channel open events: %s",
+                    response.hasError() ? response.getError().getMessage() : null);
+            response.getLogs().stream()
+                .map(res -> (Log) res)
+                .map(this::channelOpenLogAsPaymentChannel)
+                .forEach(channels::add);
+        }
+        chunks.clear();
+    }
+
+    private PaymentChannel channelOpenLogAsPaymentChannel(Log log) {
+        EventValues eventValues = Contract.staticExtractEventParameters(
+                MultiPartyEscrow.CHANNELOPEN_EVENT, log);
+        return PaymentChannel.newBuilder()
+            .setChannelId((BigInteger) eventValues.getNonIndexedValues().get(0).getValue())
+            .setMpeContractAddress(getContractAddress())
+            .setNonce((BigInteger) eventValues.getNonIndexedValues().get(1).getValue())
+            .setSender(new Address((String) eventValues.getIndexedValues().get(0).getValue()))
+            .setSigner(new Address((String) eventValues.getNonIndexedValues().get(2).getValue()))
+            .setRecipient(new Address((String) eventValues.getIndexedValues().get(1).getValue()))
+            .setPaymentGroupId(new PaymentGroupId((byte[]) eventValues.getIndexedValues().get(2).getValue()))
+            .setValue((BigInteger) eventValues.getNonIndexedValues().get(3).getValue())
+            .setExpiration((BigInteger) eventValues.getNonIndexedValues().get(4).getValue())
+            .setSpentAmount(BigInteger.ZERO)
+            .build();
     }
 
     /**
@@ -182,13 +344,13 @@ public class MultiPartyEscrowContract {
      * @return number of cogs added.
      */
     public BigInteger channelAddFunds(BigInteger channelId, BigInteger amount) {
-        return Utils.wrapExceptions(() -> {
+        return metrics.time(MetricNames.MPE_CHANNEL_ADD_FUNDS, () -> Utils.wrapExceptions(() -> {
             TransactionReceipt transaction = mpe.channelAddFunds(
                     channelId, amount).send();
             MultiPartyEscrow.ChannelAddFundsEventResponse event =
                 mpe.getChannelAddFundsEvents(transaction).get(0);
             return event.additionalFunds;
-        });
+        }));
     }
 
     /**
@@ -200,13 +362,13 @@ public class MultiPartyEscrowContract {
      * @return new expiration block.
      */
     public BigInteger channelExtend(BigInteger channelId, BigInteger expiration) {
-        return Utils.wrapExceptions(() -> {
+        return metrics.time(MetricNames.MPE_CHANNEL_EXTEND, () -> Utils.wrapExceptions(() -> {
             TransactionReceipt transaction = mpe.channelExtend(
                     channelId, shiftToNextBlock(expiration)).send();
             MultiPartyEscrow.ChannelExtendEventResponse event =
                 mpe.getChannelExtendEvents(transaction).get(0);
             return event.newExpiration;
-        });
+        }));
     }
 
     /**
@@ -242,7 +404,7 @@ public class MultiPartyEscrowContract {
      */
     public ExtendAndAddFundsResponse channelExtendAndAddFunds(BigInteger channelId,
             BigInteger expiration, BigInteger amount) {
-        return Utils.wrapExceptions(() -> {
+        return metrics.time(MetricNames.MPE_CHANNEL_EXTEND_AND_ADD_FUNDS, () -> Utils.wrapExceptions(() -> {
             TransactionReceipt transaction = mpe.channelExtendAndAddFunds(
                     channelId, shiftToNextBlock(expiration), amount).send();
             MultiPartyEscrow.ChannelExtendEventResponse extendsEvent =
@@ -252,7 +414,7 @@ public class MultiPartyEscrowContract {
             return new ExtendAndAddFundsResponse(
                     extendsEvent.newExpiration,
                     addFundsEvent.additionalFunds);
-        });
+        }));
     }
 
 }
@@ -0,0 +1,132 @@
+package io.singularitynet.sdk.mpe;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.registry.PaymentGroupId;
+
+/**
+ * Storage of the payment channels discovered in blockchain. It keeps ids of
+ * the channels accessible by the signer in the payment group and the number
+ * of the last block scanned. It allows continuing channel discovery from the
+ * last block scanned after restart.
+ */
+public interface PaymentChannelIndex {
+
+    /**
+     * Read channels discovered previously.
+     * @param key index key.
+     * @return channels discovered, or empty entry if there is no data.
+     */
+    Entry read(Key key);
+
+    /**
+     * Add new channels and update last block scanned.
+     * @param key index key.
+     * @param channelIds ids of the new channels found.
+     * @param lastBlock last block scanned.
+     */
+    void append(Key key, Collection<BigInteger> channelIds, BigInteger lastBlock);
+
+    /**
+     * Index which doesn't keep any data.
+     */
+    static final PaymentChannelIndex NONE = new PaymentChannelIndex() {
+
+        @Override
+        public Entry read(Key key) {
+            return Entry.EMPTY;
+        }
+
+        @Override
+        public void append(Key key, Collection<BigInteger> channelIds,
+                BigInteger lastBlock) {
+        }
+
+        @Override
+        public String toString() {
+            return "NONE";
+        }
+
+    };
+
+    /**
+     * Index key.
+     */
+    @EqualsAndHashCode
+    @ToString
+    public static class Key {
+
+        private final Address mpeAddress;
+        private final PaymentGroupId paymentGroupId;
+        private final Address signer;
+
+        /**
+         * Constructor.
+         * @param mpeAddress MultiPartyEscrow contract address.
+         * @param paymentGroupId payment group id.
+         * @param signer address which can sign payments using the channel.
+         */
+        public Key(Address mpeAddress, PaymentGroupId paymentGroupId,
+                Address signer) {
+            this.mpeAddress = mpeAddress;
+            this.paymentGroupId = paymentGroupId;
+            this.signer = signer;
+        }
+
+        public Address getMpeAddress() {
+            return mpeAddress;
+        }
+
+        public PaymentGroupId getPaymentGroupId() {
+            return paymentGroupId;
+        }
+
+        public Address getSigner() {
+            return signer;
+        }
+
+    }
+
+    /**
+     * Channels discovered and last block scanned.
+     */
+    @EqualsAndHashCode
+    @ToString
+    public static class Entry {
+
+        /**
+         * No channels discovered and no blocks scanned.
+         */
+        public static final Entry EMPTY = new Entry(Collections.emptyList(),
+                BigInteger.ONE.negate());
+
+        private final List<BigInteger> channelIds;
+        private final BigInteger lastBlock;
+
+        /**
+         * Constructor.
+         * @param channelIds ids of the channels discovered.
+         * @param lastBlock last block scanned, -1 if no blocks scanned.
+         */
+        public Entry(List<BigInteger> channelIds, BigInteger lastBlock) {
+            this.channelIds = Collections.unmodifiableList(channelIds);
+            this.lastBlock = lastBlock;
+        }
+
+        public List<BigInteger> getChannelIds() {
+            return channelIds;
+        }
+
+        public BigInteger getLastBlock() {
+            return lastBlock;
+        }
+
+    }
+
+}
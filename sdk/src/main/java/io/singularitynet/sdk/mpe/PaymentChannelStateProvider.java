@@ -23,4 +23,31 @@ public interface PaymentChannelStateProvider {
      */
     PaymentChannel getChannelStateById(BigInteger channelId, Identity requestor);
 
+    /**
+     * Notify provider that the client signed a new payment using the channel.
+     * Provider can use it to predict the next channel state without asking
+     * the daemon.
+     * @param channel payment channel state after the payment; its spent
+     * amount is equal to the amount signed.
+     */
+    void paymentSigned(PaymentChannel channel);
+
+    /**
+     * Notify provider that the call paid from the channel failed. Daemon may
+     * have rejected the payment or may have not received it at all, so the
+     * channel state predicted cannot be trusted anymore.
+     * @param channelId id of the channel used to pay for the call.
+     */
+    void paymentFailed(BigInteger channelId);
+
+    /**
+     * Notify provider that the client added funds to the channel or extended
+     * it. Provider which keeps the channel state should update channel value
+     * and expiration. Default implementation does nothing.
+     * @param channel payment channel state returned by
+     * BlockchainPaymentChannelManager after the update.
+     */
+    default void channelUpdated(PaymentChannel channel) {
+    }
+
 }
@@ -16,6 +16,8 @@ import io.singularitynet.sdk.ethereum.Identity;
 import io.singularitynet.sdk.ethereum.Signature;
 import io.singularitynet.sdk.daemon.DaemonConnection;
 import io.singularitynet.sdk.daemon.GrpcUtils;
+import io.singularitynet.sdk.metrics.Metrics;
+import io.singularitynet.sdk.metrics.MetricNames;
 
 public class PaymentChannelStateService {
 
@@ -23,11 +25,18 @@ public class PaymentChannelStateService {
 
     private final MessageSigningHelper signingHelper;
     private final PaymentChannelStateServiceBlockingStub stub;
+    private final Metrics metrics;
 
     public PaymentChannelStateService(DaemonConnection daemonConnection,
             Address mpeAddress, Ethereum ethereum) {
+        this(daemonConnection, mpeAddress, ethereum, Metrics.NONE);
+    }
+
+    public PaymentChannelStateService(DaemonConnection daemonConnection,
+            Address mpeAddress, Ethereum ethereum, Metrics metrics) {
         this.signingHelper = new MessageSigningHelper(mpeAddress, ethereum);
         this.stub = daemonConnection.getGrpcStub(PaymentChannelStateServiceGrpc::newBlockingStub);
+        this.metrics = metrics;
     }
 
     public PaymentChannelStateReply getChannelState(BigInteger channelId, Identity signer) {
@@ -38,7 +47,9 @@ public class PaymentChannelStateService {
 
         signingHelper.signChannelStateRequest(request, signer); 
 
-        ChannelStateReply grpcReply = stub.getChannelState(request.build());
+        ChannelStateReply grpcReply = metrics.time(
+                MetricNames.DAEMON_GET_CHANNEL_STATE,
+                () -> stub.getChannelState(request.build()));
         PaymentChannelStateReply.Builder builder = PaymentChannelStateReply.newBuilder()
             .setCurrentNonce(GrpcUtils.toBigInt(grpcReply.getCurrentNonce()));
 
@@ -0,0 +1,259 @@
+package io.singularitynet.sdk.paymentstrategy;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.common.Preconditions;
+import io.singularitynet.sdk.ethereum.Identity;
+import io.singularitynet.sdk.mpe.PaymentChannel;
+import io.singularitynet.sdk.mpe.BlockchainPaymentChannelManager;
+import io.singularitynet.sdk.mpe.PaymentChannelStateProvider;
+import io.singularitynet.sdk.client.ServiceClient;
+
+/**
+ * Updates payment channels in background before they become unusable. The
+ * payment strategy passes each channel it selects to the scheduler. When
+ * channel balance falls below the low-water mark or channel is going to
+ * expire soon scheduler adds funds to the channel or extends it
+ * asynchronously, so calls don't wait for the Ethereum transaction. Updated
+ * channel state is passed to the channel state provider, so the next check
+ * doesn't update the channel again. Watched channels are also rechecked
+ * periodically.
+ *
+ * Balance low-water mark is set as a number of calls by the fixed price.
+ * Expiration low-water mark is set as a number of blocks in addition to the
+ * service provider expiration threshold.
+ * @see io.singularitynet.sdk.registry.PaymentDetails#getPaymentExpirationThreshold
+ */
+@ToString
+public class ChannelMaintenanceScheduler implements AutoCloseable {
+
+    private final static Logger log = LoggerFactory.getLogger(ChannelMaintenanceScheduler.class);
+
+    private final BigInteger minCallsLeft;
+    private final BigInteger minBlocksLeft;
+    private final BigInteger channelLifetime;
+    private final BigInteger numberOfCalls;
+
+    @ToString.Exclude
+    private final ScheduledExecutorService executor;
+    @ToString.Exclude
+    private final Map<BigInteger, Watch> watches = new ConcurrentHashMap<>();
+    @ToString.Exclude
+    private final Map<BigInteger, CompletableFuture<PaymentChannel>> updates = new ConcurrentHashMap<>();
+
+    /**
+     * New channel maintenance scheduler.
+     * @param minCallsLeft channel is funded when its balance is less than
+     * price of this number of calls.
+     * @param minBlocksLeft channel is extended when it expires in less than
+     * this number of blocks after the service provider expiration threshold.
+     * @param channelLifetime number of blocks to be added to the service
+     * provider expiration threshold when channel is extended.
+     * @param numberOfCalls number of calls by fixed price to be added to the
+     * channel when it is funded.
+     * @param checkPeriodMillis period of rechecking watched channels in
+     * milliseconds, zero disables periodic checks.
+     */
+    public ChannelMaintenanceScheduler(long minCallsLeft, long minBlocksLeft,
+            long channelLifetime, long numberOfCalls, long checkPeriodMillis) {
+        this(minCallsLeft, minBlocksLeft, channelLifetime, numberOfCalls,
+                checkPeriodMillis, newExecutor());
+    }
+
+    ChannelMaintenanceScheduler(long minCallsLeft, long minBlocksLeft,
+            long channelLifetime, long numberOfCalls, long checkPeriodMillis,
+            ScheduledExecutorService executor) {
+        Preconditions.checkArgument(numberOfCalls > minCallsLeft,
+                "Number of calls to add should be greater than minimal number of calls left: %s <= %s",
+                numberOfCalls, minCallsLeft);
+        Preconditions.checkArgument(channelLifetime > minBlocksLeft,
+                "Channel lifetime should be greater than minimal number of blocks left: %s <= %s",
+                channelLifetime, minBlocksLeft);
+        this.minCallsLeft = BigInteger.valueOf(minCallsLeft);
+        this.minBlocksLeft = BigInteger.valueOf(minBlocksLeft);
+        this.channelLifetime = BigInteger.valueOf(channelLifetime);
+        this.numberOfCalls = BigInteger.valueOf(numberOfCalls);
+        this.executor = executor;
+        if (checkPeriodMillis > 0) {
+            executor.scheduleWithFixedDelay(this::checkAll, checkPeriodMillis,
+                    checkPeriodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static ScheduledExecutorService newExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snet-channel-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start watching the channel and schedule the channel update if the
+     * channel state given is below low-water marks. Channel is registered on
+     * the first call, the next calls only check the state given.
+     * @param serviceClient service client which uses the channel.
+     * @param channel channel state.
+     * @param currentBlock current Ethereum block number.
+     * @param price price of the call in cogs.
+     * @param expirationThreshold service provider expiration threshold.
+     */
+    public void watch(ServiceClient serviceClient, PaymentChannel channel,
+            BigInteger currentBlock, BigInteger price, BigInteger expirationThreshold) {
+        Watch watch = watches.computeIfAbsent(channel.getChannelId(),
+                id -> new Watch(serviceClient, price, expirationThreshold));
+        check(channel, watch, currentBlock);
+    }
+
+    /**
+     * Return channel update which is in progress.
+     * @param channelId id of the channel.
+     * @return future which is completed by updated channel state or empty
+     * if channel is not being updated.
+     */
+    public Optional<CompletableFuture<PaymentChannel>> getPendingUpdate(BigInteger channelId) {
+        return Optional.ofNullable(updates.get(channelId));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void checkAll() {
+        watches.forEach((channelId, watch) -> {
+            try {
+                PaymentChannel channel = watch.serviceClient
+                    .getPaymentChannelStateProvider()
+                    .getChannelStateById(channelId, watch.getSigner());
+                check(channel, watch, watch.getCurrentBlock());
+            } catch (RuntimeException e) {
+                log.warn("Could not check the channel, stop watching it, channelId: {}",
+                        channelId, e);
+                watches.remove(channelId, watch);
+            }
+        });
+    }
+
+    private void check(PaymentChannel channel, Watch watch, BigInteger currentBlock) {
+        if (!needsFunds(channel, watch) && !needsExtension(channel, watch, currentBlock)) {
+            return;
+        }
+        BigInteger channelId = channel.getChannelId();
+        CompletableFuture<PaymentChannel> update = new CompletableFuture<>();
+        if (updates.putIfAbsent(channelId, update) != null) {
+            return;
+        }
+        log.debug("Schedule channel update: {}", channel);
+        try {
+            executor.execute(() -> {
+                try {
+                    update.complete(update(channelId, watch));
+                } catch (Throwable e) {
+                    log.error("Channel update failed, channelId: {}", channelId, e);
+                    update.completeExceptionally(e);
+                } finally {
+                    updates.remove(channelId, update);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            updates.remove(channelId, update);
+            update.completeExceptionally(e);
+        }
+    }
+
+    private PaymentChannel update(BigInteger channelId, Watch watch) {
+        BlockchainPaymentChannelManager channelManager = watch.serviceClient
+            .getSdk().getBlockchainPaymentChannelManager();
+        PaymentChannelStateProvider stateProvider = watch.serviceClient
+            .getPaymentChannelStateProvider();
+        // value and expiration are read from blockchain because the state
+        // provider can keep them from the state before previous update
+        PaymentChannel state = stateProvider.getChannelStateById(channelId, watch.getSigner());
+        PaymentChannel channel = channelManager.getChannelById(channelId)
+            .map(blockchain -> withBlockchainState(state, blockchain))
+            .orElse(state);
+        BigInteger currentBlock = watch.getCurrentBlock();
+
+        boolean needsFunds = needsFunds(channel, watch);
+        boolean needsExtension = needsExtension(channel, watch, currentBlock);
+        BigInteger amount = numberOfCalls.multiply(watch.price);
+        BigInteger lifetime = watch.expirationThreshold.add(channelLifetime);
+        PaymentChannel updated;
+        if (needsFunds && needsExtension) {
+            log.info("Adding funds to the channel: {}, amount: {} cogs, and extending lifetime: {} blocks",
+                    channel, amount, lifetime);
+            updated = channelManager.extendAndAddFundsToChannel(channel, lifetime, amount);
+        } else if (needsFunds) {
+            log.info("Adding funds to the channel: {}, amount: {} cogs", channel, amount);
+            updated = channelManager.addFundsToChannel(channel, amount);
+        } else if (needsExtension) {
+            log.info("Extending the channel: {}, lifetime: {} blocks", channel, lifetime);
+            updated = channelManager.extendChannel(channel, lifetime);
+        } else {
+            updated = channel;
+        }
+        stateProvider.channelUpdated(updated);
+        return updated;
+    }
+
+    private static PaymentChannel withBlockchainState(PaymentChannel state,
+            PaymentChannel blockchain) {
+        PaymentChannel.Builder builder = state.toBuilder()
+            .setExpiration(state.getExpiration().max(blockchain.getExpiration()));
+        if (state.getNonce().equals(blockchain.getNonce())) {
+            builder.setValue(state.getValue().max(blockchain.getValue()));
+        }
+        return builder.build();
+    }
+
+    private boolean needsFunds(PaymentChannel channel, Watch watch) {
+        return channel.getBalance().compareTo(minCallsLeft.multiply(watch.price)) < 0;
+    }
+
+    private boolean needsExtension(PaymentChannel channel, Watch watch,
+            BigInteger currentBlock) {
+        BigInteger lowWaterMark = currentBlock
+            .add(watch.expirationThreshold)
+            .add(minBlocksLeft);
+        return channel.getExpiration().compareTo(lowWaterMark) <= 0;
+    }
+
+    /**
+     * Parameters of the watched channel.
+     */
+    private static class Watch {
+
+        private final ServiceClient serviceClient;
+        private final BigInteger price;
+        private final BigInteger expirationThreshold;
+
+        public Watch(ServiceClient serviceClient, BigInteger price,
+                BigInteger expirationThreshold) {
+            this.serviceClient = serviceClient;
+            this.price = price;
+            this.expirationThreshold = expirationThreshold;
+        }
+
+        public Identity getSigner() {
+            return serviceClient.getSdk().getIdentity();
+        }
+
+        public BigInteger getCurrentBlock() {
+            return serviceClient.getSdk().getEthereum().getEthBlockNumber();
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.singularitynet.sdk.paymentstrategy;
 
+import io.grpc.Status;
 import lombok.ToString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,4 +44,11 @@ public class CombinedPaymentStrategy implements PaymentStrategy {
         return Payment.INVALID_PAYMENT; 
     }
 
+    @Override
+    public void callCompleted(Payment payment, Status status) {
+        for (PaymentStrategy strategy : strategies) {
+            strategy.callCompleted(payment, status);
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 package io.singularitynet.sdk.paymentstrategy;
 
 import java.math.BigInteger;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,18 +9,34 @@ import io.singularitynet.sdk.payment.Payment;
 import io.singularitynet.sdk.mpe.PaymentChannel;
 import io.singularitynet.sdk.mpe.EscrowPayment;
 import io.singularitynet.sdk.registry.*;
+import io.singularitynet.sdk.ethereum.Identity;
 import io.singularitynet.sdk.client.PaymentStrategy;
 import io.singularitynet.sdk.client.ServiceClient;
 import io.singularitynet.sdk.client.GrpcCallParameters;
 
 /**
  * Escrow payment strategy class which is based on MultiPartyEscrow contract
- * payment channel selection.
+ * payment channel selection. Concurrent calls paid from the same channel
+ * sign unique increasing amounts which don't exceed the channel value.
+ * Channel state provider may not know the amounts signed for the calls in
+ * progress, so strategies check channel balance using
+ * {@link #withAllocatedAmount}. When the channel has not enough funds the
+ * channel is selected again, so the strategy can update it or select
+ * another one. Payments are taken from the SDK presigner when it is
+ * enabled.
  */
 public abstract class EscrowPaymentStrategy implements PaymentStrategy {
 
     private final static Logger log = LoggerFactory.getLogger(EscrowPaymentStrategy.class);
 
+    /**
+     * Number of the attempts to select a channel which has enough funds
+     * for the call.
+     */
+    static final int MAX_ALLOCATION_ATTEMPTS = 3;
+
+    private final PaymentAmountAllocator amountAllocator = new PaymentAmountAllocator();
+
     /**
      * Constructor.
      */
@@ -37,15 +54,69 @@ public abstract class EscrowPaymentStrategy implements PaymentStrategy {
     @Override
     public <ReqT, RespT> Payment getPayment(GrpcCallParameters<ReqT, RespT> callParams,
             ServiceClient serviceClient) {
-        PaymentChannel channel = selectChannel(serviceClient);
-        BigInteger price = getPrice(channel, serviceClient);
-        // TODO: test on price exceeds channel value
-        BigInteger newAmount = channel.getSpentAmount().add(price);
-        return EscrowPayment.newBuilder()
-            .setPaymentChannel(channel)
-            .setAmount(newAmount)
-            .setSigner(serviceClient.getSdk().getIdentity())
-            .build();
+        for (int attempt = 1; ; ++attempt) {
+            PaymentChannel channel = selectChannel(serviceClient);
+            Optional<BigInteger> newAmount;
+            BigInteger price;
+            try {
+                price = getPrice(channel, serviceClient);
+                newAmount = amountAllocator.allocate(channel, price);
+                if (newAmount.isPresent()) {
+                    return sign(channel, newAmount.get(), price, serviceClient);
+                }
+            } catch (RuntimeException e) {
+                releaseChannel(channel);
+                throw e;
+            }
+            releaseChannel(channel);
+            log.info("Not enough funds in the channel for the call, channel: {}, price: {}, attempt: {}",
+                    channel, price, attempt);
+            if (attempt >= MAX_ALLOCATION_ATTEMPTS) {
+                throw new IllegalStateException(String.format("Not enough funds " +
+                            "in the channel for the call, channel: %s, price: %s",
+                            channel, price));
+            }
+        }
+    }
+
+    /**
+     * Return channel state which has spent amount including the amounts
+     * allocated to the calls in progress. Strategy should check the channel
+     * balance using this state before returning channel from
+     * selectChannel(), otherwise it doesn't update the channel when calls in
+     * progress spent all of its funds.
+     * @param channel payment channel state returned by state provider.
+     * @return channel state with amounts allocated taken into account.
+     */
+    protected PaymentChannel withAllocatedAmount(PaymentChannel channel) {
+        return amountAllocator.getAllocated(channel)
+            .filter(amount -> amount.compareTo(channel.getSpentAmount()) > 0)
+            .map(amount -> channel.toBuilder().setSpentAmount(amount).build())
+            .orElse(channel);
+    }
+
+    /**
+     * Notify strategy that the channel returned by selectChannel() is not
+     * used to pay for the call because payment could not be made. Default
+     * implementation does nothing.
+     * @param channel payment channel state returned by selectChannel().
+     */
+    protected void releaseChannel(PaymentChannel channel) {
+    }
+
+    private Payment sign(PaymentChannel channel, BigInteger newAmount,
+            BigInteger price, ServiceClient serviceClient) {
+        Identity signer = serviceClient.getSdk().getIdentity();
+        EscrowPayment payment = serviceClient.getSdk().getPaymentPresigner()
+            .map(presigner -> presigner.getPayment(channel, newAmount, price, signer))
+            .orElseGet(() -> EscrowPayment.newBuilder()
+                .setPaymentChannel(channel)
+                .setAmount(newAmount)
+                .setSigner(signer)
+                .build());
+        serviceClient.getPaymentChannelStateProvider().paymentSigned(
+                channel.toBuilder().setSpentAmount(newAmount).build());
+        return payment;
     }
 
     protected EndpointGroup getEndpointGroup(ServiceClient serviceClient) {
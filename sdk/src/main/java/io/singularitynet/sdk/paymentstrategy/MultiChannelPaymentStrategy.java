@@ -0,0 +1,286 @@
+package io.singularitynet.sdk.paymentstrategy;
+
+import io.grpc.Status;
+import java.math.BigInteger;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.common.Preconditions;
+import io.singularitynet.sdk.ethereum.Identity;
+import io.singularitynet.sdk.registry.EndpointGroup;
+import io.singularitynet.sdk.registry.PaymentGroup;
+import io.singularitynet.sdk.registry.PaymentGroupId;
+import io.singularitynet.sdk.registry.PriceModel;
+import io.singularitynet.sdk.payment.Payment;
+import io.singularitynet.sdk.mpe.EscrowPayment;
+import io.singularitynet.sdk.mpe.PaymentChannel;
+import io.singularitynet.sdk.mpe.BlockchainPaymentChannelManager;
+import io.singularitynet.sdk.client.ServiceClient;
+
+/**
+ * Payment strategy which spreads calls across the pool of payment channels
+ * of the same payment group and signer. Each call is paid from the channel
+ * which has the least number of calls in progress. The call is counted when
+ * the channel is selected and until the call is closed or the payment
+ * fails. When all channels in the pool have the maximum number of calls in
+ * progress and the pool is not full the strategy opens a new channel.
+ * Channels which have not enough funds or expire soon are funded or
+ * extended before use. Like OnDemandPaymentChannelPaymentStrategy it
+ * requires identity which has Ethereum balance and AGI tokens deposited in
+ * MultiPartyEscrow contract.
+ */
+@ToString
+public class MultiChannelPaymentStrategy extends EscrowPaymentStrategy {
+
+    private final static Logger log = LoggerFactory.getLogger(MultiChannelPaymentStrategy.class);
+
+    private final int maxChannels;
+    private final int maxCallsPerChannel;
+    private final BigInteger channelLifetime;
+    private final BigInteger numberOfCalls;
+
+    @ToString.Exclude
+    private final Map<PaymentGroupId, ChannelPool> pools = new ConcurrentHashMap<>();
+    @ToString.Exclude
+    private final Map<BigInteger, AtomicInteger> callsInProgress = new ConcurrentHashMap<>();
+    @ToString.Exclude
+    private final Map<BigInteger, Object> updateLocks = new ConcurrentHashMap<>();
+
+    /**
+     * New multi channel payment strategy.
+     * @param maxChannels maximum number of channels in the pool.
+     * @param maxCallsPerChannel number of calls in progress per channel
+     * after which strategy opens new channel.
+     * @param channelLifetime number of blocks to be added to the service
+     * provider expiration threshold when opening or updating channels.
+     * @see io.singularitynet.sdk.registry.PaymentDetails#getPaymentExpirationThreshold
+     * @param numberOfCalls number of calls by fixed price to be made after
+     * channel is opened or updated.
+     */
+    public MultiChannelPaymentStrategy(int maxChannels, int maxCallsPerChannel,
+            long channelLifetime, long numberOfCalls) {
+        Preconditions.checkArgument(maxChannels > 0,
+                "Maximum number of channels should be positive: %s", maxChannels);
+        Preconditions.checkArgument(maxCallsPerChannel > 0,
+                "Maximum number of calls per channel should be positive: %s", maxCallsPerChannel);
+        this.maxChannels = maxChannels;
+        this.maxCallsPerChannel = maxCallsPerChannel;
+        this.channelLifetime = BigInteger.valueOf(channelLifetime);
+        this.numberOfCalls = BigInteger.valueOf(numberOfCalls);
+    }
+
+    @Override
+    protected PaymentChannel selectChannel(ServiceClient serviceClient) {
+        BlockchainPaymentChannelManager channelManager = serviceClient.getSdk().getBlockchainPaymentChannelManager();
+        Identity signer = serviceClient.getSdk().getIdentity();
+
+        EndpointGroup endpointGroup = getEndpointGroup(serviceClient);
+        BigInteger price = endpointGroup.getPricing().stream()
+            .filter(pr -> pr.getPriceModel() == PriceModel.FIXED_PRICE)
+            .findFirst().get()
+            .getPriceInCogs();
+        PaymentGroup paymentGroup = serviceClient.getMetadataProvider()
+            .getOrganizationMetadata()
+            .getPaymentGroupById(endpointGroup.getPaymentGroupId()).get();
+        BigInteger expirationThreshold = paymentGroup
+            .getPaymentDetails()
+            .getPaymentExpirationThreshold();
+
+        ChannelPool pool = pools.computeIfAbsent(paymentGroup.getPaymentGroupId(),
+                id -> new ChannelPool());
+        pool.load(channelManager, paymentGroup, signer);
+
+        Optional<BigInteger> channelId = pool.getLeastBusyChannel();
+        if (!channelId.isPresent() || isPoolBusy(pool, channelId.get())) {
+            Optional<PaymentChannel> channel = pool.openChannel(channelManager,
+                    paymentGroup, signer, numberOfCalls.multiply(price),
+                    expirationThreshold.add(channelLifetime),
+                    !channelId.isPresent());
+            if (channel.isPresent()) {
+                return channel.get();
+            }
+        }
+
+        BigInteger id = pool.startCallOnLeastBusyChannel();
+        try {
+            PaymentChannel channel = withAllocatedAmount(serviceClient
+                    .getPaymentChannelStateProvider().getChannelStateById(id, signer));
+            BigInteger minExpiration = serviceClient.getSdk().getEthereum()
+                .getEthBlockNumber().add(expirationThreshold);
+            if (!isUsable(channel, price, minExpiration)) {
+                synchronized (updateLocks.get(id)) {
+                    channel = withAllocatedAmount(serviceClient
+                            .getPaymentChannelStateProvider().getChannelStateById(id, signer));
+                    channel = updateChannel(channelManager, channel, price,
+                            minExpiration, expirationThreshold);
+                    serviceClient.getPaymentChannelStateProvider().channelUpdated(channel);
+                }
+            }
+            return channel;
+        } catch (RuntimeException e) {
+            finishCall(id);
+            throw e;
+        }
+    }
+
+    @Override
+    public void callCompleted(Payment payment, Status status) {
+        if (!(payment instanceof EscrowPayment)) {
+            return;
+        }
+        finishCall(((EscrowPayment) payment).getChannelId());
+    }
+
+    @Override
+    protected void releaseChannel(PaymentChannel channel) {
+        finishCall(channel.getChannelId());
+    }
+
+    private boolean isPoolBusy(ChannelPool pool, BigInteger leastBusyChannelId) {
+        return callsInProgress.get(leastBusyChannelId).get() >= maxCallsPerChannel
+            && pool.size() < maxChannels;
+    }
+
+    private void finishCall(BigInteger channelId) {
+        AtomicInteger calls = callsInProgress.get(channelId);
+        if (calls != null) {
+            calls.decrementAndGet();
+        }
+    }
+
+    private static boolean isUsable(PaymentChannel channel, BigInteger price,
+            BigInteger minExpiration) {
+        return channel.getBalance().compareTo(price) >= 0
+            && channel.getExpiration().compareTo(minExpiration) > 0;
+    }
+
+    private PaymentChannel updateChannel(BlockchainPaymentChannelManager channelManager,
+            PaymentChannel channel, BigInteger price, BigInteger minExpiration,
+            BigInteger expirationThreshold) {
+        boolean hasFunds = channel.getBalance().compareTo(price) >= 0;
+        boolean notExpired = channel.getExpiration().compareTo(minExpiration) > 0;
+        BigInteger amount = numberOfCalls.multiply(price);
+        BigInteger lifetime = expirationThreshold.add(channelLifetime);
+        if (hasFunds && notExpired) {
+            return channel;
+        }
+        if (notExpired) {
+            log.info("Adding funds to the channel: {}, amount: {} cogs", channel, amount);
+            return channelManager.addFundsToChannel(channel, amount);
+        }
+        if (hasFunds) {
+            log.info("Extending the channel: {}, lifetime: {} blocks", channel, lifetime);
+            return channelManager.extendChannel(channel, lifetime);
+        }
+        log.info("Adding funds to the channel: {}, amount: {} cogs, and extending lifetime: {} blocks",
+                channel, amount, lifetime);
+        return channelManager.extendAndAddFundsToChannel(channel, lifetime, amount);
+    }
+
+    /**
+     * Channels of the payment group used by strategy.
+     */
+    private class ChannelPool {
+
+        private final List<BigInteger> channelIds = new CopyOnWriteArrayList<>();
+        private final ReentrantLock openLock = new ReentrantLock();
+        private volatile boolean loaded;
+
+        public void load(BlockchainPaymentChannelManager channelManager,
+                PaymentGroup paymentGroup, Identity signer) {
+            if (loaded) {
+                return;
+            }
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                channelManager.getChannelsAccessibleBy(paymentGroup.getPaymentGroupId(), signer)
+                    .limit(maxChannels)
+                    .forEach(channel -> add(channel.getChannelId(), 0));
+                log.info("Channel pool loaded, paymentGroupId: {}, channelIds: {}",
+                        paymentGroup.getPaymentGroupId(), channelIds);
+                loaded = true;
+            }
+        }
+
+        public int size() {
+            return channelIds.size();
+        }
+
+        public Optional<BigInteger> getLeastBusyChannel() {
+            return channelIds.stream()
+                .min(Comparator.comparingInt(id -> callsInProgress.get(id).get()));
+        }
+
+        /**
+         * Find the channel with the least number of calls in progress and
+         * increment this number atomically, so concurrent callers are
+         * spread between channels.
+         */
+        public BigInteger startCallOnLeastBusyChannel() {
+            while (true) {
+                BigInteger leastBusy = null;
+                AtomicInteger leastCalls = null;
+                int least = Integer.MAX_VALUE;
+                for (BigInteger id : channelIds) {
+                    AtomicInteger calls = callsInProgress.get(id);
+                    int current = calls.get();
+                    if (current < least) {
+                        leastBusy = id;
+                        leastCalls = calls;
+                        least = current;
+                    }
+                }
+                if (leastCalls.compareAndSet(least, least + 1)) {
+                    return leastBusy;
+                }
+            }
+        }
+
+        /**
+         * Open new channel unless another thread is opening a channel. If
+         * wait is true then wait for another thread and open channel only if
+         * pool is still empty.
+         */
+        public Optional<PaymentChannel> openChannel(
+                BlockchainPaymentChannelManager channelManager,
+                PaymentGroup paymentGroup, Identity signer, BigInteger value,
+                BigInteger expiration, boolean wait) {
+            if (wait) {
+                openLock.lock();
+            } else if (!openLock.tryLock()) {
+                return Optional.empty();
+            }
+            try {
+                if ((wait && !channelIds.isEmpty()) || channelIds.size() >= maxChannels) {
+                    return Optional.empty();
+                }
+                PaymentChannel channel = channelManager.openPaymentChannel(
+                        paymentGroup, signer, value, expiration);
+                log.info("New channel opened: {}", channel);
+                add(channel.getChannelId(), 1);
+                return Optional.of(channel);
+            } finally {
+                openLock.unlock();
+            }
+        }
+
+        private void add(BigInteger channelId, int calls) {
+            callsInProgress.putIfAbsent(channelId, new AtomicInteger(calls));
+            updateLocks.putIfAbsent(channelId, new Object());
+            channelIds.add(channelId);
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@ package io.singularitynet.sdk.paymentstrategy;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -27,7 +28,10 @@ import io.singularitynet.sdk.client.ServiceClient;
  * channels this strategy requires identity which has non zero Ethereum
  * balance. Moreover this identity should have enough number of AGI tokens
  * deposited in MultiPartyEscrow contract. Strategy uses fixed price model to
- * calculate amount of tokens required.
+ * calculate amount of tokens required. When channel maintenance scheduler is
+ * passed the channels are updated in background before they become
+ * unusable, so in a steady state calls don't wait for Ethereum
+ * transactions.
  */
 @ToString
 public class OnDemandPaymentChannelPaymentStrategy extends EscrowPaymentStrategy {
@@ -36,6 +40,8 @@ public class OnDemandPaymentChannelPaymentStrategy extends EscrowPaymentStrategy
 
     private final BigInteger channelLifetime;
     private final BigInteger numberOfCalls;
+    @ToString.Exclude
+    private final Optional<ChannelMaintenanceScheduler> maintenance;
         
     /**
      * New on demand payment channel strategy with default parameter values.
@@ -67,12 +73,44 @@ public class OnDemandPaymentChannelPaymentStrategy extends EscrowPaymentStrategy
      */
     public OnDemandPaymentChannelPaymentStrategy(BigInteger channelLifetime,
             BigInteger numberOfCalls) {
+        this(channelLifetime, numberOfCalls, Optional.empty());
+    }
+
+    /**
+     * New on demand payment channel strategy which updates channels in
+     * background.
+     * @param channelLifetime number of blocks to be added to the service
+     * provider expiration threshold when opening or updating channels.
+     * @see io.singularitynet.sdk.registry.PaymentDetails#getPaymentExpirationThreshold
+     * @param numberOfCalls number of calls by fixed price to be made after
+     * channel is opened or updated.
+     * @param maintenance scheduler to update channels in background.
+     */
+    public OnDemandPaymentChannelPaymentStrategy(long channelLifetime,
+            long numberOfCalls, ChannelMaintenanceScheduler maintenance) {
+        this(BigInteger.valueOf(channelLifetime), BigInteger.valueOf(numberOfCalls),
+                Optional.of(maintenance));
+    }
+
+    private OnDemandPaymentChannelPaymentStrategy(BigInteger channelLifetime,
+            BigInteger numberOfCalls,
+            Optional<ChannelMaintenanceScheduler> maintenance) {
         this.channelLifetime = channelLifetime;
         this.numberOfCalls = numberOfCalls;
+        this.maintenance = maintenance;
     }
 
     @Override
     protected PaymentChannel selectChannel(ServiceClient serviceClient) {
+        BigInteger currentBlock = serviceClient.getSdk().getEthereum().getEthBlockNumber();
+        PaymentChannel channel = selectOrUpdateChannel(serviceClient, currentBlock);
+        maintenance.ifPresent(m -> m.watch(serviceClient, channel, currentBlock,
+                    getPrice(serviceClient), getExpirationThreshold(serviceClient)));
+        return channel;
+    }
+
+    private PaymentChannel selectOrUpdateChannel(ServiceClient serviceClient,
+            BigInteger currentBlock) {
         log.debug("Selecting channel to make a call using service client");
         MetadataProvider metadataProvider = serviceClient.getMetadataProvider();
         BlockchainPaymentChannelManager blockchainChannelManager = serviceClient.getSdk().getBlockchainPaymentChannelManager();
@@ -91,7 +129,6 @@ public class OnDemandPaymentChannelPaymentStrategy extends EscrowPaymentStrategy
         BigInteger expirationThreshold = paymentGroup
             .getPaymentDetails()
             .getPaymentExpirationThreshold();
-        BigInteger currentBlock = serviceClient.getSdk().getEthereum().getEthBlockNumber();
         BigInteger minExpiration = currentBlock.add(expirationThreshold);
 
         Optional<Supplier<PaymentChannel>> channelSupplier = blockchainChannelManager
@@ -99,6 +136,7 @@ public class OnDemandPaymentChannelPaymentStrategy extends EscrowPaymentStrategy
             .map(ch -> ch.getChannelId())
             .map(id -> serviceClient.getPaymentChannelStateProvider()
                     .getChannelStateById(id, signer))
+            .map(this::withAllocatedAmount)
             .flatMap(channel -> {
                 if (channel.getBalance().compareTo(price) >= 0 && 
                     channel.getExpiration().compareTo(minExpiration) > 0) {
@@ -106,26 +144,34 @@ public class OnDemandPaymentChannelPaymentStrategy extends EscrowPaymentStrategy
                     return Stream.of(() -> channel);
                 }
 
+                Optional<CompletableFuture<PaymentChannel>> pendingUpdate = maintenance
+                    .flatMap(m -> m.getPendingUpdate(channel.getChannelId()));
+                if (pendingUpdate.isPresent()) {
+                    log.info("Channel found: {}, waiting for background update", channel);
+                    return Stream.of(() -> pendingUpdate.get().join());
+                }
+
                 if (channel.getExpiration().compareTo(minExpiration) > 0) {
                     BigInteger amount = numberOfCalls.multiply(price);
                     log.info("Channel found: {}, adding funds: {} cogs", channel, amount);
-                    return Stream.of(() -> blockchainChannelManager.addFundsToChannel(
-                                channel, amount));
+                    return Stream.of(() -> channelUpdated(serviceClient,
+                                blockchainChannelManager.addFundsToChannel(channel, amount)));
                 }
 
                 if (channel.getBalance().compareTo(price) >= 0) {
                     BigInteger lifetime = expirationThreshold.add(channelLifetime);
                     log.info("Channel found: {}, extending expiration date on: {} blocks", channel, lifetime);
-                    return Stream.of(() -> blockchainChannelManager.extendChannel(
-                                channel, lifetime));
+                    return Stream.of(() -> channelUpdated(serviceClient,
+                                blockchainChannelManager.extendChannel(channel, lifetime)));
                 }
 
                 BigInteger amount = numberOfCalls.multiply(price);
                 BigInteger lifetime = expirationThreshold.add(channelLifetime);
                 log.info("Channel found: {}, adding funds: {} cogs, and extending lifetime: {}",
                         channel, amount, lifetime);
-                return Stream.<Supplier<PaymentChannel>>of(() -> blockchainChannelManager
-                        .extendAndAddFundsToChannel(channel, lifetime, amount));
+                return Stream.<Supplier<PaymentChannel>>of(() -> channelUpdated(serviceClient,
+                            blockchainChannelManager.extendAndAddFundsToChannel(
+                                channel, lifetime, amount)));
             })
             .findFirst();
 
@@ -142,4 +188,25 @@ public class OnDemandPaymentChannelPaymentStrategy extends EscrowPaymentStrategy
         return channel;
     }
 
+    private static PaymentChannel channelUpdated(ServiceClient serviceClient,
+            PaymentChannel channel) {
+        serviceClient.getPaymentChannelStateProvider().channelUpdated(channel);
+        return channel;
+    }
+
+    private BigInteger getPrice(ServiceClient serviceClient) {
+        return getEndpointGroup(serviceClient).getPricing().stream()
+            .filter(pr -> pr.getPriceModel() == PriceModel.FIXED_PRICE)
+            .findFirst().get()
+            .getPriceInCogs();
+    }
+
+    private BigInteger getExpirationThreshold(ServiceClient serviceClient) {
+        return serviceClient.getMetadataProvider()
+            .getOrganizationMetadata()
+            .getPaymentGroupById(getEndpointGroup(serviceClient).getPaymentGroupId()).get()
+            .getPaymentDetails()
+            .getPaymentExpirationThreshold();
+    }
+
 }
@@ -0,0 +1,151 @@
+package io.singularitynet.sdk.paymentstrategy;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import lombok.ToString;
+
+import io.singularitynet.sdk.mpe.PaymentChannel;
+
+/**
+ * Allocates signed amounts for the calls paid using the same payment
+ * channel. Each call gets unique and strictly increasing amount even when
+ * many threads read the same channel state concurrently. Allocation is
+ * lock-free: the last amount allocated is kept per channel in an immutable
+ * record which is replaced using compare-and-set. Amount never exceeds the
+ * channel value, allocation is refused instead.
+ *
+ * Amount allocated for the call which then failed is not returned back, so
+ * the next call pays for it. This is a price of not waiting for the previous
+ * call completion.
+ *
+ * Allocations of the channels which are not used for EVICTION_TIME_MILLIS
+ * are removed, so channels claimed or closed don't occupy memory forever.
+ * All calls paid by such allocations are completed long ago, so the channel
+ * state provider knows the amount spent.
+ */
+// @ThreadSafe
+public class PaymentAmountAllocator {
+
+    /**
+     * Time after which the allocation of the channel not used is removed.
+     */
+    static final long EVICTION_TIME_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Allocation EVICTED = new Allocation(BigInteger.ZERO,
+            BigInteger.ZERO, 0);
+
+    private final Map<BigInteger, AtomicReference<Allocation>> allocations =
+        new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final AtomicLong lastEvictionMillis;
+
+    /**
+     * Constructor.
+     */
+    public PaymentAmountAllocator() {
+        this(System::currentTimeMillis);
+    }
+
+    PaymentAmountAllocator(LongSupplier clock) {
+        this.clock = clock;
+        this.lastEvictionMillis = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Allocate the amount to be signed for the next call.
+     * @param channel payment channel state read by caller.
+     * @param price price of the call in cogs.
+     * @return amount which is equal to the maximum of the channel spent
+     * amount and the last amount allocated for the channel nonce, plus
+     * price; empty if this amount exceeds channel value or channel state
+     * is older than the last allocation.
+     */
+    public Optional<BigInteger> allocate(PaymentChannel channel, BigInteger price) {
+        long now = clock.getAsLong();
+        evictUnused(now);
+        while (true) {
+            AtomicReference<Allocation> ref = allocations.computeIfAbsent(
+                    channel.getChannelId(), id -> new AtomicReference<>());
+            Allocation last = ref.get();
+            if (last == EVICTED) {
+                allocations.remove(channel.getChannelId(), ref);
+                continue;
+            }
+            BigInteger base = channel.getSpentAmount();
+            if (last != null && last.nonce.equals(channel.getNonce())) {
+                base = base.max(last.amount);
+            } else if (last != null && last.nonce.compareTo(channel.getNonce()) > 0) {
+                // channel state is older than last allocation, amount
+                // cannot be allocated uniquely, so caller should read the
+                // channel state again
+                return Optional.empty();
+            }
+            BigInteger amount = base.add(price);
+            if (amount.compareTo(channel.getValue()) > 0) {
+                return Optional.empty();
+            }
+            if (ref.compareAndSet(last, new Allocation(channel.getNonce(), amount, now))) {
+                return Optional.of(amount);
+            }
+        }
+    }
+
+    /**
+     * @param channel payment channel state.
+     * @return last amount allocated for the channel nonce.
+     */
+    public Optional<BigInteger> getAllocated(PaymentChannel channel) {
+        AtomicReference<Allocation> ref = allocations.get(channel.getChannelId());
+        Allocation last = ref == null ? null : ref.get();
+        if (last == null || last == EVICTED || !last.nonce.equals(channel.getNonce())) {
+            return Optional.empty();
+        }
+        return Optional.of(last.amount);
+    }
+
+    private void evictUnused(long now) {
+        long last = lastEvictionMillis.get();
+        if (now - last < EVICTION_TIME_MILLIS
+                || !lastEvictionMillis.compareAndSet(last, now)) {
+            return;
+        }
+        allocations.forEach((channelId, ref) -> {
+            Allocation allocation = ref.get();
+            boolean unused = allocation == null
+                || (allocation != EVICTED
+                        && now - allocation.timestampMillis >= EVICTION_TIME_MILLIS);
+            if (unused && ref.compareAndSet(allocation, EVICTED)) {
+                allocations.remove(channelId, ref);
+            }
+        });
+    }
+
+    /**
+     * @return number of the channels which have amounts allocated.
+     */
+    int size() {
+        return allocations.size();
+    }
+
+    @ToString
+    private static class Allocation {
+
+        private final BigInteger nonce;
+        private final BigInteger amount;
+        private final long timestampMillis;
+
+        public Allocation(BigInteger nonce, BigInteger amount, long timestampMillis) {
+            this.nonce = nonce;
+            this.amount = amount;
+            this.timestampMillis = timestampMillis;
+        }
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package io.singularitynet.sdk.registry;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous version of the MetadataProvider interface. Organization and
+ * service metadata can be requested at once and loaded concurrently.
+ * @see io.singularitynet.sdk.registry.MetadataProvider
+ */
+public interface AsyncMetadataProvider {
+
+    /**
+     * Get publisher organization related metadata.
+     * @return future which is completed by organization metadata.
+     */
+    CompletableFuture<OrganizationMetadata> getOrganizationMetadataAsync();
+
+    /**
+     * Return service metadata.
+     * @return future which is completed by service metadata.
+     */
+    CompletableFuture<ServiceMetadata> getServiceMetadataAsync();
+
+}
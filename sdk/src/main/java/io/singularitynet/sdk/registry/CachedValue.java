@@ -0,0 +1,108 @@
+package io.singularitynet.sdk.registry;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Value which is loaded on creation or passed already loaded and reloaded
+ * in background after TTL is expired. Readers get the previous value until
+ * reload is finished. If reload fails the last loaded value is kept and
+ * reload is retried after one tenth of TTL.
+ */
+class CachedValue<T> {
+
+    private final static Logger log = LoggerFactory.getLogger(CachedValue.class);
+
+    private final String name;
+    private final Supplier<T> loader;
+    private final long ttlMillis;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private volatile Snapshot<T> snapshot;
+
+    /**
+     * @param name name of the value to be logged.
+     * @param loader loads the value.
+     * @param ttlMillis time to live of the value in milliseconds, zero
+     * means value is cached forever.
+     * @param executor executor to reload value in background.
+     * @param clock current time in milliseconds.
+     */
+    public CachedValue(String name, Supplier<T> loader, long ttlMillis,
+            Executor executor, LongSupplier clock) {
+        this(name, loader.get(), loader, ttlMillis, executor, clock);
+    }
+
+    /**
+     * @param name name of the value to be logged.
+     * @param value value loaded already.
+     * @param loader reloads the value.
+     * @param ttlMillis time to live of the value in milliseconds, zero
+     * means value is cached forever.
+     * @param executor executor to reload value in background.
+     * @param clock current time in milliseconds.
+     */
+    public CachedValue(String name, T value, Supplier<T> loader, long ttlMillis,
+            Executor executor, LongSupplier clock) {
+        this.name = name;
+        this.loader = loader;
+        this.ttlMillis = ttlMillis;
+        this.executor = executor;
+        this.clock = clock;
+        this.snapshot = new Snapshot<>(value, nextReloadTime(ttlMillis));
+    }
+
+    public T get() {
+        Snapshot<T> current = snapshot;
+        if (ttlMillis > 0 && clock.getAsLong() >= current.reloadTime
+                && reloading.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::reload);
+            } catch (RejectedExecutionException e) {
+                log.debug("Reload task rejected, value: {}", name, e);
+                reloading.set(false);
+            }
+        }
+        return current.value;
+    }
+
+    private void reload() {
+        try {
+            log.debug("Reload {}", name);
+            snapshot = new Snapshot<>(loader.get(), nextReloadTime(ttlMillis));
+        } catch (RuntimeException e) {
+            log.warn("Could not reload {}, keep previous value", name, e);
+            snapshot = new Snapshot<>(snapshot.value,
+                    nextReloadTime(Math.max(1, ttlMillis / 10)));
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    private long nextReloadTime(long delayMillis) {
+        return ttlMillis > 0 ? clock.getAsLong() + delayMillis : Long.MAX_VALUE;
+    }
+
+    /**
+     * Loaded value and time when it should be reloaded.
+     */
+    private static class Snapshot<T> {
+
+        private final T value;
+        private final long reloadTime;
+
+        public Snapshot(T value, long reloadTime) {
+            this.value = value;
+            this.reloadTime = reloadTime;
+        }
+
+    }
+
+}
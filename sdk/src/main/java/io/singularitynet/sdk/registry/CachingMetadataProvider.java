@@ -1,29 +1,62 @@
 package io.singularitynet.sdk.registry;
 
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+import io.singularitynet.sdk.common.Preconditions;
+
 /**
  * Caching metadata provider implementation. This class gets metadata from
- * underlying metadata provider once and returns it on each subsequent call.
+ * underlying metadata provider on creation and returns it on each
+ * subsequent call. When time to live is set metadata older than TTL is
+ * reloaded asynchronously by the first reader which sees it; readers don't
+ * wait for the reload and get the previous copy until reload is finished.
+ * If reload fails the last loaded copy is kept and reload is retried after
+ * one tenth of TTL.
  */
 public class CachingMetadataProvider implements MetadataProvider {
 
-    private final OrganizationMetadata orgMetadata;
-    private final ServiceMetadata serviceMetadata;
+    private final CachedValue<OrganizationMetadata> orgMetadata;
+    private final CachedValue<ServiceMetadata> serviceMetadata;
 
     /**
+     * New provider which caches metadata forever.
      * @param delegate underlaying metadata provider.
      */
     public CachingMetadataProvider(MetadataProvider delegate) {
-        this.orgMetadata = delegate.getOrganizationMetadata();
-        this.serviceMetadata = delegate.getServiceMetadata();
+        this(delegate, 0, Runnable::run);
+    }
+
+    /**
+     * New provider which reloads metadata after TTL is expired.
+     * @param delegate underlaying metadata provider.
+     * @param ttlMillis time to live of the metadata in milliseconds, zero
+     * means metadata is cached forever.
+     * @param executor executor to reload metadata in background.
+     */
+    public CachingMetadataProvider(MetadataProvider delegate, long ttlMillis,
+            Executor executor) {
+        this(delegate, ttlMillis, executor, System::currentTimeMillis);
+    }
+
+    CachingMetadataProvider(MetadataProvider delegate, long ttlMillis,
+            Executor executor, LongSupplier clock) {
+        Preconditions.checkArgument(ttlMillis >= 0,
+                "Metadata TTL is negative: %s", ttlMillis);
+        this.orgMetadata = new CachedValue<>("organization metadata",
+                delegate::getOrganizationMetadata, ttlMillis, executor, clock);
+        this.serviceMetadata = new CachedValue<>("service metadata",
+                delegate::getServiceMetadata, ttlMillis, executor, clock);
     }
 
     @Override
     public OrganizationMetadata getOrganizationMetadata() {
-        return orgMetadata;
+        return orgMetadata.get();
     }
 
     @Override
     public ServiceMetadata getServiceMetadata() {
-        return serviceMetadata;
+        return serviceMetadata.get();
     }
+
 }
@@ -0,0 +1,319 @@
+package io.singularitynet.sdk.registry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import io.ipfs.multihash.Multihash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.common.Preconditions;
+import io.singularitynet.sdk.common.Utils;
+
+/**
+ * Metadata storage decorator which keeps IPFS content on the local disk.
+ * IPFS content is immutable so it is stored in the file named by its
+ * multihash and never requested again while the file exists. Files are
+ * written to the temporary file first and atomically moved to the
+ * destination, so readers never see partially written content. When total
+ * size of the cache exceeds the limit the least recently used files are
+ * removed; access time is kept as file modification time to survive
+ * restarts. Content missed is always read using the stream of the
+ * underlying storage, so IPFS content hash is verified before it is written
+ * to the disk. URIs which are not IPFS ones are passed to the underlying
+ * storage as is.
+ */
+public class DiskCacheMetadataStorage implements MetadataStorage {
+
+    private final static Logger log = LoggerFactory.getLogger(DiskCacheMetadataStorage.class);
+
+    /**
+     * Default maximum size of the cache in bytes.
+     */
+    public static final long DEFAULT_MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+    private static final String IPFS_SCHEME = "ipfs";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final MetadataStorage delegate;
+    private final Path directory;
+    private final long maxSizeBytes;
+
+    private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSizeBytes;
+
+    /**
+     * New disk cache with default size limit.
+     * @param delegate underlying storage to load content missed.
+     * @param directory directory to keep files, created if absent.
+     */
+    public DiskCacheMetadataStorage(MetadataStorage delegate, Path directory) {
+        this(delegate, directory, DEFAULT_MAX_SIZE_BYTES);
+    }
+
+    /**
+     * New disk cache.
+     * @param delegate underlying storage to load content missed.
+     * @param directory directory to keep files, created if absent.
+     * @param maxSizeBytes maximum total size of the files in bytes.
+     */
+    public DiskCacheMetadataStorage(MetadataStorage delegate, Path directory,
+            long maxSizeBytes) {
+        Preconditions.checkArgument(maxSizeBytes > 0,
+                "Metadata disk cache size is not positive: %s", maxSizeBytes);
+        this.delegate = delegate;
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+        Utils.wrapExceptions(() -> {
+            Files.createDirectories(directory);
+            scan();
+            return null;
+        });
+    }
+
+    @Override
+    public byte[] get(URI uri) {
+        if (!IPFS_SCHEME.equals(uri.getScheme())) {
+            return delegate.get(uri);
+        }
+        String key = Multihash.fromBase58(uri.getAuthority()).toBase58();
+        Path file = directory.resolve(key);
+        if (isCached(key)) {
+            Optional<byte[]> content = Utils.wrapExceptions(() -> read(key, file));
+            if (content.isPresent()) {
+                log.debug("Metadata disk cache hit, uri: {}, file: {}", uri, file);
+                return content.get();
+            }
+        }
+        return Utils.wrapExceptions(() -> {
+            try (InputStream stream = new CachingInputStream(delegate.getStream(uri), key, file)) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = stream.read(buffer)) >= 0) {
+                    content.write(buffer, 0, n);
+                }
+                return content.toByteArray();
+            }
+        });
+    }
+
+    /**
+     * Return stream of the content. Cached content is read from the file.
+     * Content missed is read from the underlying storage stream and written
+     * to the temporary file at the same time. File is added to the cache
+     * when stream is read till the end and closed.
+     * @param uri URI of the content.
+     * @return content stream.
+     */
+    @Override
+    public InputStream getStream(URI uri) {
+        if (!IPFS_SCHEME.equals(uri.getScheme())) {
+            return delegate.getStream(uri);
+        }
+        String key = Multihash.fromBase58(uri.getAuthority()).toBase58();
+        Path file = directory.resolve(key);
+        if (isCached(key)) {
+            Optional<InputStream> stream = Utils.wrapExceptions(() -> open(key, file));
+            if (stream.isPresent()) {
+                log.debug("Metadata disk cache hit, uri: {}, file: {}", uri, file);
+                return stream.get();
+            }
+        }
+        InputStream stream = delegate.getStream(uri);
+        return Utils.wrapExceptions(() -> new CachingInputStream(stream, key, file));
+    }
+
+    private synchronized boolean isCached(String key) {
+        return entries.get(key) != null;
+    }
+
+    private synchronized void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalSizeBytes -= size;
+        }
+    }
+
+    private Optional<byte[]> read(String key, Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            log.warn("File is removed from metadata disk cache: {}", file);
+            remove(key);
+            return Optional.empty();
+        }
+    }
+
+    private Optional<InputStream> open(String key, Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(Files.newInputStream(file));
+        } catch (NoSuchFileException e) {
+            log.warn("File is removed from metadata disk cache: {}", file);
+            remove(key);
+            return Optional.empty();
+        }
+    }
+
+    private void commit(String key, Path file, Path tmp, long size) throws IOException {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Metadata is written to disk cache, file: {}, size: {}",
+                file, size);
+        synchronized (this) {
+            remove(key);
+            entries.put(key, size);
+            totalSizeBytes += size;
+            evict();
+        }
+    }
+
+    private synchronized void evict() throws IOException {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalSizeBytes > maxSizeBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            Path file = directory.resolve(eldest.getKey());
+            Files.deleteIfExists(file);
+            totalSizeBytes -= eldest.getValue();
+            it.remove();
+            log.debug("File is evicted from metadata disk cache: {}", file);
+        }
+    }
+
+    private synchronized void scan() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(TMP_SUFFIX)) {
+                log.info("Remove temporary file left in metadata disk cache: {}", file);
+                Files.deleteIfExists(file);
+            }
+        }
+        files.removeIf(file -> !Files.exists(file));
+        files.sort(Comparator.comparing(file -> Utils.wrapExceptions(
+                        () -> Files.getLastModifiedTime(file))));
+        for (Path file : files) {
+            long size = Files.size(file);
+            entries.put(file.getFileName().toString(), size);
+            totalSizeBytes += size;
+        }
+        log.info("Metadata disk cache is opened, directory: {}, files: {}, size: {}",
+                directory, entries.size(), totalSizeBytes);
+        evict();
+    }
+
+    /**
+     * Stream which copies content read into the temporary file and adds the
+     * file into the cache on close if content is read completely.
+     */
+    private class CachingInputStream extends FilterInputStream {
+
+        private final String key;
+        private final Path file;
+        private final Path tmp;
+        private OutputStream out;
+        private long size;
+        private boolean complete;
+
+        public CachingInputStream(InputStream in, String key, Path file) throws IOException {
+            super(in);
+            this.key = key;
+            this.file = file;
+            this.tmp = Files.createTempFile(directory, key, TMP_SUFFIX);
+            this.out = Files.newOutputStream(tmp);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n < 0) {
+                complete = true;
+                return n;
+            }
+            if (out != null) {
+                size += n;
+                if (size > maxSizeBytes) {
+                    log.info("Content is larger than metadata disk cache, file: {}", file);
+                    out.close();
+                    out = null;
+                } else {
+                    out.write(b, off, n);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            OutputStream written = out;
+            out = null;
+            try {
+                super.close();
+            } finally {
+                try {
+                    if (written != null) {
+                        written.close();
+                        if (complete) {
+                            commit(key, file, tmp, size);
+                        }
+                    }
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+            }
+        }
+
+    }
+
+    @Override
+    public String toString() {
+        return "DiskCacheMetadataStorage(" + directory + ", " + delegate + ")";
+    }
+
+}
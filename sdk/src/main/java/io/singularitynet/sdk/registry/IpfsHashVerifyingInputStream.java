@@ -0,0 +1,370 @@
+package io.singularitynet.sdk.registry;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import io.ipfs.multihash.Multihash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.common.Utils;
+
+/**
+ * Input stream which calculates IPFS hash of the content while it is read
+ * and compares it with the expected one when the end of the stream is
+ * reached. Hash is calculated in the same way as "ipfs add" does it by
+ * default: content is split into 256 KiB chunks which are placed into the
+ * balanced UnixFS DAG with at most 174 links per node. Only the current
+ * chunk and the links of the incomplete nodes are kept in memory. If hash
+ * doesn't match the IOException is thrown instead of returning end of
+ * stream.
+ *
+ * Content added using other DAG layout (trickle DAG, raw leaves, other
+ * chunk size) has different hash. To distinguish it from the modified
+ * content the root block of the DAG is read on mismatch. When the root
+ * block describes the file of the same size but the DAG layout is different
+ * the content cannot be verified and warning is logged instead of throwing
+ * exception.
+ */
+class IpfsHashVerifyingInputStream extends FilterInputStream {
+
+    private final static Logger log = LoggerFactory.getLogger(IpfsHashVerifyingInputStream.class);
+
+    static final int CHUNK_SIZE = 256 * 1024;
+    static final int MAX_LINKS = 174;
+
+    private static final int UNIXFS_RAW = 0;
+    private static final int UNIXFS_FILE = 2;
+
+    /**
+     * Reads IPFS block by its hash.
+     */
+    static interface BlockReader {
+        byte[] get(Multihash hash) throws IOException;
+    }
+
+    private final Multihash expected;
+    private final BlockReader blocks;
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private int chunkLength;
+    private final List<List<Link>> levels = new ArrayList<>();
+    private boolean verified;
+
+    /**
+     * @param in content stream.
+     * @param expected expected sha2-256 multihash of the content.
+     * @param blocks reader of the DAG root block.
+     */
+    IpfsHashVerifyingInputStream(InputStream in, Multihash expected, BlockReader blocks) {
+        super(in);
+        this.expected = expected;
+        this.blocks = blocks;
+    }
+
+    /**
+     * @param hash IPFS hash of the content.
+     * @return true if content hash can be verified by this class, it is
+     * possible only for CIDv0 hashes.
+     */
+    static boolean isSupported(String hash) {
+        return hash.length() == 46 && hash.startsWith("Qm");
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n < 0) {
+            verify();
+            return n;
+        }
+        int pos = off;
+        int left = n;
+        while (left > 0) {
+            int copy = Math.min(left, CHUNK_SIZE - chunkLength);
+            System.arraycopy(b, pos, chunk, chunkLength, copy);
+            chunkLength += copy;
+            pos += copy;
+            left -= copy;
+            if (chunkLength == CHUNK_SIZE) {
+                addLeaf();
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void verify() throws IOException {
+        if (verified) {
+            return;
+        }
+        if (chunkLength > 0 || levels.isEmpty()) {
+            addLeaf();
+        }
+        Link root = null;
+        for (int level = 0; level < levels.size(); ++level) {
+            List<Link> links = levels.get(level);
+            boolean top = level == levels.size() - 1;
+            if (top && links.size() == 1) {
+                root = links.get(0);
+            } else if (!links.isEmpty()) {
+                addLink(level + 1, newNode(links));
+                links.clear();
+            }
+        }
+        Multihash actual = new Multihash(root.hash);
+        if (!expected.equals(actual)) {
+            if (!isOtherLayout(root.fileSize)) {
+                throw new IOException("IPFS content hash mismatch, expected: "
+                        + expected + ", actual: " + actual);
+            }
+            log.warn("Content DAG layout differs from the default one, hash is not verified: {}",
+                    expected);
+        }
+        verified = true;
+    }
+
+    private boolean isOtherLayout(long fileSize) {
+        byte[] block;
+        try {
+            block = blocks.get(expected);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read DAG root block: {}", expected, e);
+            return false;
+        }
+        if (!Arrays.equals(multihash(block), expected.toBytes())) {
+            log.warn("DAG root block doesn't match hash: {}", expected);
+            return false;
+        }
+        try {
+            RootBlock root = RootBlock.parse(block);
+            if (root.fileSize != fileSize) {
+                return false;
+            }
+            return root.type == UNIXFS_RAW || root.cidV1Links
+                || !root.blockSizes.equals(balancedBlockSizes(fileSize));
+        } catch (IOException e) {
+            log.warn("Could not parse DAG root block: {}", expected, e);
+            return false;
+        }
+    }
+
+    /**
+     * @return sizes of the content under the root node children for the
+     * DAG built by this class.
+     */
+    private static List<Long> balancedBlockSizes(long fileSize) {
+        List<Long> sizes = new ArrayList<>();
+        if (fileSize <= CHUNK_SIZE) {
+            return sizes;
+        }
+        long childSize = CHUNK_SIZE;
+        while (childSize * MAX_LINKS < fileSize) {
+            childSize *= MAX_LINKS;
+        }
+        for (long left = fileSize; left > 0; left -= childSize) {
+            sizes.add(Math.min(left, childSize));
+        }
+        return sizes;
+    }
+
+    private void addLeaf() {
+        ByteArrayOutputStream unixfs = new ByteArrayOutputStream();
+        writeVarintField(unixfs, 1, 2);
+        if (chunkLength > 0) {
+            writeBytesField(unixfs, 2, chunk, chunkLength);
+        }
+        writeVarintField(unixfs, 3, chunkLength);
+        ByteArrayOutputStream node = new ByteArrayOutputStream();
+        writeBytesField(node, 1, unixfs.toByteArray(), unixfs.size());
+        byte[] block = node.toByteArray();
+        addLink(0, new Link(multihash(block), block.length, chunkLength));
+        chunkLength = 0;
+    }
+
+    private void addLink(int level, Link link) {
+        while (levels.size() <= level) {
+            levels.add(new ArrayList<>());
+        }
+        List<Link> links = levels.get(level);
+        links.add(link);
+        if (links.size() == MAX_LINKS) {
+            Link node = newNode(links);
+            links.clear();
+            addLink(level + 1, node);
+        }
+    }
+
+    private static Link newNode(List<Link> links) {
+        ByteArrayOutputStream unixfs = new ByteArrayOutputStream();
+        writeVarintField(unixfs, 1, 2);
+        long fileSize = 0;
+        long linksSize = 0;
+        for (Link link : links) {
+            fileSize += link.fileSize;
+            linksSize += link.totalSize;
+        }
+        writeVarintField(unixfs, 3, fileSize);
+        for (Link link : links) {
+            writeVarintField(unixfs, 4, link.fileSize);
+        }
+        ByteArrayOutputStream node = new ByteArrayOutputStream();
+        for (Link link : links) {
+            ByteArrayOutputStream pbLink = new ByteArrayOutputStream();
+            writeBytesField(pbLink, 1, link.hash, link.hash.length);
+            writeBytesField(pbLink, 2, new byte[0], 0);
+            writeVarintField(pbLink, 3, link.totalSize);
+            writeBytesField(node, 2, pbLink.toByteArray(), pbLink.size());
+        }
+        writeBytesField(node, 1, unixfs.toByteArray(), unixfs.size());
+        byte[] block = node.toByteArray();
+        return new Link(multihash(block), block.length + linksSize, fileSize);
+    }
+
+    private static byte[] multihash(byte[] block) {
+        byte[] digest = Utils.wrapExceptions(() -> MessageDigest.getInstance("SHA-256").digest(block));
+        return new Multihash(Multihash.Type.sha2_256, digest).toBytes();
+    }
+
+    private static void writeVarintField(ByteArrayOutputStream out, int field, long value) {
+        writeVarint(out, field << 3);
+        writeVarint(out, value);
+    }
+
+    private static void writeBytesField(ByteArrayOutputStream out, int field,
+            byte[] value, int length) {
+        writeVarint(out, (field << 3) | 2);
+        writeVarint(out, length);
+        out.write(value, 0, length);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Part of the DAG root block which is used to compare DAG layouts.
+     */
+    private static class RootBlock {
+
+        private int type = -1;
+        private long fileSize;
+        private final List<Long> blockSizes = new ArrayList<>();
+        private boolean cidV1Links;
+
+        private static RootBlock parse(byte[] block) throws IOException {
+            RootBlock root = new RootBlock();
+            CodedInputStream node = CodedInputStream.newInstance(block);
+            int tag;
+            while ((tag = node.readTag()) != 0) {
+                switch (WireFormat.getTagFieldNumber(tag)) {
+                    case 1:
+                        root.parseData(node.readByteArray());
+                        break;
+                    case 2:
+                        root.parseLink(node.readByteArray());
+                        break;
+                    default:
+                        node.skipField(tag);
+                }
+            }
+            if (root.type != UNIXFS_FILE && root.type != UNIXFS_RAW) {
+                throw new IOException("DAG root is not a file, type: " + root.type);
+            }
+            return root;
+        }
+
+        private void parseData(byte[] data) throws IOException {
+            CodedInputStream unixfs = CodedInputStream.newInstance(data);
+            int tag;
+            while ((tag = unixfs.readTag()) != 0) {
+                int field = WireFormat.getTagFieldNumber(tag);
+                if (field == 1) {
+                    type = unixfs.readEnum();
+                } else if (field == 3) {
+                    fileSize = unixfs.readUInt64();
+                } else if (field == 4 && WireFormat.getTagWireType(tag)
+                        == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    int limit = unixfs.pushLimit(unixfs.readRawVarint32());
+                    while (unixfs.getBytesUntilLimit() > 0) {
+                        blockSizes.add(unixfs.readUInt64());
+                    }
+                    unixfs.popLimit(limit);
+                } else if (field == 4) {
+                    blockSizes.add(unixfs.readUInt64());
+                } else {
+                    unixfs.skipField(tag);
+                }
+            }
+        }
+
+        private void parseLink(byte[] link) throws IOException {
+            CodedInputStream pbLink = CodedInputStream.newInstance(link);
+            int tag;
+            while ((tag = pbLink.readTag()) != 0) {
+                if (WireFormat.getTagFieldNumber(tag) == 1) {
+                    byte[] hash = pbLink.readByteArray();
+                    // CIDv0 link is a plain multihash, CIDv1 starts from version
+                    cidV1Links |= hash.length > 0 && hash[0] == 0x01;
+                } else {
+                    pbLink.skipField(tag);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Link to the DAG node: node multihash, size of the node with all of its
+     * children and size of the file content under the node.
+     */
+    private static class Link {
+
+        private final byte[] hash;
+        private final long totalSize;
+        private final long fileSize;
+
+        public Link(byte[] hash, long totalSize, long fileSize) {
+            this.hash = hash;
+            this.totalSize = totalSize;
+            this.fileSize = fileSize;
+        }
+
+    }
+
+}
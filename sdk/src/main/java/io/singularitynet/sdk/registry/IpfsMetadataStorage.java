@@ -1,13 +1,17 @@
 package io.singularitynet.sdk.registry;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import io.ipfs.api.IPFS;
+import io.ipfs.cid.Cid;
 import io.ipfs.multihash.Multihash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.singularitynet.sdk.common.Utils;
+import io.singularitynet.sdk.metrics.Metrics;
+import io.singularitynet.sdk.metrics.MetricNames;
 
 /**
  * Metadata storage based on IPFS implementation.
@@ -17,23 +21,59 @@ public class IpfsMetadataStorage implements MetadataStorage {
     private final static Logger log = LoggerFactory.getLogger(IpfsMetadataStorage.class);
 
     private final IPFS ipfs;
+    private final Metrics metrics;
 
     /**
      * New metadata storage for IPFS client instance.
      * @param ipfs IPFS client instance.
      */
     public IpfsMetadataStorage(IPFS ipfs) {
+        this(ipfs, Metrics.NONE);
+    }
+
+    /**
+     * New metadata storage for IPFS client instance which records IPFS
+     * requests.
+     * @param ipfs IPFS client instance.
+     * @param metrics metrics to record IPFS requests.
+     */
+    public IpfsMetadataStorage(IPFS ipfs, Metrics metrics) {
         this.ipfs = ipfs;
+        this.metrics = metrics;
     }
 
     @Override
     public byte[] get(URI uri) {
-        return Utils.wrapExceptions(() -> {
+        return metrics.time(MetricNames.IPFS_GET, () -> Utils.wrapExceptions(() -> {
             log.info("Get data from IPFS, uri: {}", uri);
             Multihash filePointer = Multihash.fromBase58(uri.getAuthority());
             byte[] metadata = ipfs.cat(filePointer);
             log.info("{} bytes received", metadata.length);
             return metadata;
+        }));
+    }
+
+    /**
+     * Return stream of the IPFS content. Content hash is verified while
+     * stream is read, so IOException is thrown at the end of the stream if
+     * content doesn't match the hash. Content of CIDv1 hashes and content
+     * added using non default DAG layout is not verified.
+     * @param uri IPFS URI of the content.
+     * @return content stream.
+     */
+    @Override
+    public InputStream getStream(URI uri) {
+        return Utils.wrapExceptions(() -> {
+            log.info("Get data stream from IPFS, uri: {}", uri);
+            String hash = uri.getAuthority();
+            if (!IpfsHashVerifyingInputStream.isSupported(hash)) {
+                log.warn("Content hash cannot be verified, uri: {}", uri);
+                return ipfs.catStream(Cid.decode(hash));
+            }
+            Multihash filePointer = Multihash.fromBase58(hash);
+            InputStream stream = ipfs.catStream(filePointer);
+            return new IpfsHashVerifyingInputStream(stream, filePointer,
+                    root -> ipfs.block.get(root));
         });
     }
 }
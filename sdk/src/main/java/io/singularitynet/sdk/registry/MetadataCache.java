@@ -0,0 +1,170 @@
+package io.singularitynet.sdk.registry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.common.Preconditions;
+
+/**
+ * Metadata cache shared by the service clients of the SDK instance.
+ * Organization metadata is cached by organization id and service metadata
+ * is cached by organization and service id, so clients of the same
+ * organization or service don't load the same metadata again. Concurrent
+ * requests of the metadata which is not loaded yet wait for the single
+ * load. Organization and service metadata are loaded concurrently using
+ * the executor passed. Loaded metadata is reloaded after TTL like in
+ * CachingMetadataProvider.
+ * @see io.singularitynet.sdk.registry.CachingMetadataProvider
+ */
+@ToString
+public class MetadataCache {
+
+    private final static Logger log = LoggerFactory.getLogger(MetadataCache.class);
+
+    @ToString.Exclude
+    private final RegistryContract registryContract;
+    @ToString.Exclude
+    private final MetadataStorage metadataStorage;
+    private final long ttlMillis;
+    @ToString.Exclude
+    private final Executor executor;
+    @ToString.Exclude
+    private final LongSupplier clock;
+
+    @ToString.Exclude
+    private final Map<String, CompletableFuture<CachedValue<OrganizationMetadata>>> orgMetadata =
+        new ConcurrentHashMap<>();
+    @ToString.Exclude
+    private final Map<ServiceKey, CompletableFuture<CachedValue<ServiceMetadata>>> serviceMetadata =
+        new ConcurrentHashMap<>();
+
+    /**
+     * New metadata cache.
+     * @param registryContract registry contract adapter.
+     * @param metadataStorage metadata storage implementation.
+     * @param ttlMillis time to live of the metadata in milliseconds, zero
+     * means metadata is cached forever.
+     * @param executor executor to load metadata and reload it in background.
+     */
+    public MetadataCache(RegistryContract registryContract,
+            MetadataStorage metadataStorage, long ttlMillis, Executor executor) {
+        this(registryContract, metadataStorage, ttlMillis, executor,
+                System::currentTimeMillis);
+    }
+
+    MetadataCache(RegistryContract registryContract,
+            MetadataStorage metadataStorage, long ttlMillis, Executor executor,
+            LongSupplier clock) {
+        Preconditions.checkArgument(ttlMillis >= 0,
+                "Metadata TTL is negative: %s", ttlMillis);
+        this.registryContract = registryContract;
+        this.metadataStorage = metadataStorage;
+        this.ttlMillis = ttlMillis;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Return metadata provider for the given organization and service.
+     * Metadata is loaded by this call if it is not cached yet.
+     * @param orgId organization id.
+     * @param serviceId service id.
+     * @return metadata provider which returns cached metadata.
+     */
+    public MetadataProvider getMetadataProvider(String orgId, String serviceId) {
+        return join(getMetadataProviderAsync(orgId, serviceId));
+    }
+
+    /**
+     * Return metadata provider for the given organization and service
+     * asynchronously. Organization and service metadata which are not
+     * cached yet are loaded concurrently using the executor of the cache.
+     * @param orgId organization id.
+     * @param serviceId service id.
+     * @return future which is completed by metadata provider which returns
+     * cached metadata.
+     */
+    public CompletableFuture<MetadataProvider> getMetadataProviderAsync(
+            String orgId, String serviceId) {
+        RegistryMetadataProvider registry = new RegistryMetadataProvider(orgId,
+                serviceId, registryContract, metadataStorage, executor);
+        CompletableFuture<CachedValue<OrganizationMetadata>> org = get(orgMetadata, orgId,
+                "organization metadata, orgId: " + orgId,
+                registry::getOrganizationMetadataAsync,
+                registry::getOrganizationMetadata);
+        CompletableFuture<CachedValue<ServiceMetadata>> service = get(serviceMetadata,
+                new ServiceKey(orgId, serviceId),
+                "service metadata, orgId: " + orgId + ", serviceId: " + serviceId,
+                registry::getServiceMetadataAsync,
+                registry::getServiceMetadata);
+        return org.thenCombine(service, (orgValue, serviceValue) -> new MetadataProvider() {
+
+            @Override
+            public OrganizationMetadata getOrganizationMetadata() {
+                return orgValue.get();
+            }
+
+            @Override
+            public ServiceMetadata getServiceMetadata() {
+                return serviceValue.get();
+            }
+
+        });
+    }
+
+    private <K, T> CompletableFuture<CachedValue<T>> get(
+            Map<K, CompletableFuture<CachedValue<T>>> cache, K key, String name,
+            Supplier<CompletableFuture<T>> asyncLoader, Supplier<T> loader) {
+        CompletableFuture<CachedValue<T>> loading = new CompletableFuture<>();
+        CompletableFuture<CachedValue<T>> cached = cache.putIfAbsent(key, loading);
+        if (cached != null) {
+            return cached;
+        }
+        log.debug("Load {}", name);
+        asyncLoader.get().whenComplete((value, error) -> {
+            if (error != null) {
+                cache.remove(key, loading);
+                loading.completeExceptionally(error instanceof CompletionException
+                        ? error.getCause() : error);
+            } else {
+                loading.complete(new CachedValue<>(name, value, loader,
+                            ttlMillis, executor, clock));
+            }
+        });
+        return loading;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @EqualsAndHashCode
+    private static class ServiceKey {
+
+        private final String orgId;
+        private final String serviceId;
+
+        public ServiceKey(String orgId, String serviceId) {
+            this.orgId = orgId;
+            this.serviceId = serviceId;
+        }
+
+    }
+
+}
@@ -1,5 +1,7 @@
 package io.singularitynet.sdk.registry;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
 
 /**
@@ -14,4 +16,15 @@ public interface MetadataStorage {
      */
     byte[] get(URI uri);
 
+    /**
+     * Return stream of metadata bytes for given URI. Caller should close the
+     * stream. Default implementation reads all bytes using get(URI) method,
+     * implementations override it to keep memory usage bounded.
+     * @param uri URI which points to metadata instance.
+     * @return metadata stream.
+     */
+    default InputStream getStream(URI uri) {
+        return new ByteArrayInputStream(get(uri));
+    }
+
 }
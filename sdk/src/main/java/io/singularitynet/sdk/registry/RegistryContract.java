@@ -5,6 +5,8 @@ import org.web3j.tuples.generated.*;
 import java.net.URI;
 import java.util.List;
 import io.singularitynet.sdk.contracts.Registry;
+import io.singularitynet.sdk.metrics.Metrics;
+import io.singularitynet.sdk.metrics.MetricNames;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,13 +20,25 @@ public class RegistryContract {
     private final static Logger log = LoggerFactory.getLogger(RegistryContract.class);
 
     private final Registry registry;
+    private final Metrics metrics;
 
     /**
      * New adapter from web3j generated contract.
      * @param registry web3j generated contract.
      */
     public RegistryContract(Registry registry) {
+        this(registry, Metrics.NONE);
+    }
+
+    /**
+     * New adapter from web3j generated contract which records contract
+     * reads.
+     * @param registry web3j generated contract.
+     * @param metrics metrics to record contract reads.
+     */
+    public RegistryContract(Registry registry, Metrics metrics) {
         this.registry = registry;
+        this.metrics = metrics;
     }
 
     /**
@@ -33,7 +47,7 @@ public class RegistryContract {
      * @return organization registration info.
      */
     public Optional<OrganizationRegistration> getOrganizationById(String orgId) {
-        return wrapExceptions(() -> {
+        return metrics.time(MetricNames.REGISTRY_GET_ORGANIZATION, () -> wrapExceptions(() -> {
             log.info("Get organization from Registry, orgId: {}", orgId);
             Tuple6<Boolean, byte[], byte[], String, List<String>, List<byte[]>> result =
                 registry.getOrganizationById(strToBytes32(orgId)).send();
@@ -52,7 +66,7 @@ public class RegistryContract {
                 log.info("Organization registration record not found, orgId: {}", orgId);
                 return Optional.empty();
             }
-        });
+        }));
     }
 
     /**
@@ -62,7 +76,7 @@ public class RegistryContract {
      * @return service registration information.
      */
     public Optional<ServiceRegistration> getServiceRegistrationById(String orgId, String serviceId) {
-        return wrapExceptions(() -> {
+        return metrics.time(MetricNames.REGISTRY_GET_SERVICE, () -> wrapExceptions(() -> {
             log.info("Get service from Registry, orgId: {}, serviceId: {}", orgId, serviceId);
             Tuple3<Boolean, byte[], byte[]> result = 
                 registry.getServiceRegistrationById(strToBytes32(orgId), strToBytes32(serviceId)).send();
@@ -77,7 +91,7 @@ public class RegistryContract {
                 log.info("Service registration record not found, orgId: {}, serviceId: {}", orgId, serviceId);
                 return Optional.empty();
             }
-        });
+        }));
     }
 
 }
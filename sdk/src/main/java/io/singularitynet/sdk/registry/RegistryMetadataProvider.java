@@ -6,15 +6,20 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import io.singularitynet.sdk.common.Utils;
 import io.singularitynet.sdk.ethereum.Address;
 
 /**
- * Metadata provider implementation which synchronously forwards calls to the
- * registry and metadata storage.
+ * Metadata provider implementation which forwards calls to the registry and
+ * metadata storage. Synchronous calls are executed in the caller thread,
+ * asynchronous calls are executed using the executor passed to the
+ * constructor, so organization and service metadata can be loaded
+ * concurrently.
  */
-public class RegistryMetadataProvider implements MetadataProvider {
+public class RegistryMetadataProvider implements MetadataProvider, AsyncMetadataProvider {
 
     private final static Logger log = LoggerFactory.getLogger(RegistryMetadataProvider.class);
         
@@ -22,9 +27,10 @@ public class RegistryMetadataProvider implements MetadataProvider {
 	private final String serviceId;
 	private final RegistryContract registryContract;
 	private final MetadataStorage metadataStorage;
+	private final Executor executor;
 
     /**
-     * Constructor.
+     * Constructor. Asynchronous calls are executed in the caller thread.
      * @param orgId organization id.
      * @param serviceId service id.
      * @param registryContract registry contract adapter.
@@ -32,10 +38,35 @@ public class RegistryMetadataProvider implements MetadataProvider {
      */
     public RegistryMetadataProvider(String orgId, String serviceId,
             RegistryContract registryContract, MetadataStorage metadataStorage) {
+        this(orgId, serviceId, registryContract, metadataStorage, Runnable::run);
+    }
+
+    /**
+     * Constructor.
+     * @param orgId organization id.
+     * @param serviceId service id.
+     * @param registryContract registry contract adapter.
+     * @param metadataStorage metadata storage implementation.
+     * @param executor executor to load metadata asynchronously.
+     */
+    public RegistryMetadataProvider(String orgId, String serviceId,
+            RegistryContract registryContract, MetadataStorage metadataStorage,
+            Executor executor) {
 		this.orgId = orgId;
 		this.serviceId = serviceId;
 		this.registryContract = registryContract;
 		this.metadataStorage = metadataStorage;
+		this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<OrganizationMetadata> getOrganizationMetadataAsync() {
+        return CompletableFuture.supplyAsync(this::getOrganizationMetadata, executor);
+    }
+
+    @Override
+    public CompletableFuture<ServiceMetadata> getServiceMetadataAsync() {
+        return CompletableFuture.supplyAsync(this::getServiceMetadata, executor);
     }
 
     @Override
@@ -0,0 +1,85 @@
+package io.singularitynet.sdk.client;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import io.grpc.*;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.mockito.ArgumentCaptor;
+
+import io.singularitynet.sdk.daemon.DaemonConnection;
+import io.singularitynet.sdk.metrics.Metrics;
+import io.singularitynet.sdk.payment.Payment;
+
+public class BaseServiceClientTest {
+
+    private static final MethodDescriptor<Void, Void> METHOD = MethodDescriptor.<Void, Void>newBuilder()
+        .setType(MethodDescriptor.MethodType.UNARY)
+        .setFullMethodName("example_service.Calculator/add")
+        .setRequestMarshaller(mock(MethodDescriptor.Marshaller.class))
+        .setResponseMarshaller(mock(MethodDescriptor.Marshaller.class))
+        .build();
+
+    private PaymentStrategy paymentStrategy;
+    private CompletableFuture<Payment> payment;
+    private Channel channel;
+    private ClientInterceptor interceptor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Sdk sdk = mock(Sdk.class);
+        when(sdk.getMetrics()).thenReturn(Metrics.NONE);
+        DaemonConnection daemonConnection = mock(DaemonConnection.class);
+        paymentStrategy = mock(PaymentStrategy.class);
+        payment = new CompletableFuture<>();
+        when(paymentStrategy.getPaymentAsync(any(), any(), any())).thenReturn(payment);
+        channel = mock(Channel.class);
+
+        Executor executor = Runnable::run;
+        new BaseServiceClient(sdk, "service", daemonConnection, null, null,
+                null, paymentStrategy, Optional.of(executor));
+        ArgumentCaptor<ClientInterceptor> captor = ArgumentCaptor.forClass(ClientInterceptor.class);
+        verify(daemonConnection).setClientCallsInterceptor(captor.capture());
+        interceptor = captor.getValue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void callCancelledBeforePaymentIsReadyIsNotStarted() {
+        ClientCall.Listener<Void> listener = mock(ClientCall.Listener.class);
+        Payment ready = mock(Payment.class);
+
+        ClientCall<Void, Void> call = interceptor.interceptCall(METHOD, CallOptions.DEFAULT, channel);
+        call.start(listener, new Metadata());
+        call.request(1);
+        call.cancel("cancelled by test", null);
+        payment.complete(ready);
+
+        ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(listener).onClose(status.capture(), any());
+        assertEquals("Status code", Status.Code.CANCELLED, status.getValue().getCode());
+        verify(channel, never()).newCall(any(), any());
+        verify(paymentStrategy).callCompleted(eq(ready), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void callCancelledBeforeStartIsClosedOnStart() {
+        ClientCall.Listener<Void> listener = mock(ClientCall.Listener.class);
+
+        ClientCall<Void, Void> call = interceptor.interceptCall(METHOD, CallOptions.DEFAULT, channel);
+        call.cancel("cancelled by test", null);
+        call.start(listener, new Metadata());
+
+        ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(listener).onClose(status.capture(), any());
+        assertEquals("Status code", Status.Code.CANCELLED, status.getValue().getCode());
+        verify(paymentStrategy, never()).getPaymentAsync(any(), any(), any());
+        verify(channel, never()).newCall(any(), any());
+    }
+
+}
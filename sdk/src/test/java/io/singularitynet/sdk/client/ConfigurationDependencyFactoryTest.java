@@ -24,4 +24,34 @@ public class ConfigurationDependencyFactoryTest {
 
         new ConfigurationDependencyFactory(config);
     }
+
+    @Test
+    public void asyncBootstrapThrowsClientConnectionErrorOnFirstUse() {
+        Configuration config = Configuration.newBuilder()
+            .setEthereumJsonRpcEndpoint("http://localhost:1")
+            .setIpfsEndpoint("http://ipfs.singularitynet.io:80")
+            .setIdentityType(Configuration.IdentityType.MNEMONIC)
+            .setAsyncBootstrap(true)
+            .build();
+        ConfigurationDependencyFactory factory = new ConfigurationDependencyFactory(config);
+
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Could not perform operation on Ethereum RPC endpoint provided: http://localhost:1");
+        factory.getWeb3j();
+    }
+
+    @Test
+    public void asyncBootstrapDerivesIdentityOnFirstUse() {
+        Configuration config = Configuration.newBuilder()
+            .setEthereumJsonRpcEndpoint("http://localhost:1")
+            .setIpfsEndpoint("http://ipfs.singularitynet.io:80")
+            .setIdentityType(Configuration.IdentityType.PRIVATE_KEY)
+            .setIdentityPrivateKey(new byte[] { 1 })
+            .setAsyncBootstrap(true)
+            .build();
+        ConfigurationDependencyFactory factory = new ConfigurationDependencyFactory(config);
+
+        assertNotNull("Identity address", factory.getIdentity().getAddress());
+        assertTrue("Identity timing", factory.getBootstrapTimings().containsKey("identity"));
+    }
 }
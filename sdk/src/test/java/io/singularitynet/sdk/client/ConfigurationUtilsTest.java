@@ -6,6 +6,7 @@ import static org.junit.Assert.*;
 import java.math.BigInteger;
 import java.net.URL;
 import java.net.MalformedURLException;
+import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.Properties;
 
@@ -23,6 +24,17 @@ public class ConfigurationUtilsTest {
     private final static String mpeAddress = "0x8FB1dC8df86b388C7e00689d1eCb533A160B4D0C";
     private final static String gasPrice = "1000000";
     private final static String gasLimit = "2000000";
+    private final static String paymentChannelStateProviderType = "LOCAL_FIRST";
+    private final static String blockNumberCacheMaxAgeMillis = "5000";
+    private final static String blockNumberPollingPeriodMillis = "3000";
+    private final static String paymentChannelIndexDirectory = "/var/lib/snet/channels";
+    private final static String asyncPayment = "true";
+    private final static String paymentPresigningBufferSize = "8";
+    private final static String metricsType = "in_memory";
+    private final static String metadataCacheTtlMillis = "60000";
+    private final static String metadataDiskCacheDirectory = "/var/cache/snet/ipfs";
+    private final static String metadataDiskCacheMaxSizeBytes = "1048576";
+    private final static String asyncBootstrap = "true";
 
     @Test
     public void fromJsonLoadAllProperties() throws MalformedURLException {
@@ -34,7 +46,18 @@ public class ConfigurationUtilsTest {
             "\"registry_address\": \"" + registryAddress + "\"," +
             "\"multi_party_escrow_address\": \"" + mpeAddress + "\"," +
             "\"gas_price\": \"" + gasPrice + "\"," +
-            "\"gas_limit\": \"" + gasLimit + "\"" +
+            "\"gas_limit\": \"" + gasLimit + "\"," +
+            "\"payment_channel_state_provider_type\": \"" + paymentChannelStateProviderType + "\"," +
+            "\"block_number_cache_max_age_millis\": \"" + blockNumberCacheMaxAgeMillis + "\"," +
+            "\"block_number_polling_period_millis\": \"" + blockNumberPollingPeriodMillis + "\"," +
+            "\"payment_channel_index_directory\": \"" + paymentChannelIndexDirectory + "\"," +
+            "\"async_payment\": " + asyncPayment + "," +
+            "\"payment_presigning_buffer_size\": " + paymentPresigningBufferSize + "," +
+            "\"metrics_type\": \"" + metricsType + "\"," +
+            "\"metadata_cache_ttl_millis\": \"" + metadataCacheTtlMillis + "\"," +
+            "\"metadata_disk_cache_directory\": \"" + metadataDiskCacheDirectory + "\"," +
+            "\"metadata_disk_cache_max_size_bytes\": \"" + metadataDiskCacheMaxSizeBytes + "\"," +
+            "\"async_bootstrap\": " + asyncBootstrap +
             "}";
 
         Configuration config = ConfigurationUtils.fromJson(json);
@@ -47,6 +70,17 @@ public class ConfigurationUtilsTest {
         assertEquals("MultiPartyEscrow address", new Address(mpeAddress), config.getMultiPartyEscrowAddress().get());
         assertEquals("Gas price", new BigInteger(gasPrice), config.getGasPrice());
         assertEquals("Gas limit", new BigInteger(gasLimit), config.getGasLimit());
+        assertEquals("Payment channel state provider type", Enum.valueOf(Configuration.PaymentChannelStateProviderType.class, paymentChannelStateProviderType), config.getPaymentChannelStateProviderType());
+        assertEquals("Block number cache max age", Long.parseLong(blockNumberCacheMaxAgeMillis), config.getBlockNumberCacheMaxAgeMillis());
+        assertEquals("Block number polling period", Long.parseLong(blockNumberPollingPeriodMillis), config.getBlockNumberPollingPeriodMillis());
+        assertEquals("Payment channel index directory", Paths.get(paymentChannelIndexDirectory), config.getPaymentChannelIndexDirectory().get());
+        assertEquals("Async payment", Boolean.valueOf(asyncPayment), config.isAsyncPayment());
+        assertEquals("Payment presigning buffer size", Integer.valueOf(paymentPresigningBufferSize).intValue(), config.getPaymentPresigningBufferSize());
+        assertEquals("Metrics type", Configuration.MetricsType.IN_MEMORY, config.getMetricsType());
+        assertEquals("Metadata cache TTL", Long.valueOf(metadataCacheTtlMillis).longValue(), config.getMetadataCacheTtlMillis());
+        assertEquals("Metadata disk cache directory", Paths.get(metadataDiskCacheDirectory), config.getMetadataDiskCacheDirectory().get());
+        assertEquals("Metadata disk cache max size", Long.valueOf(metadataDiskCacheMaxSizeBytes).longValue(), config.getMetadataDiskCacheMaxSizeBytes());
+        assertEquals("Async bootstrap", Boolean.valueOf(asyncBootstrap), config.isAsyncBootstrap());
     }
 
     @Test
@@ -66,6 +100,17 @@ public class ConfigurationUtilsTest {
         assertEquals("MultiPartyEscrow address", Optional.empty(), config.getMultiPartyEscrowAddress());
         assertEquals("Gas price", Configuration.DEFAULT_GAS_PRICE, config.getGasPrice());
         assertEquals("Gas limit", Configuration.DEFAULT_GAS_LIMIT, config.getGasLimit());
+        assertEquals("Payment channel state provider type", Configuration.DEFAULT_PAYMENT_CHANNEL_STATE_PROVIDER_TYPE, config.getPaymentChannelStateProviderType());
+        assertEquals("Block number cache max age", Configuration.DEFAULT_BLOCK_NUMBER_CACHE_MAX_AGE_MILLIS, config.getBlockNumberCacheMaxAgeMillis());
+        assertEquals("Block number polling period", Configuration.DEFAULT_BLOCK_NUMBER_POLLING_PERIOD_MILLIS, config.getBlockNumberPollingPeriodMillis());
+        assertEquals("Payment channel index directory", Optional.empty(), config.getPaymentChannelIndexDirectory());
+        assertEquals("Async payment", false, config.isAsyncPayment());
+        assertEquals("Payment presigning buffer size", Configuration.DEFAULT_PAYMENT_PRESIGNING_BUFFER_SIZE, config.getPaymentPresigningBufferSize());
+        assertEquals("Metrics type", Configuration.DEFAULT_METRICS_TYPE, config.getMetricsType());
+        assertEquals("Metadata cache TTL", Configuration.DEFAULT_METADATA_CACHE_TTL_MILLIS, config.getMetadataCacheTtlMillis());
+        assertEquals("Metadata disk cache directory", Optional.empty(), config.getMetadataDiskCacheDirectory());
+        assertEquals("Metadata disk cache max size", Configuration.DEFAULT_METADATA_DISK_CACHE_MAX_SIZE_BYTES, config.getMetadataDiskCacheMaxSizeBytes());
+        assertEquals("Async bootstrap", false, config.isAsyncBootstrap());
     }
 
     @Test
@@ -79,6 +124,17 @@ public class ConfigurationUtilsTest {
         props.setProperty("multi.party.escrow.address", mpeAddress);
         props.setProperty("gas.price", gasPrice);
         props.setProperty("gas.limit", gasLimit);
+        props.setProperty("payment.channel.state.provider.type", paymentChannelStateProviderType);
+        props.setProperty("block.number.cache.max.age.millis", blockNumberCacheMaxAgeMillis);
+        props.setProperty("block.number.polling.period.millis", blockNumberPollingPeriodMillis);
+        props.setProperty("payment.channel.index.directory", paymentChannelIndexDirectory);
+        props.setProperty("async.payment", asyncPayment);
+        props.setProperty("payment.presigning.buffer.size", paymentPresigningBufferSize);
+        props.setProperty("metrics.type", metricsType);
+        props.setProperty("metadata.cache.ttl.millis", metadataCacheTtlMillis);
+        props.setProperty("metadata.disk.cache.directory", metadataDiskCacheDirectory);
+        props.setProperty("metadata.disk.cache.max.size.bytes", metadataDiskCacheMaxSizeBytes);
+        props.setProperty("async.bootstrap", asyncBootstrap);
 
         Configuration config = ConfigurationUtils.fromProperties(props);
 
@@ -90,6 +146,17 @@ public class ConfigurationUtilsTest {
         assertEquals("MultiPartyEscrow address", new Address(mpeAddress), config.getMultiPartyEscrowAddress().get());
         assertEquals("Gas price", new BigInteger(gasPrice), config.getGasPrice());
         assertEquals("Gas limit", new BigInteger(gasLimit), config.getGasLimit());
+        assertEquals("Payment channel state provider type", Enum.valueOf(Configuration.PaymentChannelStateProviderType.class, paymentChannelStateProviderType), config.getPaymentChannelStateProviderType());
+        assertEquals("Block number cache max age", Long.parseLong(blockNumberCacheMaxAgeMillis), config.getBlockNumberCacheMaxAgeMillis());
+        assertEquals("Block number polling period", Long.parseLong(blockNumberPollingPeriodMillis), config.getBlockNumberPollingPeriodMillis());
+        assertEquals("Payment channel index directory", Paths.get(paymentChannelIndexDirectory), config.getPaymentChannelIndexDirectory().get());
+        assertEquals("Async payment", Boolean.valueOf(asyncPayment), config.isAsyncPayment());
+        assertEquals("Payment presigning buffer size", Integer.valueOf(paymentPresigningBufferSize).intValue(), config.getPaymentPresigningBufferSize());
+        assertEquals("Metrics type", Configuration.MetricsType.IN_MEMORY, config.getMetricsType());
+        assertEquals("Metadata cache TTL", Long.valueOf(metadataCacheTtlMillis).longValue(), config.getMetadataCacheTtlMillis());
+        assertEquals("Metadata disk cache directory", Paths.get(metadataDiskCacheDirectory), config.getMetadataDiskCacheDirectory().get());
+        assertEquals("Metadata disk cache max size", Long.valueOf(metadataDiskCacheMaxSizeBytes).longValue(), config.getMetadataDiskCacheMaxSizeBytes());
+        assertEquals("Async bootstrap", Boolean.valueOf(asyncBootstrap), config.isAsyncBootstrap());
     }
 
     @Test
@@ -108,5 +175,16 @@ public class ConfigurationUtilsTest {
         assertEquals("MultiPartyEscrow address", Optional.empty(), config.getMultiPartyEscrowAddress());
         assertEquals("Gas price", Configuration.DEFAULT_GAS_PRICE, config.getGasPrice());
         assertEquals("Gas limit", Configuration.DEFAULT_GAS_LIMIT, config.getGasLimit());
+        assertEquals("Payment channel state provider type", Configuration.DEFAULT_PAYMENT_CHANNEL_STATE_PROVIDER_TYPE, config.getPaymentChannelStateProviderType());
+        assertEquals("Block number cache max age", Configuration.DEFAULT_BLOCK_NUMBER_CACHE_MAX_AGE_MILLIS, config.getBlockNumberCacheMaxAgeMillis());
+        assertEquals("Block number polling period", Configuration.DEFAULT_BLOCK_NUMBER_POLLING_PERIOD_MILLIS, config.getBlockNumberPollingPeriodMillis());
+        assertEquals("Payment channel index directory", Optional.empty(), config.getPaymentChannelIndexDirectory());
+        assertEquals("Async payment", false, config.isAsyncPayment());
+        assertEquals("Payment presigning buffer size", Configuration.DEFAULT_PAYMENT_PRESIGNING_BUFFER_SIZE, config.getPaymentPresigningBufferSize());
+        assertEquals("Metrics type", Configuration.DEFAULT_METRICS_TYPE, config.getMetricsType());
+        assertEquals("Metadata cache TTL", Configuration.DEFAULT_METADATA_CACHE_TTL_MILLIS, config.getMetadataCacheTtlMillis());
+        assertEquals("Metadata disk cache directory", Optional.empty(), config.getMetadataDiskCacheDirectory());
+        assertEquals("Metadata disk cache max size", Configuration.DEFAULT_METADATA_DISK_CACHE_MAX_SIZE_BYTES, config.getMetadataDiskCacheMaxSizeBytes());
+        assertEquals("Async bootstrap", false, config.isAsyncBootstrap());
     }
 }
@@ -4,13 +4,26 @@ import org.junit.*;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import io.grpc.CallOptions;
 import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.StatusRuntimeException;
 import java.net.URL;
+import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.concurrent.CountDownLatch;
 
 import io.singularitynet.sdk.common.Utils;
 import io.singularitynet.sdk.registry.EndpointGroup;
 import io.singularitynet.sdk.registry.MetadataProvider;
+import io.singularitynet.sdk.registry.ServiceMetadata;
+import io.singularitynet.sdk.test.Input;
+import io.singularitynet.sdk.test.TestServer;
+import io.singularitynet.sdk.test.TestServiceGrpc;
 
 public class BaseDaemonConnectionTest {
 
@@ -64,4 +77,173 @@ public class BaseDaemonConnectionTest {
         assertTrue("Channels received must be equal", channels[0] == channels[1]);
     }
 
+    @Test
+    public void channelToEachEndpointIsOpenedWhenSeveralEndpointsSelected() {
+        EndpointGroup group = EndpointGroup.newBuilder()
+            .setGroupName("default_group")
+            .addEndpoint(Utils.strToUrl("http://localhost:12345"))
+            .addEndpoint(Utils.strToUrl("http://localhost:12346"))
+            .build();
+        MetadataProvider metadataProvider = mock(MetadataProvider.class);
+        when(metadataProvider.getServiceMetadata()).thenReturn(ServiceMetadata.newBuilder()
+                .addEndpointGroup(group)
+                .build());
+        BaseDaemonConnection connection = new BaseDaemonConnection(
+                new LoadBalancingEndpointSelector("default_group"),
+                GrpcSettings.DEFAULT, metadataProvider);
+
+        ManagedChannel channel = connection.getManagedChannel();
+
+        assertTrue("Load balancing channel is used", channel instanceof LoadBalancingChannel);
+        assertEquals("Endpoints", group.getEndpoints(), ((LoadBalancingChannel) channel)
+                .getEndpoints().stream().map(Endpoint::getUrl).collect(Collectors.toList()));
+        assertEquals("Endpoint group", group, connection.getEndpoint().getGroup());
+        connection.shutdownNow();
+    }
+
+    @Test
+    public void failoverToNextEndpointWhenCallsFail() {
+        TestServer failed = TestServer.startWithoutDaemon();
+        URL failedUrl = failed.getEndpoint();
+        failed.shutdownNow();
+        TestServer working = TestServer.startWithoutDaemon();
+        EndpointGroup group = EndpointGroup.newBuilder()
+            .setGroupName("default_group")
+            .addEndpoint(failedUrl)
+            .addEndpoint(working.getEndpoint())
+            .build();
+        Iterator<URL> urls = Arrays.asList(failedUrl, working.getEndpoint()).iterator();
+        EndpointSelector selector = metadataProvider -> {
+            URL url = urls.next();
+            return new Endpoint() {
+                public EndpointGroup getGroup() {
+                    return group;
+                }
+                public URL getUrl() {
+                    return url;
+                }
+            };
+        };
+        BaseDaemonConnection connection = new BaseDaemonConnection(selector,
+                GrpcSettings.DEFAULT, null);
+        connection.setClientCallsInterceptor(new ClientInterceptor() {
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                    MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+                return next.newCall(method, callOptions);
+            }
+        });
+        TestServiceGrpc.TestServiceBlockingStub stub = connection.getGrpcStub(TestServiceGrpc::newBlockingStub);
+        try {
+            int failures = 0;
+            while (connection.getEndpoint().getUrl().equals(failedUrl)) {
+                try {
+                    stub.echo(Input.newBuilder().setInput("ping").build());
+                } catch (StatusRuntimeException e) {
+                    ++failures;
+                }
+                assertTrue("Failover is not happened", failures <= BaseDaemonConnection.FAILOVER_THRESHOLD);
+            }
+
+            stub.echo(Input.newBuilder().setInput("ping").build());
+
+            assertEquals("Endpoint", working.getEndpoint(), connection.getEndpoint().getUrl());
+        } finally {
+            connection.shutdownNow();
+            working.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failoverDoesNotReuseChannelToDeadEndpointFromPool() throws Exception {
+        TestServer dead = TestServer.startWithoutDaemon();
+        URL deadUrl = dead.getEndpoint();
+        dead.shutdownNow();
+        EndpointGroup group = EndpointGroup.newBuilder()
+            .setGroupName("default_group")
+            .addEndpoint(deadUrl)
+            .build();
+        EndpointSelector selector = metadataProvider -> new Endpoint() {
+            public EndpointGroup getGroup() {
+                return group;
+            }
+            public URL getUrl() {
+                return deadUrl;
+            }
+        };
+        ClientInterceptor noop = new ClientInterceptor() {
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                    MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+                return next.newCall(method, callOptions);
+            }
+        };
+        ChannelPool pool = new ChannelPool();
+        BaseDaemonConnection first = new BaseDaemonConnection(selector,
+                GrpcSettings.DEFAULT, null, pool);
+        BaseDaemonConnection second = new BaseDaemonConnection(selector,
+                GrpcSettings.DEFAULT, null, pool);
+        first.setClientCallsInterceptor(noop);
+        second.setClientCallsInterceptor(noop);
+        try {
+            for (BaseDaemonConnection connection : Arrays.asList(first, second)) {
+                TestServiceGrpc.TestServiceBlockingStub stub =
+                    connection.getGrpcStub(TestServiceGrpc::newBlockingStub);
+                for (int i = 0; i < 2 * BaseDaemonConnection.FAILOVER_THRESHOLD; ++i) {
+                    try {
+                        stub.echo(Input.newBuilder().setInput("ping").build());
+                        fail("Call to dead endpoint succeeded");
+                    } catch (StatusRuntimeException e) {
+                    }
+                }
+            }
+
+            assertEquals("Endpoint", deadUrl, first.getEndpoint().getUrl());
+            assertSame("Channel", first.getManagedChannel(), first.getManagedChannel());
+            assertEquals("Channels in pool", 1, pool.size());
+        } finally {
+            first.shutdownNow();
+            second.shutdownNow();
+        }
+
+        assertEquals("Channels in pool after shutdown", 0, pool.size());
+    }
+
+    @Test
+    public void callOptionsAreSetFromGrpcSettings() {
+        TestServer server = TestServer.startWithoutDaemon();
+        EndpointSelector selector = metadataProvider -> new Endpoint() {
+            public EndpointGroup getGroup() {
+                return null;
+            }
+            public URL getUrl() {
+                return server.getEndpoint();
+            }
+        };
+        GrpcSettings settings = GrpcSettings.DEFAULT.toBuilder()
+            .setDefaultDeadlineMillis(10000)
+            .setCompression("gzip")
+            .setKeepAliveTimeMillis(30000)
+            .setFlowControlWindow(4 << 20)
+            .build();
+        BaseDaemonConnection connection = new BaseDaemonConnection(selector,
+                settings, null);
+        CallOptions[] options = new CallOptions[1];
+        connection.setClientCallsInterceptor(new ClientInterceptor() {
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                    MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+                options[0] = callOptions;
+                return next.newCall(method, callOptions);
+            }
+        });
+        try {
+            connection.getGrpcStub(TestServiceGrpc::newBlockingStub)
+                .echo(Input.newBuilder().setInput("ping").build());
+
+            assertNotNull("Deadline", options[0].getDeadline());
+            assertEquals("Compression", "gzip", options[0].getCompressor());
+        } finally {
+            connection.shutdownNow();
+            server.shutdownNow();
+        }
+    }
+
 }
@@ -0,0 +1,86 @@
+package io.singularitynet.sdk.daemon;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import io.grpc.ManagedChannel;
+import java.net.URL;
+
+import io.singularitynet.sdk.common.Utils;
+
+public class ChannelPoolTest {
+
+    private static final URL URL = Utils.strToUrl("http://localhost:12345");
+
+    private final ChannelPool pool = new ChannelPool();
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static ManagedChannel getDelegate(ManagedChannel lease) {
+        return ((ChannelPool.Lease) lease).getDelegate();
+    }
+
+    @Test
+    public void channelIsSharedBetweenLeasesWithSameSettings() {
+        ManagedChannel first = pool.acquire(URL, GrpcSettings.DEFAULT);
+
+        ManagedChannel second = pool.acquire(Utils.strToUrl("http://localhost:12345"),
+                GrpcSettings.DEFAULT.toBuilder().build());
+
+        assertSame("Underlying channel", getDelegate(first), getDelegate(second));
+        assertEquals("Channels in pool", 1, pool.size());
+    }
+
+    @Test
+    public void newChannelIsOpenedForDifferentSettings() {
+        ManagedChannel first = pool.acquire(URL, GrpcSettings.DEFAULT);
+
+        ManagedChannel second = pool.acquire(URL, GrpcSettings.DEFAULT.toBuilder()
+                .setKeepAliveTimeMillis(30000).build());
+
+        assertNotSame("Underlying channel", getDelegate(first), getDelegate(second));
+        assertEquals("Channels in pool", 2, pool.size());
+    }
+
+    @Test
+    public void channelIsClosedWhenLastLeaseIsReleased() {
+        ManagedChannel first = pool.acquire(URL, GrpcSettings.DEFAULT);
+        ManagedChannel second = pool.acquire(URL, GrpcSettings.DEFAULT);
+        ManagedChannel channel = getDelegate(first);
+
+        first.shutdownNow();
+        first.shutdownNow();
+
+        assertTrue("Lease is shut down", first.isShutdown());
+        assertFalse("Channel is shut down after first lease release", channel.isShutdown());
+
+        second.shutdown();
+
+        assertTrue("Channel is shut down after last lease release", channel.isShutdown());
+        assertEquals("Channels in pool", 0, pool.size());
+    }
+
+    @Test
+    public void newChannelIsOpenedAfterAllLeasesAreReleased() {
+        ManagedChannel first = pool.acquire(URL, GrpcSettings.DEFAULT);
+        first.shutdownNow();
+
+        ManagedChannel second = pool.acquire(URL, GrpcSettings.DEFAULT);
+
+        assertNotSame("Underlying channel", getDelegate(first), getDelegate(second));
+        assertFalse("Channel is shut down", second.isShutdown());
+    }
+
+    @Test
+    public void fewChannelsAreOpenedWhenChannelsPerEndpointIsSet() {
+        ManagedChannel lease = pool.acquire(URL, GrpcSettings.DEFAULT.toBuilder()
+                .setChannelsPerEndpoint(3).build());
+
+        assertTrue("Round-robin channel is used",
+                getDelegate(lease) instanceof RoundRobinChannel);
+    }
+
+}
@@ -0,0 +1,193 @@
+package io.singularitynet.sdk.daemon;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import io.grpc.*;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mockito.ArgumentCaptor;
+
+import io.singularitynet.sdk.common.Utils;
+import io.singularitynet.sdk.registry.EndpointGroup;
+
+public class LoadBalancingChannelTest {
+
+    private static final MethodDescriptor<Void, Void> METHOD = MethodDescriptor.<Void, Void>newBuilder()
+        .setType(MethodDescriptor.MethodType.UNARY)
+        .setFullMethodName("example_service.Calculator/add")
+        .setRequestMarshaller(mock(MethodDescriptor.Marshaller.class))
+        .setResponseMarshaller(mock(MethodDescriptor.Marshaller.class))
+        .build();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private ManagedChannel fast;
+    private ManagedChannel slow;
+    private LoadBalancingChannel channel;
+    private TestCall lastCall;
+
+    @Before
+    public void setUp() {
+        fast = newChannelMock();
+        slow = newChannelMock();
+        channel = new LoadBalancingChannel(
+                Arrays.asList(newEndpoint("http://fast:8080"), newEndpoint("http://slow:8080")),
+                Arrays.asList(fast, slow), clock::get);
+    }
+
+    private ManagedChannel newChannelMock() {
+        ManagedChannel channel = mock(ManagedChannel.class);
+        when(channel.newCall(any(), any())).thenAnswer(invocation -> {
+            lastCall = new TestCall(channel);
+            return lastCall;
+        });
+        return channel;
+    }
+
+    private static Endpoint newEndpoint(String url) {
+        return new Endpoint() {
+            public EndpointGroup getGroup() {
+                return null;
+            }
+            public URL getUrl() {
+                return Utils.strToUrl(url);
+            }
+        };
+    }
+
+    private TestCall startCall() {
+        ClientCall<Void, Void> call = channel.newCall(METHOD, CallOptions.DEFAULT);
+        TestCall testCall = lastCall;
+        call.start(new ClientCall.Listener<Void>() {}, new Metadata());
+        return testCall;
+    }
+
+    private ManagedChannel call(long fastLatencyMillis, long slowLatencyMillis) {
+        TestCall call = startCall();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(
+                    call.channel == fast ? fastLatencyMillis : slowLatencyMillis));
+        call.close(Status.OK);
+        return call.channel;
+    }
+
+    @Test
+    public void callsAreSentToFasterEndpoint() {
+        call(10, 100);
+        call(10, 100);
+
+        for (int i = 0; i < 10; ++i) {
+            assertSame("Endpoint selected", fast, call(10, 100));
+        }
+    }
+
+    @Test
+    public void callIsSentToEndpointWithLessOutstandingCalls() {
+        call(10, 10);
+        call(10, 10);
+        ManagedChannel first = startCall().channel;
+
+        ManagedChannel second = startCall().channel;
+
+        assertNotSame("Endpoint selected", first, second);
+    }
+
+    @Test
+    public void slowEndpointIsCheckedAgainAfterDecay() {
+        call(10, 100);
+        call(10, 100);
+
+        boolean slowSelected = false;
+        for (int i = 0; i < 100 && !slowSelected; ++i) {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            slowSelected = call(10, 10) == slow;
+        }
+
+        assertTrue("Slow endpoint is selected again", slowSelected);
+    }
+
+    @Test
+    public void unavailableEndpointIsAvoided() {
+        call(10, 10);
+        call(10, 10);
+        TestCall call = startCall();
+        call.close(Status.UNAVAILABLE);
+
+        for (int i = 0; i < 10; ++i) {
+            assertNotSame("Endpoint selected", call.channel, call(10, 10));
+        }
+    }
+
+    @Test
+    public void stateIsBestStateOfEndpoints() {
+        when(fast.getState(false)).thenReturn(ConnectivityState.TRANSIENT_FAILURE);
+        when(slow.getState(false)).thenReturn(ConnectivityState.CONNECTING);
+
+        assertEquals("State", ConnectivityState.CONNECTING, channel.getState(false));
+    }
+
+    @Test
+    public void listenerIsNotifiedWhenAllEndpointsFail() {
+        when(fast.getState(false)).thenReturn(ConnectivityState.READY);
+        when(slow.getState(false)).thenReturn(ConnectivityState.TRANSIENT_FAILURE);
+        AtomicInteger notifications = new AtomicInteger();
+
+        channel.notifyWhenStateChanged(ConnectivityState.READY, notifications::incrementAndGet);
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(fast).notifyWhenStateChanged(eq(ConnectivityState.READY), captor.capture());
+        when(fast.getState(false)).thenReturn(ConnectivityState.TRANSIENT_FAILURE);
+        captor.getValue().run();
+
+        assertEquals("Notifications", 1, notifications.get());
+        assertEquals("State", ConnectivityState.TRANSIENT_FAILURE, channel.getState(false));
+    }
+
+    @Test
+    public void shutdownNowClosesAllChannels() {
+        channel.shutdownNow();
+
+        verify(fast).shutdownNow();
+        verify(slow).shutdownNow();
+    }
+
+    private static class TestCall extends ClientCall<Void, Void> {
+
+        private final ManagedChannel channel;
+        private ClientCall.Listener<Void> listener;
+
+        public TestCall(ManagedChannel channel) {
+            this.channel = channel;
+        }
+
+        public void close(Status status) {
+            listener.onClose(status, new Metadata());
+        }
+
+        @Override
+        public void start(ClientCall.Listener<Void> listener, Metadata headers) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+        }
+
+        @Override
+        public void halfClose() {
+        }
+
+        @Override
+        public void sendMessage(Void message) {
+        }
+
+    }
+
+}
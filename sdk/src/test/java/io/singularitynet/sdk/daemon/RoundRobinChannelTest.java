@@ -0,0 +1,98 @@
+package io.singularitynet.sdk.daemon;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import io.grpc.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.mockito.ArgumentCaptor;
+
+public class RoundRobinChannelTest {
+
+    private ManagedChannel first;
+    private ManagedChannel second;
+    private RoundRobinChannel channel;
+
+    @Before
+    public void setUp() {
+        first = mock(ManagedChannel.class);
+        second = mock(ManagedChannel.class);
+        channel = new RoundRobinChannel(Arrays.asList(first, second));
+    }
+
+    @Test
+    public void callsAreDistributedInTurn() {
+        for (int i = 0; i < 4; ++i) {
+            channel.newCall(null, CallOptions.DEFAULT);
+        }
+
+        verify(first, times(2)).newCall(null, CallOptions.DEFAULT);
+        verify(second, times(2)).newCall(null, CallOptions.DEFAULT);
+    }
+
+    @Test
+    public void stateIsBestStateOfChannels() {
+        when(first.getState(false)).thenReturn(ConnectivityState.TRANSIENT_FAILURE);
+        when(second.getState(false)).thenReturn(ConnectivityState.READY);
+
+        assertEquals("State", ConnectivityState.READY, channel.getState(false));
+
+        when(second.getState(false)).thenReturn(ConnectivityState.TRANSIENT_FAILURE);
+
+        assertEquals("State", ConnectivityState.TRANSIENT_FAILURE, channel.getState(false));
+    }
+
+    @Test
+    public void callbackIsCalledOnceWhenStateChanged() {
+        when(first.getState(false)).thenReturn(ConnectivityState.READY);
+        when(second.getState(false)).thenReturn(ConnectivityState.READY);
+        AtomicInteger notifications = new AtomicInteger();
+        channel.notifyWhenStateChanged(ConnectivityState.READY, notifications::incrementAndGet);
+        List<Runnable> callbacks = new ArrayList<>();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(first).notifyWhenStateChanged(eq(ConnectivityState.READY), captor.capture());
+        callbacks.add(captor.getValue());
+        verify(second).notifyWhenStateChanged(eq(ConnectivityState.READY), captor.capture());
+        callbacks.add(captor.getValue());
+
+        when(first.getState(false)).thenReturn(ConnectivityState.TRANSIENT_FAILURE);
+        when(second.getState(false)).thenReturn(ConnectivityState.TRANSIENT_FAILURE);
+        callbacks.forEach(Runnable::run);
+
+        assertEquals("Notifications", 1, notifications.get());
+    }
+
+    @Test
+    public void callbacksAreNotAccumulatedOnChannels() {
+        when(first.getState(false)).thenReturn(ConnectivityState.READY);
+        when(second.getState(false)).thenReturn(ConnectivityState.READY);
+        AtomicInteger notifications = new AtomicInteger();
+
+        for (int i = 0; i < 10; ++i) {
+            channel.notifyWhenStateChanged(ConnectivityState.READY, notifications::incrementAndGet);
+        }
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(first).notifyWhenStateChanged(eq(ConnectivityState.READY), captor.capture());
+        when(first.getState(false)).thenReturn(ConnectivityState.IDLE);
+        when(second.getState(false)).thenReturn(ConnectivityState.IDLE);
+        captor.getValue().run();
+        channel.notifyWhenStateChanged(ConnectivityState.IDLE, notifications::incrementAndGet);
+
+        assertEquals("Notifications", 10, notifications.get());
+        verify(first).notifyWhenStateChanged(eq(ConnectivityState.IDLE), any());
+        verify(second, times(1)).notifyWhenStateChanged(any(), any());
+    }
+
+    @Test
+    public void shutdownNowClosesAllChannels() {
+        channel.shutdownNow();
+
+        verify(first).shutdownNow();
+        verify(second).shutdownNow();
+    }
+
+}
@@ -0,0 +1,55 @@
+package io.singularitynet.sdk.ethereum;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+
+public class EthereumTest {
+
+    private Web3j web3j;
+    private final AtomicLong time = new AtomicLong(1000);
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        web3j = mock(Web3j.class);
+        Request<?, EthBlockNumber> request = mock(Request.class);
+        EthBlockNumber response = mock(EthBlockNumber.class);
+        when(response.getBlockNumber()).thenReturn(BigInteger.valueOf(42),
+                BigInteger.valueOf(43));
+        when(request.send()).thenReturn(response);
+        doReturn(request).when(web3j).ethBlockNumber();
+    }
+
+    @Test
+    public void blockNumberIsRequestedEachTimeWhenCacheDisabled() {
+        Ethereum ethereum = new Ethereum(web3j, 0, 0, time::get);
+
+        assertEquals("First block number", BigInteger.valueOf(42), ethereum.getEthBlockNumber());
+        assertEquals("Second block number", BigInteger.valueOf(43), ethereum.getEthBlockNumber());
+        assertEquals("Cache hits", 0, ethereum.getBlockNumberCacheHits());
+        assertEquals("Cache misses", 2, ethereum.getBlockNumberCacheMisses());
+    }
+
+    @Test
+    public void cachedBlockNumberIsReturnedUntilExpired() {
+        Ethereum ethereum = new Ethereum(web3j, 100, 0, time::get);
+
+        assertEquals("First block number", BigInteger.valueOf(42), ethereum.getEthBlockNumber());
+        time.addAndGet(99);
+        assertEquals("Cached block number", BigInteger.valueOf(42), ethereum.getEthBlockNumber());
+        time.addAndGet(1);
+        assertEquals("Updated block number", BigInteger.valueOf(43), ethereum.getEthBlockNumber());
+
+        assertEquals("Cache hits", 1, ethereum.getBlockNumberCacheHits());
+        assertEquals("Cache misses", 2, ethereum.getBlockNumberCacheMisses());
+        verify(web3j, times(2)).ethBlockNumber();
+    }
+
+}
@@ -0,0 +1,55 @@
+package io.singularitynet.sdk.metrics;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class InMemoryMetricsTest {
+
+    private final InMemoryMetrics metrics = new InMemoryMetrics();
+
+    @Test
+    public void operationIsRecorded() {
+        String result = metrics.time("operation", () -> "result");
+
+        assertEquals("Result", "result", result);
+        Histogram histogram = metrics.getHistogram("operation").get();
+        assertEquals("Count", 1, histogram.getCount());
+        assertEquals("Errors", 0, histogram.getErrorCount());
+    }
+
+    @Test
+    public void failedOperationIsRecorded() {
+        try {
+            metrics.time("operation", () -> {
+                throw new IllegalStateException("test");
+            });
+            fail("Exception is expected");
+        } catch (IllegalStateException e) {
+        }
+
+        Histogram histogram = metrics.getHistogram("operation").get();
+        assertEquals("Count", 1, histogram.getCount());
+        assertEquals("Errors", 1, histogram.getErrorCount());
+    }
+
+    @Test
+    public void unknownOperationHasNoHistogram() {
+        assertFalse("Histogram", metrics.getHistogram("operation").isPresent());
+    }
+
+    @Test
+    public void percentileIsUpperBoundOfBucket() {
+        for (int i = 0; i < 99; ++i) {
+            metrics.record("operation", 100, true);
+        }
+        metrics.record("operation", 5000, true);
+
+        Histogram histogram = metrics.getHistogram("operation").get();
+        assertEquals("p50", 127, histogram.getPercentileNanos(0.5));
+        assertEquals("p99", 127, histogram.getPercentileNanos(0.99));
+        assertEquals("p100", 5000, histogram.getPercentileNanos(1.0));
+        assertEquals("Max", 5000, histogram.getMaxNanos());
+        assertEquals("Mean", 149, histogram.getMeanNanos());
+    }
+
+}
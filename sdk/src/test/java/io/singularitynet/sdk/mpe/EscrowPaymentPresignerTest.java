@@ -0,0 +1,108 @@
+package io.singularitynet.sdk.mpe;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.singularitynet.sdk.common.Utils;
+import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.ethereum.PrivateKeyIdentity;
+
+public class EscrowPaymentPresignerTest {
+
+    private final BigInteger price = BigInteger.valueOf(3);
+    private final PaymentChannel channel = PaymentChannel.newBuilder()
+        .setMpeContractAddress(new Address("0xf25186B5081Ff5cE73482AD761DB0eB0d25abfBF"))
+        .setChannelId(BigInteger.valueOf(42))
+        .setNonce(BigInteger.ZERO)
+        .build();
+    private final PrivateKeyIdentity signer = new PrivateKeyIdentity(Utils.base64ToBytes("Bvk3Bf8PnVj6kwE1IrG/gHXUpYO+chDKf4mu1FTilkI="));
+
+    private final AtomicLong clock = new AtomicLong();
+    private final EscrowPaymentPresigner presigner = new EscrowPaymentPresigner(Runnable::run, 3, clock::get);
+
+    @Test
+    public void nextPaymentIsPresigned() {
+        presigner.getPayment(channel, BigInteger.valueOf(13), price, signer);
+
+        EscrowPayment payment = presigner.getPayment(channel, BigInteger.valueOf(16), price, signer);
+
+        assertEquals("Payment", sign(channel, 16), payment);
+        assertEquals("Hits", 1, presigner.getHits());
+        assertEquals("Misses", 1, presigner.getMisses());
+    }
+
+    @Test
+    public void bufferIsRefilled() {
+        for (int amount = 13; amount <= 31; amount += 3) {
+            assertEquals("Payment", sign(channel, amount),
+                    presigner.getPayment(channel, BigInteger.valueOf(amount), price, signer));
+        }
+
+        assertEquals("Hits", 6, presigner.getHits());
+        assertEquals("Misses", 1, presigner.getMisses());
+    }
+
+    @Test
+    public void nonceChangeInvalidatesBuffer() {
+        presigner.getPayment(channel, BigInteger.valueOf(13), price, signer);
+        PaymentChannel newChannel = channel.toBuilder().setNonce(BigInteger.ONE).build();
+
+        EscrowPayment payment = presigner.getPayment(newChannel, BigInteger.valueOf(16), price, signer);
+
+        assertEquals("Payment", sign(newChannel, 16), payment);
+        assertEquals("Hits", 0, presigner.getHits());
+    }
+
+    @Test
+    public void priceChangeInvalidatesBuffer() {
+        presigner.getPayment(channel, BigInteger.valueOf(13), price, signer);
+
+        presigner.getPayment(channel, BigInteger.valueOf(16), BigInteger.ONE, signer);
+        EscrowPayment payment = presigner.getPayment(channel, BigInteger.valueOf(17), BigInteger.ONE, signer);
+
+        assertEquals("Payment", sign(channel, 17), payment);
+        assertEquals("Hits", 1, presigner.getHits());
+        assertEquals("Misses", 2, presigner.getMisses());
+    }
+
+    @Test
+    public void unexpectedAmountRealignsBuffer() {
+        presigner.getPayment(channel, BigInteger.valueOf(13), price, signer);
+
+        presigner.getPayment(channel, BigInteger.valueOf(20), price, signer);
+        EscrowPayment payment = presigner.getPayment(channel, BigInteger.valueOf(23), price, signer);
+
+        assertEquals("Payment", sign(channel, 23), payment);
+        assertEquals("Hits", 1, presigner.getHits());
+        assertEquals("Misses", 2, presigner.getMisses());
+    }
+
+    @Test
+    public void unusedBufferIsEvicted() {
+        PaymentChannel other = channel.toBuilder().setChannelId(BigInteger.valueOf(43)).build();
+        presigner.getPayment(channel, BigInteger.valueOf(13), price, signer);
+        presigner.getPayment(other, BigInteger.valueOf(13), price, signer);
+
+        clock.addAndGet(EscrowPaymentPresigner.EVICTION_TIME_MILLIS);
+        presigner.getPayment(other, BigInteger.valueOf(16), price, signer);
+
+        long misses = presigner.getMisses();
+
+        assertEquals("Buffers", 1, presigner.size());
+        assertEquals("Payment after eviction", sign(channel, 16),
+                presigner.getPayment(channel, BigInteger.valueOf(16), price, signer));
+        assertEquals("Misses", misses + 1, presigner.getMisses());
+    }
+
+    private EscrowPayment sign(PaymentChannel channel, long amount) {
+        return EscrowPayment.newBuilder()
+            .setPaymentChannel(channel)
+            .setAmount(BigInteger.valueOf(amount))
+            .setSigner(signer)
+            .build();
+    }
+
+}
@@ -0,0 +1,82 @@
+package io.singularitynet.sdk.mpe;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.registry.PaymentGroupId;
+
+public class FilePaymentChannelIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final PaymentChannelIndex.Key key = new PaymentChannelIndex.Key(
+            new Address("0x5e592F9b1d303183d963635f895f0f0C48284f4e"),
+            new PaymentGroupId(new byte[32]),
+            new Address("0xC4f3BFE7D69461B7f363509393D44357c084404c"));
+
+    private Path directory;
+    private FilePaymentChannelIndex index;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath().resolve("index");
+        index = new FilePaymentChannelIndex(directory);
+    }
+
+    @Test
+    public void readReturnsEmptyEntryWhenNoFile() {
+        assertEquals("Entry", PaymentChannelIndex.Entry.EMPTY, index.read(key));
+    }
+
+    @Test
+    public void readReturnsDataAppended() {
+        index.append(key, Arrays.asList(BigInteger.valueOf(1), BigInteger.valueOf(2)),
+                BigInteger.valueOf(10));
+        index.append(key, Collections.emptyList(), BigInteger.valueOf(12));
+        index.append(key, Arrays.asList(BigInteger.valueOf(3)), BigInteger.valueOf(15));
+
+        PaymentChannelIndex.Entry entry = new FilePaymentChannelIndex(directory).read(key);
+
+        assertEquals("Entry", new PaymentChannelIndex.Entry(
+                    Arrays.asList(BigInteger.valueOf(1), BigInteger.valueOf(2), BigInteger.valueOf(3)),
+                    BigInteger.valueOf(15)), entry);
+    }
+
+    @Test
+    public void incompleteLastLineIsIgnored() throws Exception {
+        index.append(key, Arrays.asList(BigInteger.valueOf(1)), BigInteger.valueOf(10));
+        Path file = Files.list(directory).findFirst().get();
+        Files.write(file, "channel 2".getBytes(UTF_8), StandardOpenOption.APPEND);
+
+        PaymentChannelIndex.Entry entry = index.read(key);
+
+        assertEquals("Entry", new PaymentChannelIndex.Entry(
+                    Arrays.asList(BigInteger.valueOf(1)), BigInteger.valueOf(10)), entry);
+    }
+
+    @Test
+    public void fileIsCompactedOnRead() throws Exception {
+        index.append(key, Arrays.asList(BigInteger.valueOf(1)), BigInteger.valueOf(10));
+        index.append(key, Collections.emptyList(), BigInteger.valueOf(11));
+        index.append(key, Collections.emptyList(), BigInteger.valueOf(12));
+
+        PaymentChannelIndex.Entry entry = index.read(key);
+
+        Path file = Files.list(directory).findFirst().get();
+        assertEquals("Lines", Arrays.asList("channel 1", "block 12"),
+                Files.readAllLines(file, UTF_8));
+        assertEquals("Entry after compaction", entry, index.read(key));
+    }
+
+}
@@ -0,0 +1,96 @@
+package io.singularitynet.sdk.mpe;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigInteger;
+
+import io.singularitynet.sdk.ethereum.Identity;
+
+public class LocalFirstPaymentChannelProviderTest {
+
+    private final BigInteger channelId = BigInteger.valueOf(42);
+    private final PaymentChannel channel = PaymentChannel.newBuilder()
+        .setChannelId(channelId)
+        .setNonce(BigInteger.ZERO)
+        .setValue(BigInteger.valueOf(100))
+        .setExpiration(BigInteger.valueOf(1000))
+        .setSpentAmount(BigInteger.valueOf(10))
+        .build();
+
+    private PaymentChannelStateProvider fallback;
+    private Identity requestor;
+    private LocalFirstPaymentChannelProvider provider;
+
+    @Before
+    public void setUp() {
+        fallback = mock(PaymentChannelStateProvider.class);
+        requestor = mock(Identity.class);
+        when(fallback.getChannelStateById(channelId, requestor)).thenReturn(channel);
+        provider = new LocalFirstPaymentChannelProvider(fallback);
+    }
+
+    @Test
+    public void fallbackIsAskedOnlyOnce() {
+        provider.getChannelStateById(channelId, requestor);
+        PaymentChannel result = provider.getChannelStateById(channelId, requestor);
+
+        assertEquals("Channel state", channel, result);
+        verify(fallback, times(1)).getChannelStateById(channelId, requestor);
+    }
+
+    @Test
+    public void paymentSignedAdvancesSpentAmount() {
+        provider.getChannelStateById(channelId, requestor);
+
+        provider.paymentSigned(channel.toBuilder()
+                .setSpentAmount(BigInteger.valueOf(11)).build());
+        PaymentChannel result = provider.getChannelStateById(channelId, requestor);
+
+        assertEquals("Spent amount", BigInteger.valueOf(11), result.getSpentAmount());
+        verify(fallback, times(1)).getChannelStateById(channelId, requestor);
+    }
+
+    @Test
+    public void outdatedPaymentDoesNotDecreaseSpentAmount() {
+        provider.paymentSigned(channel.toBuilder()
+                .setSpentAmount(BigInteger.valueOf(12)).build());
+
+        provider.paymentSigned(channel.toBuilder()
+                .setSpentAmount(BigInteger.valueOf(11)).build());
+        PaymentChannel result = provider.getChannelStateById(channelId, requestor);
+
+        assertEquals("Spent amount", BigInteger.valueOf(12), result.getSpentAmount());
+    }
+
+    @Test
+    public void newNonceReplacesChannelState() {
+        provider.paymentSigned(channel.toBuilder()
+                .setSpentAmount(BigInteger.valueOf(12)).build());
+        PaymentChannel claimed = channel.toBuilder()
+            .setNonce(BigInteger.ONE)
+            .setValue(BigInteger.valueOf(88))
+            .setSpentAmount(BigInteger.ONE)
+            .build();
+
+        provider.paymentSigned(claimed);
+        PaymentChannel result = provider.getChannelStateById(channelId, requestor);
+
+        assertEquals("Channel state", claimed, result);
+    }
+
+    @Test
+    public void paymentFailedResetsChannelState() {
+        provider.getChannelStateById(channelId, requestor);
+        provider.paymentSigned(channel.toBuilder()
+                .setSpentAmount(BigInteger.valueOf(11)).build());
+
+        provider.paymentFailed(channelId);
+        PaymentChannel result = provider.getChannelStateById(channelId, requestor);
+
+        assertEquals("Channel state", channel, result);
+        verify(fallback, times(2)).getChannelStateById(channelId, requestor);
+    }
+
+}
@@ -0,0 +1,123 @@
+package io.singularitynet.sdk.mpe;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.ethereum.Ethereum;
+import io.singularitynet.sdk.ethereum.WithAddress;
+import io.singularitynet.sdk.registry.PaymentGroupId;
+
+public class MpePaymentChannelManagerTest {
+
+    private final Address sender = new Address("0xC4f3BFE7D69461B7f363509393D44357c084404c");
+    private final Address otherSender = new Address("0x46EF7d49aaA68B29C227442BDbD18356415f8304");
+    private final PaymentGroupId groupId = new PaymentGroupId(new byte[32]);
+
+    private MultiPartyEscrowContract mpe;
+    private Ethereum ethereum;
+    private MpePaymentChannelManager manager;
+
+    @Before
+    public void setUp() {
+        mpe = mock(MultiPartyEscrowContract.class);
+        ethereum = mock(Ethereum.class);
+        manager = new MpePaymentChannelManager(mpe, ethereum);
+    }
+
+    @Test
+    public void channelsAreFilteredByIdentity() {
+        PaymentChannel channel = newChannel(1, sender);
+        PaymentChannel otherChannel = newChannel(2, otherSender);
+        when(ethereum.getEthBlockNumber()).thenReturn(BigInteger.valueOf(10));
+        when(mpe.getChannelOpenEvents(Optional.empty(), Optional.empty(),
+                    Optional.of(groupId), BigInteger.ZERO, BigInteger.valueOf(10)))
+            .thenReturn(Stream.of(channel, otherChannel));
+
+        assertEquals("Channels", Stream.of(channel).collect(Collectors.toList()),
+                manager.getChannelsAccessibleBy(groupId, identity(sender))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void onlyNewBlocksAreScannedOnNextRequest() {
+        PaymentChannel channel = newChannel(1, sender);
+        PaymentChannel newChannel = newChannel(2, sender);
+        when(ethereum.getEthBlockNumber()).thenReturn(BigInteger.valueOf(10),
+                BigInteger.valueOf(15));
+        when(mpe.getChannelOpenEvents(Optional.empty(), Optional.empty(),
+                    Optional.of(groupId), BigInteger.ZERO, BigInteger.valueOf(10)))
+            .thenReturn(Stream.of(channel));
+        when(mpe.getChannelOpenEvents(Optional.empty(), Optional.empty(),
+                    Optional.of(groupId), BigInteger.valueOf(11), BigInteger.valueOf(15)))
+            .thenReturn(Stream.of(newChannel));
+
+        manager.getChannelsAccessibleBy(groupId, identity(sender)).count();
+        long count = manager.getChannelsAccessibleBy(groupId, identity(sender)).count();
+
+        assertEquals("Number of channels", 2, count);
+        verify(mpe, times(2)).getChannelOpenEvents(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void scanIsContinuedFromIndexCheckpoint() {
+        PaymentChannel channel = newChannel(1, sender);
+        PaymentChannel newChannel = newChannel(2, sender);
+        PaymentChannelIndex index = mock(PaymentChannelIndex.class);
+        when(index.read(any())).thenReturn(new PaymentChannelIndex.Entry(
+                    Arrays.asList(channel.getChannelId()), BigInteger.valueOf(10)));
+        when(ethereum.getEthBlockNumber()).thenReturn(BigInteger.valueOf(12));
+        when(mpe.getChannelOpenEvents(Optional.empty(), Optional.empty(),
+                    Optional.of(groupId), BigInteger.valueOf(11), BigInteger.valueOf(12)))
+            .thenReturn(Stream.of(newChannel));
+        manager = new MpePaymentChannelManager(mpe, ethereum, index);
+
+        assertEquals("Channels", Arrays.asList(channel, newChannel),
+                manager.getChannelsAccessibleBy(groupId, identity(sender))
+                .collect(Collectors.toList()));
+        verify(index).append(any(), eq(Arrays.asList(newChannel.getChannelId())),
+                eq(BigInteger.valueOf(12)));
+    }
+
+    @Test
+    public void blockNumberIsRequestedFromContractEthereumByDefault() {
+        PaymentChannel channel = newChannel(1, sender);
+        when(mpe.getEthereum()).thenReturn(ethereum);
+        when(ethereum.getEthBlockNumber()).thenReturn(BigInteger.valueOf(10));
+        when(mpe.getChannelOpenEvents(Optional.empty(), Optional.empty(),
+                    Optional.of(groupId), BigInteger.ZERO, BigInteger.valueOf(10)))
+            .thenReturn(Stream.of(channel));
+        manager = new MpePaymentChannelManager(mpe);
+
+        assertEquals("Channels", Arrays.asList(channel),
+                manager.getChannelsAccessibleBy(groupId, identity(sender))
+                .collect(Collectors.toList()));
+    }
+
+    private PaymentChannel newChannel(long channelId, Address sender) {
+        PaymentChannel channel = PaymentChannel.newBuilder()
+            .setChannelId(BigInteger.valueOf(channelId))
+            .setNonce(BigInteger.ZERO)
+            .setSender(sender)
+            .setSigner(sender)
+            .setPaymentGroupId(groupId)
+            .setValue(BigInteger.ONE)
+            .setExpiration(BigInteger.ONE)
+            .setSpentAmount(BigInteger.ZERO)
+            .build();
+        when(mpe.getChannelById(channel.getChannelId())).thenReturn(Optional.of(channel));
+        return channel;
+    }
+
+    private static WithAddress identity(Address address) {
+        return () -> address;
+    }
+
+}
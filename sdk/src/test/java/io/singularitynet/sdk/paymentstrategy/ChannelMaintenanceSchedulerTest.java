@@ -0,0 +1,189 @@
+package io.singularitynet.sdk.paymentstrategy;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import org.mockito.ArgumentCaptor;
+
+import io.singularitynet.sdk.ethereum.Ethereum;
+import io.singularitynet.sdk.ethereum.Identity;
+import io.singularitynet.sdk.mpe.BlockchainPaymentChannelManager;
+import io.singularitynet.sdk.mpe.LocalFirstPaymentChannelProvider;
+import io.singularitynet.sdk.mpe.PaymentChannel;
+import io.singularitynet.sdk.mpe.PaymentChannelStateProvider;
+import io.singularitynet.sdk.client.Sdk;
+import io.singularitynet.sdk.client.ServiceClient;
+
+public class ChannelMaintenanceSchedulerTest {
+
+    private final BigInteger price = BigInteger.valueOf(2);
+    private final BigInteger expirationThreshold = BigInteger.valueOf(100);
+    private final BigInteger currentBlock = BigInteger.valueOf(1000);
+
+    private Identity signer;
+    private Ethereum ethereum;
+    private BlockchainPaymentChannelManager channelManager;
+    private PaymentChannelStateProvider stateProvider;
+    private ServiceClient serviceClient;
+    private ScheduledExecutorService executor;
+
+    private ChannelMaintenanceScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        signer = mock(Identity.class);
+        channelManager = mock(BlockchainPaymentChannelManager.class);
+        ethereum = mock(Ethereum.class);
+        when(ethereum.getEthBlockNumber()).thenReturn(currentBlock);
+        Sdk sdk = mock(Sdk.class);
+        when(sdk.getIdentity()).thenReturn(signer);
+        when(sdk.getBlockchainPaymentChannelManager()).thenReturn(channelManager);
+        when(sdk.getEthereum()).thenReturn(ethereum);
+        stateProvider = mock(PaymentChannelStateProvider.class);
+        serviceClient = mock(ServiceClient.class);
+        when(serviceClient.getSdk()).thenReturn(sdk);
+        when(serviceClient.getPaymentChannelStateProvider()).thenReturn(stateProvider);
+        executor = mock(ScheduledExecutorService.class);
+
+        scheduler = new ChannelMaintenanceScheduler(2, 10, 50, 5, 0, executor);
+    }
+
+    @Test
+    public void channelWithLowBalanceIsFunded() {
+        PaymentChannel channel = newChannel(3, 2000);
+
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+        runScheduledTask();
+
+        verify(channelManager).addFundsToChannel(channel, BigInteger.valueOf(10));
+    }
+
+    @Test
+    public void channelExpiringSoonIsExtended() {
+        PaymentChannel channel = newChannel(10, 1110);
+
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+        runScheduledTask();
+
+        verify(channelManager).extendChannel(channel, BigInteger.valueOf(150));
+    }
+
+    @Test
+    public void channelWithLowBalanceExpiringSoonIsFundedAndExtended() {
+        PaymentChannel channel = newChannel(3, 1110);
+
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+        runScheduledTask();
+
+        verify(channelManager).extendAndAddFundsToChannel(channel,
+                BigInteger.valueOf(150), BigInteger.valueOf(10));
+    }
+
+    @Test
+    public void healthyChannelIsNotUpdated() {
+        PaymentChannel channel = newChannel(10, 2000);
+
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+
+        verify(executor, never()).execute(any());
+        assertFalse("Pending update", scheduler.getPendingUpdate(channel.getChannelId()).isPresent());
+    }
+
+    @Test
+    public void blockNumberIsNotRequestedOnWatch() {
+        PaymentChannel channel = newChannel(10, 2000);
+
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+
+        verify(ethereum, never()).getEthBlockNumber();
+    }
+
+    @Test
+    public void channelIsUpdatedOnceAtTime() {
+        PaymentChannel channel = newChannel(3, 2000);
+        PaymentChannel funded = channel.toBuilder().setValue(BigInteger.valueOf(13)).build();
+        when(channelManager.addFundsToChannel(channel, BigInteger.valueOf(10))).thenReturn(funded);
+
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+        assertTrue("Pending update", scheduler.getPendingUpdate(channel.getChannelId()).isPresent());
+        runScheduledTask();
+
+        assertFalse("Pending update", scheduler.getPendingUpdate(channel.getChannelId()).isPresent());
+        verify(channelManager, times(1)).addFundsToChannel(any(), any());
+    }
+
+    @Test
+    public void channelIsNotUpdatedAgainAfterTopUp() {
+        PaymentChannel channel = newChannel(3, 2000);
+        PaymentChannel funded = channel.toBuilder().setValue(BigInteger.valueOf(13)).build();
+        when(channelManager.addFundsToChannel(channel, BigInteger.valueOf(10))).thenReturn(funded);
+        PaymentChannelStateProvider fallback = stateProvider;
+        stateProvider = new LocalFirstPaymentChannelProvider(fallback);
+        when(serviceClient.getPaymentChannelStateProvider()).thenReturn(stateProvider);
+        scheduler = new ChannelMaintenanceScheduler(2, 10, 50, 5, 1000, executor);
+        ArgumentCaptor<Runnable> checkAll = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleWithFixedDelay(checkAll.capture(), anyLong(), anyLong(), any());
+        scheduler.watch(serviceClient, stateProvider.getChannelStateById(
+                    channel.getChannelId(), signer), currentBlock, price, expirationThreshold);
+        runScheduledTask();
+
+        scheduler.watch(serviceClient, stateProvider.getChannelStateById(
+                    channel.getChannelId(), signer), currentBlock, price, expirationThreshold);
+        checkAll.getValue().run();
+
+        verify(channelManager, times(1)).addFundsToChannel(any(), any());
+        verify(executor, times(1)).execute(any());
+    }
+
+    @Test
+    public void valueIsReadFromBlockchainBeforeUpdate() {
+        PaymentChannel channel = newChannel(3, 2000);
+        when(channelManager.getChannelById(channel.getChannelId()))
+            .thenReturn(Optional.of(channel.toBuilder().setValue(BigInteger.valueOf(13)).build()));
+
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+        runScheduledTask();
+
+        verify(channelManager, never()).addFundsToChannel(any(), any());
+    }
+
+    @Test
+    public void channelIsFundedWhenBlockchainStateIsUnknown() {
+        PaymentChannel channel = newChannel(3, 2000);
+        when(channelManager.getChannelById(channel.getChannelId()))
+            .thenReturn(Optional.empty());
+
+        scheduler.watch(serviceClient, channel, currentBlock, price, expirationThreshold);
+        runScheduledTask();
+
+        verify(channelManager).addFundsToChannel(channel, BigInteger.valueOf(10));
+    }
+
+    private void runScheduledTask() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).execute(task.capture());
+        task.getValue().run();
+    }
+
+    private PaymentChannel newChannel(long balance, long expiration) {
+        PaymentChannel channel = PaymentChannel.newBuilder()
+            .setChannelId(BigInteger.valueOf(42))
+            .setNonce(BigInteger.ZERO)
+            .setValue(BigInteger.valueOf(balance))
+            .setSpentAmount(BigInteger.ZERO)
+            .setExpiration(BigInteger.valueOf(expiration))
+            .build();
+        when(stateProvider.getChannelStateById(channel.getChannelId(), signer))
+            .thenReturn(channel);
+        when(channelManager.getChannelById(channel.getChannelId()))
+            .thenReturn(Optional.of(channel));
+        return channel;
+    }
+
+}
@@ -0,0 +1,271 @@
+package io.singularitynet.sdk.paymentstrategy;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import io.grpc.Status;
+
+import io.singularitynet.sdk.ethereum.Address;
+import io.singularitynet.sdk.ethereum.Ethereum;
+import io.singularitynet.sdk.ethereum.Identity;
+import io.singularitynet.sdk.registry.*;
+import io.singularitynet.sdk.mpe.BlockchainPaymentChannelManager;
+import io.singularitynet.sdk.mpe.EscrowPayment;
+import io.singularitynet.sdk.mpe.PaymentChannel;
+import io.singularitynet.sdk.mpe.PaymentChannelStateProvider;
+import io.singularitynet.sdk.client.Sdk;
+import io.singularitynet.sdk.client.ServiceClient;
+
+public class MultiChannelPaymentStrategyTest {
+
+    private final Address address = new Address("0xC4f3BFE7D69461B7f363509393D44357c084404c");
+    private final PaymentGroupId groupId = new PaymentGroupId(new byte[32]);
+    private final BigInteger price = BigInteger.valueOf(2);
+
+    private Identity signer;
+    private BlockchainPaymentChannelManager channelManager;
+    private PaymentChannelStateProvider stateProvider;
+    private ServiceClient serviceClient;
+
+    private MultiChannelPaymentStrategy strategy;
+
+    @Before
+    public void setUp() {
+        MetadataProvider metadataProvider = mock(MetadataProvider.class);
+        when(metadataProvider.getServiceMetadata())
+            .thenReturn(ServiceMetadata.newBuilder()
+                    .addEndpointGroup(EndpointGroup.newBuilder()
+                        .setGroupName("default_group")
+                        .setPaymentGroupId(groupId)
+                        .addPricing(Pricing.newBuilder()
+                            .setPriceModel(PriceModel.FIXED_PRICE)
+                            .setPriceInCogs(price)
+                            .build())
+                        .build())
+                    .build());
+        when(metadataProvider.getOrganizationMetadata())
+            .thenReturn(OrganizationMetadata.newBuilder()
+                    .addPaymentGroup(PaymentGroup.newBuilder()
+                        .setGroupName("default_group")
+                        .setPaymentGroupId(groupId)
+                        .setPaymentDetails(PaymentDetails.newBuilder()
+                            .setPaymentAddress(address)
+                            .setPaymentExpirationThreshold(BigInteger.valueOf(100))
+                            .build())
+                        .build())
+                    .build());
+
+        signer = mock(Identity.class);
+        channelManager = mock(BlockchainPaymentChannelManager.class);
+        when(channelManager.getChannelsAccessibleBy(any(), any()))
+            .thenReturn(Stream.empty());
+        Ethereum ethereum = mock(Ethereum.class);
+        when(ethereum.getEthBlockNumber()).thenReturn(BigInteger.valueOf(1000));
+        Sdk sdk = mock(Sdk.class);
+        when(sdk.getIdentity()).thenReturn(signer);
+        when(sdk.getBlockchainPaymentChannelManager()).thenReturn(channelManager);
+        when(sdk.getEthereum()).thenReturn(ethereum);
+        stateProvider = mock(PaymentChannelStateProvider.class);
+
+        serviceClient = mock(ServiceClient.class);
+        when(serviceClient.getSdk()).thenReturn(sdk);
+        when(serviceClient.getMetadataProvider()).thenReturn(metadataProvider);
+        when(serviceClient.getEndpointGroupName()).thenReturn("default_group");
+        when(serviceClient.getPaymentChannelStateProvider()).thenReturn(stateProvider);
+
+        strategy = new MultiChannelPaymentStrategy(2, 1, 10, 5);
+    }
+
+    @Test
+    public void channelIsOpenedWhenPoolIsEmpty() {
+        PaymentChannel channel = newChannel(1);
+        when(channelManager.openPaymentChannel(any(), eq(signer),
+                    eq(BigInteger.valueOf(10)), eq(BigInteger.valueOf(110))))
+            .thenReturn(channel);
+
+        assertEquals("Channel selected", channel, strategy.selectChannel(serviceClient));
+    }
+
+    @Test
+    public void newChannelIsOpenedWhenAllChannelsAreBusy() {
+        PaymentChannel first = newChannel(1);
+        PaymentChannel second = newChannel(2);
+        when(channelManager.openPaymentChannel(any(), any(), any(), any()))
+            .thenReturn(first, second);
+
+        strategy.selectChannel(serviceClient);
+        PaymentChannel selected = strategy.selectChannel(serviceClient);
+
+        assertEquals("Channel selected", second, selected);
+        verify(channelManager, times(2)).openPaymentChannel(any(), any(), any(), any());
+    }
+
+    @Test
+    public void leastBusyChannelIsSelectedWhenPoolIsFull() {
+        PaymentChannel first = newChannel(1);
+        PaymentChannel second = newChannel(2);
+        when(channelManager.openPaymentChannel(any(), any(), any(), any()))
+            .thenReturn(first, second);
+        strategy.selectChannel(serviceClient);
+        strategy.selectChannel(serviceClient);
+        strategy.callCompleted(newPayment(second), Status.OK);
+
+        PaymentChannel selected = strategy.selectChannel(serviceClient);
+
+        assertEquals("Channel selected", second, selected);
+        verify(channelManager, times(2)).openPaymentChannel(any(), any(), any(), any());
+    }
+
+    @Test
+    public void channelIsReusedAfterCallCompleted() {
+        PaymentChannel channel = newChannel(1);
+        when(channelManager.openPaymentChannel(any(), any(), any(), any()))
+            .thenReturn(channel);
+        strategy.selectChannel(serviceClient);
+        strategy.callCompleted(newPayment(channel), Status.OK);
+
+        PaymentChannel selected = strategy.selectChannel(serviceClient);
+
+        assertEquals("Channel selected", channel, selected);
+        verify(channelManager, times(1)).openPaymentChannel(any(), any(), any(), any());
+    }
+
+    @Test
+    public void channelWithoutFundsIsFunded() {
+        PaymentChannel channel = newChannel(1);
+        PaymentChannel spent = channel.toBuilder()
+            .setSpentAmount(channel.getValue())
+            .build();
+        PaymentChannel funded = spent.toBuilder()
+            .setValue(channel.getValue().add(BigInteger.valueOf(10)))
+            .build();
+        when(channelManager.getChannelsAccessibleBy(any(), any()))
+            .thenReturn(Stream.of(channel));
+        when(stateProvider.getChannelStateById(channel.getChannelId(), signer))
+            .thenReturn(spent);
+        when(channelManager.addFundsToChannel(spent, BigInteger.valueOf(10)))
+            .thenReturn(funded);
+
+        PaymentChannel selected = strategy.selectChannel(serviceClient);
+
+        assertEquals("Channel selected", funded, selected);
+    }
+
+    @Test
+    public void channelIsFundedWhenCallsInProgressSpentItsValue() {
+        // state provider which doesn't track payments signed like
+        // AskDaemonFirstPaymentChannelProvider: daemon doesn't know about
+        // calls in progress
+        AtomicReference<PaymentChannel> blockchain = new AtomicReference<>(newChannel(1));
+        when(channelManager.getChannelsAccessibleBy(any(), any()))
+            .thenReturn(Stream.of(blockchain.get()));
+        when(stateProvider.getChannelStateById(BigInteger.valueOf(1), signer))
+            .thenAnswer(invocation -> blockchain.get());
+        when(channelManager.addFundsToChannel(any(), eq(BigInteger.valueOf(10))))
+            .thenAnswer(invocation -> blockchain.updateAndGet(channel -> channel.toBuilder()
+                        .setValue(channel.getValue().add(BigInteger.valueOf(10)))
+                        .build()));
+        strategy = new MultiChannelPaymentStrategy(1, 100, 10, 5);
+
+        Set<BigInteger> amounts = new HashSet<>();
+        for (int i = 0; i < 8; ++i) {
+            amounts.add(((EscrowPayment) strategy.getPayment(null, serviceClient)).getAmount());
+        }
+
+        assertEquals("Unique amounts", 8, amounts.size());
+        assertEquals("Maximum amount", BigInteger.valueOf(16), Collections.max(amounts));
+        assertEquals("Channel value", BigInteger.valueOf(20), blockchain.get().getValue());
+        verify(channelManager, times(1)).addFundsToChannel(any(), any());
+    }
+
+    @Test
+    public void channelIsReleasedWhenPaymentFails() {
+        PaymentChannel channel = newChannel(1);
+        when(channelManager.openPaymentChannel(any(), any(), any(), any()))
+            .thenReturn(channel);
+        when(serviceClient.getSdk().getPaymentPresigner())
+            .thenThrow(new RuntimeException("Presigner failed"));
+        try {
+            strategy.getPayment(null, serviceClient);
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+        }
+
+        PaymentChannel selected = strategy.selectChannel(serviceClient);
+
+        assertEquals("Channel selected", channel.getChannelId(), selected.getChannelId());
+        verify(channelManager, times(1)).openPaymentChannel(any(), any(), any(), any());
+    }
+
+    @Test
+    public void concurrentCallsAreSpreadBetweenChannels() throws Exception {
+        PaymentChannel first = newChannel(1);
+        PaymentChannel second = newChannel(2);
+        when(channelManager.getChannelsAccessibleBy(any(), any()))
+            .thenReturn(Stream.of(first, second));
+        Map<BigInteger, AtomicInteger> selected = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 50; ++j) {
+                    selected.computeIfAbsent(strategy.selectChannel(serviceClient).getChannelId(),
+                            id -> new AtomicInteger()).incrementAndGet();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals("Calls on first channel", 200, selected.get(first.getChannelId()).get());
+        assertEquals("Calls on second channel", 200, selected.get(second.getChannelId()).get());
+    }
+
+    private PaymentChannel newChannel(long channelId) {
+        PaymentChannel channel = PaymentChannel.newBuilder()
+            .setChannelId(BigInteger.valueOf(channelId))
+            .setMpeContractAddress(address)
+            .setNonce(BigInteger.ZERO)
+            .setSender(address)
+            .setSigner(address)
+            .setRecipient(address)
+            .setPaymentGroupId(groupId)
+            .setValue(BigInteger.valueOf(10))
+            .setExpiration(BigInteger.valueOf(2000))
+            .setSpentAmount(BigInteger.ZERO)
+            .build();
+        when(stateProvider.getChannelStateById(channel.getChannelId(), signer))
+            .thenReturn(channel);
+        return channel;
+    }
+
+    private EscrowPayment newPayment(PaymentChannel channel) {
+        EscrowPayment payment = mock(EscrowPayment.class);
+        when(payment.getChannelId()).thenReturn(channel.getChannelId());
+        return payment;
+    }
+
+}
@@ -0,0 +1,170 @@
+package io.singularitynet.sdk.paymentstrategy;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.singularitynet.sdk.mpe.PaymentChannel;
+
+public class PaymentAmountAllocatorTest {
+
+    private final BigInteger price = BigInteger.valueOf(3);
+    private final PaymentChannel channel = PaymentChannel.newBuilder()
+        .setChannelId(BigInteger.valueOf(42))
+        .setNonce(BigInteger.ZERO)
+        .setValue(BigInteger.valueOf(1000000))
+        .setSpentAmount(BigInteger.valueOf(10))
+        .build();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final PaymentAmountAllocator allocator = new PaymentAmountAllocator(clock::get);
+
+    @Test
+    public void sameChannelStateGivesIncreasingAmounts() {
+        assertEquals("First amount", Optional.of(BigInteger.valueOf(13)), allocator.allocate(channel, price));
+        assertEquals("Second amount", Optional.of(BigInteger.valueOf(16)), allocator.allocate(channel, price));
+    }
+
+    @Test
+    public void newerSpentAmountIsUsed() {
+        allocator.allocate(channel, price);
+
+        Optional<BigInteger> amount = allocator.allocate(channel.toBuilder()
+                .setSpentAmount(BigInteger.valueOf(20)).build(), price);
+
+        assertEquals("Amount", Optional.of(BigInteger.valueOf(23)), amount);
+    }
+
+    @Test
+    public void newNonceResetsAllocation() {
+        allocator.allocate(channel, price);
+        allocator.allocate(channel, price);
+
+        Optional<BigInteger> amount = allocator.allocate(channel.toBuilder()
+                .setNonce(BigInteger.ONE)
+                .setSpentAmount(BigInteger.ZERO).build(), price);
+
+        assertEquals("Amount", Optional.of(price), amount);
+    }
+
+    @Test
+    public void allocationForOlderNonceIsRefused() {
+        allocator.allocate(channel.toBuilder().setNonce(BigInteger.ONE).build(), price);
+
+        Optional<BigInteger> amount = allocator.allocate(channel, price);
+
+        assertEquals("Amount", Optional.empty(), amount);
+    }
+
+    @Test
+    public void allocationExceedingChannelValueIsRefused() {
+        PaymentChannel small = channel.toBuilder().setValue(BigInteger.valueOf(16)).build();
+        allocator.allocate(small, price);
+        allocator.allocate(small, price);
+
+        Optional<BigInteger> amount = allocator.allocate(small, price);
+
+        assertEquals("Amount", Optional.empty(), amount);
+        assertEquals("Allocated", Optional.of(BigInteger.valueOf(16)), allocator.getAllocated(small));
+    }
+
+    @Test
+    public void allocationIsContinuedAfterFundsAdded() {
+        PaymentChannel small = channel.toBuilder().setValue(BigInteger.valueOf(13)).build();
+        allocator.allocate(small, price);
+
+        Optional<BigInteger> amount = allocator.allocate(small.toBuilder()
+                .setValue(BigInteger.valueOf(100)).build(), price);
+
+        assertEquals("Amount", Optional.of(BigInteger.valueOf(16)), amount);
+    }
+
+    @Test
+    public void concurrentCallsGetUniqueAmounts() throws Exception {
+        int threads = 8;
+        int callsPerThread = 1000;
+        Set<BigInteger> amounts = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(threads, callsPerThread,
+                () -> allocator.allocate(channel, price).ifPresent(amounts::add));
+
+        assertEquals("Number of unique amounts", threads * callsPerThread, amounts.size());
+        BigInteger last = channel.getSpentAmount()
+            .add(price.multiply(BigInteger.valueOf(threads * callsPerThread)));
+        assertTrue("Last amount allocated", amounts.contains(last));
+    }
+
+    @Test
+    public void concurrentCallsDontExceedChannelValue() throws Exception {
+        int calls = 100;
+        PaymentChannel small = channel.toBuilder()
+            .setValue(channel.getSpentAmount().add(price.multiply(BigInteger.valueOf(calls))))
+            .build();
+        Set<BigInteger> amounts = ConcurrentHashMap.newKeySet();
+        AtomicInteger refused = new AtomicInteger();
+
+        runConcurrently(8, 1000, () -> {
+            Optional<BigInteger> amount = allocator.allocate(small, price);
+            if (amount.isPresent()) {
+                amounts.add(amount.get());
+            } else {
+                refused.incrementAndGet();
+            }
+        });
+
+        assertEquals("Number of unique amounts", calls, amounts.size());
+        assertEquals("Number of refused allocations", 8 * 1000 - calls, refused.get());
+        assertTrue("Amounts don't exceed channel value", amounts.stream()
+                .allMatch(amount -> amount.compareTo(small.getValue()) <= 0));
+    }
+
+    @Test
+    public void unusedAllocationIsEvicted() {
+        PaymentChannel other = channel.toBuilder().setChannelId(BigInteger.ONE).build();
+        allocator.allocate(channel, price);
+        allocator.allocate(other, price);
+
+        clock.addAndGet(PaymentAmountAllocator.EVICTION_TIME_MILLIS);
+        allocator.allocate(other, price);
+
+        assertEquals("Allocations", 1, allocator.size());
+        assertEquals("Allocated", Optional.empty(), allocator.getAllocated(channel));
+        assertEquals("Amount after eviction", Optional.of(BigInteger.valueOf(13)),
+                allocator.allocate(channel, price));
+    }
+
+    private static void runConcurrently(int threads, int callsPerThread,
+            Runnable call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; ++i) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < callsPerThread; ++j) {
+                    call.run();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+}
@@ -4,8 +4,15 @@ import org.junit.*;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class CachingMetadataProviderTest {
 
+    private final AtomicLong time = new AtomicLong(1000);
+    private final List<Runnable> tasks = new ArrayList<>();
+
     @Test
     public void getOrganizationMetadataOnce() {
         OrganizationMetadata orgMetadata = mock(OrganizationMetadata.class);
@@ -42,4 +49,48 @@ public class CachingMetadataProviderTest {
         verify(original, times(1)).getServiceMetadata();
     }
 
+    @Test
+    public void previousMetadataIsReturnedWhileReloading() {
+        ServiceMetadata first = mock(ServiceMetadata.class);
+        ServiceMetadata second = mock(ServiceMetadata.class);
+        MetadataProvider original = mock(MetadataProvider.class);
+        when(original.getServiceMetadata()).thenReturn(first, second);
+        CachingMetadataProvider provider = new CachingMetadataProvider(
+                original, 100, tasks::add, time::get);
+
+        time.addAndGet(99);
+        assertEquals("Metadata before TTL expired", first, provider.getServiceMetadata());
+        assertEquals("Reload tasks before TTL expired", 0, tasks.size());
+
+        time.addAndGet(1);
+        assertEquals("Metadata while reloading", first, provider.getServiceMetadata());
+        assertEquals("Metadata while reloading", first, provider.getServiceMetadata());
+        assertEquals("Reload tasks", 1, tasks.size());
+
+        tasks.get(0).run();
+        assertEquals("Reloaded metadata", second, provider.getServiceMetadata());
+        verify(original, times(2)).getServiceMetadata();
+    }
+
+    @Test
+    public void lastLoadedMetadataIsKeptWhenReloadFails() {
+        OrganizationMetadata orgMetadata = mock(OrganizationMetadata.class);
+        MetadataProvider original = mock(MetadataProvider.class);
+        when(original.getOrganizationMetadata())
+            .thenReturn(orgMetadata)
+            .thenThrow(new RuntimeException("IPFS is not available"));
+        CachingMetadataProvider provider = new CachingMetadataProvider(
+                original, 100, tasks::add, time::get);
+
+        time.addAndGet(100);
+        provider.getOrganizationMetadata();
+        tasks.remove(0).run();
+
+        assertEquals("Metadata after failed reload", orgMetadata, provider.getOrganizationMetadata());
+        assertEquals("Reload tasks before retry delay", 0, tasks.size());
+        time.addAndGet(10);
+        provider.getOrganizationMetadata();
+        assertEquals("Reload tasks after retry delay", 1, tasks.size());
+    }
+
 }
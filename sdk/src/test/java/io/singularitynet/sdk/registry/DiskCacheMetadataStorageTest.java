@@ -0,0 +1,163 @@
+package io.singularitynet.sdk.registry;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import io.singularitynet.sdk.common.Utils;
+
+public class DiskCacheMetadataStorageTest {
+
+    private static final URI FIRST_URI = Utils.strToUri("ipfs://QmV4HtrgRwUVHCyDBvkeXFPPCsgweWA86uCj328wZq5Y2q");
+    private static final URI SECOND_URI = Utils.strToUri("ipfs://QmPKvg2rMmACYJsVQfAa4uLB5rVV7fXF3xuet95Zinxct9");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private MetadataStorage delegate;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath().resolve("cache");
+        // content missed is read using default getStream implementation
+        delegate = mock(MetadataStorage.class, CALLS_REAL_METHODS);
+        when(delegate.get(FIRST_URI)).thenReturn(randomBytes(100));
+        when(delegate.get(SECOND_URI)).thenReturn(randomBytes(100));
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void contentIsReadFromDiskAfterRestart() {
+        byte[] expected = new DiskCacheMetadataStorage(delegate, directory).get(FIRST_URI);
+
+        byte[] actual = new DiskCacheMetadataStorage(delegate, directory).get(FIRST_URI);
+
+        assertArrayEquals("Content", expected, actual);
+        verify(delegate, times(1)).get(FIRST_URI);
+    }
+
+    @Test
+    public void largeContentIsReadFromDisk() {
+        int size = 2 * 1024 * 1024;
+        when(delegate.get(FIRST_URI)).thenReturn(randomBytes(size));
+        DiskCacheMetadataStorage storage = new DiskCacheMetadataStorage(delegate, directory);
+        storage.get(FIRST_URI);
+
+        byte[] content = storage.get(FIRST_URI);
+
+        assertArrayEquals("Content", randomBytes(size), content);
+        verify(delegate, times(1)).get(FIRST_URI);
+    }
+
+    @Test
+    public void leastRecentlyUsedContentIsEvicted() {
+        URI thirdUri = Utils.strToUri("ipfs://QmYwAPJzv5CZsnA625s3Xf2nemtYgPpHdWEz79ojWnPbdG");
+        when(delegate.get(thirdUri)).thenReturn(randomBytes(100));
+        DiskCacheMetadataStorage storage = new DiskCacheMetadataStorage(delegate, directory, 250);
+        storage.get(FIRST_URI);
+        storage.get(SECOND_URI);
+        storage.get(FIRST_URI);
+
+        storage.get(thirdUri);
+        storage.get(FIRST_URI);
+        storage.get(SECOND_URI);
+
+        verify(delegate, times(1)).get(FIRST_URI);
+        verify(delegate, times(2)).get(SECOND_URI);
+    }
+
+    @Test
+    public void fileRemovedExternallyIsLoadedAgain() throws Exception {
+        DiskCacheMetadataStorage storage = new DiskCacheMetadataStorage(delegate, directory);
+        storage.get(FIRST_URI);
+        Files.delete(directory.resolve(FIRST_URI.getAuthority()));
+
+        byte[] content = storage.get(FIRST_URI);
+
+        assertArrayEquals("Content", randomBytes(100), content);
+        verify(delegate, times(2)).get(FIRST_URI);
+    }
+
+    @Test
+    public void streamReadCompletelyIsCached() throws Exception {
+        doAnswer(invocation -> new ByteArrayInputStream(randomBytes(100)))
+            .when(delegate).getStream(FIRST_URI);
+        DiskCacheMetadataStorage storage = new DiskCacheMetadataStorage(delegate, directory);
+        try (InputStream stream = storage.getStream(FIRST_URI)) {
+            while (stream.read() >= 0) {
+            }
+        }
+
+        byte[] content = storage.get(FIRST_URI);
+
+        assertArrayEquals("Content", randomBytes(100), content);
+        verify(delegate, times(1)).getStream(FIRST_URI);
+    }
+
+    @Test
+    public void streamReadPartiallyIsNotCached() throws Exception {
+        doAnswer(invocation -> new ByteArrayInputStream(randomBytes(100)))
+            .when(delegate).getStream(FIRST_URI);
+        DiskCacheMetadataStorage storage = new DiskCacheMetadataStorage(delegate, directory);
+        try (InputStream stream = storage.getStream(FIRST_URI)) {
+            stream.read(new byte[10]);
+        }
+
+        storage.get(FIRST_URI);
+
+        verify(delegate, times(2)).getStream(FIRST_URI);
+        assertEquals("Files in cache", 1, Files.list(directory).count());
+    }
+
+    @Test
+    public void contentNotMatchingHashIsNotCached() throws Exception {
+        doAnswer(invocation -> new FilterInputStream(new ByteArrayInputStream(randomBytes(100))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n < 0) {
+                    throw new IOException("IPFS content hash mismatch");
+                }
+                return n;
+            }
+        }).when(delegate).getStream(FIRST_URI);
+        DiskCacheMetadataStorage storage = new DiskCacheMetadataStorage(delegate, directory);
+
+        try {
+            storage.get(FIRST_URI);
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+        }
+
+        assertEquals("Files in cache", 0, Files.list(directory).count());
+    }
+
+    @Test
+    public void temporaryFilesAreRemovedOnOpen() throws Exception {
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(FIRST_URI.getAuthority() + "123.tmp"), randomBytes(10));
+
+        new DiskCacheMetadataStorage(delegate, directory).get(SECOND_URI);
+
+        assertEquals("Files in cache", Arrays.asList(directory.resolve(SECOND_URI.getAuthority())),
+                Arrays.asList(Files.list(directory).toArray()));
+    }
+
+}
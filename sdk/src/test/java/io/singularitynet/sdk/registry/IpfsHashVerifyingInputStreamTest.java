@@ -0,0 +1,215 @@
+package io.singularitynet.sdk.registry;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import com.google.protobuf.CodedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import io.ipfs.multihash.Multihash;
+
+import io.singularitynet.sdk.common.Utils;
+
+public class IpfsHashVerifyingInputStreamTest {
+
+    private static final String EMPTY_FILE_HASH = "QmbFMke1KXqnYyBBWxB74N4c5SBnJMVAiMNRcGu6x1AwQH";
+    private static final String HELLO_WORLD_HASH = "QmT78zSuBmuS4z925WZfrqQ1qHaJ56DQaTfyMUF7F8ff5o";
+    private static final byte[] HELLO_WORLD_BLOCK = Utils.wrapExceptions(() -> {
+        ByteArrayOutputStream unixfs = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(unixfs);
+        out.writeEnum(1, 2);
+        out.writeByteArray(2, Utils.strToBytes("hello world\n"));
+        out.writeUInt64(3, 12);
+        out.flush();
+        return node(null, unixfs.toByteArray());
+    });
+
+    // content of the generated files is (i % 251) for the byte at position i
+    private static final long ONE_MIB_FILE_SIZE = 1024 * 1024;
+    private static final String ONE_MIB_FILE_HASH = "QmXgkY4miMKJBrg8YYke4xw6C2n8WNsUc1GXLhN84k4QM3";
+    private static final long TWO_LEVELS_FILE_SIZE = 174L * 256 * 1024 + 100000;
+    private static final String TWO_LEVELS_FILE_HASH = "QmNYh9fMG9r8dPz4kszCrqtjyzkTBrA6tntiDZaRvSabhf";
+
+    private static final IpfsHashVerifyingInputStream.BlockReader NO_BLOCKS = hash -> {
+        throw new IOException("Block is not found: " + hash);
+    };
+
+    private static InputStream newStream(String content, String hash) {
+        return newStream(content, Multihash.fromBase58(hash), NO_BLOCKS);
+    }
+
+    private static InputStream newStream(String content, Multihash hash,
+            IpfsHashVerifyingInputStream.BlockReader blocks) {
+        return new IpfsHashVerifyingInputStream(
+                new ByteArrayInputStream(Utils.strToBytes(content)), hash, blocks);
+    }
+
+    private static InputStream newGeneratedStream(long size, long modifiedByte, String hash) {
+        InputStream content = new InputStream() {
+            private long pos = 0;
+            @Override
+            public int read() {
+                if (pos >= size) {
+                    return -1;
+                }
+                int b = (int) (pos % 251);
+                return pos++ == modifiedByte ? b ^ 1 : b;
+            }
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (pos >= size) {
+                    return -1;
+                }
+                int n = (int) Math.min(len, size - pos);
+                for (int i = 0; i < n; ++i) {
+                    b[off + i] = (byte) read();
+                }
+                return n;
+            }
+        };
+        return new IpfsHashVerifyingInputStream(content,
+                Multihash.fromBase58(hash), NO_BLOCKS);
+    }
+
+    private static void readAll(InputStream stream) throws IOException {
+        byte[] buffer = new byte[3];
+        while (stream.read(buffer) >= 0) {
+        }
+    }
+
+    private static void readAllFast(InputStream stream) throws IOException {
+        byte[] buffer = new byte[100000];
+        while (stream.read(buffer) >= 0) {
+        }
+    }
+
+    private static byte[] node(byte[] link, byte[] unixfs) throws IOException {
+        ByteArrayOutputStream node = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(node);
+        if (link != null) {
+            out.writeByteArray(2, link);
+        }
+        out.writeByteArray(1, unixfs);
+        out.flush();
+        return node.toByteArray();
+    }
+
+    private static Multihash hash(byte[] block) {
+        return new Multihash(Multihash.Type.sha2_256, Utils.wrapExceptions(
+                    () -> MessageDigest.getInstance("SHA-256").digest(block)));
+    }
+
+    // root of the file with a single raw leaf as "ipfs add --trickle --raw-leaves" does
+    private static byte[] rawLeafRootBlock(String content) throws IOException {
+        byte[] data = Utils.strToBytes(content);
+        ByteArrayOutputStream cid = new ByteArrayOutputStream();
+        cid.write(new byte[] { 0x01, 0x55 });
+        cid.write(hash(data).toBytes());
+        ByteArrayOutputStream link = new ByteArrayOutputStream();
+        CodedOutputStream linkOut = CodedOutputStream.newInstance(link);
+        linkOut.writeByteArray(1, cid.toByteArray());
+        linkOut.writeString(2, "");
+        linkOut.writeUInt64(3, data.length);
+        linkOut.flush();
+        ByteArrayOutputStream unixfs = new ByteArrayOutputStream();
+        CodedOutputStream unixfsOut = CodedOutputStream.newInstance(unixfs);
+        unixfsOut.writeEnum(1, 2);
+        unixfsOut.writeUInt64(3, data.length);
+        unixfsOut.writeUInt64(4, data.length);
+        unixfsOut.flush();
+        return node(link.toByteArray(), unixfs.toByteArray());
+    }
+
+    private static void assertHashMismatch(ThrowingRunnable read) {
+        try {
+            read.run();
+            fail("Exception expected");
+        } catch (IOException e) {
+            assertTrue("Hash mismatch error",
+                    e.getMessage().startsWith("IPFS content hash mismatch"));
+        }
+    }
+
+    private static interface ThrowingRunnable {
+        void run() throws IOException;
+    }
+
+    @Test
+    public void emptyContentIsVerified() throws IOException {
+        readAll(newStream("", EMPTY_FILE_HASH));
+    }
+
+    @Test
+    public void contentIsVerified() throws IOException {
+        readAll(newStream("hello world\n", HELLO_WORLD_HASH));
+    }
+
+    @Test
+    public void skippedContentIsVerified() throws IOException {
+        InputStream stream = newStream("hello world\n", HELLO_WORLD_HASH);
+
+        assertEquals("Bytes skipped", 12, stream.skip(100));
+        assertEquals("End of stream", -1, stream.read());
+    }
+
+    @Test
+    public void throwExceptionOnHashMismatch() throws IOException {
+        assertHashMismatch(() -> readAll(newStream("hello world!\n", HELLO_WORLD_HASH)));
+    }
+
+    @Test
+    public void multiChunkContentIsVerified() throws IOException {
+        readAllFast(newGeneratedStream(ONE_MIB_FILE_SIZE, -1, ONE_MIB_FILE_HASH));
+    }
+
+    @Test
+    public void contentOfTwoLevelsDagIsVerified() throws IOException {
+        readAllFast(newGeneratedStream(TWO_LEVELS_FILE_SIZE, -1, TWO_LEVELS_FILE_HASH));
+    }
+
+    @Test
+    public void throwExceptionOnMultiChunkContentModified() throws IOException {
+        assertHashMismatch(() -> readAllFast(newGeneratedStream(
+                        ONE_MIB_FILE_SIZE, 300000, ONE_MIB_FILE_HASH)));
+    }
+
+    @Test
+    public void throwExceptionOnContentOfSameLayoutModified() throws IOException {
+        assertHashMismatch(() -> readAll(newStream("hello_world\n",
+                        Multihash.fromBase58(HELLO_WORLD_HASH),
+                        hash -> HELLO_WORLD_BLOCK)));
+    }
+
+    @Test
+    public void contentOfOtherLayoutIsNotVerified() throws IOException {
+        byte[] root = rawLeafRootBlock("hello world\n");
+
+        readAll(newStream("hello world\n", hash(root), hash -> root));
+    }
+
+    @Test
+    public void throwExceptionOnContentOfOtherLayoutWithDifferentSize() throws IOException {
+        byte[] root = rawLeafRootBlock("hello world\n");
+
+        assertHashMismatch(() -> readAll(newStream("hello world!\n", hash(root), hash -> root)));
+    }
+
+    @Test
+    public void throwExceptionWhenRootBlockDoesNotMatchHash() throws IOException {
+        byte[] root = rawLeafRootBlock("hello world\n");
+
+        assertHashMismatch(() -> readAll(newStream("hello_world\n",
+                        Multihash.fromBase58(HELLO_WORLD_HASH), hash -> root)));
+    }
+
+    @Test
+    public void cidV0HashIsSupported() {
+        assertTrue("CIDv0", IpfsHashVerifyingInputStream.isSupported(HELLO_WORLD_HASH));
+        assertFalse("CIDv1", IpfsHashVerifyingInputStream.isSupported(
+                    "bafybeigdyrzt5sfp7udm7hu76uh7y26nf3efuylqabf3oclgtqy55fbzdi"));
+    }
+
+}
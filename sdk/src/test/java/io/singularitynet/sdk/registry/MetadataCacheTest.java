@@ -0,0 +1,158 @@
+package io.singularitynet.sdk.registry;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.singularitynet.sdk.common.Utils;
+
+public class MetadataCacheTest {
+
+    private static final URI ORG_METADATA_URI = Utils.strToUri("ipfs://org");
+
+    private RegistryContract registry;
+    private MetadataStorage storage;
+    private MetadataCache cache;
+
+    @Before
+    public void setUp() {
+        registry = mock(RegistryContract.class);
+        storage = mock(MetadataStorage.class);
+        cache = new MetadataCache(registry, storage, 0, Runnable::run);
+
+        when(registry.getOrganizationById("test-org"))
+            .thenReturn(Optional.of(OrganizationRegistration.newBuilder()
+                        .setOrgId("test-org")
+                        .setMetadataUri(ORG_METADATA_URI)
+                        .build()));
+        when(storage.get(ORG_METADATA_URI))
+            .thenReturn(Utils.strToBytes("{ \"org_id\": \"test-org\" }"));
+        addService("first-service");
+        addService("second-service");
+    }
+
+    private void addService(String serviceId) {
+        URI uri = Utils.strToUri("ipfs://" + serviceId);
+        when(registry.getServiceRegistrationById("test-org", serviceId))
+            .thenReturn(Optional.of(ServiceRegistration.newBuilder()
+                        .setServiceId(serviceId)
+                        .setMetadataUri(uri)
+                        .build()));
+        when(storage.get(uri))
+            .thenReturn(Utils.strToBytes("{ \"display_name\": \"" + serviceId + "\" }"));
+    }
+
+    @Test
+    public void organizationMetadataIsSharedByServices() {
+        MetadataProvider first = cache.getMetadataProvider("test-org", "first-service");
+        MetadataProvider second = cache.getMetadataProvider("test-org", "second-service");
+
+        assertSame("Organization metadata", first.getOrganizationMetadata(),
+                second.getOrganizationMetadata());
+        assertEquals("First service", "first-service",
+                first.getServiceMetadata().getDisplayName());
+        assertEquals("Second service", "second-service",
+                second.getServiceMetadata().getDisplayName());
+        verify(registry, times(1)).getOrganizationById("test-org");
+        verify(storage, times(1)).get(ORG_METADATA_URI);
+    }
+
+    @Test
+    public void serviceMetadataIsLoadedOnce() {
+        cache.getMetadataProvider("test-org", "first-service");
+        cache.getMetadataProvider("test-org", "first-service");
+
+        verify(registry, times(1)).getServiceRegistrationById("test-org", "first-service");
+    }
+
+    @Test
+    public void concurrentRequestsWaitForSingleLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        MetadataStorage blockingStorage = uri -> {
+            if (ORG_METADATA_URI.equals(uri)) {
+                loads.incrementAndGet();
+                loading.countDown();
+                Utils.wrapExceptions(() -> release.await(10, TimeUnit.SECONDS));
+            }
+            return storage.get(uri);
+        };
+        MetadataCache cache = new MetadataCache(registry, blockingStorage, 0, Runnable::run);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MetadataProvider> first = executor.submit(
+                    () -> cache.getMetadataProvider("test-org", "first-service"));
+            loading.await(10, TimeUnit.SECONDS);
+            Future<MetadataProvider> second = executor.submit(
+                    () -> cache.getMetadataProvider("test-org", "second-service"));
+            release.countDown();
+
+            assertSame("Organization metadata",
+                    first.get(10, TimeUnit.SECONDS).getOrganizationMetadata(),
+                    second.get(10, TimeUnit.SECONDS).getOrganizationMetadata());
+            assertEquals("Number of organization metadata loads", 1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void organizationAndServiceMetadataAreLoadedConcurrently() throws Exception {
+        URI serviceUri = Utils.strToUri("ipfs://first-service");
+        CountDownLatch serviceLoading = new CountDownLatch(1);
+        AtomicBoolean concurrent = new AtomicBoolean();
+        MetadataStorage concurrentStorage = uri -> {
+            if (serviceUri.equals(uri)) {
+                serviceLoading.countDown();
+            } else if (ORG_METADATA_URI.equals(uri)) {
+                concurrent.set(Utils.wrapExceptions(() -> serviceLoading.await(10, TimeUnit.SECONDS)));
+            }
+            return storage.get(uri);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            MetadataCache cache = new MetadataCache(registry, concurrentStorage, 0, executor);
+
+            MetadataProvider provider = cache.getMetadataProviderAsync("test-org", "first-service")
+                .get(10, TimeUnit.SECONDS);
+
+            assertTrue("Service metadata is loaded while organization metadata is loading", concurrent.get());
+            assertEquals("Service", "first-service",
+                    provider.getServiceMetadata().getDisplayName());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedLoadIsRetried() {
+        when(registry.getOrganizationById("failed-org"))
+            .thenThrow(new IllegalStateException("Ethereum is not available"))
+            .thenReturn(Optional.empty());
+
+        try {
+            cache.getMetadataProvider("failed-org", "first-service");
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            assertEquals("Ethereum is not available", e.getMessage());
+        }
+        try {
+            cache.getMetadataProvider("failed-org", "first-service");
+            fail("Exception expected");
+        } catch (RegistryMetadataProvider.NotFoundException e) {
+        }
+        verify(registry, times(2)).getOrganizationById("failed-org");
+    }
+
+}
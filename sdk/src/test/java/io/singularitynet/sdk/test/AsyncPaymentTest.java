@@ -0,0 +1,111 @@
+package io.singularitynet.sdk.test;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import io.singularitynet.sdk.registry.*;
+import io.singularitynet.sdk.mpe.*;
+import io.singularitynet.sdk.client.*;
+import io.singularitynet.sdk.ethereum.*;
+import io.singularitynet.sdk.payment.Payment;
+import io.singularitynet.sdk.paymentstrategy.FixedPaymentChannelPaymentStrategy;
+
+public class AsyncPaymentTest {
+
+    private Environment env;
+
+    private String orgId;
+    private String serviceId;
+    private EndpointGroup endpointGroup;
+    private BigInteger price;
+    private PaymentChannel paymentChannel;
+
+    private Sdk sdk;
+    private ServiceClient serviceClient;
+
+    @Before
+    public void setUp() throws Exception {
+        env = Environment.env();
+
+        orgId = "test-org-id";
+        env.newOrganizationMetadata(orgId);
+        env.registerOrganization(orgId);
+
+        serviceId = "test-service-id";
+        ServiceMetadata.Builder service = env.newServiceMetadata(serviceId, orgId);
+        price = BigInteger.valueOf(11);
+        endpointGroup = env.newEndpointGroup(orgId)
+            .clearPricing()
+            .addPricing(env.newPricing().setPriceInCogs(price).build())
+            .build();
+        service.clearEndpointGroups().addEndpointGroup(endpointGroup);
+        env.registerService(orgId, serviceId);
+
+        Identity signer = env.newIdentity();
+
+        paymentChannel = env.newPaymentChannel(endpointGroup.getPaymentGroupId(), signer).build();
+        env.daemon().setChannelStateIsAbsent(paymentChannel);
+
+        env.updateMocks();
+
+        sdk = new Sdk(env.web3j(), env.ipfs().get(), signer,
+                env.registry().get(), env.mpe().get(),
+                Configuration.newBuilder().setAsyncPayment(true).build());
+    }
+
+    @After
+    public void tearDown() {
+        if (serviceClient != null) {
+            serviceClient.close();
+        }
+        sdk.close();
+        env.server().shutdownNow();
+    }
+
+    @Test
+    public void futureStubCallIsPaid() throws Exception {
+        serviceClient = sdk.newServiceClient(orgId, serviceId,
+                endpointGroup.getGroupName(),
+                new FixedPaymentChannelPaymentStrategy(paymentChannel.getChannelId()));
+        TestServiceGrpc.TestServiceFutureStub stub =
+            serviceClient.getGrpcStub(TestServiceGrpc::newFutureStub);
+
+        Output output = stub.echo(Input.newBuilder().setInput("ping").build())
+            .get(10, TimeUnit.SECONDS);
+
+        assertEquals("Result returned", Output.newBuilder().setOutput("ping").build(), output);
+        EscrowPayment expectedPayment = env.newEscrowPayment(paymentChannel).setAmount(price).build();
+        assertEquals("Payment received by daemon", expectedPayment, env.daemon().getPayments().get(0));
+    }
+
+    @Test
+    public void invalidPaymentClosesCallWithInternalStatus() {
+        serviceClient = sdk.newServiceClient(orgId, serviceId,
+                endpointGroup.getGroupName(), new PaymentStrategy() {
+                    @Override
+                    public <ReqT, RespT> Payment getPayment(
+                            GrpcCallParameters<ReqT, RespT> parameters,
+                            ServiceClient serviceClient) {
+                        return Payment.INVALID_PAYMENT;
+                    }
+                });
+        TestServiceGrpc.TestServiceBlockingStub stub =
+            serviceClient.getGrpcStub(TestServiceGrpc::newBlockingStub);
+
+        try {
+            stub.echo(Input.newBuilder().setInput("ping").build());
+            fail("Call should fail");
+        } catch (StatusRuntimeException e) {
+            assertEquals("Status code", Status.Code.INTERNAL, e.getStatus().getCode());
+            assertEquals("Status description", "No payment returned by PaymentStrategy",
+                    e.getStatus().getDescription());
+        }
+        assertEquals("Number of payments received by daemon", 0, env.daemon().getPayments().size());
+    }
+
+}
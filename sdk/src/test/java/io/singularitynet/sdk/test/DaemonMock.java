@@ -1,12 +1,13 @@
 package io.singularitynet.sdk.test;
 
 import java.util.Map;
-import java.util.HashMap;
 import java.math.BigInteger;
 import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import io.grpc.*;
 import io.grpc.stub.StreamObserver;
 import com.google.protobuf.ByteString;
@@ -15,6 +16,7 @@ import io.singularitynet.daemon.escrow.*;
 import io.singularitynet.sdk.common.Utils;
 import io.singularitynet.sdk.payment.Payment;
 import io.singularitynet.sdk.payment.PaymentSerializer;
+import io.singularitynet.sdk.mpe.EscrowPayment;
 import io.singularitynet.sdk.mpe.PaymentChannel;
 import io.singularitynet.sdk.mpe.PaymentChannelStateReply;
 
@@ -22,7 +24,9 @@ public class DaemonMock extends PaymentChannelStateServiceGrpc.PaymentChannelSta
     implements ServerInterceptor {
 
     private final List<Payment> payments = Collections.synchronizedList(new ArrayList<>());
-    private final Map<BigInteger, StateService.ChannelStateReply> channelStates = new HashMap<>();
+    private final Map<BigInteger, StateService.ChannelStateReply> channelStates = new ConcurrentHashMap<>();
+    private final AtomicLong rejectedPayments = new AtomicLong();
+    private volatile boolean validatePayments;
 
     @Override
     public <ReqT,RespT> ServerCall.Listener<ReqT> interceptCall(
@@ -30,6 +34,14 @@ public class DaemonMock extends PaymentChannelStateServiceGrpc.PaymentChannelSta
             ServerCallHandler<ReqT,RespT> next) {
         Optional<Payment> payment = PaymentSerializer.fromMetadata(headers);
         if (payment.isPresent()) {
+            Optional<String> error = validatePayments
+                ? validate(payment.get())
+                : Optional.empty();
+            if (error.isPresent()) {
+                rejectedPayments.incrementAndGet();
+                call.close(Status.UNAUTHENTICATED.withDescription(error.get()), new Metadata());
+                return new ServerCall.Listener<ReqT>() {};
+            }
             payments.add(payment.get());
         }
         return next.startCall(call, headers);
@@ -39,6 +51,47 @@ public class DaemonMock extends PaymentChannelStateServiceGrpc.PaymentChannelSta
         return payments;
     }
 
+    /**
+     * Enable checking that escrow payments have the current channel nonce
+     * and amounts greater than the last accepted one. Accepted payment
+     * becomes the channel state returned by the daemon.
+     */
+    public void setValidatePayments(boolean validatePayments) {
+        this.validatePayments = validatePayments;
+    }
+
+    public long getRejectedPayments() {
+        return rejectedPayments.get();
+    }
+
+    private synchronized Optional<String> validate(Payment payment) {
+        if (!(payment instanceof EscrowPayment)) {
+            return Optional.empty();
+        }
+        EscrowPayment escrow = (EscrowPayment) payment;
+        StateService.ChannelStateReply state = channelStates.get(escrow.getChannelId());
+        if (state != null) {
+            BigInteger nonce = Utils.bytes32ToBigInt(state.getCurrentNonce().toByteArray());
+            if (!nonce.equals(escrow.getChannelNonce())) {
+                return Optional.of("Incorrect payment channel nonce: " +
+                        escrow.getChannelNonce() + ", expected: " + nonce);
+            }
+            if (!state.getCurrentSignedAmount().isEmpty()) {
+                BigInteger amount = Utils.bytes32ToBigInt(state.getCurrentSignedAmount().toByteArray());
+                if (escrow.getAmount().compareTo(amount) <= 0) {
+                    return Optional.of("Payment amount: " + escrow.getAmount() +
+                            " is not greater than last signed amount: " + amount);
+                }
+            }
+        }
+        channelStates.put(escrow.getChannelId(), StateService.ChannelStateReply.newBuilder()
+                .setCurrentNonce(ByteString.copyFrom(Utils.bigIntToBytes32(escrow.getChannelNonce())))
+                .setCurrentSignedAmount(ByteString.copyFrom(Utils.bigIntToBytes32(escrow.getAmount())))
+                .setCurrentSignature(ByteString.copyFrom(escrow.getSignature().getBytes()))
+                .build());
+        return Optional.empty();
+    }
+
     @Override
     public void getChannelState(StateService.ChannelStateRequest request,
             StreamObserver<StateService.ChannelStateReply> callback) {
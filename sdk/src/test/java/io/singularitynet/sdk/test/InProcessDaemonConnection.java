@@ -0,0 +1,70 @@
+package io.singularitynet.sdk.test;
+
+import java.net.URL;
+import java.util.function.Function;
+import io.grpc.*;
+
+import io.singularitynet.sdk.daemon.DaemonConnection;
+import io.singularitynet.sdk.daemon.Endpoint;
+import io.singularitynet.sdk.registry.EndpointGroup;
+
+/**
+ * Daemon connection which uses channel to the in-process TestServer. As
+ * BaseDaemonConnection it doesn't pass calls of the daemon own services to
+ * the payment interceptor.
+ */
+public class InProcessDaemonConnection implements DaemonConnection {
+
+    private static final String DAEMON_SERVICE_PREFIX = "escrow.";
+
+    private final ManagedChannel channel;
+    private final Endpoint endpoint;
+    private volatile ClientInterceptor interceptor;
+
+    public InProcessDaemonConnection(ManagedChannel channel, EndpointGroup group) {
+        this.channel = channel;
+        this.endpoint = new Endpoint() {
+
+            public EndpointGroup getGroup() {
+                return group;
+            }
+
+            public URL getUrl() {
+                return group.getEndpoints().get(0);
+            }
+
+        };
+    }
+
+    @Override
+    public <T> T getGrpcStub(Function<Channel, T> constructor) {
+        return constructor.apply(ClientInterceptors.intercept(channel, new ClientInterceptor() {
+            @Override
+            public <ReqT,RespT> ClientCall<ReqT,RespT> interceptCall(
+                    MethodDescriptor<ReqT,RespT> method,
+                    CallOptions callOptions, Channel next) {
+                String service = MethodDescriptor.extractFullServiceName(method.getFullMethodName());
+                if (service.startsWith(DAEMON_SERVICE_PREFIX)) {
+                    return next.newCall(method, callOptions);
+                }
+                return interceptor.interceptCall(method, callOptions, next);
+            }
+        }));
+    }
+
+    @Override
+    public void setClientCallsInterceptor(ClientInterceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public void shutdownNow() {
+        channel.shutdownNow();
+    }
+
+}
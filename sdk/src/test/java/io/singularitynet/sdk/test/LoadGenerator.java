@@ -0,0 +1,144 @@
+package io.singularitynet.sdk.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import io.singularitynet.sdk.client.ServiceClient;
+
+/**
+ * Makes paid TestService calls from the number of threads in parallel and
+ * reports throughput, latency percentiles and number of payments rejected
+ * by the daemon.
+ */
+public class LoadGenerator {
+
+    private final int threads;
+    private final int callsPerThread;
+
+    public LoadGenerator(int threads, int callsPerThread) {
+        this.threads = threads;
+        this.callsPerThread = callsPerThread;
+    }
+
+    public Report run(ServiceClient serviceClient) throws InterruptedException {
+        TestServiceGrpc.TestServiceBlockingStub stub =
+            serviceClient.getGrpcStub(TestServiceGrpc::newBlockingStub);
+        Input input = Input.newBuilder().setInput("ping").build();
+
+        long[] latencies = new long[threads * callsPerThread];
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; ++i) {
+            int offset = i * callsPerThread;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < callsPerThread; ++j) {
+                    long callStart = System.nanoTime();
+                    try {
+                        stub.echo(input);
+                    } catch (StatusRuntimeException e) {
+                        if (e.getStatus().getCode() == Status.Code.UNAUTHENTICATED) {
+                            rejected.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                            firstFailure.compareAndSet(null, e);
+                        }
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        firstFailure.compareAndSet(null, e);
+                    }
+                    latencies[offset + j] = System.nanoTime() - callStart;
+                }
+            }, "load-generator-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long durationNanos = System.nanoTime() - startTime;
+
+        return new Report(threads, latencies, durationNanos, rejected.get(),
+                failed.get(), firstFailure.get());
+    }
+
+    public static class Report {
+
+        private final int threads;
+        private final long[] latencies;
+        private final long durationNanos;
+        private final long rejected;
+        private final long failed;
+        private final Throwable firstFailure;
+
+        private Report(int threads, long[] latencies, long durationNanos,
+                long rejected, long failed, Throwable firstFailure) {
+            this.threads = threads;
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+            this.durationNanos = durationNanos;
+            this.rejected = rejected;
+            this.failed = failed;
+            this.firstFailure = firstFailure;
+        }
+
+        public long getCalls() {
+            return latencies.length;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public Throwable getFirstFailure() {
+            return firstFailure;
+        }
+
+        public double getCallsPerSecond() {
+            return getCalls() * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+        }
+
+        public double getPercentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            long nanos = latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("threads: %d, calls: %d, calls/s: %.1f, " +
+                    "latency ms p50: %.3f, p90: %.3f, p99: %.3f, max: %.3f, " +
+                    "rejected: %d, failed: %d",
+                    threads, getCalls(), getCallsPerSecond(),
+                    getPercentileMillis(50), getPercentileMillis(90),
+                    getPercentileMillis(99), getPercentileMillis(100),
+                    rejected, failed);
+        }
+
+    }
+
+}
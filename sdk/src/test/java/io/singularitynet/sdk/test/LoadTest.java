@@ -0,0 +1,175 @@
+package io.singularitynet.sdk.test;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.singularitynet.sdk.registry.*;
+import io.singularitynet.sdk.mpe.*;
+import io.singularitynet.sdk.client.*;
+import io.singularitynet.sdk.daemon.DaemonConnection;
+import io.singularitynet.sdk.ethereum.*;
+import io.singularitynet.sdk.freecall.FreeCallStateService;
+import io.singularitynet.sdk.paymentstrategy.FixedPaymentChannelPaymentStrategy;
+import io.singularitynet.sdk.paymentstrategy.MultiChannelPaymentStrategy;
+import io.singularitynet.sdk.paymentstrategy.OnDemandPaymentChannelPaymentStrategy;
+
+/**
+ * Load test of the paid calls made through the in-process daemon. Number of
+ * threads and calls per thread can be set using load.threads and
+ * load.calls system properties.
+ */
+public class LoadTest {
+
+    private final static Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final int THREADS = Integer.getInteger("load.threads", 4);
+    private static final int CALLS_PER_THREAD = Integer.getInteger("load.calls", 50);
+    private static final int NUMBER_OF_CHANNELS = 3;
+
+    private Environment env;
+    private TestServer server;
+
+    private String orgId;
+    private String serviceId;
+    private EndpointGroup endpointGroup;
+    private List<PaymentChannel> paymentChannels;
+
+    private Sdk sdk;
+    private ServiceClient serviceClient;
+
+    @Before
+    public void setUp() {
+        env = Environment.env();
+
+        orgId = "test-org-id";
+        env.newOrganizationMetadata(orgId);
+        env.registerOrganization(orgId);
+
+        serviceId = "test-service-id";
+        ServiceMetadata.Builder service = env.newServiceMetadata(serviceId, orgId);
+        endpointGroup = env.newEndpointGroup(orgId).build();
+        service.clearEndpointGroups().addEndpointGroup(endpointGroup);
+        env.registerService(orgId, serviceId);
+
+        Identity signer = env.newIdentity();
+        paymentChannels = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_CHANNELS; ++i) {
+            PaymentChannel channel = env.newPaymentChannel(
+                    endpointGroup.getPaymentGroupId(), signer)
+                .setChannelId(BigInteger.valueOf(1000 + i))
+                .setValue(BigInteger.valueOf(Long.MAX_VALUE))
+                .setExpiration(BigInteger.valueOf(Long.MAX_VALUE))
+                .build();
+            env.mpe().addPaymentChannel(channel);
+            env.daemon().setChannelStateIsAbsent(channel);
+            paymentChannels.add(channel);
+        }
+        env.daemon().setValidatePayments(true);
+
+        env.updateMocks();
+
+        server = TestServer.startInProcess(env.daemon());
+        sdk = new OpenedChannelsSdk(env, signer, paymentChannels);
+    }
+
+    @After
+    public void tearDown() {
+        if (serviceClient != null) {
+            serviceClient.close();
+        }
+        sdk.close();
+        server.shutdownNow();
+        env.server().shutdownNow();
+    }
+
+    @Test
+    public void fixedPaymentChannelStrategy() throws Exception {
+        serviceClient = newServiceClient(new FixedPaymentChannelPaymentStrategy(
+                    paymentChannels.get(0).getChannelId()));
+
+        runAndCheck("FixedPaymentChannelPaymentStrategy", THREADS);
+    }
+
+    @Test
+    public void onDemandPaymentChannelStrategy() throws Exception {
+        serviceClient = newServiceClient(new OnDemandPaymentChannelPaymentStrategy(100, 100));
+
+        runAndCheck("OnDemandPaymentChannelPaymentStrategy", THREADS);
+    }
+
+    @Test
+    public void multiChannelStrategy() throws Exception {
+        serviceClient = newServiceClient(new MultiChannelPaymentStrategy(
+                    NUMBER_OF_CHANNELS, 1, 100, 100));
+
+        runAndCheck("MultiChannelPaymentStrategy", THREADS);
+    }
+
+    @Test
+    public void singleThreadPaymentsAreNotRejected() throws Exception {
+        serviceClient = newServiceClient(new FixedPaymentChannelPaymentStrategy(
+                    paymentChannels.get(0).getChannelId()));
+
+        LoadGenerator.Report report = runAndCheck("FixedPaymentChannelPaymentStrategy", 1);
+
+        assertEquals("Number of rejected payments", 0, report.getRejected());
+    }
+
+    private LoadGenerator.Report runAndCheck(String name, int threads) throws Exception {
+        LoadGenerator.Report report = new LoadGenerator(threads, CALLS_PER_THREAD)
+            .run(serviceClient);
+        log.info("{}: {}", name, report);
+
+        assertNull("Unexpected failure", report.getFirstFailure());
+        assertEquals("Number of calls", threads * CALLS_PER_THREAD, report.getCalls());
+        assertEquals("Number of rejected payments", env.daemon().getRejectedPayments(),
+                report.getRejected());
+        assertEquals("Number of accepted payments", report.getCalls() - report.getRejected(),
+                env.daemon().getPayments().size());
+        return report;
+    }
+
+    private ServiceClient newServiceClient(PaymentStrategy paymentStrategy) {
+        DaemonConnection connection = new InProcessDaemonConnection(
+                server.newInProcessChannel(), endpointGroup);
+        MultiPartyEscrowContract mpe = new MultiPartyEscrowContract(
+                env.web3j(), env.mpe().get());
+        return new BaseServiceClient(sdk, serviceId, connection,
+                sdk.getMetadataProvider(orgId, serviceId),
+                new AskDaemonFirstPaymentChannelProvider(mpe, connection, sdk.getEthereum()),
+                new FreeCallStateService(orgId, serviceId, connection, sdk.getEthereum()),
+                paymentStrategy);
+    }
+
+    /**
+     * SDK which returns the channels opened in advance instead of reading
+     * channel open events from the blockchain.
+     */
+    private static class OpenedChannelsSdk extends Sdk {
+
+        private final BlockchainPaymentChannelManager channelManager =
+            mock(BlockchainPaymentChannelManager.class);
+
+        public OpenedChannelsSdk(Environment env, Identity signer,
+                List<PaymentChannel> channels) {
+            super(env.web3j(), env.ipfs().get(), signer, env.registry().get(),
+                    env.mpe().get());
+            when(channelManager.getChannelsAccessibleBy(any(), any()))
+                .thenAnswer(invocation -> channels.stream());
+        }
+
+        @Override
+        public BlockchainPaymentChannelManager getBlockchainPaymentChannelManager() {
+            return channelManager;
+        }
+
+    }
+
+}
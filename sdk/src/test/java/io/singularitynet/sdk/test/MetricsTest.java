@@ -0,0 +1,81 @@
+package io.singularitynet.sdk.test;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+
+import io.singularitynet.sdk.registry.*;
+import io.singularitynet.sdk.mpe.*;
+import io.singularitynet.sdk.client.*;
+import io.singularitynet.sdk.ethereum.*;
+import io.singularitynet.sdk.metrics.InMemoryMetrics;
+import io.singularitynet.sdk.metrics.MetricNames;
+import io.singularitynet.sdk.paymentstrategy.FixedPaymentChannelPaymentStrategy;
+
+public class MetricsTest {
+
+    private Environment env;
+    private InMemoryMetrics metrics;
+    private Sdk sdk;
+    private ServiceClient serviceClient;
+
+    @Before
+    public void setUp() throws Exception {
+        env = Environment.env();
+
+        String orgId = "test-org-id";
+        env.newOrganizationMetadata(orgId);
+        env.registerOrganization(orgId);
+
+        String serviceId = "test-service-id";
+        ServiceMetadata.Builder service = env.newServiceMetadata(serviceId, orgId);
+        EndpointGroup endpointGroup = env.newEndpointGroup(orgId).build();
+        service.clearEndpointGroups().addEndpointGroup(endpointGroup);
+        env.registerService(orgId, serviceId);
+
+        Identity signer = env.newIdentity();
+        PaymentChannel paymentChannel = env.newPaymentChannel(
+                endpointGroup.getPaymentGroupId(), signer).build();
+        env.daemon().setChannelStateIsAbsent(paymentChannel);
+
+        env.updateMocks();
+
+        metrics = new InMemoryMetrics();
+        sdk = new Sdk(env.web3j(), env.ipfs().get(), signer,
+                env.registry().get(), env.mpe().get(),
+                Configuration.newBuilder().build(), metrics);
+        serviceClient = sdk.newServiceClient(orgId, serviceId,
+                endpointGroup.getGroupName(),
+                new FixedPaymentChannelPaymentStrategy(paymentChannel.getChannelId()));
+    }
+
+    @After
+    public void tearDown() {
+        serviceClient.close();
+        sdk.close();
+        env.server().shutdownNow();
+    }
+
+    @Test
+    public void paidCallIsRecorded() {
+        TestServiceGrpc.TestServiceBlockingStub stub =
+            serviceClient.getGrpcStub(TestServiceGrpc::newBlockingStub);
+
+        stub.echo(Input.newBuilder().setInput("ping").build());
+
+        for (String name : new String[] {
+                MetricNames.PAYMENT_STRATEGY_GET_PAYMENT,
+                MetricNames.IDENTITY_SIGN,
+                MetricNames.DAEMON_GET_CHANNEL_STATE,
+                MetricNames.MPE_GET_CHANNEL_BY_ID,
+                MetricNames.REGISTRY_GET_SERVICE,
+                MetricNames.IPFS_GET }) {
+            assertTrue("Operation recorded: " + name,
+                    metrics.getHistogram(name).isPresent());
+        }
+        assertEquals("Number of payments", 1,
+                metrics.getHistogram(MetricNames.PAYMENT_STRATEGY_GET_PAYMENT).get().getCount());
+    }
+
+}
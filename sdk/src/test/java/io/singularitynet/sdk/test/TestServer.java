@@ -2,6 +2,8 @@ package io.singularitynet.sdk.test;
 
 import io.grpc.stub.StreamObserver;
 import io.grpc.*;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
 import java.io.IOException;
 import java.net.URL;
 import java.util.Optional;
@@ -12,10 +14,13 @@ public class TestServer {
 
     private final Server server;
     private final TestService testService;
+    private final Optional<String> inProcessName;
 
-    private TestServer(Server server, TestService testService) {
+    private TestServer(Server server, TestService testService,
+            Optional<String> inProcessName) {
         this.server = server; 
         this.testService = testService;
+        this.inProcessName = inProcessName;
     }
 
     public static TestServer start(DaemonMock daemon) {
@@ -26,12 +31,22 @@ public class TestServer {
         return startInternal(Optional.empty());
     }
 
+    public static TestServer startInProcess(DaemonMock daemon) {
+        String name = InProcessServerBuilder.generateName();
+        return startInternal(InProcessServerBuilder.forName(name),
+                Optional.of(daemon), Optional.of(name));
+    }
+
     private static TestServer startInternal(Optional<DaemonMock> daemon) {
+        return startInternal(ServerBuilder.forPort(RANDOM_AVAILABLE_PORT),
+                daemon, Optional.empty());
+    }
+
+    private static TestServer startInternal(ServerBuilder builder,
+            Optional<DaemonMock> daemon, Optional<String> inProcessName) {
         TestService service = new TestService();
 
-        ServerBuilder builder = ServerBuilder
-            .forPort(RANDOM_AVAILABLE_PORT)
-            .addService(service);
+        builder.addService(service);
         if (daemon.isPresent()) {
             builder.addService(daemon.get()).intercept(daemon.get());
         }
@@ -41,13 +56,20 @@ public class TestServer {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        return new TestServer(server, service);
+        return new TestServer(server, service, inProcessName);
     }
 
     public void shutdownNow() {
         server.shutdownNow();
     }
 
+    public ManagedChannel newInProcessChannel() {
+        return InProcessChannelBuilder
+            .forName(inProcessName.orElseThrow(() ->
+                        new IllegalStateException("Server is not in-process one")))
+            .build();
+    }
+
     public URL getEndpoint() {
         try {
             return new URL("http://localhost:" + String.valueOf(server.getPort()));